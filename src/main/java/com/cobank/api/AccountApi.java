@@ -1,9 +1,11 @@
 package com.cobank.api;
 
+import com.cobank.api.dto.AccountImportResponse;
 import com.cobank.api.dto.CreateAccountRequest;
 import com.cobank.api.dto.CreateAccountResponse;
 import com.cobank.api.dto.ErrorResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -15,6 +17,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+
 public interface AccountApi {
 
     @Operation(summary = "Create a new bank account",
@@ -33,4 +37,21 @@ public interface AccountApi {
     })
     @PostMapping("/accounts")
     ResponseEntity<CreateAccountResponse> createAccount(@Valid @RequestBody CreateAccountRequest request);
+
+    @Operation(summary = "Import bank accounts in bulk",
+            description = "Streams a CSV file (header row with firstName, address, email) or an NDJSON file of account "
+                    + "requests and creates an account for every valid row. Invalid rows and duplicate emails are "
+                    + "reported per line without aborting the import.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import processed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccountImportResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid import file",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping(value = "/accounts/import", consumes = {"text/csv", "application/x-ndjson"})
+    ResponseEntity<AccountImportResponse> importAccounts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body);
 }
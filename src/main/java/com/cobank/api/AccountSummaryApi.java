@@ -0,0 +1,45 @@
+package com.cobank.api;
+
+import com.cobank.api.dto.AccountSummaryResponse;
+import com.cobank.api.dto.ErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDate;
+
+public interface AccountSummaryApi {
+
+    @Operation(summary = "Summarize account activity",
+            description = "Returns deposit and withdrawal totals and the opening and closing balance for a date range.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Summary retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = AccountSummaryResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid date range",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Account not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/accounts/{iban}/summary")
+    ResponseEntity<AccountSummaryResponse> getAccountSummary(
+            @Parameter(description = "IBAN of the account to summarize", required = true, example = "NL00COOP1234567890")
+            @PathVariable String iban,
+            @Parameter(description = "First day of the range (inclusive)", required = true, example = "2024-11-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day of the range (inclusive)", required = true, example = "2024-11-30")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to);
+}
@@ -0,0 +1,162 @@
+package com.cobank.api;
+
+import com.cobank.api.dto.BatchPostingRequest;
+import com.cobank.api.dto.ContendedAccountResponse;
+import com.cobank.api.dto.ErrorResponse;
+import com.cobank.api.dto.HistoryArchiveResponse;
+import com.cobank.api.dto.HistoryIngestResponse;
+import com.cobank.api.dto.JobRunResponse;
+import com.cobank.api.dto.ReadModelRebuildResponse;
+import com.cobank.api.dto.RollupBackfillResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+public interface AdminApi {
+
+    @Operation(summary = "Rebuild the read model",
+            description = "Rebuilds the projected balance and history tables from the transaction history.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Read model rebuilt successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ReadModelRebuildResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/admin/read-model/rebuild")
+    ResponseEntity<ReadModelRebuildResponse> rebuildReadModel();
+
+    @Operation(summary = "Backfill daily rollups",
+            description = "Recomputes the per-account daily rollups of all days before today from the transaction history.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rollups backfilled successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RollupBackfillResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/admin/rollups/backfill")
+    ResponseEntity<RollupBackfillResponse> backfillRollups();
+
+    @Operation(summary = "Start a ledger reconciliation",
+            description = "Verifies account balances against the transaction history in the background. "
+                    + "An unfinished previous run is resumed from its last checkpoint.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Reconciliation started",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JobRunResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/admin/reconciliation")
+    ResponseEntity<JobRunResponse> startReconciliation();
+
+    @Operation(summary = "Start a hash chain verification",
+            description = "Recomputes the hash chain of every account's transaction history in the background and "
+                    + "records rows that were altered, removed or inserted. An unfinished previous run is resumed from "
+                    + "its last checkpoint.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Verification started",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JobRunResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/admin/history-chain/verification")
+    ResponseEntity<JobRunResponse> startHistoryChainVerification();
+
+    @Operation(summary = "Start a batch posting",
+            description = "Posts interest or a fee to all accounts in the background, in parallel account ranges. "
+                    + "A reference is posted at most once, and an unfinished run is resumed from its last checkpoint.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Batch posting started, or the run that already applied it",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JobRunResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid rule, reused reference or another unfinished run",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/admin/batch-postings")
+    ResponseEntity<JobRunResponse> startBatchPosting(
+            @Parameter(description = "Rule to post to all accounts", required = true)
+            @Valid @RequestBody BatchPostingRequest request);
+
+    @Operation(summary = "Get job progress", description = "Returns the status and progress of a background job run.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job run found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JobRunResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Job run not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/admin/jobs/{runId}")
+    ResponseEntity<JobRunResponse> getJobRun(
+            @Parameter(description = "Identifier of the job run", required = true) @PathVariable long runId);
+
+    @Operation(summary = "List contended accounts",
+            description = "Returns the accounts whose postings recently waited longest for their account lock or "
+                    + "were retried most often, most contended first, with the distribution of their lock waits. "
+                    + "Counts are estimates and fade over time.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Contended accounts, possibly none",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ContendedAccountResponse.class))))
+    })
+    @GetMapping("/admin/contention")
+    ResponseEntity<List<ContendedAccountResponse>> getContendedAccounts();
+
+    @Operation(summary = "Archive old transaction history",
+            description = "Moves postings older than the hot window into compressed archive segments. History reads "
+                    + "continue into the archive when a page reaches past the postings that are still hot.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "History archived, or nothing left to archive",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = HistoryArchiveResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/admin/history-archive")
+    ResponseEntity<HistoryArchiveResponse> archiveHistory();
+
+    @Operation(summary = "Ingest legacy transaction history",
+            description = "Loads a legacy history CSV file from the ingest directory and sets the balances of the "
+                    + "ingested accounts from their latest posting. An interrupted ingest resumes after its last "
+                    + "committed chunk.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "History ingested successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = HistoryIngestResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown file or invalid history line",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/admin/ingest/history")
+    ResponseEntity<HistoryIngestResponse> ingestHistory(
+            @Parameter(description = "File name relative to the ingest directory", required = true)
+            @RequestParam String file);
+}
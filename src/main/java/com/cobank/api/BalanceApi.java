@@ -7,19 +7,27 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDateTime;
 
 public interface BalanceApi {
     @Operation(summary = "Fetch account balance",
-            description = "Retrieves the current balance of an account using the IBAN.")
+            description = "Retrieves the current ledger and available balance of an account using the IBAN, or its "
+                    + "balance at a past moment.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Balance retrieved successfully",
                     content = @Content(mediaType = "application/json",
                             schema = @io.swagger.v3.oas.annotations.media.Schema(
                                     implementation = FetchBalanceResponse.class))
             ),
+            @ApiResponse(responseCode = "304", description = "Balance unchanged since the version in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Account not found",
                     content = @Content(mediaType = "application/json",
                             schema = @io.swagger.v3.oas.annotations.media.Schema(
@@ -34,5 +42,10 @@ public interface BalanceApi {
     @GetMapping("/accounts/balance/{iban}")
     ResponseEntity<FetchBalanceResponse> getBalance(
             @Parameter(description = "The IBAN of the account to retrieve the balance for", example = "NL00COOP1234567890")
-            @PathVariable String iban);
+            @PathVariable String iban,
+            @Parameter(description = "Return the balance as it was at this moment instead of the current balance",
+                    example = "2024-11-08T10:30:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf,
+            @Parameter(description = "Entity tag of a previously fetched balance")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
 }
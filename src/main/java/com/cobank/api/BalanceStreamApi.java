@@ -0,0 +1,37 @@
+package com.cobank.api;
+
+import com.cobank.api.dto.BalanceChangeEvent;
+import com.cobank.api.dto.ErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+public interface BalanceStreamApi {
+
+    @Operation(summary = "Stream balance changes",
+            description = "Opens a server-sent event stream that starts with a 'balance' event per IBAN and then "
+                    + "pushes a 'posting' event for every committed transaction. Event ids are '<iban>:<version>'.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = BalanceChangeEvent.class))),
+            @ApiResponse(responseCode = "400", description = "No IBANs or too many IBANs requested",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "This node holds its maximum number of streams")
+    })
+    @GetMapping(value = "/accounts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    ResponseEntity<SseEmitter> streamBalanceChanges(
+            @Parameter(description = "IBANs to subscribe to", required = true, example = "NL00COOP1234567890")
+            @RequestParam("iban") Set<String> ibans);
+}
@@ -0,0 +1,79 @@
+package com.cobank.api;
+
+import com.cobank.api.dto.CaptureHoldRequest;
+import com.cobank.api.dto.ErrorResponse;
+import com.cobank.api.dto.HoldRequest;
+import com.cobank.api.dto.HoldResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+public interface HoldApi {
+
+    @Operation(summary = "Authorize a hold",
+            description = "Reserves an amount of the available balance of an account until the hold is captured, "
+                    + "released or expires.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Hold authorized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = HoldResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request data, insufficient available balance "
+                    + "or withdrawal limit exceeded",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "IBAN not found")
+    })
+    @PostMapping("/holds")
+    ResponseEntity<HoldResponse> authorizeHold(
+            @Parameter(description = "Account, amount and expiry of the hold", required = true)
+            @Valid @RequestBody HoldRequest request);
+
+    @Operation(summary = "Get a hold", description = "Returns the state of a hold.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Hold found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = HoldResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Hold not found")
+    })
+    @GetMapping("/holds/{id}")
+    ResponseEntity<HoldResponse> getHold(
+            @Parameter(description = "Identifier of the hold", required = true) @PathVariable long id);
+
+    @Operation(summary = "Capture a hold",
+            description = "Withdraws the held amount, or part of it, from the account. The rest of the hold is "
+                    + "released.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Hold captured",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = HoldResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Hold no longer active, expired or smaller than the amount",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Hold not found")
+    })
+    @PostMapping("/holds/{id}/capture")
+    ResponseEntity<HoldResponse> captureHold(
+            @Parameter(description = "Identifier of the hold", required = true) @PathVariable long id,
+            @Parameter(description = "Amount and description of the withdrawal, the full hold when empty")
+            @Valid @RequestBody(required = false) CaptureHoldRequest request);
+
+    @Operation(summary = "Release a hold", description = "Returns the held amount to the available balance.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Hold released, or already settled",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = HoldResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Hold not found")
+    })
+    @PostMapping("/holds/{id}/release")
+    ResponseEntity<HoldResponse> releaseHold(
+            @Parameter(description = "Identifier of the hold", required = true) @PathVariable long id);
+}
@@ -0,0 +1,53 @@
+package com.cobank.api;
+
+import com.cobank.api.dto.ErrorResponse;
+import com.cobank.api.dto.ShardMoveRequest;
+import com.cobank.api.dto.ShardMoveResponse;
+import com.cobank.api.dto.ShardRangeResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+
+public interface ShardApi {
+
+    @Operation(summary = "List the shard directory",
+            description = "Returns the IBAN ranges in account number order, with the shard that holds their accounts.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Shard directory",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ShardRangeResponse.class))))
+    })
+    @GetMapping("/admin/shards")
+    ResponseEntity<List<ShardRangeResponse>> getShardRanges();
+
+    @Operation(summary = "Move an IBAN range to another shard",
+            description = "Copies the accounts of the range and their history to the target shard and deletes them "
+                    + "from their shard. Requests for these accounts are answered with 503 while they move.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Accounts moved",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ShardMoveResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown shard, a range spread over shards or accounts "
+                    + "with active holds, active standing orders or archived history",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Copying failed, the accounts stay on their shard",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/admin/shards/moves")
+    ResponseEntity<ShardMoveResponse> moveRange(
+            @Parameter(description = "IBAN range and target shard", required = true)
+            @Valid @RequestBody ShardMoveRequest request);
+}
@@ -0,0 +1,63 @@
+package com.cobank.api;
+
+import com.cobank.api.dto.ErrorResponse;
+import com.cobank.api.dto.StandingOrderRequest;
+import com.cobank.api.dto.StandingOrderResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+
+public interface StandingOrderApi {
+
+    @Operation(summary = "Schedule a standing order",
+            description = "Schedules a recurring or future-dated deposit or withdrawal. Due orders are posted in "
+                    + "batches by the standing order scheduler.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Standing order scheduled",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandingOrderResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request data",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "IBAN not found")
+    })
+    @PostMapping("/standing-orders")
+    ResponseEntity<StandingOrderResponse> scheduleStandingOrder(
+            @Parameter(description = "Account, type, amount and schedule of the order", required = true)
+            @Valid @RequestBody StandingOrderRequest request);
+
+    @Operation(summary = "List standing orders", description = "Returns all standing orders of an account.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Standing orders retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = StandingOrderResponse.class))))
+    })
+    @GetMapping("/accounts/{iban}/standing-orders")
+    ResponseEntity<List<StandingOrderResponse>> getStandingOrders(
+            @Parameter(description = "IBAN of the account", required = true, example = "NL00COOP1234567890")
+            @PathVariable String iban);
+
+    @Operation(summary = "Cancel a standing order", description = "Stops all further executions of a standing order.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Standing order cancelled, or already finished",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StandingOrderResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Standing order not found")
+    })
+    @DeleteMapping("/standing-orders/{id}")
+    ResponseEntity<StandingOrderResponse> cancelStandingOrder(
+            @Parameter(description = "Identifier of the standing order", required = true) @PathVariable long id);
+}
@@ -1,5 +1,7 @@
 package com.cobank.api;
 
+import com.cobank.api.dto.CompactHistoryPage;
+import com.cobank.api.dto.TransactionHistoryFilter;
 import com.cobank.api.dto.TransactionHistoryResponse;
 import com.cobank.api.dto.TransactionRequest;
 import com.cobank.api.dto.TransactionResponse;
@@ -11,7 +13,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -37,12 +41,14 @@ public interface TransactionApi {
             @Valid @RequestBody TransactionRequest request);
 
     @Operation(summary = "Retrieve transaction history", description =
-            "Fetches a paginated transaction history for the specified IBAN.")
+            "Fetches a paginated transaction history for the specified IBAN, optionally filtered by time, type, "
+                    + "amount and description.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Transaction history retrieved successfully",
                     content = @Content(
                             mediaType = "application/json", schema = @Schema(implementation = Page.class))
             ),
+            @ApiResponse(responseCode = "304", description = "History unchanged since the version in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "IBAN not found",
                     content = @Content(
                             mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
@@ -60,5 +66,36 @@ public interface TransactionApi {
             @Parameter(description = "Page number for pagination (default is 0)")
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size for pagination (default is 10)")
-            @RequestParam(defaultValue = "10") int size);
-}
\ No newline at end of file
+            @RequestParam(defaultValue = "10") int size,
+            @ParameterObject TransactionHistoryFilter filter,
+            @Parameter(description = "Entity tag of a previously fetched history page")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
+
+    @Operation(summary = "Retrieve transaction history in compact binary form", description =
+            "Returns the same page as the JSON representation, encoded as CBOR with the IBAN stated once, "
+                    + "amounts in cents and timestamps as microsecond deltas.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transaction history retrieved successfully",
+                    content = @Content(
+                            mediaType = CompactHistoryPage.MEDIA_TYPE,
+                            schema = @Schema(implementation = CompactHistoryPage.class))
+            ),
+            @ApiResponse(responseCode = "304", description = "History unchanged since the version in If-None-Match"),
+            @ApiResponse(responseCode = "404", description = "IBAN not found",
+                    content = @Content(
+                            mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @GetMapping(value = "/accounts/{iban}/transactions", produces = CompactHistoryPage.MEDIA_TYPE)
+    ResponseEntity<CompactHistoryPage> getCompactTransactionHistory(
+            @Parameter(description =
+                    "IBAN of the account to fetch transaction history", required = true, example = "NL00COOP1234567890")
+            @PathVariable String iban,
+            @Parameter(description = "Page number for pagination (default is 0)")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size for pagination (default is 10)")
+            @RequestParam(defaultValue = "10") int size,
+            @ParameterObject TransactionHistoryFilter filter,
+            @Parameter(description = "Entity tag of a previously fetched history page")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
+}
@@ -0,0 +1,4 @@
+package com.cobank.api.dto;
+
+public record AccountImportError(long line, String email, String message) {
+}
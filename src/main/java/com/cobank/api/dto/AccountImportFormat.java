@@ -0,0 +1,6 @@
+package com.cobank.api.dto;
+
+public enum AccountImportFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,11 @@
+package com.cobank.api.dto;
+
+import java.util.List;
+
+public record AccountImportResponse(
+        long received,
+        long imported,
+        long rejected,
+        List<AccountImportError> errors
+) {
+}
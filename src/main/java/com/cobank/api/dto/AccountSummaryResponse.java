@@ -0,0 +1,17 @@
+package com.cobank.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record AccountSummaryResponse(
+        String iban,
+        LocalDate from,
+        LocalDate to,
+        BigDecimal openingBalance,
+        BigDecimal closingBalance,
+        BigDecimal depositTotal,
+        long depositCount,
+        BigDecimal withdrawalTotal,
+        long withdrawalCount
+) {
+}
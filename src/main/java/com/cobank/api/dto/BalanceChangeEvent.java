@@ -0,0 +1,14 @@
+package com.cobank.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record BalanceChangeEvent(
+        String iban,
+        TransactionType transactionType,
+        BigDecimal amount,
+        BigDecimal balance,
+        LocalDateTime timestamp,
+        long version
+) {
+}
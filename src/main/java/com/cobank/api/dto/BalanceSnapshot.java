@@ -0,0 +1,10 @@
+package com.cobank.api.dto;
+
+/**
+ * A balance together with the account version it was read at, both from the same account row.
+ */
+public record BalanceSnapshot(
+        FetchBalanceResponse balance,
+        long version
+) {
+}
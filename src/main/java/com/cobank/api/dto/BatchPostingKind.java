@@ -0,0 +1,8 @@
+package com.cobank.api.dto;
+
+public enum BatchPostingKind {
+    /** Deposits the balance multiplied by the rate, rounded to cents, on every account with a positive balance. */
+    INTEREST,
+    /** Withdraws a fixed amount from every account whose balance covers it. */
+    FEE
+}
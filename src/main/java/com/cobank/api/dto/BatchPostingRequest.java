@@ -0,0 +1,25 @@
+package com.cobank.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+public record BatchPostingRequest(
+        @Schema(description = "Identifies the posting, so it is applied at most once, e.g. interest-2024-11")
+        @NotBlank @Size(max = 100) String reference,
+        @NotNull BatchPostingKind kind,
+        @Schema(description = "Rate applied to the balance, required for INTEREST", example = "0.0025")
+        BigDecimal rate,
+        @Schema(description = "Fixed amount, required for FEE", example = "2.50")
+        BigDecimal amount,
+        @Schema(description = "Description of the postings, derived from type and amount when empty")
+        @Size(max = 255) String description
+) {
+
+    public TransactionType transactionType() {
+        return kind == BatchPostingKind.INTEREST ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL;
+    }
+}
@@ -0,0 +1,16 @@
+package com.cobank.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+public record CaptureHoldRequest(
+        @Schema(description = "Amount to withdraw, at most the held amount. The full hold when empty, the rest of the "
+                + "hold is released otherwise.")
+        @Positive BigDecimal amount,
+        @Schema(description = "Description of the posting, the reference of the hold when empty")
+        @Size(max = 255) String description
+) {
+}
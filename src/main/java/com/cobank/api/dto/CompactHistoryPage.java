@@ -0,0 +1,68 @@
+package com.cobank.api.dto;
+
+import com.cobank.domain.TransactionTypeCodeConverter;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import org.springframework.data.domain.Page;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lean history page for binary clients. The IBAN is stated once, amounts are whole cents and each entry carries the
+ * microseconds elapsed since the entry before it, starting from {@code newestTimestamp}. Entries are encoded as arrays
+ * in the order of their components.
+ */
+public record CompactHistoryPage(
+        String iban,
+        int page,
+        int size,
+        long totalElements,
+        long newestTimestamp,
+        List<Entry> entries
+) {
+
+    public static final String MEDIA_TYPE = "application/cbor";
+
+    public static CompactHistoryPage of(String iban, Page<TransactionHistoryResponse> historyPage) {
+        List<Entry> entries = new ArrayList<>(historyPage.getNumberOfElements());
+        LocalDateTime newest = historyPage.isEmpty() ? null : historyPage.getContent().get(0).timestamp();
+        LocalDateTime previous = newest;
+        for (TransactionHistoryResponse history : historyPage) {
+            entries.add(new Entry(
+                    TransactionTypeCodeConverter.INSTANCE.convertToDatabaseColumn(history.transactionType()),
+                    toCents(history.amount()),
+                    toCents(history.resultingBalance()),
+                    ChronoUnit.MICROS.between(history.timestamp(), previous),
+                    history.description()));
+            previous = history.timestamp();
+        }
+        return new CompactHistoryPage(iban, historyPage.getNumber(), historyPage.getSize(),
+                historyPage.getTotalElements(), newest == null ? 0 : toEpochMicros(newest), entries);
+    }
+
+    public static long toEpochMicros(LocalDateTime timestamp) {
+        return ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), timestamp);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    /**
+     * @param type          {@code type_code} of {@link TransactionType}, see {@link TransactionTypeCodeConverter}
+     * @param elapsedMicros microseconds between this entry and the newer entry before it, zero for the first entry
+     */
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    public record Entry(
+            int type,
+            long amountCents,
+            long resultingBalanceCents,
+            long elapsedMicros,
+            String description
+    ) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.cobank.api.dto;
+
+import java.util.List;
+
+public record ContendedAccountResponse(
+        String iban,
+        long estimatedEvents,
+        long lockWaits,
+        long totalLockWaitMillis,
+        long maxLockWaitMillis,
+        long retries,
+        List<Bucket> lockWaitDistribution
+) {
+
+    /**
+     * Lock waits shorter than {@code belowMillis}, and at least as long as the bound of the previous bucket. The last
+     * bucket has no bound.
+     */
+    public record Bucket(Long belowMillis, long count) {
+    }
+}
@@ -10,6 +10,7 @@ public record CreateAccountRequest(
         String firstName,
 
         @NotBlank(message = "Address is required")
+        @Size(max = 255, message = "Address must be at most 255 characters")
         String address,
 
         @NotBlank(message = "Email is required")
@@ -1,6 +1,17 @@
 package com.cobank.api.dto;
 
+import io.swagger.v3.oas.annotations.media.Schema;
+
 import java.math.BigDecimal;
 
-public record FetchBalanceResponse(String iban, BigDecimal balance) {
+public record FetchBalanceResponse(
+        String iban,
+        BigDecimal balance,
+        @Schema(description = "Balance minus active holds, absent for past balances")
+        BigDecimal availableBalance
+) {
+
+    public FetchBalanceResponse(String iban, BigDecimal balance) {
+        this(iban, balance, null);
+    }
 }
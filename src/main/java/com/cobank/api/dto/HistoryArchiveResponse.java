@@ -0,0 +1,12 @@
+package com.cobank.api.dto;
+
+import java.time.LocalDateTime;
+
+public record HistoryArchiveResponse(
+        LocalDateTime archivedBefore,
+        int segmentsWritten,
+        long rowsArchived,
+        long accountsArchived,
+        long bytesWritten
+) {
+}
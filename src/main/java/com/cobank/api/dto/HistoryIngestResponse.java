@@ -0,0 +1,10 @@
+package com.cobank.api.dto;
+
+public record HistoryIngestResponse(
+        String source,
+        long resumedFromLine,
+        long linesCommitted,
+        long rowsIngested,
+        long accountsUpdated
+) {
+}
@@ -0,0 +1,22 @@
+package com.cobank.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record HoldRequest(
+        @NotNull @Size(min = 15, max = 34) String iban,
+        @NotNull @Positive @DecimalMin(value = "0.01", message = "Hold amount must be greater than zero")
+        BigDecimal amount,
+        @Schema(description = "Reference of the client, used as description of the captured posting")
+        @Size(max = 255) String reference,
+        @Schema(description = "The hold is released automatically after this time, holds.default-duration from now "
+                + "when empty", example = "2025-01-08T00:00:00")
+        LocalDateTime expiresAt
+) {
+}
@@ -0,0 +1,17 @@
+package com.cobank.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record HoldResponse(
+        long id,
+        String iban,
+        BigDecimal amount,
+        String reference,
+        HoldStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime expiresAt,
+        BigDecimal capturedAmount,
+        LocalDateTime settledAt
+) {
+}
@@ -0,0 +1,8 @@
+package com.cobank.api.dto;
+
+public enum HoldStatus {
+    ACTIVE,
+    CAPTURED,
+    RELEASED,
+    EXPIRED
+}
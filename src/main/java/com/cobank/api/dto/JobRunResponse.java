@@ -0,0 +1,16 @@
+package com.cobank.api.dto;
+
+import java.time.LocalDateTime;
+
+public record JobRunResponse(
+        long runId,
+        String jobType,
+        String status,
+        long totalRanges,
+        long completedRanges,
+        long processed,
+        long findings,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt
+) {
+}
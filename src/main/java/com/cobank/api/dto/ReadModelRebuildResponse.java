@@ -0,0 +1,4 @@
+package com.cobank.api.dto;
+
+public record ReadModelRebuildResponse(long historyRows, long balanceRows) {
+}
@@ -0,0 +1,6 @@
+package com.cobank.api.dto;
+
+import java.time.LocalDate;
+
+public record RollupBackfillResponse(LocalDate from, LocalDate through, long rollupRows) {
+}
@@ -0,0 +1,16 @@
+package com.cobank.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record ShardMoveRequest(
+        @Schema(description = "First IBAN of the range to move", example = "NL00COOP0000100001")
+        @NotNull @Size(min = 15, max = 34) String fromIban,
+        @Schema(description = "Last IBAN of the range to move", example = "NL00COOP0000150000")
+        @NotNull @Size(min = 15, max = 34) String toIban,
+        @Schema(description = "Name of the shard that receives the accounts", example = "shard-2")
+        @NotBlank String targetShard
+) {
+}
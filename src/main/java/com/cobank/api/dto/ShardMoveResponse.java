@@ -0,0 +1,11 @@
+package com.cobank.api.dto;
+
+public record ShardMoveResponse(
+        String fromIban,
+        String toIban,
+        String sourceShard,
+        String targetShard,
+        long accountsMoved,
+        long historyRowsMoved
+) {
+}
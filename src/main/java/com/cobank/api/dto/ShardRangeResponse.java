@@ -0,0 +1,11 @@
+package com.cobank.api.dto;
+
+public record ShardRangeResponse(
+        String fromIban,
+        String toIban,
+        String shard,
+        ShardRangeStatus status,
+        long accountNumbersIssued,
+        boolean open
+) {
+}
@@ -0,0 +1,7 @@
+package com.cobank.api.dto;
+
+public enum ShardRangeStatus {
+    ACTIVE,
+    // Being copied to another shard, requests for its accounts are turned away until the move completes
+    MOVING
+}
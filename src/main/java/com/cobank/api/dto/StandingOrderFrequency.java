@@ -0,0 +1,25 @@
+package com.cobank.api.dto;
+
+import java.time.LocalDateTime;
+
+public enum StandingOrderFrequency {
+    /** Executed once at its start, for future-dated postings. */
+    ONCE,
+    DAILY,
+    WEEKLY,
+    /** Executed on the day of month of its start, or the last day of shorter months. */
+    MONTHLY;
+
+    /**
+     * Returns when the execution with the given zero-based number is due. Every execution is derived from the start,
+     * so a monthly order starting on the 31st returns to the 31st after a shorter month.
+     */
+    public LocalDateTime occurrence(LocalDateTime start, int execution) {
+        return switch (this) {
+            case ONCE -> execution == 0 ? start : null;
+            case DAILY -> start.plusDays(execution);
+            case WEEKLY -> start.plusWeeks(execution);
+            case MONTHLY -> start.plusMonths(execution);
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.cobank.api.dto;
+
+public enum StandingOrderOutcome {
+    POSTED,
+    INSUFFICIENT_FUNDS,
+    LIMIT_EXCEEDED,
+    ACCOUNT_NOT_FOUND
+}
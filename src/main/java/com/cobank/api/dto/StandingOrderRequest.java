@@ -0,0 +1,25 @@
+package com.cobank.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record StandingOrderRequest(
+        @NotNull @Size(min = 15, max = 34) String iban,
+        @NotNull TransactionType type,
+        @NotNull @Positive @DecimalMin(value = "0.01", message = "Standing order amount must be greater than zero")
+        BigDecimal amount,
+        @NotNull StandingOrderFrequency frequency,
+        @Schema(description = "First execution, immediately when empty", example = "2025-01-01T00:00:00")
+        LocalDateTime startAt,
+        @Schema(description = "No execution is due after this time, open-ended when empty")
+        LocalDateTime endAt,
+        @Schema(description = "Description of the postings, derived from type and amount when empty")
+        @Size(max = 255) String description
+) {
+}
@@ -0,0 +1,21 @@
+package com.cobank.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record StandingOrderResponse(
+        long id,
+        String iban,
+        TransactionType type,
+        BigDecimal amount,
+        StandingOrderFrequency frequency,
+        LocalDateTime startAt,
+        LocalDateTime endAt,
+        String description,
+        StandingOrderStatus status,
+        LocalDateTime nextDueAt,
+        int executions,
+        LocalDateTime lastExecutedAt,
+        StandingOrderOutcome lastOutcome
+) {
+}
@@ -0,0 +1,7 @@
+package com.cobank.api.dto;
+
+public enum StandingOrderStatus {
+    ACTIVE,
+    COMPLETED,
+    CANCELLED
+}
@@ -0,0 +1,31 @@
+package com.cobank.api.dto;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public record TransactionHistoryFilter(
+        @Parameter(description = "Only postings at or after this moment", example = "2024-11-01T00:00:00")
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @Parameter(description = "Only postings before this moment", example = "2024-12-01T00:00:00")
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @Parameter(description = "Only postings of this type")
+        TransactionType type,
+        @Parameter(description = "Smallest amount to include")
+        BigDecimal minAmount,
+        @Parameter(description = "Largest amount to include")
+        BigDecimal maxAmount,
+        @Parameter(description = "Text that the posting's description contains, at least 3 characters. "
+                + "Postings without a description of their own match on the one derived from type and amount.")
+        String description
+) {
+
+    public static final TransactionHistoryFilter NONE = new TransactionHistoryFilter(null, null, null, null, null, null);
+
+    public boolean isEmpty() {
+        return Stream.of(from, to, type, minAmount, maxAmount, description).allMatch(value -> value == null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.cobank.config;
+
+import com.cobank.service.stream.DispatchLanes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BalanceStreamConfig {
+
+    // Pushes happen after commit, so a full lane drops the notification instead of failing the posting. The pushes of
+    // an account share a lane, so subscribers receive them in the order they were posted.
+    @Bean(destroyMethod = "shutdown")
+    public DispatchLanes balanceStreamLanes(@Value("${balance-stream.dispatch-threads:2}") int threads,
+                                            @Value("${balance-stream.dispatch-queue-capacity:10000}") int queueCapacity) {
+        return new DispatchLanes("balance-stream", threads, queueCapacity);
+    }
+}
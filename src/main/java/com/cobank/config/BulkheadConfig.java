@@ -0,0 +1,69 @@
+package com.cobank.config;
+
+import com.cobank.service.bulkhead.Bulkhead;
+import com.cobank.service.bulkhead.BulkheadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "bulkheads.enabled", havingValue = "true")
+public class BulkheadConfig {
+
+    // Replaces the auto-configured pool, which stays as the default pool with its spring.datasource.hikari settings
+    @Bean
+    public BulkheadRoutingDataSource dataSource(DataSourceProperties properties,
+                                                Environment environment,
+                                                MeterRegistry meterRegistry) {
+        // An open session keeps the connection of the first use case until the response is written
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("bulkheads.enabled requires spring.jpa.open-in-view=false");
+        }
+        HikariDataSource defaultPool = createPool(properties);
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(defaultPool));
+        register(defaultPool, "default", meterRegistry);
+
+        Map<Bulkhead, HikariDataSource> pools = new EnumMap<>(Bulkhead.class);
+        for (Bulkhead bulkhead : Bulkhead.values()) {
+            String prefix = "bulkheads." + bulkhead.poolName() + ".";
+            HikariDataSource pool = createPool(properties);
+            pool.setMaximumPoolSize(environment.getRequiredProperty(prefix + "maximum-pool-size", Integer.class));
+            pool.setConnectionTimeout(environment.getRequiredProperty(prefix + "connection-timeout", Duration.class).toMillis());
+            register(pool, bulkhead.poolName(), meterRegistry);
+            pools.put(bulkhead, pool);
+        }
+        return new BulkheadRoutingDataSource(defaultPool, pools);
+    }
+
+    private HikariDataSource createPool(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Hikari publishes hikaricp.connections.pending and .timeout per pool, utilization shows how close it is to them
+    private void register(HikariDataSource pool, String name, MeterRegistry meterRegistry) {
+        pool.setPoolName(name);
+        pool.setMetricRegistry(meterRegistry);
+        Gauge.builder("cobank.bulkhead.utilization", pool, BulkheadConfig::utilization)
+                .description("Share of the pool's connections that are in use")
+                .tag("pool", name)
+                .register(meterRegistry);
+    }
+
+    private static double utilization(HikariDataSource pool) {
+        // The pool only starts with the first connection request
+        HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+        return mxBean == null ? 0 : (double) mxBean.getActiveConnections() / pool.getMaximumPoolSize();
+    }
+}
@@ -0,0 +1,27 @@
+package com.cobank.config;
+
+import com.cobank.service.sharding.ShardRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@ConditionalOnProperty(name = "cqrs.enabled", havingValue = "true")
+public class ReadModelConfig {
+
+    // A single projector thread keeps projections in commit order
+    @Bean
+    public ThreadPoolTaskExecutor readModelExecutor(@Value("${cqrs.projection-queue-capacity:100000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("read-model-");
+        // Projects into the shard of the posting, which commits in the thread that publishes the event
+        executor.setTaskDecorator(ShardRoutingDataSource::wrap);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -0,0 +1,43 @@
+package com.cobank.config;
+
+import com.cobank.repository.ClusterNodeRepository;
+import com.cobank.service.routing.ClusterMembership;
+import com.cobank.service.routing.StaticClusterMembership;
+import com.cobank.service.routing.TableClusterMembership;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "routing.enabled", havingValue = "true")
+public class RoutingConfig {
+
+    @Bean
+    public ClusterMembership clusterMembership(@Value("${routing.membership:static}") String membership,
+                                               @Value("${routing.self}") String self,
+                                               @Value("${routing.nodes:}") List<String> nodes,
+                                               @Value("${routing.node-ttl:PT15S}") Duration nodeTimeToLive,
+                                               ClusterNodeRepository clusterNodeRepository) {
+        return switch (membership) {
+            case "static" -> new StaticClusterMembership(self, nodes);
+            case "table" -> new TableClusterMembership(clusterNodeRepository, self, nodeTimeToLive);
+            default -> throw new IllegalArgumentException("Unknown routing.membership " + membership);
+        };
+    }
+
+    @Bean
+    public RestClient routingRestClient(@Value("${routing.connect-timeout:PT0.5S}") Duration connectTimeout,
+                                        @Value("${routing.read-timeout:PT10S}") Duration readTimeout) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(
+                HttpClient.newBuilder().connectTimeout(connectTimeout).build());
+        requestFactory.setReadTimeout(readTimeout);
+        return RestClient.builder().requestFactory(requestFactory).build();
+    }
+}
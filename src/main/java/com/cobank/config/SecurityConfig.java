@@ -1,5 +1,6 @@
 package com.cobank.config;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -40,8 +41,11 @@ public class SecurityConfig {
                                 "/swagger-ui/**",
                                 apiDocsPath +"/**",
                                 swaggerPath,
-                                "/h2-console/**"
+                                "/h2-console/**",
+                                "/actuator/health/**"
                         ).permitAll()
+                        // Async dispatches only continue streams that were authorized when they were opened
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .anyRequest().authenticated()
                 )
 
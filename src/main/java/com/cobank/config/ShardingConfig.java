@@ -0,0 +1,116 @@
+package com.cobank.config;
+
+import com.cobank.repository.ShardRangeRepository;
+import com.cobank.service.sharding.ShardDirectory;
+import com.cobank.service.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Configuration
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    public record Shard(int number, String url, String username, String password) {
+    }
+
+    // Scheduled admin jobs that ShardAspect refuses, since they would only cover the directory shard
+    private static final String[] DIRECTORY_SHARD_ONLY_SCHEDULES = {
+            "reconciliation.cron", "history-chain.verification.cron", "history-archive.cron"
+    };
+
+    // Replaces the auto-configured pool, which stays as the pool of the directory shard with its spring.datasource
+    // settings. Every other shard gets a pool with the same spring.datasource.hikari settings.
+    @Bean
+    public ShardRoutingDataSource dataSource(DataSourceProperties properties,
+                                             Environment environment,
+                                             @Value("${sharding.directory-shard:shard-0}") String directoryShard) {
+        for (String schedule : DIRECTORY_SHARD_ONLY_SCHEDULES) {
+            if (!environment.getProperty(schedule, "-").equals("-")) {
+                throw new IllegalStateException(schedule + " must not be set while sharding is enabled, the job would"
+                        + " only cover the directory shard");
+            }
+        }
+        Binder binder = Binder.get(environment);
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        HikariDataSource directoryPool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(directoryPool));
+        directoryPool.setPoolName(directoryShard);
+        pools.put(directoryShard, directoryPool);
+
+        shards(environment).forEach((name, shard) -> {
+            HikariDataSource pool = new HikariDataSource();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+            pool.setDriverClassName(properties.determineDriverClassName());
+            pool.setJdbcUrl(shard.url());
+            pool.setUsername(shard.username());
+            pool.setPassword(shard.password());
+            pool.setPoolName(name);
+            pools.put(name, pool);
+        });
+        return new ShardRoutingDataSource(directoryShard, pools);
+    }
+
+    @Bean
+    public ShardRangeRepository shardRangeRepository(ShardRoutingDataSource dataSource) {
+        return new ShardRangeRepository(new JdbcTemplate(dataSource.pool(dataSource.directoryShard())));
+    }
+
+    // Flyway migrates the directory shard by itself, the other shards are migrated with its settings
+    @Bean
+    @DependsOnDatabaseInitialization
+    public ShardDirectory shardDirectory(ShardRoutingDataSource dataSource,
+                                         ShardRangeRepository shardRangeRepository,
+                                         ObjectProvider<Flyway> flyway,
+                                         Environment environment,
+                                         @Value("${sharding.range-size:100000}") long rangeSize) {
+        Map<String, Integer> numbers = new LinkedHashMap<>();
+        numbers.put(dataSource.directoryShard(), 0);
+        Set<Integer> taken = new HashSet<>(numbers.values());
+        shards(environment).forEach((name, shard) -> {
+            if (shard.number() <= 0 || !taken.add(shard.number())) {
+                throw new IllegalStateException("Shard " + name + " needs a number of its own above 0");
+            }
+            numbers.put(name, shard.number());
+            HikariDataSource pool = dataSource.pool(name);
+            flyway.ifAvailable(directoryFlyway -> Flyway.configure()
+                    .configuration(directoryFlyway.getConfiguration())
+                    .dataSource(pool)
+                    .load()
+                    .migrate());
+            issueIdsFrom(new JdbcTemplate(pool), ShardDirectory.firstId(shard.number()));
+        });
+        shardRangeRepository.seed(dataSource.directoryShard());
+        return new ShardDirectory(shardRangeRepository, dataSource.directoryShard(), numbers, rangeSize);
+    }
+
+    private static Map<String, Shard> shards(Environment environment) {
+        return Binder.get(environment)
+                .bind("sharding.shards", Bindable.mapOf(String.class, Shard.class))
+                .orElse(Map.of());
+    }
+
+    // Holds and standing orders are found by id, see ShardDirectory#shardOfId
+    private static void issueIdsFrom(JdbcTemplate jdbcTemplate, long firstId) {
+        for (String sequence : new String[]{"fund_hold_id_seq", "standing_order_id_seq"}) {
+            jdbcTemplate.queryForList(
+                    "SELECT setval('" + sequence + "', ?, false) FROM " + sequence + " WHERE last_value < ?",
+                    Long.class, firstId, firstId);
+        }
+    }
+}
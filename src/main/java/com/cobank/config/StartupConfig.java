@@ -0,0 +1,20 @@
+package com.cobank.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    // The AppCDS training run starts the context without a database, see Dockerfile
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${startup.training-run:false}") boolean trainingRun) {
+        return flyway -> {
+            if (!trainingRun) {
+                flyway.migrate();
+            }
+        };
+    }
+}
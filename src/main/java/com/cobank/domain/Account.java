@@ -34,4 +34,20 @@ public class Account {
     @Setter
     @Column(nullable = false, precision = 15, scale = 2)
     private BigDecimal balance;
-}
\ No newline at end of file
+
+    @Setter
+    @Column(nullable = false)
+    private long version;
+
+    // Hash of the latest history row, see HistoryChain
+    @Setter
+    private byte[] historyHash;
+
+    // Sum of the active holds, only changed by the statements of FundHoldRepository
+    @Column(insertable = false, updatable = false)
+    private BigDecimal heldAmount;
+
+    public BigDecimal getAvailableBalance() {
+        return heldAmount != null ? balance.subtract(heldAmount) : balance;
+    }
+}
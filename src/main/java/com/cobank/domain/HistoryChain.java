@@ -0,0 +1,65 @@
+package com.cobank.domain;
+
+import com.cobank.api.dto.TransactionType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Hashes of the per-account chain over {@code transaction_history}. Each row stores the hash of the previous row of
+ * its account and a SHA-256 over that hash and its own contents, and {@code accounts.history_hash} holds the hash of
+ * the latest row. The encoding must stay identical to the {@code history_hash} database function (V16), which chains
+ * rows written by set-based statements.
+ */
+public final class HistoryChain {
+
+    private static final char SEPARATOR = '\u001f';
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSSSS");
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(HistoryChain::newDigest);
+
+    private HistoryChain() {
+    }
+
+    /**
+     * Timestamps are stored with microsecond precision, so a posting is hashed and stored with the truncated value.
+     */
+    public static LocalDateTime timestamp(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    /**
+     * @param previousHash      hash of the previous row of the account, {@code null} for its first row
+     * @param storedDescription description as stored, {@code null} when it is derived from type and amount
+     */
+    public static byte[] hash(byte[] previousHash, long accountKey, LocalDateTime timestamp, TransactionType type,
+                              BigDecimal amount, BigDecimal resultingBalance, String storedDescription) {
+        String contents = new StringBuilder(96)
+                .append(accountKey).append(SEPARATOR)
+                .append(TIMESTAMP_FORMAT.format(timestamp(timestamp))).append(SEPARATOR)
+                .append(TransactionTypeCodeConverter.INSTANCE.convertToDatabaseColumn(type)).append(SEPARATOR)
+                .append(amount.setScale(2, RoundingMode.HALF_UP).toPlainString()).append(SEPARATOR)
+                .append(resultingBalance.setScale(2, RoundingMode.HALF_UP).toPlainString()).append(SEPARATOR)
+                .append(storedDescription == null ? "-" : "=" + storedDescription)
+                .toString();
+
+        MessageDigest digest = SHA_256.get();
+        if (previousHash != null) {
+            digest.update(previousHash);
+        }
+        return digest.digest(contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -9,11 +9,12 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.UUID;
 
 @Entity
 @Table(name = "transaction_history", indexes = {
-        @Index(name = "idx_iban_timestamp", columnList = "iban, timestamp DESC")
+        @Index(name = "idx_account_key_timestamp", columnList = "account_key, timestamp DESC")
 })
 @Getter
 @Builder
@@ -25,11 +26,12 @@ public class TransactionHistory {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Column(nullable = false, length = 34)
-    private String iban;
+    // Account number of the IBAN, see IbanService#findAccountKey
+    @Column(nullable = false)
+    private long accountKey;
 
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false, length = 20)
+    @Convert(converter = TransactionTypeCodeConverter.class)
+    @Column(name = "type_code", nullable = false)
     private TransactionType transactionType;
 
     @Column(nullable = false, precision = 15, scale = 2)
@@ -41,6 +43,27 @@ public class TransactionHistory {
     @Column(nullable = false)
     private LocalDateTime timestamp;
 
-    @Column(length = 255)
-    private String description = "";
-}
\ No newline at end of file
+    // Only stored when it differs from defaultDescription
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    // Hash of the previous row of the account, null for its first row
+    private byte[] prevHash;
+
+    private byte[] hash;
+
+    public String getDescription() {
+        return description != null ? description : defaultDescription(transactionType, amount);
+    }
+
+    public static String defaultDescription(TransactionType transactionType, BigDecimal amount) {
+        return String.format(Locale.ROOT, "%s transaction of %.2f", transactionType, amount);
+    }
+
+    /**
+     * Returns the description to store, which is {@code null} when it can be derived from type and amount.
+     */
+    public static String storedDescription(TransactionType transactionType, BigDecimal amount, String description) {
+        return defaultDescription(transactionType, amount).equals(description) ? null : description;
+    }
+}
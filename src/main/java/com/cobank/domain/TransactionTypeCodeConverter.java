@@ -0,0 +1,39 @@
+package com.cobank.domain;
+
+import com.cobank.api.dto.TransactionType;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores transaction types as the {@code smallint} codes of {@code transaction_history.type_code}.
+ */
+@Converter
+public class TransactionTypeCodeConverter implements AttributeConverter<TransactionType, Short> {
+
+    public static final short DEPOSIT = 0;
+    public static final short WITHDRAWAL = 1;
+    public static final TransactionTypeCodeConverter INSTANCE = new TransactionTypeCodeConverter();
+
+    @Override
+    public Short convertToDatabaseColumn(TransactionType type) {
+        if (type == null) {
+            return null;
+        }
+        return switch (type) {
+            case DEPOSIT -> DEPOSIT;
+            case WITHDRAWAL -> WITHDRAWAL;
+        };
+    }
+
+    @Override
+    public TransactionType convertToEntityAttribute(Short code) {
+        if (code == null) {
+            return null;
+        }
+        return switch (code) {
+            case DEPOSIT -> TransactionType.DEPOSIT;
+            case WITHDRAWAL -> TransactionType.WITHDRAWAL;
+            default -> throw new IllegalArgumentException("Unknown transaction type code " + code);
+        };
+    }
+}
@@ -18,4 +18,7 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     @Query("SELECT a FROM Account a WHERE a.iban = :iban")
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<Account> findByIbanForUpdate(@Param("iban") String iban);
+
+    @Query("SELECT a.version FROM Account a WHERE a.iban = :iban")
+    Optional<Long> findVersionByIban(@Param("iban") String iban);
 }
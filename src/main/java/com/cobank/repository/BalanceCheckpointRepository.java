@@ -0,0 +1,71 @@
+package com.cobank.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class BalanceCheckpointRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<Checkpoint> findLatestOnOrBefore(String iban, LocalDateTime asOf) {
+        return jdbcTemplate.query("""
+                                SELECT checkpoint_at, balance FROM balance_checkpoint
+                                WHERE iban = ? AND checkpoint_at <= ?
+                                ORDER BY checkpoint_at DESC
+                                LIMIT 1
+                                """,
+                        (rs, rowNum) -> new Checkpoint(rs.getTimestamp("checkpoint_at").toLocalDateTime(),
+                                rs.getBigDecimal("balance")),
+                        iban, Timestamp.valueOf(asOf))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Reads the balance left by the last posting in {@code (after, asOf]} through the {@code (account_key, timestamp)}
+     * index. Without a lower bound the seek may have to walk into old pages of the account.
+     */
+    public Optional<BigDecimal> findLastResultingBalance(String iban, LocalDateTime after, LocalDateTime asOf) {
+        return jdbcTemplate.query("""
+                                SELECT resulting_balance FROM transaction_history
+                                WHERE account_key = (SELECT account_key FROM accounts WHERE iban = ?)
+                                  AND timestamp > ? AND timestamp <= ?
+                                ORDER BY timestamp DESC
+                                LIMIT 1
+                                """,
+                        (rs, rowNum) -> rs.getBigDecimal("resulting_balance"),
+                        iban, Timestamp.valueOf(after), Timestamp.valueOf(asOf))
+                .stream()
+                .findFirst();
+    }
+
+    public Optional<LocalDateTime> findLatestCheckpointTime() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(
+                        "SELECT MAX(checkpoint_at) FROM balance_checkpoint", Timestamp.class))
+                .map(Timestamp::toLocalDateTime);
+    }
+
+    public int checkpointAccountsPostedBetween(LocalDateTime after, LocalDateTime cutoff) {
+        return jdbcTemplate.update("""
+                        INSERT INTO balance_checkpoint (iban, checkpoint_at, balance)
+                        SELECT DISTINCT ON (h.account_key) a.iban, ?, h.resulting_balance
+                        FROM transaction_history h
+                        JOIN accounts a ON a.account_key = h.account_key
+                        WHERE h.timestamp > ? AND h.timestamp <= ?
+                        ORDER BY h.account_key, h.timestamp DESC
+                        ON CONFLICT (iban, checkpoint_at) DO NOTHING
+                        """,
+                Timestamp.valueOf(cutoff), Timestamp.valueOf(after), Timestamp.valueOf(cutoff));
+    }
+
+    public record Checkpoint(LocalDateTime checkpointAt, BigDecimal balance) {
+    }
+}
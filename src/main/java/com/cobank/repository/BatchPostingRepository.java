@@ -0,0 +1,128 @@
+package com.cobank.repository;
+
+import com.cobank.api.dto.BatchPostingKind;
+import com.cobank.api.dto.BatchPostingRequest;
+import com.cobank.domain.TransactionHistory;
+import com.cobank.domain.TransactionTypeCodeConverter;
+import com.cobank.service.job.KeyRange;
+import com.cobank.service.transaction.TransactionPostedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class BatchPostingRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void saveRule(BatchPostingRequest rule) {
+        jdbcTemplate.update(
+                "INSERT INTO batch_posting_rule (reference, kind, rate, amount, description) VALUES (?, ?, ?, ?, ?)",
+                rule.reference(), rule.kind().name(), rule.rate(), rule.amount(), rule.description());
+    }
+
+    public Optional<BatchPostingRequest> findRule(String reference) {
+        return jdbcTemplate.query(
+                        "SELECT reference, kind, rate, amount, description FROM batch_posting_rule WHERE reference = ?",
+                        (rs, rowNum) -> new BatchPostingRequest(
+                                rs.getString("reference"),
+                                BatchPostingKind.valueOf(rs.getString("kind")),
+                                rs.getBigDecimal("rate"),
+                                rs.getBigDecimal("amount"),
+                                rs.getString("description")),
+                        reference)
+                .stream()
+                .findFirst();
+    }
+
+    public Optional<KeyRange> findAccountKeyBounds() {
+        return jdbcTemplate.query("SELECT MIN(account_key) AS min_key, MAX(account_key) AS max_key FROM accounts",
+                        (rs, rowNum) -> rs.getObject("min_key") == null
+                                ? null
+                                : new KeyRange(rs.getLong("min_key"), rs.getLong("max_key")))
+                .stream()
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    public long countAccounts(KeyRange range) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM accounts WHERE account_key BETWEEN ? AND ?", Long.class, range.start(), range.end());
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Posts the rule to every eligible account of the range in one statement: the balances are updated and the history
+     * rows inserted as sets. Rows are locked in account order and, under read committed, a row changed by a concurrent
+     * posting is re-read after it commits, so the amount is always computed from the latest balance. Every account gets
+     * at most one row, so the hash chains advance inside the same statement.
+     */
+    public List<TransactionPostedEvent> apply(BatchPostingRequest rule, KeyRange range, LocalDateTime postedAt) {
+        boolean interest = rule.kind() == BatchPostingKind.INTEREST;
+        String amountExpression = interest ? "ROUND(balance * ?, 2)" : "CAST(? AS NUMERIC(15, 2))";
+        String sign = interest ? "+" : "-";
+
+        String sql = """
+                WITH candidates AS (
+                    SELECT id, history_hash AS prev_hash, %s AS amount
+                    FROM accounts
+                    WHERE account_key BETWEEN ? AND ?
+                    ORDER BY account_key
+                    FOR UPDATE
+                ),
+                params AS (
+                    SELECT CAST(? AS TIMESTAMP) AS posted_at, CAST(? AS SMALLINT) AS type_code, CAST(? AS TEXT) AS description
+                ),
+                posted AS (
+                    UPDATE accounts a
+                    SET balance = a.balance %s c.amount,
+                        version = a.version + 1,
+                        history_hash = history_hash(c.prev_hash, a.account_key, p.posted_at, p.type_code, c.amount,
+                                                    a.balance %s c.amount, p.description)
+                    FROM candidates c, params p
+                    WHERE a.id = c.id
+                      AND c.amount > 0
+                      AND a.balance - a.held_amount %s c.amount >= 0
+                    RETURNING a.account_key, a.iban, c.amount, a.balance, a.version, c.prev_hash, a.history_hash AS hash,
+                              p.posted_at, p.type_code, p.description
+                ),
+                history AS (
+                    INSERT INTO transaction_history
+                        (id, account_key, timestamp, type_code, amount, resulting_balance, description, prev_hash, hash)
+                    SELECT gen_random_uuid(), account_key, posted_at, type_code, amount, balance, description, prev_hash, hash
+                    FROM posted
+                    RETURNING id, account_key
+                )
+                SELECT h.id, p.iban, p.amount, p.balance, p.version
+                FROM history h
+                JOIN posted p ON p.account_key = h.account_key
+                """.formatted(amountExpression, sign, sign, sign);
+
+        return jdbcTemplate.query(sql,
+                (rs, rowNum) -> new TransactionPostedEvent(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("iban"),
+                        rule.transactionType(),
+                        rs.getBigDecimal("amount"),
+                        rs.getBigDecimal("balance"),
+                        postedAt,
+                        rule.description() != null
+                                ? rule.description()
+                                : TransactionHistory.defaultDescription(rule.transactionType(), rs.getBigDecimal("amount")),
+                        rs.getLong("version")),
+                interest ? rule.rate() : rule.amount(),
+                range.start(),
+                range.end(),
+                Timestamp.valueOf(postedAt),
+                TransactionTypeCodeConverter.INSTANCE.convertToDatabaseColumn(rule.transactionType()),
+                rule.description());
+    }
+}
@@ -0,0 +1,63 @@
+package com.cobank.repository;
+
+import com.cobank.domain.Account;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Repository
+@RequiredArgsConstructor
+public class BulkAccountRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PgCopySupport pgCopySupport;
+
+    /**
+     * Loads accounts through a transaction-scoped staging table and returns the emails that were inserted. Rows that
+     * collide with an existing email or IBAN are skipped instead of aborting the chunk.
+     */
+    public Set<String> insertSkippingDuplicates(List<Account> accounts) {
+        jdbcTemplate.execute("""
+                CREATE TEMP TABLE account_import_stage
+                (
+                    id         UUID,
+                    iban       VARCHAR(34),
+                    first_name VARCHAR(50),
+                    address    VARCHAR(255),
+                    email      VARCHAR(255),
+                    balance    NUMERIC(15, 2)
+                ) ON COMMIT DROP
+                """);
+
+        StringBuilder rows = new StringBuilder(accounts.size() * 128);
+        for (Account account : accounts) {
+            PgCopySupport.appendCsvField(rows, account.getId());
+            rows.append(',');
+            PgCopySupport.appendCsvField(rows, account.getIban());
+            rows.append(',');
+            PgCopySupport.appendCsvField(rows, account.getFirstName());
+            rows.append(',');
+            PgCopySupport.appendCsvField(rows, account.getAddress());
+            rows.append(',');
+            PgCopySupport.appendCsvField(rows, account.getEmail());
+            rows.append(',');
+            PgCopySupport.appendCsvField(rows, account.getBalance());
+            rows.append('\n');
+        }
+        pgCopySupport.copyIn(
+                "COPY account_import_stage (id, iban, first_name, address, email, balance) FROM STDIN WITH (FORMAT csv)",
+                new StringReader(rows.toString()));
+
+        return new HashSet<>(jdbcTemplate.queryForList("""
+                INSERT INTO accounts (id, iban, first_name, address, email, balance)
+                SELECT id, iban, first_name, address, email, balance FROM account_import_stage
+                ON CONFLICT DO NOTHING
+                RETURNING email
+                """, String.class));
+    }
+}
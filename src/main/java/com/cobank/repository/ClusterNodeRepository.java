@@ -0,0 +1,35 @@
+package com.cobank.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class ClusterNodeRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void heartbeat(String nodeUrl) {
+        jdbcTemplate.update("""
+                INSERT INTO cluster_node (node_url, heartbeat_at) VALUES (?, CURRENT_TIMESTAMP)
+                ON CONFLICT (node_url) DO UPDATE SET heartbeat_at = EXCLUDED.heartbeat_at
+                """, nodeUrl);
+    }
+
+    // Compared with the database clock, which also stamps the heartbeats, so node clocks may drift
+    public List<String> findAliveWithin(Duration timeToLive) {
+        return jdbcTemplate.queryForList("""
+                        SELECT node_url FROM cluster_node
+                        WHERE heartbeat_at >= CURRENT_TIMESTAMP - ? * INTERVAL '1 millisecond'
+                        ORDER BY node_url
+                        """, String.class, timeToLive.toMillis());
+    }
+
+    public void delete(String nodeUrl) {
+        jdbcTemplate.update("DELETE FROM cluster_node WHERE node_url = ?", nodeUrl);
+    }
+}
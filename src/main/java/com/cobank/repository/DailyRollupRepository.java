@@ -0,0 +1,117 @@
+package com.cobank.repository;
+
+import com.cobank.api.dto.TransactionType;
+import com.cobank.service.transaction.TransactionPostedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class DailyRollupRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void apply(TransactionPostedEvent event) {
+        boolean deposit = event.transactionType() == TransactionType.DEPOSIT;
+        BigDecimal depositAmount = deposit ? event.amount() : BigDecimal.ZERO;
+        BigDecimal withdrawalAmount = deposit ? BigDecimal.ZERO : event.amount();
+
+        jdbcTemplate.update("""
+                        INSERT INTO account_daily_rollup (iban, day, deposit_total, deposit_count, withdrawal_total,
+                                                          withdrawal_count, closing_balance, last_posted_at)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                        ON CONFLICT (iban, day) DO UPDATE
+                            SET deposit_total = account_daily_rollup.deposit_total + EXCLUDED.deposit_total,
+                                deposit_count = account_daily_rollup.deposit_count + EXCLUDED.deposit_count,
+                                withdrawal_total = account_daily_rollup.withdrawal_total + EXCLUDED.withdrawal_total,
+                                withdrawal_count = account_daily_rollup.withdrawal_count + EXCLUDED.withdrawal_count,
+                                closing_balance = CASE
+                                    WHEN EXCLUDED.last_posted_at >= account_daily_rollup.last_posted_at
+                                        THEN EXCLUDED.closing_balance
+                                    ELSE account_daily_rollup.closing_balance END,
+                                last_posted_at = GREATEST(account_daily_rollup.last_posted_at, EXCLUDED.last_posted_at)
+                        """,
+                event.iban(), Date.valueOf(event.timestamp().toLocalDate()),
+                depositAmount, deposit ? 1 : 0, withdrawalAmount, deposit ? 0 : 1,
+                event.resultingBalance(), Timestamp.valueOf(event.timestamp()));
+    }
+
+    public Totals sumBetween(String iban, LocalDate from, LocalDate to) {
+        return jdbcTemplate.queryForObject("""
+                        SELECT COALESCE(SUM(deposit_total), 0)    AS deposit_total,
+                               COALESCE(SUM(deposit_count), 0)    AS deposit_count,
+                               COALESCE(SUM(withdrawal_total), 0) AS withdrawal_total,
+                               COALESCE(SUM(withdrawal_count), 0) AS withdrawal_count
+                        FROM account_daily_rollup
+                        WHERE iban = ? AND day BETWEEN ? AND ?
+                        """,
+                (rs, rowNum) -> new Totals(
+                        rs.getBigDecimal("deposit_total"),
+                        rs.getLong("deposit_count"),
+                        rs.getBigDecimal("withdrawal_total"),
+                        rs.getLong("withdrawal_count")),
+                iban, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public Optional<BigDecimal> findClosingBalanceOnOrBefore(String iban, LocalDate day) {
+        return jdbcTemplate.query("""
+                                SELECT closing_balance FROM account_daily_rollup
+                                WHERE iban = ? AND day <= ?
+                                ORDER BY day DESC
+                                LIMIT 1
+                                """,
+                        (rs, rowNum) -> rs.getBigDecimal("closing_balance"),
+                        iban, Date.valueOf(day))
+                .stream()
+                .findFirst();
+    }
+
+    public Optional<LocalDate> findFirstHistoryDay() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(
+                        "SELECT CAST(MIN(timestamp) AS DATE) FROM transaction_history", Date.class))
+                .map(Date::toLocalDate);
+    }
+
+    /**
+     * Recomputes the rollups of a closed date range from {@code transaction_history}. Only days before today may be
+     * backfilled, because no new posting can land on them while the totals are being replaced.
+     */
+    public int backfill(LocalDate from, LocalDate through) {
+        return jdbcTemplate.update("""
+                        INSERT INTO account_daily_rollup (iban, day, deposit_total, deposit_count, withdrawal_total,
+                                                          withdrawal_count, closing_balance, last_posted_at)
+                        SELECT a.iban, d.day, d.deposit_total, d.deposit_count, d.withdrawal_total, d.withdrawal_count,
+                               d.closing_balance, d.last_posted_at
+                        FROM (SELECT account_key,
+                                     CAST(timestamp AS DATE) AS day,
+                                     COALESCE(SUM(amount) FILTER (WHERE type_code = 0), 0) AS deposit_total,
+                                     COUNT(*) FILTER (WHERE type_code = 0) AS deposit_count,
+                                     COALESCE(SUM(amount) FILTER (WHERE type_code = 1), 0) AS withdrawal_total,
+                                     COUNT(*) FILTER (WHERE type_code = 1) AS withdrawal_count,
+                                     (ARRAY_AGG(resulting_balance ORDER BY timestamp DESC))[1] AS closing_balance,
+                                     MAX(timestamp) AS last_posted_at
+                              FROM transaction_history
+                              WHERE timestamp >= ? AND timestamp < ?
+                              GROUP BY account_key, CAST(timestamp AS DATE)) d
+                        JOIN accounts a ON a.account_key = d.account_key
+                        ON CONFLICT (iban, day) DO UPDATE
+                            SET deposit_total = EXCLUDED.deposit_total,
+                                deposit_count = EXCLUDED.deposit_count,
+                                withdrawal_total = EXCLUDED.withdrawal_total,
+                                withdrawal_count = EXCLUDED.withdrawal_count,
+                                closing_balance = EXCLUDED.closing_balance,
+                                last_posted_at = EXCLUDED.last_posted_at
+                        """,
+                Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(through.plusDays(1).atStartOfDay()));
+    }
+
+    public record Totals(BigDecimal depositTotal, long depositCount, BigDecimal withdrawalTotal, long withdrawalCount) {
+    }
+}
@@ -0,0 +1,238 @@
+package com.cobank.repository;
+
+import com.cobank.api.dto.HoldResponse;
+import com.cobank.api.dto.HoldStatus;
+import com.cobank.api.dto.TransactionType;
+import com.cobank.domain.TransactionTypeCodeConverter;
+import com.cobank.service.transaction.TransactionPostedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Holds and the held amount of their account. Every step is one statement that changes the hold and its account row,
+ * so the account is locked only for the duration of that statement.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FundHoldRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserves the amount on the account if its available balance covers it, and returns the id of the new hold.
+     */
+    public Optional<Long> authorize(long accountKey, BigDecimal amount, String reference, LocalDateTime authorizedAt,
+                                    LocalDateTime expiresAt) {
+        return jdbcTemplate.queryForList("""
+                                WITH held AS (
+                                    UPDATE accounts
+                                    SET held_amount = held_amount + ?,
+                                        version = version + 1
+                                    WHERE account_key = ?
+                                      AND balance - held_amount >= ?
+                                    RETURNING account_key
+                                )
+                                INSERT INTO fund_hold (account_key, amount, reference, expires_at, created_at)
+                                SELECT account_key, ?, ?, ?, ?
+                                FROM held
+                                RETURNING id
+                                """,
+                        Long.class, amount, accountKey, amount, amount, reference, Timestamp.valueOf(expiresAt),
+                        Timestamp.valueOf(authorizedAt))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Withdraws the captured amount, the full hold when {@code amount} is null, and releases the whole hold. The
+     * posting is written like a batch posting: the account row is locked to read the head of its hash chain, and the
+     * balance, chain and history row are written by the same statement. Returns nothing when the hold is not active,
+     * has expired or is smaller than the amount.
+     */
+    public Optional<TransactionPostedEvent> capture(long id, BigDecimal amount, String description,
+                                                    LocalDateTime capturedAt) {
+        return jdbcTemplate.query("""
+                                WITH params AS (
+                                    SELECT CAST(? AS BIGINT) AS hold_id, CAST(? AS NUMERIC(15, 2)) AS amount,
+                                           CAST(? AS TEXT) AS description, CAST(? AS TIMESTAMP) AS captured_at,
+                                           CAST(? AS SMALLINT) AS type_code
+                                ),
+                                hold AS (
+                                    UPDATE fund_hold h
+                                    SET status = 'CAPTURED',
+                                        captured_amount = COALESCE(p.amount, h.amount),
+                                        settled_at = p.captured_at
+                                    FROM params p
+                                    WHERE h.id = p.hold_id
+                                      AND h.status = 'ACTIVE'
+                                      AND h.expires_at > p.captured_at
+                                      AND COALESCE(p.amount, h.amount) <= h.amount
+                                    RETURNING h.account_key, h.amount AS held_amount, h.captured_amount,
+                                              COALESCE(p.description, h.reference, 'Capture of hold ' || h.id) AS description
+                                ),
+                                candidate AS (
+                                    SELECT a.id, a.history_hash AS prev_hash
+                                    FROM accounts a
+                                    JOIN hold h ON h.account_key = a.account_key
+                                    FOR UPDATE OF a
+                                ),
+                                posted AS (
+                                    UPDATE accounts a
+                                    SET balance = a.balance - h.captured_amount,
+                                        held_amount = a.held_amount - h.held_amount,
+                                        version = a.version + 1,
+                                        history_hash = history_hash(c.prev_hash, a.account_key, p.captured_at, p.type_code,
+                                                                    h.captured_amount, a.balance - h.captured_amount,
+                                                                    h.description)
+                                    FROM hold h, candidate c, params p
+                                    WHERE a.id = c.id
+                                    RETURNING a.account_key, a.iban, h.captured_amount, a.balance, a.version, c.prev_hash,
+                                              a.history_hash AS hash, p.captured_at, p.type_code, h.description
+                                ),
+                                history AS (
+                                    INSERT INTO transaction_history
+                                        (id, account_key, timestamp, type_code, amount, resulting_balance, description,
+                                         prev_hash, hash)
+                                    SELECT gen_random_uuid(), account_key, captured_at, type_code, captured_amount, balance,
+                                           description, prev_hash, hash
+                                    FROM posted
+                                    RETURNING id, account_key
+                                )
+                                SELECT h.id, p.iban, p.captured_amount, p.balance, p.version, p.description
+                                FROM history h
+                                JOIN posted p ON p.account_key = h.account_key
+                                """,
+                        (rs, rowNum) -> new TransactionPostedEvent(
+                                rs.getObject("id", UUID.class),
+                                rs.getString("iban"),
+                                TransactionType.WITHDRAWAL,
+                                rs.getBigDecimal("captured_amount"),
+                                rs.getBigDecimal("balance"),
+                                capturedAt,
+                                rs.getString("description"),
+                                rs.getLong("version")),
+                        id,
+                        amount,
+                        description,
+                        Timestamp.valueOf(capturedAt),
+                        TransactionTypeCodeConverter.INSTANCE.convertToDatabaseColumn(TransactionType.WITHDRAWAL))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Returns the held amount of an active hold to the available balance of its account.
+     */
+    public boolean release(long id, LocalDateTime releasedAt) {
+        return jdbcTemplate.update("""
+                        WITH hold AS (
+                            UPDATE fund_hold
+                            SET status = 'RELEASED',
+                                settled_at = ?
+                            WHERE id = ?
+                              AND status = 'ACTIVE'
+                            RETURNING account_key, amount
+                        )
+                        UPDATE accounts a
+                        SET held_amount = a.held_amount - h.amount,
+                            version = a.version + 1
+                        FROM hold h
+                        WHERE a.account_key = h.account_key
+                        """,
+                Timestamp.valueOf(releasedAt), id) > 0;
+    }
+
+    /**
+     * Expires up to {@code limit} holds that lapsed before {@code now}, and returns them. Holds locked by a
+     * capture, a release or a sweeper on another node are skipped, and the accounts are locked in key order so that
+     * concurrent sweepers cannot deadlock.
+     */
+    public List<ExpiredHold> expire(LocalDateTime now, int limit) {
+        return jdbcTemplate.query("""
+                        WITH lapsed AS (
+                            SELECT id
+                            FROM fund_hold
+                            WHERE status = 'ACTIVE'
+                              AND expires_at <= ?
+                            ORDER BY expires_at, id
+                            LIMIT ?
+                            FOR UPDATE SKIP LOCKED
+                        ),
+                        settled AS (
+                            UPDATE fund_hold h
+                            SET status = 'EXPIRED',
+                                settled_at = ?
+                            FROM lapsed l
+                            WHERE h.id = l.id
+                            RETURNING h.account_key, h.amount, h.created_at
+                        ),
+                        released AS (
+                            SELECT account_key, SUM(amount) AS amount
+                            FROM settled
+                            GROUP BY account_key
+                        ),
+                        locked AS (
+                            SELECT id, account_key
+                            FROM accounts
+                            WHERE account_key IN (SELECT account_key FROM settled)
+                            ORDER BY account_key
+                            FOR UPDATE
+                        ),
+                        updated AS (
+                            UPDATE accounts a
+                            SET held_amount = a.held_amount - r.amount,
+                                version = a.version + 1
+                            FROM locked l
+                            JOIN released r ON r.account_key = l.account_key
+                            WHERE a.id = l.id
+                            RETURNING a.account_key, a.iban
+                        )
+                        SELECT u.iban, s.amount, s.created_at
+                        FROM settled s
+                        JOIN updated u ON u.account_key = s.account_key
+                        """,
+                (rs, rowNum) -> new ExpiredHold(
+                        rs.getString("iban"),
+                        rs.getBigDecimal("amount"),
+                        rs.getTimestamp("created_at").toLocalDateTime()),
+                Timestamp.valueOf(now), limit, Timestamp.valueOf(now));
+    }
+
+    public Optional<HoldResponse> findById(long id) {
+        return jdbcTemplate.query("""
+                                SELECT h.id, a.iban, h.amount, h.reference, h.status, h.created_at, h.expires_at,
+                                       h.captured_amount, h.settled_at
+                                FROM fund_hold h
+                                JOIN accounts a ON a.account_key = h.account_key
+                                WHERE h.id = ?
+                                """,
+                        (rs, rowNum) -> new HoldResponse(
+                                rs.getLong("id"),
+                                rs.getString("iban"),
+                                rs.getBigDecimal("amount"),
+                                rs.getString("reference"),
+                                HoldStatus.valueOf(rs.getString("status")),
+                                rs.getTimestamp("created_at").toLocalDateTime(),
+                                rs.getTimestamp("expires_at").toLocalDateTime(),
+                                rs.getBigDecimal("captured_amount"),
+                                toLocalDateTime(rs.getTimestamp("settled_at"))),
+                        id)
+                .stream()
+                .findFirst();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    public record ExpiredHold(String iban, BigDecimal amount, LocalDateTime authorizedAt) {
+    }
+}
@@ -0,0 +1,149 @@
+package com.cobank.repository;
+
+import com.cobank.service.archive.ArchiveSegmentFile;
+import com.cobank.service.archive.ArchivedAccount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class HistoryArchiveRepository {
+
+    private static final String ACCOUNT_COLUMNS = """
+            SELECT x.account_key, x.archived_rows, x.net_flow, x.last_resulting_balance, x.last_posted_at, x.last_hash
+            FROM history_archive_account x
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public HistoryArchiveRepository(JdbcTemplate jdbcTemplate, DataSource dataSource,
+                                    @Value("${history-archive.fetch-size:5000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public Optional<ArchivedAccount> findAccount(long accountKey) {
+        return jdbcTemplate.query(ACCOUNT_COLUMNS + "WHERE x.account_key = ?", accountRowMapper(), accountKey)
+                .stream()
+                .findFirst();
+    }
+
+    public Optional<ArchivedAccount> findAccount(String iban) {
+        return jdbcTemplate.query(ACCOUNT_COLUMNS + "JOIN accounts a ON a.account_key = x.account_key WHERE a.iban = ?",
+                        accountRowMapper(), iban)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Names the segments that may hold rows of an account, newest archive run first.
+     */
+    public List<String> findSegmentFiles(long accountKey) {
+        return jdbcTemplate.queryForList("""
+                        SELECT file_name FROM history_archive_segment
+                        WHERE ? BETWEEN min_account_key AND max_account_key
+                        ORDER BY archived_before DESC, id
+                        """,
+                String.class, accountKey);
+    }
+
+    public Optional<LocalDateTime> findLatestArchivedBefore() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(
+                        "SELECT MAX(archived_before) FROM history_archive_segment", Timestamp.class))
+                .map(Timestamp::toLocalDateTime);
+    }
+
+    /**
+     * Streams the history rows posted before {@code before}, sorted by account and newest first within an account.
+     * PostgreSQL only uses a server-side cursor, and honours the fetch size, inside a transaction.
+     */
+    public void streamArchivable(LocalDateTime before, RowCallbackHandler handler) {
+        streamingJdbcTemplate.query("""
+                        SELECT id, account_key, timestamp, type_code, amount, resulting_balance, description, prev_hash,
+                               hash
+                        FROM transaction_history
+                        WHERE timestamp < ?
+                        ORDER BY account_key, timestamp DESC, id DESC
+                        """,
+                handler, Timestamp.valueOf(before));
+    }
+
+    public void insertSegments(LocalDateTime archivedBefore, List<ArchiveSegmentFile> segments) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO history_archive_segment
+                            (file_name, archived_before, min_account_key, max_account_key, row_count, size_bytes, sha256)
+                        VALUES (?, ?, ?, ?, ?, ?, ?)
+                        """,
+                segments, segments.size(), (statement, segment) -> {
+                    statement.setString(1, segment.fileName());
+                    statement.setTimestamp(2, Timestamp.valueOf(archivedBefore));
+                    statement.setLong(3, segment.minAccountKey());
+                    statement.setLong(4, segment.maxAccountKey());
+                    statement.setLong(5, segment.rows());
+                    statement.setLong(6, segment.sizeBytes());
+                    statement.setBytes(7, segment.sha256());
+                });
+    }
+
+    /**
+     * Adds the rows of an archive run to the per-account totals. The latest row only moves forward, so rows ingested
+     * later with old timestamps do not replace it.
+     */
+    public void addArchivedAccounts(List<ArchivedAccount> accounts) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO history_archive_account
+                            (account_key, archived_rows, net_flow, last_resulting_balance, last_posted_at, last_hash)
+                        VALUES (?, ?, ?, ?, ?, ?)
+                        ON CONFLICT (account_key) DO UPDATE
+                            SET archived_rows = history_archive_account.archived_rows + EXCLUDED.archived_rows,
+                                net_flow = history_archive_account.net_flow + EXCLUDED.net_flow,
+                                last_resulting_balance = CASE
+                                    WHEN EXCLUDED.last_posted_at > history_archive_account.last_posted_at
+                                        THEN EXCLUDED.last_resulting_balance
+                                    ELSE history_archive_account.last_resulting_balance END,
+                                last_hash = CASE
+                                    WHEN EXCLUDED.last_posted_at > history_archive_account.last_posted_at
+                                        THEN EXCLUDED.last_hash
+                                    ELSE history_archive_account.last_hash END,
+                                last_posted_at = GREATEST(history_archive_account.last_posted_at,
+                                                          EXCLUDED.last_posted_at)
+                        """,
+                accounts, accounts.size(), (statement, account) -> {
+                    statement.setLong(1, account.accountKey());
+                    statement.setLong(2, account.archivedRows());
+                    statement.setBigDecimal(3, account.netFlow());
+                    statement.setBigDecimal(4, account.lastResultingBalance());
+                    statement.setTimestamp(5, Timestamp.valueOf(account.lastPostedAt()));
+                    statement.setBytes(6, account.lastHash());
+                });
+    }
+
+    /**
+     * Deletes the archived rows, and their projections so that the read model continues into the archive in the same
+     * place. Returns the number of history rows deleted.
+     */
+    public int deleteArchived(LocalDateTime before) {
+        jdbcTemplate.update("DELETE FROM transaction_history_view WHERE timestamp < ?", Timestamp.valueOf(before));
+        return jdbcTemplate.update("DELETE FROM transaction_history WHERE timestamp < ?", Timestamp.valueOf(before));
+    }
+
+    private static RowMapper<ArchivedAccount> accountRowMapper() {
+        return (rs, rowNum) -> new ArchivedAccount(
+                rs.getLong("account_key"),
+                rs.getLong("archived_rows"),
+                rs.getBigDecimal("net_flow"),
+                rs.getBigDecimal("last_resulting_balance"),
+                rs.getTimestamp("last_posted_at").toLocalDateTime(),
+                rs.getBytes("last_hash"));
+    }
+}
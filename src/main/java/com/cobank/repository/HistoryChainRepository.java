@@ -0,0 +1,69 @@
+package com.cobank.repository;
+
+import com.cobank.service.chain.ChainViolation;
+import com.cobank.service.job.KeyRange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@Repository
+public class HistoryChainRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public HistoryChainRepository(JdbcTemplate jdbcTemplate, DataSource dataSource,
+                                  @Value("${history-chain.verification.fetch-size:5000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public Optional<KeyRange> findAccountKeyBounds() {
+        return jdbcTemplate.query("SELECT MIN(account_key) AS min_key, MAX(account_key) AS max_key FROM accounts",
+                        (rs, rowNum) -> rs.getObject("min_key") == null
+                                ? null
+                                : new KeyRange(rs.getLong("min_key"), rs.getLong("max_key")))
+                .stream()
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    /**
+     * Streams the history rows of an account key range grouped by account, each with the chain head stored on its
+     * account and the hash of its latest archived row, which the chain of hot rows starts from. Accounts without
+     * history come as a single row without history columns. PostgreSQL only uses a server-side cursor, and honours the
+     * fetch size, inside a transaction.
+     */
+    public void streamChains(long fromKey, long toKey, RowCallbackHandler handler) {
+        streamingJdbcTemplate.query("""
+                        SELECT a.account_key, a.history_hash AS head, x.last_hash AS tail, h.id, h.timestamp,
+                               h.type_code, h.amount, h.resulting_balance, h.description, h.prev_hash, h.hash
+                        FROM accounts a
+                        LEFT JOIN history_archive_account x ON x.account_key = a.account_key
+                        LEFT JOIN transaction_history h ON h.account_key = a.account_key
+                        WHERE a.account_key BETWEEN ? AND ?
+                        ORDER BY a.account_key
+                        """,
+                handler, fromKey, toKey);
+    }
+
+    public void saveViolations(long runId, List<ChainViolation> violations) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO history_chain_violation (run_id, account_key, history_id, kind)
+                        VALUES (?, ?, ?, ?)
+                        """,
+                violations, 500, (statement, violation) -> {
+                    statement.setLong(1, runId);
+                    statement.setLong(2, violation.accountKey());
+                    statement.setObject(3, violation.historyId());
+                    statement.setString(4, violation.kind().name());
+                });
+    }
+}
@@ -0,0 +1,124 @@
+package com.cobank.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class HistoryIngestRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PgCopySupport pgCopySupport;
+
+    public Optional<Checkpoint> findCheckpoint(String source) {
+        return jdbcTemplate.query("""
+                                SELECT source_size, committed_lines, rows_ingested, indexes_deferred,
+                                       completed_at IS NOT NULL AS completed
+                                FROM history_ingest_checkpoint
+                                WHERE source = ?
+                                """,
+                        (rs, rowNum) -> new Checkpoint(
+                                rs.getLong("source_size"),
+                                rs.getLong("committed_lines"),
+                                rs.getLong("rows_ingested"),
+                                rs.getBoolean("indexes_deferred"),
+                                rs.getBoolean("completed")),
+                        source)
+                .stream()
+                .findFirst();
+    }
+
+    public void createCheckpoint(String source, long sourceSize, boolean indexesDeferred) {
+        jdbcTemplate.update(
+                "INSERT INTO history_ingest_checkpoint (source, source_size, indexes_deferred) VALUES (?, ?, ?)",
+                source, sourceSize, indexesDeferred);
+    }
+
+    public boolean isHistoryEmpty() {
+        return jdbcTemplate.queryForList("SELECT 1 FROM transaction_history LIMIT 1", Integer.class).isEmpty();
+    }
+
+    /**
+     * Appends a chunk of pre-rendered COPY rows and advances the checkpoint. Must run in the same transaction so a
+     * restart never re-applies a committed chunk.
+     */
+    public long appendChunk(String source, String copyRows, Collection<String> ibans, long committedLines) {
+        long rows = pgCopySupport.copyIn("""
+                        COPY transaction_history (id, account_key, type_code, amount, resulting_balance, timestamp, description)
+                        FROM STDIN WITH (FORMAT csv)
+                        """,
+                new StringReader(copyRows));
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO history_ingest_account (source, iban) VALUES (?, ?)
+                        ON CONFLICT DO NOTHING
+                        """,
+                ibans, 1000, (statement, iban) -> {
+                    statement.setString(1, source);
+                    statement.setString(2, iban);
+                });
+        jdbcTemplate.update("""
+                        UPDATE history_ingest_checkpoint
+                        SET committed_lines = ?, rows_ingested = rows_ingested + ?, updated_at = CURRENT_TIMESTAMP
+                        WHERE source = ?
+                        """,
+                committedLines, rows, source);
+        return rows;
+    }
+
+    public void dropHistoryIndex() {
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_account_key_timestamp");
+    }
+
+    public void createHistoryIndex() {
+        jdbcTemplate.execute(
+                "CREATE INDEX IF NOT EXISTS idx_account_key_timestamp ON transaction_history (account_key, timestamp DESC)");
+    }
+
+    /**
+     * Sets the balance of every account touched by the ingest to the resulting balance of its latest posting.
+     */
+    public int applyFinalBalances(String source) {
+        return jdbcTemplate.update("""
+                UPDATE accounts a
+                SET balance = latest.resulting_balance,
+                    version = a.version + 1
+                FROM (SELECT DISTINCT ON (h.account_key) h.account_key, h.resulting_balance
+                      FROM history_ingest_account i
+                      JOIN accounts ia ON ia.iban = i.iban
+                      JOIN transaction_history h ON h.account_key = ia.account_key
+                      WHERE i.source = ?
+                      ORDER BY h.account_key, h.timestamp DESC) latest
+                WHERE a.account_key = latest.account_key
+                """, source);
+    }
+
+    /**
+     * Chains the history of every account touched by the ingest, since COPY writes rows without their hashes.
+     */
+    public int rechainAccounts(String source) {
+        return jdbcTemplate.queryForList("""
+                        SELECT rechain_history(ia.account_key)
+                        FROM history_ingest_account i
+                        JOIN accounts ia ON ia.iban = i.iban
+                        WHERE i.source = ?
+                        """,
+                byte[].class, source).size();
+    }
+
+    public void complete(String source) {
+        jdbcTemplate.update("""
+                UPDATE history_ingest_checkpoint
+                SET completed_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP
+                WHERE source = ?
+                """, source);
+    }
+
+    public record Checkpoint(long sourceSize, long committedLines, long rowsIngested, boolean indexesDeferred,
+                             boolean completed) {
+    }
+}
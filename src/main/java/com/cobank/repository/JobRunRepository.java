@@ -0,0 +1,154 @@
+package com.cobank.repository;
+
+import com.cobank.api.dto.JobRunResponse;
+import com.cobank.service.job.KeyRange;
+import com.cobank.service.job.RangeResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class JobRunRepository {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+    public static final String PENDING = "PENDING";
+
+    private static final int JOB_LOCK = "job_run".hashCode();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Serializes starting runs of a job type across nodes until the current transaction ends.
+     */
+    public void lockJobType(String jobType) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?, ?)", JOB_LOCK, jobType.hashCode());
+    }
+
+    public long createRun(String jobType, String parameters, List<KeyRange> ranges, String owner) {
+        Long runId = jdbcTemplate.queryForObject("""
+                        INSERT INTO job_run (job_type, parameters, status, owner, heartbeat_at)
+                        VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)
+                        RETURNING id
+                        """,
+                Long.class, jobType, parameters, RUNNING, owner);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO job_range (run_id, range_start, range_end, status) VALUES (?, ?, ?, ?)",
+                ranges, 1000, (statement, range) -> {
+                    statement.setLong(1, runId);
+                    statement.setLong(2, range.start());
+                    statement.setLong(3, range.end());
+                    statement.setString(4, PENDING);
+                });
+        return runId;
+    }
+
+    public Optional<Long> findUnfinishedRun(String jobType) {
+        return jdbcTemplate.queryForList(
+                        "SELECT id FROM job_run WHERE job_type = ? AND status IN (?, ?) ORDER BY id DESC LIMIT 1",
+                        Long.class, jobType, RUNNING, FAILED)
+                .stream()
+                .findFirst();
+    }
+
+    public Optional<Long> findLatestRun(String jobType, String parameters) {
+        return jdbcTemplate.queryForList(
+                        "SELECT id FROM job_run WHERE job_type = ? AND parameters = ? ORDER BY id DESC LIMIT 1",
+                        Long.class, jobType, parameters)
+                .stream()
+                .findFirst();
+    }
+
+    public Optional<String> findParameters(long runId) {
+        return jdbcTemplate.queryForList("SELECT parameters FROM job_run WHERE id = ?", String.class, runId)
+                .stream()
+                .findFirst();
+    }
+
+    public List<KeyRange> findPendingRanges(long runId) {
+        return jdbcTemplate.query(
+                "SELECT range_start, range_end FROM job_range WHERE run_id = ? AND status = ? ORDER BY range_start",
+                (rs, rowNum) -> new KeyRange(rs.getLong("range_start"), rs.getLong("range_end")),
+                runId, PENDING);
+    }
+
+    /**
+     * Returns false when the range was completed already, by a node whose lease on the run had lapsed.
+     */
+    public boolean completeRange(long runId, KeyRange range, RangeResult result) {
+        return jdbcTemplate.update("""
+                        UPDATE job_range
+                        SET status = ?, processed = ?, findings = ?, completed_at = CURRENT_TIMESTAMP
+                        WHERE run_id = ? AND range_start = ? AND status = ?
+                        """,
+                COMPLETED, result.processed(), result.findings(), runId, range.start(), PENDING) == 1;
+    }
+
+    /**
+     * Takes over a failed run, or a running one whose owner missed its heartbeats for longer than the lease. Returns
+     * false when another node still runs it.
+     */
+    public boolean claim(long runId, String owner, Duration lease) {
+        return jdbcTemplate.update("""
+                        UPDATE job_run
+                        SET status = ?, owner = ?, heartbeat_at = CURRENT_TIMESTAMP, finished_at = NULL
+                        WHERE id = ?
+                          AND (status = ? OR heartbeat_at < CURRENT_TIMESTAMP - ? * INTERVAL '1 millisecond')
+                        """,
+                RUNNING, owner, runId, FAILED, lease.toMillis()) == 1;
+    }
+
+    /**
+     * Renews the owner's lease on the run. Returns false when another node took the run over.
+     */
+    public boolean heartbeat(long runId, String owner) {
+        return jdbcTemplate.update("UPDATE job_run SET heartbeat_at = CURRENT_TIMESTAMP WHERE id = ? AND owner = ?",
+                runId, owner) == 1;
+    }
+
+    public void finish(long runId, String owner, String status) {
+        jdbcTemplate.update("""
+                        UPDATE job_run
+                        SET status = ?, finished_at = CURRENT_TIMESTAMP
+                        WHERE id = ? AND owner = ?
+                        """,
+                status, runId, owner);
+    }
+
+    public Optional<JobRunResponse> findRun(long runId) {
+        return jdbcTemplate.query("""
+                                SELECT r.id, r.job_type, r.status, r.started_at, r.finished_at,
+                                       COUNT(g.range_start)                                AS total_ranges,
+                                       COUNT(g.range_start) FILTER (WHERE g.status = ?)    AS completed_ranges,
+                                       COALESCE(SUM(g.processed), 0)                       AS processed,
+                                       COALESCE(SUM(g.findings), 0)                        AS findings
+                                FROM job_run r
+                                LEFT JOIN job_range g ON g.run_id = r.id
+                                WHERE r.id = ?
+                                GROUP BY r.id
+                                """,
+                        (rs, rowNum) -> {
+                            Timestamp finishedAt = rs.getTimestamp("finished_at");
+                            return new JobRunResponse(
+                                    rs.getLong("id"),
+                                    rs.getString("job_type"),
+                                    rs.getString("status"),
+                                    rs.getLong("total_ranges"),
+                                    rs.getLong("completed_ranges"),
+                                    rs.getLong("processed"),
+                                    rs.getLong("findings"),
+                                    rs.getTimestamp("started_at").toLocalDateTime(),
+                                    finishedAt == null ? null : finishedAt.toLocalDateTime());
+                        },
+                        COMPLETED, runId)
+                .stream()
+                .findFirst();
+    }
+}
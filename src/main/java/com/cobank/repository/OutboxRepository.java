@@ -0,0 +1,76 @@
+package com.cobank.repository;
+
+import com.cobank.service.outbox.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void append(String iban, String eventType, String payload) {
+        jdbcTemplate.update("INSERT INTO transaction_outbox (iban, event_type, payload) VALUES (?, ?, ?)",
+                iban, eventType, payload);
+    }
+
+    /**
+     * Locks the oldest unpublished messages of one partition. A worker claims an account by locking its oldest
+     * unpublished message, and takes the account's later messages along with it. Accounts claimed by another relay
+     * worker are skipped, so workers on any number of nodes can drain the outbox concurrently, and the messages of an
+     * account are still published by one worker at a time, in order. Partitioning by IBAN only spreads the accounts
+     * over the workers of a node.
+     */
+    public List<OutboxMessage> claimBatch(int partition, int partitions, int limit) {
+        return jdbcTemplate.query("""
+                        WITH claimed AS (
+                            SELECT iban
+                            FROM transaction_outbox message
+                            WHERE published_at IS NULL
+                              AND (hashtext(iban) & 2147483647) % ? = ?
+                              AND NOT EXISTS (SELECT 1
+                                              FROM transaction_outbox older
+                                              WHERE older.iban = message.iban
+                                                AND older.published_at IS NULL
+                                                AND older.id < message.id)
+                            ORDER BY id
+                            LIMIT ?
+                            FOR UPDATE SKIP LOCKED
+                        )
+                        SELECT id, iban, event_type, payload, created_at
+                        FROM transaction_outbox
+                        WHERE published_at IS NULL
+                          AND iban IN (SELECT iban FROM claimed)
+                        ORDER BY id
+                        LIMIT ?
+                        FOR UPDATE
+                        """,
+                (rs, rowNum) -> new OutboxMessage(
+                        rs.getLong("id"),
+                        rs.getString("iban"),
+                        rs.getString("event_type"),
+                        rs.getString("payload"),
+                        rs.getTimestamp("created_at").toLocalDateTime()),
+                partitions, partition, limit, limit);
+    }
+
+    public void markPublished(List<OutboxMessage> batch) {
+        Long[] ids = batch.stream().map(OutboxMessage::id).toArray(Long[]::new);
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(
+                    "UPDATE transaction_outbox SET published_at = CURRENT_TIMESTAMP WHERE id = ANY (?)");
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            return statement;
+        });
+    }
+
+    public int deletePublishedBefore(LocalDateTime threshold) {
+        return jdbcTemplate.update("DELETE FROM transaction_outbox WHERE published_at < ?", Timestamp.valueOf(threshold));
+    }
+}
@@ -0,0 +1,40 @@
+package com.cobank.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Streams rows into PostgreSQL with the COPY protocol on the connection of the current transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class PgCopySupport {
+
+    private final DataSource dataSource;
+
+    public long copyIn(String copySql, Reader csvRows) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql, csvRows);
+        } catch (SQLException | IOException ex) {
+            throw new DataAccessResourceFailureException("COPY failed: " + ex.getMessage(), ex);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    public static void appendCsvField(StringBuilder row, Object value) {
+        if (value != null) {
+            row.append('"').append(value.toString().replace("\"", "\"\"")).append('"');
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.cobank.repository;
+
+import com.cobank.api.dto.BalanceSnapshot;
+import com.cobank.api.dto.FetchBalanceResponse;
+import com.cobank.api.dto.ReadModelRebuildResponse;
+import com.cobank.api.dto.TransactionHistoryResponse;
+import com.cobank.api.dto.TransactionType;
+import com.cobank.service.transaction.TransactionPostedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class ReadModelRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Projects the posting into the history view and the account's current row into the balance view, and returns the
+     * projected balance if the view had an older version.
+     */
+    public Optional<BalanceSnapshot> project(TransactionPostedEvent event) {
+        jdbcTemplate.update("""
+                        INSERT INTO transaction_history_view
+                            (history_id, iban, transaction_type, amount, resulting_balance, timestamp, description)
+                        VALUES (?, ?, ?, ?, ?, ?, ?)
+                        ON CONFLICT (history_id) DO NOTHING
+                        """,
+                event.historyId(), event.iban(), event.transactionType().name(), event.amount(),
+                event.resultingBalance(), Timestamp.valueOf(event.timestamp()), event.description());
+        return projectAccount(event.iban(), event.timestamp());
+    }
+
+    /**
+     * Projects the balance, held amount and version of the account, and returns them if the view had an older version.
+     * The account row is read as a whole, so the three always match, and projections that arrive out of order never
+     * overwrite a newer version.
+     */
+    public Optional<BalanceSnapshot> projectAccount(String iban, LocalDateTime postedAt) {
+        return jdbcTemplate.query("""
+                                INSERT INTO account_balance_view
+                                    (iban, balance, held_amount, version, last_posted_at, projected_at)
+                                SELECT iban, balance, held_amount, version, CAST(? AS TIMESTAMP), CURRENT_TIMESTAMP
+                                FROM accounts
+                                WHERE iban = ?
+                                ON CONFLICT (iban) DO UPDATE
+                                    SET balance = EXCLUDED.balance,
+                                        held_amount = EXCLUDED.held_amount,
+                                        version = EXCLUDED.version,
+                                        last_posted_at = GREATEST(account_balance_view.last_posted_at,
+                                                                  EXCLUDED.last_posted_at),
+                                        projected_at = EXCLUDED.projected_at
+                                    WHERE account_balance_view.version < EXCLUDED.version
+                                RETURNING iban, balance, held_amount, version
+                                """,
+                        balanceRowMapper(),
+                        postedAt == null ? null : Timestamp.valueOf(postedAt), iban)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Finds the balance if it was projected at {@code version} of the account or later.
+     */
+    public Optional<FetchBalanceResponse> findBalance(String iban, long version) {
+        return jdbcTemplate.query("""
+                                SELECT iban, balance, held_amount, version
+                                FROM account_balance_view
+                                WHERE iban = ?
+                                  AND version >= ?
+                                """,
+                        balanceRowMapper(), iban, version)
+                .stream()
+                .findFirst()
+                .map(BalanceSnapshot::balance);
+    }
+
+    public Optional<Long> findVersion(String iban) {
+        return jdbcTemplate.queryForList("SELECT version FROM account_balance_view WHERE iban = ?", Long.class, iban)
+                .stream()
+                .findFirst();
+    }
+
+    public Page<TransactionHistoryResponse> findHistory(String iban, Pageable pageable) {
+        List<TransactionHistoryResponse> content = jdbcTemplate.query("""
+                        SELECT iban, transaction_type, amount, resulting_balance, timestamp, description
+                        FROM transaction_history_view
+                        WHERE iban = ?
+                        ORDER BY timestamp DESC
+                        LIMIT ? OFFSET ?
+                        """,
+                historyRowMapper(), iban, pageable.getPageSize(), pageable.getOffset());
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transaction_history_view WHERE iban = ?", Long.class, iban);
+        return new PageImpl<>(content, pageable, total == null ? 0 : total);
+    }
+
+    /**
+     * Replaces the history view with {@code transaction_history} and the balance view with the account rows. The views
+     * are locked for the duration of the rebuild so that concurrent projections wait instead of being wiped by the
+     * truncate. Archived history is not copied back into the history view.
+     */
+    public ReadModelRebuildResponse rebuild() {
+        jdbcTemplate.execute("LOCK TABLE account_balance_view, transaction_history_view IN EXCLUSIVE MODE");
+        jdbcTemplate.execute("TRUNCATE account_balance_view, transaction_history_view");
+
+        int historyRows = jdbcTemplate.update("""
+                INSERT INTO transaction_history_view
+                    (history_id, iban, transaction_type, amount, resulting_balance, timestamp, description)
+                SELECT id, iban, transaction_type, amount, resulting_balance, timestamp, description
+                FROM transaction_history_expanded
+                """);
+        int balanceRows = jdbcTemplate.update("""
+                INSERT INTO account_balance_view (iban, balance, held_amount, version, last_posted_at, projected_at)
+                SELECT a.iban, a.balance, a.held_amount, a.version, h.last_posted_at, CURRENT_TIMESTAMP
+                FROM accounts a
+                LEFT JOIN (SELECT account_key, MAX(timestamp) AS last_posted_at
+                           FROM (SELECT account_key, timestamp FROM transaction_history
+                                 UNION ALL
+                                 SELECT account_key, last_posted_at FROM history_archive_account) postings
+                           GROUP BY account_key) h ON h.account_key = a.account_key
+                """);
+        return new ReadModelRebuildResponse(historyRows, balanceRows);
+    }
+
+    /**
+     * Projects the postings since {@code since} that have no projection yet, because the projector dropped them or
+     * never saw them, and brings the balances of accounts with postings or hold changes since then up to the account
+     * row. Returns the number of postings projected.
+     */
+    public int catchUp(LocalDateTime since) {
+        int historyRows = jdbcTemplate.update("""
+                        INSERT INTO transaction_history_view
+                            (history_id, iban, transaction_type, amount, resulting_balance, timestamp, description)
+                        SELECT h.id, h.iban, h.transaction_type, h.amount, h.resulting_balance, h.timestamp, h.description
+                        FROM transaction_history_expanded h
+                        WHERE h.timestamp >= ?
+                          AND NOT EXISTS (SELECT 1 FROM transaction_history_view v WHERE v.history_id = h.id)
+                        ON CONFLICT (history_id) DO NOTHING
+                        """,
+                Timestamp.valueOf(since));
+        jdbcTemplate.update("""
+                        INSERT INTO account_balance_view (iban, balance, held_amount, version, last_posted_at, projected_at)
+                        SELECT a.iban, a.balance, a.held_amount, a.version, c.last_posted_at, CURRENT_TIMESTAMP
+                        FROM (SELECT account_key, MAX(last_posted_at) AS last_posted_at
+                              FROM (SELECT account_key, timestamp AS last_posted_at
+                                    FROM transaction_history
+                                    WHERE timestamp >= ?
+                                    UNION ALL
+                                    SELECT account_key, NULL
+                                    FROM fund_hold
+                                    WHERE created_at >= ? OR settled_at >= ?) changes
+                              GROUP BY account_key) c
+                                 JOIN accounts a ON a.account_key = c.account_key
+                        ON CONFLICT (iban) DO UPDATE
+                            SET balance = EXCLUDED.balance,
+                                held_amount = EXCLUDED.held_amount,
+                                version = EXCLUDED.version,
+                                last_posted_at = GREATEST(account_balance_view.last_posted_at, EXCLUDED.last_posted_at),
+                                projected_at = EXCLUDED.projected_at
+                            WHERE account_balance_view.version < EXCLUDED.version
+                        """,
+                Timestamp.valueOf(since), Timestamp.valueOf(since), Timestamp.valueOf(since));
+        return historyRows;
+    }
+
+    /**
+     * Projects the accounts above {@code afterAccountKey} that have no balance yet, such as imported accounts, and
+     * returns the highest account key seen.
+     */
+    public long projectNewAccounts(long afterAccountKey) {
+        Long highest = jdbcTemplate.queryForObject("""
+                        WITH projected AS (
+                            INSERT INTO account_balance_view (iban, balance, held_amount, version, projected_at)
+                            SELECT a.iban, a.balance, a.held_amount, a.version, CURRENT_TIMESTAMP
+                            FROM accounts a
+                            WHERE a.account_key > ?
+                              AND NOT EXISTS (SELECT 1 FROM account_balance_view v WHERE v.iban = a.iban)
+                            ON CONFLICT (iban) DO NOTHING
+                        )
+                        SELECT COALESCE(MAX(account_key), ?) FROM accounts WHERE account_key > ?
+                        """,
+                Long.class, afterAccountKey, afterAccountKey, afterAccountKey);
+        return highest == null ? afterAccountKey : highest;
+    }
+
+    private RowMapper<BalanceSnapshot> balanceRowMapper() {
+        return (rs, rowNum) -> {
+            BigDecimal balance = rs.getBigDecimal("balance");
+            return new BalanceSnapshot(new FetchBalanceResponse(rs.getString("iban"), balance,
+                    balance.subtract(rs.getBigDecimal("held_amount"))), rs.getLong("version"));
+        };
+    }
+
+    private RowMapper<TransactionHistoryResponse> historyRowMapper() {
+        return (rs, rowNum) -> new TransactionHistoryResponse(
+                rs.getString("iban"),
+                TransactionType.valueOf(rs.getString("transaction_type")),
+                rs.getBigDecimal("amount"),
+                rs.getBigDecimal("resulting_balance"),
+                rs.getTimestamp("timestamp").toLocalDateTime(),
+                rs.getString("description")
+        );
+    }
+}
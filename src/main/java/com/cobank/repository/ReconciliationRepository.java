@@ -0,0 +1,79 @@
+package com.cobank.repository;
+
+import com.cobank.service.job.KeyRange;
+import com.cobank.service.reconciliation.Discrepancy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@Repository
+public class ReconciliationRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public ReconciliationRepository(JdbcTemplate jdbcTemplate, DataSource dataSource,
+                                    @Value("${reconciliation.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public Optional<KeyRange> findAccountKeyBounds() {
+        return jdbcTemplate.query("SELECT MIN(account_key) AS min_key, MAX(account_key) AS max_key FROM accounts",
+                        (rs, rowNum) -> rs.getObject("min_key") == null
+                                ? null
+                                : new KeyRange(rs.getLong("min_key"), rs.getLong("max_key")))
+                .stream()
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    /**
+     * Streams the accounts of an account key range together with the last resulting balance and the net flow of their
+     * history, archived history included. PostgreSQL only uses a server-side cursor, and honours the fetch size, inside
+     * a transaction.
+     */
+    public void streamLedger(long fromKey, long toKey, RowCallbackHandler handler) {
+        streamingJdbcTemplate.query("""
+                        SELECT a.iban,
+                               a.balance,
+                               COALESCE(h.last_resulting_balance, x.last_resulting_balance) AS last_resulting_balance,
+                               COALESCE(h.net_flow, 0) + COALESCE(x.net_flow, 0) AS net_flow
+                        FROM accounts a
+                        LEFT JOIN (
+                            SELECT account_key,
+                                   (ARRAY_AGG(resulting_balance ORDER BY timestamp DESC))[1] AS last_resulting_balance,
+                                   SUM(CASE WHEN type_code = 0 THEN amount ELSE -amount END) AS net_flow
+                            FROM transaction_history
+                            WHERE account_key BETWEEN ? AND ?
+                            GROUP BY account_key
+                        ) h ON h.account_key = a.account_key
+                        LEFT JOIN history_archive_account x ON x.account_key = a.account_key
+                        WHERE a.account_key BETWEEN ? AND ?
+                        ORDER BY a.account_key
+                        """,
+                handler, fromKey, toKey, fromKey, toKey);
+    }
+
+    public void saveDiscrepancies(long runId, List<Discrepancy> discrepancies) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO reconciliation_discrepancy
+                            (run_id, iban, account_balance, last_resulting_balance, net_flow)
+                        VALUES (?, ?, ?, ?, ?)
+                        """,
+                discrepancies, 500, (statement, discrepancy) -> {
+                    statement.setLong(1, runId);
+                    statement.setString(2, discrepancy.iban());
+                    statement.setBigDecimal(3, discrepancy.accountBalance());
+                    statement.setBigDecimal(4, discrepancy.lastResultingBalance());
+                    statement.setBigDecimal(5, discrepancy.netFlow());
+                });
+    }
+}
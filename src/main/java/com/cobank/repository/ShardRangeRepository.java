@@ -0,0 +1,159 @@
+package com.cobank.repository;
+
+import com.cobank.api.dto.ShardRangeStatus;
+import com.cobank.service.sharding.ShardRange;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * The shard directory. It is created by the sharding configuration on a template of the directory shard's own pool,
+ * so that it is read and written there whichever shard the calling thread runs in.
+ */
+public class ShardRangeRepository {
+
+    private static final RowMapper<ShardRange> SHARD_RANGE = (rs, rowNum) -> new ShardRange(
+            rs.getLong("start_key"),
+            rs.getLong("end_key"),
+            rs.getString("shard"),
+            rs.getObject("next_key", Long.class),
+            ShardRangeStatus.valueOf(rs.getString("status")));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShardRangeRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<ShardRange> findAll() {
+        return jdbcTemplate.query(
+                "SELECT start_key, end_key, shard, next_key, status FROM shard_range ORDER BY start_key", SHARD_RANGE);
+    }
+
+    /**
+     * Locks the ranges that overlap the keys, for a change of the directory in the current transaction.
+     */
+    public List<ShardRange> lockOverlapping(long fromKey, long toKey) {
+        return jdbcTemplate.query("""
+                        SELECT start_key, end_key, shard, next_key, status
+                        FROM shard_range
+                        WHERE start_key <= ?
+                          AND end_key >= ?
+                        ORDER BY start_key
+                        FOR UPDATE
+                        """,
+                SHARD_RANGE, toKey, fromKey);
+    }
+
+    /**
+     * Assigns the keys issued before sharding, up to the current value of the account sequence, to the directory
+     * shard. Does nothing once the directory has ranges.
+     */
+    public void seed(String directoryShard) {
+        jdbcTemplate.update("""
+                        INSERT INTO shard_range (start_key, end_key, shard)
+                        SELECT 0, last_value, ?
+                        FROM account_sequence
+                        WHERE NOT EXISTS (SELECT 1 FROM shard_range)
+                        """,
+                directoryShard);
+    }
+
+    /**
+     * Takes up to {@code count} keys from the first open range of the shard. Returns none when the shard has no open
+     * range left.
+     */
+    public List<Long> allocate(String shard, int count) {
+        return jdbcTemplate.query("""
+                                WITH open AS (
+                                    SELECT start_key, next_key AS first_key
+                                    FROM shard_range
+                                    WHERE shard = ?
+                                      AND status = 'ACTIVE'
+                                      AND next_key <= end_key
+                                    ORDER BY start_key
+                                    LIMIT 1
+                                    FOR UPDATE
+                                )
+                                UPDATE shard_range r
+                                SET next_key = LEAST(o.first_key + ?, r.end_key + 1)
+                                FROM open o
+                                WHERE r.start_key = o.start_key
+                                RETURNING o.first_key, r.next_key
+                                """,
+                        (rs, rowNum) -> LongStream.range(rs.getLong("first_key"), rs.getLong("next_key"))
+                                .boxed()
+                                .toList(),
+                        shard, count)
+                .stream()
+                .findFirst()
+                .orElse(List.of());
+    }
+
+    /**
+     * Opens a range of {@code size} keys after the highest assigned key for the shard. The account sequence is moved
+     * past it, so keys are never issued twice should sharding be turned off again. Returns false when another node
+     * opened a range at the same time, the caller then tries again.
+     */
+    public boolean open(String shard, long size) {
+        try {
+            jdbcTemplate.queryForList("""
+                            WITH opened AS (
+                                INSERT INTO shard_range (start_key, end_key, shard, next_key)
+                                SELECT COALESCE(MAX(end_key), 0) + 1, COALESCE(MAX(end_key), 0) + ?, ?,
+                                       COALESCE(MAX(end_key), 0) + 1
+                                FROM shard_range
+                                RETURNING end_key
+                            )
+                            SELECT setval('account_sequence', GREATEST(end_key, last_value))
+                            FROM opened, account_sequence
+                            """,
+                    Long.class, size, shard);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Replaces a locked range by the parts of {@link ShardRange#splitAt}.
+     */
+    public void split(ShardRange range, long accountKey) {
+        List<ShardRange> parts = range.splitAt(accountKey);
+        ShardRange lower = parts.get(0);
+        ShardRange upper = parts.get(1);
+        jdbcTemplate.update("UPDATE shard_range SET end_key = ?, next_key = ? WHERE start_key = ?",
+                lower.endKey(), lower.nextKey(), lower.startKey());
+        jdbcTemplate.update("""
+                        INSERT INTO shard_range (start_key, end_key, shard, next_key, status)
+                        VALUES (?, ?, ?, ?, ?)
+                        """,
+                upper.startKey(), upper.endKey(), upper.shard(), upper.nextKey(), upper.status().name());
+    }
+
+    /**
+     * Marks the ranges within the keys as moving and closes them, the keys they did not hand out yet are skipped.
+     */
+    public int markMoving(long fromKey, long toKey) {
+        return jdbcTemplate.update("""
+                        UPDATE shard_range
+                        SET status = 'MOVING',
+                            next_key = NULL
+                        WHERE start_key BETWEEN ? AND ?
+                        """,
+                fromKey, toKey);
+    }
+
+    public int assign(long fromKey, long toKey, String shard) {
+        return jdbcTemplate.update("""
+                        UPDATE shard_range
+                        SET shard = ?,
+                            status = 'ACTIVE'
+                        WHERE start_key BETWEEN ? AND ?
+                        """,
+                shard, fromKey, toKey);
+    }
+}
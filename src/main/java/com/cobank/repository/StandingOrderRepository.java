@@ -0,0 +1,238 @@
+package com.cobank.repository;
+
+import com.cobank.api.dto.StandingOrderFrequency;
+import com.cobank.api.dto.StandingOrderOutcome;
+import com.cobank.api.dto.StandingOrderRequest;
+import com.cobank.api.dto.StandingOrderResponse;
+import com.cobank.api.dto.StandingOrderStatus;
+import com.cobank.domain.TransactionTypeCodeConverter;
+import com.cobank.service.standingorder.DueStandingOrder;
+import com.cobank.service.standingorder.LockedAccount;
+import com.cobank.service.standingorder.StandingOrderExecution;
+import com.cobank.service.standingorder.StandingOrderPosting;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class StandingOrderRepository {
+
+    private static final String RESPONSE_COLUMNS = """
+            SELECT o.id, a.iban, o.type_code, o.amount, o.frequency, o.start_at, o.end_at, o.description, o.status,
+                   o.next_due_at, o.executions, o.last_executed_at, o.last_outcome
+            FROM standing_order o
+            JOIN accounts a ON a.account_key = o.account_key
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<Long> insert(long accountKey, StandingOrderRequest request, LocalDateTime startAt) {
+        return jdbcTemplate.queryForList("""
+                                INSERT INTO standing_order
+                                    (account_key, type_code, amount, frequency, start_at, end_at, description,
+                                     next_due_at)
+                                SELECT account_key, ?, ?, ?, ?, ?, ?, ?
+                                FROM accounts
+                                WHERE account_key = ?
+                                RETURNING id
+                                """,
+                        Long.class,
+                        TransactionTypeCodeConverter.INSTANCE.convertToDatabaseColumn(request.type()),
+                        request.amount(),
+                        request.frequency().name(),
+                        Timestamp.valueOf(startAt),
+                        request.endAt() == null ? null : Timestamp.valueOf(request.endAt()),
+                        request.description(),
+                        Timestamp.valueOf(startAt),
+                        accountKey)
+                .stream()
+                .findFirst();
+    }
+
+    public Optional<StandingOrderResponse> findById(long id) {
+        return jdbcTemplate.query(RESPONSE_COLUMNS + "WHERE o.id = ?", responseRowMapper(), id)
+                .stream()
+                .findFirst();
+    }
+
+    public List<StandingOrderResponse> findByAccountKey(long accountKey) {
+        return jdbcTemplate.query(RESPONSE_COLUMNS + "WHERE o.account_key = ? ORDER BY o.id", responseRowMapper(), accountKey);
+    }
+
+    public boolean cancel(long id) {
+        return jdbcTemplate.update(
+                "UPDATE standing_order SET status = 'CANCELLED' WHERE id = ? AND status = 'ACTIVE'", id) > 0;
+    }
+
+    public Optional<LocalDateTime> findOldestDue(LocalDateTime now) {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(
+                        "SELECT MIN(next_due_at) FROM standing_order WHERE status = 'ACTIVE' AND next_due_at <= ?",
+                        Timestamp.class, Timestamp.valueOf(now)))
+                .map(Timestamp::toLocalDateTime);
+    }
+
+    public Optional<LocalDateTime> findOldestDue(int partition, int partitions, LocalDateTime now) {
+        return Optional.ofNullable(jdbcTemplate.queryForObject("""
+                                SELECT MIN(next_due_at)
+                                FROM standing_order
+                                WHERE status = 'ACTIVE'
+                                  AND next_due_at <= ?
+                                  AND mod(account_key, ?) = ?
+                                """,
+                        Timestamp.class, Timestamp.valueOf(now), partitions, partition))
+                .map(Timestamp::toLocalDateTime);
+    }
+
+    // The oldest due date of a partition from the start of a later bucket on
+    public Optional<LocalDateTime> findNextDue(int partition, int partitions, LocalDateTime from, LocalDateTime now) {
+        return Optional.ofNullable(jdbcTemplate.queryForObject("""
+                                SELECT MIN(next_due_at)
+                                FROM standing_order
+                                WHERE status = 'ACTIVE'
+                                  AND next_due_at >= ?
+                                  AND next_due_at <= ?
+                                  AND mod(account_key, ?) = ?
+                                """,
+                        Timestamp.class, Timestamp.valueOf(from), Timestamp.valueOf(now), partitions, partition))
+                .map(Timestamp::toLocalDateTime);
+    }
+
+    /**
+     * Locks due orders of one partition that fall before the end of a due bucket, in due order. Orders locked by a
+     * scheduler on another node are skipped, so any number of nodes can work through the same bucket. Partitioning by
+     * account keeps the orders of an account on a single worker of this node.
+     */
+    public List<DueStandingOrder> claimDue(int partition, int partitions, LocalDateTime now, LocalDateTime bucketEnd,
+                                           int limit) {
+        return jdbcTemplate.query("""
+                        SELECT id, account_key, type_code, amount, frequency, start_at, end_at, description, next_due_at,
+                               executions
+                        FROM standing_order
+                        WHERE status = 'ACTIVE'
+                          AND next_due_at <= ?
+                          AND next_due_at < ?
+                          AND mod(account_key, ?) = ?
+                        ORDER BY next_due_at, id
+                        LIMIT ?
+                        FOR UPDATE SKIP LOCKED
+                        """,
+                (rs, rowNum) -> new DueStandingOrder(
+                        rs.getLong("id"),
+                        rs.getLong("account_key"),
+                        TransactionTypeCodeConverter.INSTANCE.convertToEntityAttribute(rs.getShort("type_code")),
+                        rs.getBigDecimal("amount"),
+                        StandingOrderFrequency.valueOf(rs.getString("frequency")),
+                        rs.getTimestamp("start_at").toLocalDateTime(),
+                        toLocalDateTime(rs.getTimestamp("end_at")),
+                        rs.getString("description"),
+                        rs.getTimestamp("next_due_at").toLocalDateTime(),
+                        rs.getInt("executions")),
+                Timestamp.valueOf(now), Timestamp.valueOf(bucketEnd), partitions, partition, limit);
+    }
+
+    // Locked in key order, like range postings, so concurrent batches cannot deadlock on shared accounts
+    public List<LockedAccount> lockAccounts(Collection<Long> accountKeys) {
+        Long[] keys = accountKeys.toArray(Long[]::new);
+        return jdbcTemplate.query(connection -> {
+                    var statement = connection.prepareStatement("""
+                            SELECT account_key, iban, balance, held_amount, version, history_hash
+                            FROM accounts
+                            WHERE account_key = ANY (?)
+                            ORDER BY account_key
+                            FOR UPDATE
+                            """);
+                    statement.setArray(1, connection.createArrayOf("bigint", keys));
+                    return statement;
+                },
+                (rs, rowNum) -> new LockedAccount(
+                        rs.getLong("account_key"),
+                        rs.getString("iban"),
+                        rs.getBigDecimal("balance"),
+                        rs.getBigDecimal("held_amount"),
+                        rs.getLong("version"),
+                        rs.getBytes("history_hash")));
+    }
+
+    public void updateBalances(List<LockedAccount> accounts) {
+        jdbcTemplate.batchUpdate("UPDATE accounts SET balance = ?, version = ?, history_hash = ? WHERE account_key = ?",
+                accounts, accounts.size(), (statement, account) -> {
+                    statement.setBigDecimal(1, account.balance());
+                    statement.setLong(2, account.version());
+                    statement.setBytes(3, account.historyHash());
+                    statement.setLong(4, account.accountKey());
+                });
+    }
+
+    public void insertHistory(List<StandingOrderPosting> postings) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO transaction_history
+                            (id, account_key, timestamp, type_code, amount, resulting_balance, description, prev_hash,
+                             hash)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        """,
+                postings, postings.size(), (statement, posting) -> {
+                    statement.setObject(1, posting.event().historyId());
+                    statement.setLong(2, posting.accountKey());
+                    statement.setTimestamp(3, Timestamp.valueOf(posting.event().timestamp()));
+                    statement.setShort(4, TransactionTypeCodeConverter.INSTANCE.convertToDatabaseColumn(
+                            posting.event().transactionType()));
+                    statement.setBigDecimal(5, posting.event().amount());
+                    statement.setBigDecimal(6, posting.event().resultingBalance());
+                    statement.setString(7, posting.storedDescription());
+                    statement.setBytes(8, posting.prevHash());
+                    statement.setBytes(9, posting.hash());
+                });
+    }
+
+    public void saveExecutions(List<StandingOrderExecution> executions) {
+        jdbcTemplate.batchUpdate("""
+                        UPDATE standing_order
+                        SET executions = ?, next_due_at = ?, status = ?, last_executed_at = ?, last_outcome = ?
+                        WHERE id = ?
+                        """,
+                executions, executions.size(), (statement, execution) -> {
+                    statement.setInt(1, execution.executions());
+                    statement.setTimestamp(2, Timestamp.valueOf(execution.nextDueAt()));
+                    statement.setString(3, execution.status().name());
+                    statement.setTimestamp(4, Timestamp.valueOf(execution.executedAt()));
+                    statement.setString(5, execution.outcome().name());
+                    statement.setLong(6, execution.orderId());
+                });
+    }
+
+    private static RowMapper<StandingOrderResponse> responseRowMapper() {
+        return (rs, rowNum) -> new StandingOrderResponse(
+                rs.getLong("id"),
+                rs.getString("iban"),
+                TransactionTypeCodeConverter.INSTANCE.convertToEntityAttribute(rs.getShort("type_code")),
+                rs.getBigDecimal("amount"),
+                StandingOrderFrequency.valueOf(rs.getString("frequency")),
+                rs.getTimestamp("start_at").toLocalDateTime(),
+                toLocalDateTime(rs.getTimestamp("end_at")),
+                rs.getString("description"),
+                StandingOrderStatus.valueOf(rs.getString("status")),
+                rs.getTimestamp("next_due_at").toLocalDateTime(),
+                rs.getInt("executions"),
+                toLocalDateTime(rs.getTimestamp("last_executed_at")),
+                outcome(rs));
+    }
+
+    private static StandingOrderOutcome outcome(ResultSet rs) throws SQLException {
+        String outcome = rs.getString("last_outcome");
+        return outcome == null ? null : StandingOrderOutcome.valueOf(outcome);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
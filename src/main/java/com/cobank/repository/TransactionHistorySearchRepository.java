@@ -0,0 +1,129 @@
+package com.cobank.repository;
+
+import com.cobank.api.dto.TransactionHistoryFilter;
+import com.cobank.api.dto.TransactionHistoryResponse;
+import com.cobank.api.dto.TransactionType;
+import com.cobank.domain.TransactionHistory;
+import com.cobank.domain.TransactionTypeCodeConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * History reads, plain and filtered. Rows are mapped straight into response records, so a page never passes through
+ * the persistence context. Every condition is a plain comparison on an indexed column or expression, see
+ * {@code V13__Create_transaction_history_filter_indexes.sql}, so the planner can pick the index for the most
+ * selective filter.
+ */
+@Repository
+public class TransactionHistorySearchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean exactCount;
+
+    public TransactionHistorySearchRepository(JdbcTemplate jdbcTemplate,
+                                              @Value("${history-read.exact-count:true}") boolean exactCount) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.exactCount = exactCount;
+    }
+
+    /**
+     * Reads one page, newest first. The total is counted only when the page itself does not reveal it. Without
+     * {@code history-read.exact-count} a full page is not counted either: one row beyond it is read instead, and the
+     * total is reported as a lower bound that is exact up to the question whether another page follows.
+     */
+    public Page<TransactionHistoryResponse> search(String iban, long accountKey, TransactionHistoryFilter filter,
+                                                   Pageable pageable) {
+        Query query = where(accountKey, filter);
+        int pageSize = pageable.getPageSize();
+        List<Object> pageArgs = new ArrayList<>(query.args());
+        pageArgs.add(exactCount ? pageSize : pageSize + 1);
+        pageArgs.add(pageable.getOffset());
+
+        List<TransactionHistoryResponse> content = jdbcTemplate.query(pageSql(query),
+                (rs, rowNum) -> {
+                    TransactionType type = TransactionTypeCodeConverter.INSTANCE.convertToEntityAttribute(rs.getShort("type_code"));
+                    BigDecimal amount = rs.getBigDecimal("amount");
+                    String description = rs.getString("description");
+                    return new TransactionHistoryResponse(
+                            iban,
+                            type,
+                            amount,
+                            rs.getBigDecimal("resulting_balance"),
+                            rs.getTimestamp("timestamp").toLocalDateTime(),
+                            description != null ? description : TransactionHistory.defaultDescription(type, amount));
+                },
+                pageArgs.toArray());
+
+        boolean more = content.size() > pageSize;
+        if (more) {
+            content.remove(pageSize);
+        }
+        long offset = pageable.getOffset();
+        boolean pageRevealsTotal = content.isEmpty() ? offset == 0 : content.size() < pageSize || !exactCount;
+        if (pageRevealsTotal) {
+            return new PageImpl<>(content, pageable, offset + content.size() + (more ? 1 : 0));
+        }
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transaction_history WHERE " + query.condition(), Long.class, query.args().toArray());
+        return new PageImpl<>(content, pageable, total == null ? 0 : total);
+    }
+
+    static String pageSql(Query query) {
+        return """
+                SELECT type_code, amount, resulting_balance, timestamp, description
+                FROM transaction_history
+                WHERE %s
+                ORDER BY timestamp DESC
+                LIMIT ? OFFSET ?
+                """.formatted(query.condition());
+    }
+
+    static Query where(long accountKey, TransactionHistoryFilter filter) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        conditions.add("account_key = ?");
+        args.add(accountKey);
+        if (filter.from() != null) {
+            conditions.add("timestamp >= ?");
+            args.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            conditions.add("timestamp < ?");
+            args.add(Timestamp.valueOf(filter.to()));
+        }
+        if (filter.type() != null) {
+            conditions.add("type_code = ?");
+            args.add(TransactionTypeCodeConverter.INSTANCE.convertToDatabaseColumn(filter.type()));
+        }
+        if (filter.minAmount() != null) {
+            conditions.add("amount >= ?");
+            args.add(filter.minAmount());
+        }
+        if (filter.maxAmount() != null) {
+            conditions.add("amount <= ?");
+            args.add(filter.maxAmount());
+        }
+        if (filter.description() != null) {
+            // Matches derived descriptions as well, as they are served
+            conditions.add("history_description(type_code, amount, description) ILIKE ?");
+            args.add("%" + escapeLike(filter.description()) + "%");
+        }
+        return new Query(String.join(" AND ", conditions), args);
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    record Query(String condition, List<Object> args) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.cobank.repository;
+
+import com.cobank.domain.TransactionTypeCodeConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+@Repository
+public class WithdrawalLimitRepository {
+
+    private static final int FETCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public WithdrawalLimitRepository(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    /**
+     * Streams the iban, timestamp and amount of every withdrawal since the given moment. PostgreSQL only uses a
+     * server-side cursor, and honours the fetch size, inside a transaction.
+     */
+    public void streamWithdrawalsSince(LocalDateTime since, RowCallbackHandler handler) {
+        streamingJdbcTemplate.query("""
+                        SELECT a.iban, h.timestamp, h.amount
+                        FROM transaction_history h
+                        JOIN accounts a ON a.account_key = h.account_key
+                        WHERE h.timestamp >= ? AND h.type_code = ?
+                        """,
+                handler, Timestamp.valueOf(since), TransactionTypeCodeConverter.WITHDRAWAL);
+    }
+
+    public void findWithdrawalsSince(long accountKey, LocalDateTime since, RowCallbackHandler handler) {
+        jdbcTemplate.query("""
+                        SELECT timestamp, amount
+                        FROM transaction_history
+                        WHERE account_key = ? AND type_code = ? AND timestamp >= ?
+                        """,
+                handler, accountKey, TransactionTypeCodeConverter.WITHDRAWAL, Timestamp.valueOf(since));
+    }
+}
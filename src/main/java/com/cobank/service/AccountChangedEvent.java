@@ -0,0 +1,10 @@
+package com.cobank.service;
+
+/**
+ * The account was opened, or its held amount changed without a posting. Postings publish a
+ * {@link com.cobank.service.transaction.TransactionPostedEvent} instead.
+ */
+public record AccountChangedEvent(
+        String iban
+) {
+}
@@ -6,6 +6,7 @@ import com.cobank.domain.Account;
 import com.cobank.repository.AccountRepository;
 import com.cobank.service.iban.IbanService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
@@ -20,10 +21,13 @@ import java.util.function.Function;
 @RequiredArgsConstructor
 public class AccountService implements
         CreateAccountUseCase,
-        FetchBalanceUseCase {
+        FetchBalanceUseCase,
+        FetchAccountVersionUseCase,
+        FetchBalanceSnapshotUseCase {
 
     private final AccountRepository accountRepository;
     private final IbanService ibanService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(
             isolation = Isolation.SERIALIZABLE,
@@ -43,8 +47,10 @@ public class AccountService implements
                 .balance(BigDecimal.ZERO) // Initial balance
                 .build();
 
-        return Optional.ofNullable(accountRepository.save(account))
+        Optional<CreateAccountResponse> created = Optional.ofNullable(accountRepository.save(account))
                 .map(toCreateAccountResponse());
+        created.ifPresent(response -> eventPublisher.publishEvent(new AccountChangedEvent(iban)));
+        return created;
     }
 
     @Transactional(readOnly = true)
@@ -55,6 +61,21 @@ public class AccountService implements
                 .map(toFetchBalanceResponse());
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<Long> getAccountVersion(String iban) {
+        return Optional.ofNullable(iban)
+                .flatMap(accountRepository::findVersionByIban);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<BalanceSnapshot> getBalanceSnapshot(String iban) {
+        return Optional.ofNullable(iban)
+                .flatMap(accountRepository::findByIban)
+                .map(account -> new BalanceSnapshot(toFetchBalanceResponse().apply(account), account.getVersion()));
+    }
+
     private Function<Account, CreateAccountResponse> toCreateAccountResponse() {
         return account -> new CreateAccountResponse(
                 account.getId(),
@@ -66,7 +87,8 @@ public class AccountService implements
     private Function<Account, FetchBalanceResponse> toFetchBalanceResponse() {
         return account -> new FetchBalanceResponse(
                 account.getIban(),
-                account.getBalance()
+                account.getBalance(),
+                account.getAvailableBalance()
         );
     }
 }
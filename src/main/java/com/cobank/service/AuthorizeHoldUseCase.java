@@ -0,0 +1,10 @@
+package com.cobank.service;
+
+import com.cobank.api.dto.HoldRequest;
+import com.cobank.api.dto.HoldResponse;
+
+import java.util.Optional;
+
+public interface AuthorizeHoldUseCase {
+    Optional<HoldResponse> authorizeHold(HoldRequest request);
+}
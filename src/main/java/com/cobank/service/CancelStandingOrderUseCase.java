@@ -0,0 +1,9 @@
+package com.cobank.service;
+
+import com.cobank.api.dto.StandingOrderResponse;
+
+import java.util.Optional;
+
+public interface CancelStandingOrderUseCase {
+    Optional<StandingOrderResponse> cancelStandingOrder(long id);
+}
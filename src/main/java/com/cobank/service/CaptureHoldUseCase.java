@@ -0,0 +1,10 @@
+package com.cobank.service;
+
+import com.cobank.api.dto.CaptureHoldRequest;
+import com.cobank.api.dto.HoldResponse;
+
+import java.util.Optional;
+
+public interface CaptureHoldUseCase {
+    Optional<HoldResponse> captureHold(long id, CaptureHoldRequest request);
+}
@@ -0,0 +1,11 @@
+package com.cobank.service;
+
+import java.util.Optional;
+
+public interface FetchAccountVersionUseCase {
+    /**
+     * Returns the version of the account state that balance and history reads currently serve. The version grows
+     * with every posting, so it can be used as a validator without loading the account or its history.
+     */
+    Optional<Long> getAccountVersion(String iban);
+}
@@ -0,0 +1,13 @@
+package com.cobank.service;
+
+import com.cobank.api.dto.BalanceSnapshot;
+
+import java.util.Optional;
+
+public interface FetchBalanceSnapshotUseCase {
+    /**
+     * Returns the current balance of the account with the version it belongs to, read from the account itself and not
+     * from a read model that may lag it.
+     */
+    Optional<BalanceSnapshot> getBalanceSnapshot(String iban);
+}
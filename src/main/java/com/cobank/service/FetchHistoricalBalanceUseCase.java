@@ -0,0 +1,10 @@
+package com.cobank.service;
+
+import com.cobank.api.dto.FetchBalanceResponse;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface FetchHistoricalBalanceUseCase {
+    Optional<FetchBalanceResponse> getBalanceAsOf(String iban, LocalDateTime asOf);
+}
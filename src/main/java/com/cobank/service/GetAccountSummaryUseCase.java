@@ -0,0 +1,10 @@
+package com.cobank.service;
+
+import com.cobank.api.dto.AccountSummaryResponse;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface GetAccountSummaryUseCase {
+    Optional<AccountSummaryResponse> getAccountSummary(String iban, LocalDate from, LocalDate to);
+}
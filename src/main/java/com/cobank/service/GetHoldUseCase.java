@@ -0,0 +1,9 @@
+package com.cobank.service;
+
+import com.cobank.api.dto.HoldResponse;
+
+import java.util.Optional;
+
+public interface GetHoldUseCase {
+    Optional<HoldResponse> getHold(long id);
+}
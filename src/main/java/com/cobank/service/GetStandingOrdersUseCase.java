@@ -0,0 +1,9 @@
+package com.cobank.service;
+
+import com.cobank.api.dto.StandingOrderResponse;
+
+import java.util.List;
+
+public interface GetStandingOrdersUseCase {
+    List<StandingOrderResponse> getStandingOrders(String iban);
+}
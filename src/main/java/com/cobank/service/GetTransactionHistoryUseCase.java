@@ -4,6 +4,15 @@ import com.cobank.api.dto.TransactionHistoryResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Optional;
+
 public interface GetTransactionHistoryUseCase {
     Page<TransactionHistoryResponse> getTransactionHistory(String iban, Pageable pageable);
+
+    /**
+     * Returns the version of the account that the history pages are read at, like
+     * {@link FetchAccountVersionUseCase#getAccountVersion(String)}. It is part of this use case so that validating a
+     * history page takes its connection from the same pool as reading it.
+     */
+    Optional<Long> getHistoryVersion(String iban);
 }
@@ -0,0 +1,10 @@
+package com.cobank.service;
+
+import com.cobank.api.dto.AccountImportFormat;
+import com.cobank.api.dto.AccountImportResponse;
+
+import java.io.Reader;
+
+public interface ImportAccountsUseCase {
+    AccountImportResponse importAccounts(AccountImportFormat format, Reader reader);
+}
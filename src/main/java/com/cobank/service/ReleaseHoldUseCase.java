@@ -0,0 +1,9 @@
+package com.cobank.service;
+
+import com.cobank.api.dto.HoldResponse;
+
+import java.util.Optional;
+
+public interface ReleaseHoldUseCase {
+    Optional<HoldResponse> releaseHold(long id);
+}
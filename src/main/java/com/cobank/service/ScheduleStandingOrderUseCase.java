@@ -0,0 +1,10 @@
+package com.cobank.service;
+
+import com.cobank.api.dto.StandingOrderRequest;
+import com.cobank.api.dto.StandingOrderResponse;
+
+import java.util.Optional;
+
+public interface ScheduleStandingOrderUseCase {
+    Optional<StandingOrderResponse> scheduleStandingOrder(StandingOrderRequest request);
+}
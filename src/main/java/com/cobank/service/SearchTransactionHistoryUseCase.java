@@ -0,0 +1,10 @@
+package com.cobank.service;
+
+import com.cobank.api.dto.TransactionHistoryFilter;
+import com.cobank.api.dto.TransactionHistoryResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface SearchTransactionHistoryUseCase {
+    Page<TransactionHistoryResponse> searchTransactionHistory(String iban, TransactionHistoryFilter filter, Pageable pageable);
+}
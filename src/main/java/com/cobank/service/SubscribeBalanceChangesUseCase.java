@@ -0,0 +1,14 @@
+package com.cobank.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Optional;
+import java.util.Set;
+
+public interface SubscribeBalanceChangesUseCase {
+    /**
+     * Opens a stream that receives a balance snapshot per IBAN, followed by every posting committed to them. Returns
+     * empty when this node holds its maximum number of subscriptions.
+     */
+    Optional<SseEmitter> subscribe(Set<String> ibans);
+}
@@ -0,0 +1,130 @@
+package com.cobank.service.archive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * A memory-mapped segment written by {@link ArchiveSegmentWriter}. Only the block index is read when the segment is
+ * opened. Reads inflate the blocks covering one account straight from the mapping, so the page cache holds the segment
+ * instead of the heap. Segments are immutable, which makes reads safe from any number of threads.
+ */
+final class ArchiveSegment {
+
+    private final Path file;
+    private final MappedByteBuffer mapping;
+    private final long[] firstKeys;
+    private final long[] lastKeys;
+    private final int[] offsets;
+    private final int[] compressedLengths;
+    private final int[] rawLengths;
+
+    private ArchiveSegment(Path file, MappedByteBuffer mapping, int blocks) {
+        this.file = file;
+        this.mapping = mapping;
+        this.firstKeys = new long[blocks];
+        this.lastKeys = new long[blocks];
+        this.offsets = new int[blocks];
+        this.compressedLengths = new int[blocks];
+        this.rawLengths = new int[blocks];
+    }
+
+    static ArchiveSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE || size < 8 + ArchiveSegmentWriter.FOOTER_SIZE) {
+                throw new IllegalStateException("Archive segment " + file + " has an invalid size of " + size + " bytes");
+            }
+            MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            int footer = (int) size - ArchiveSegmentWriter.FOOTER_SIZE;
+            if (mapping.getInt(0) != ArchiveSegmentWriter.MAGIC
+                    || mapping.getInt(4) != ArchiveSegmentWriter.VERSION
+                    || mapping.getInt(footer + 12) != ArchiveSegmentWriter.MAGIC) {
+                throw new IllegalStateException("Archive segment " + file + " is not a version "
+                        + ArchiveSegmentWriter.VERSION + " segment");
+            }
+            ArchiveSegment segment = new ArchiveSegment(file, mapping, mapping.getInt(footer + 8));
+            ByteBuffer index = mapping.slice((int) mapping.getLong(footer), footer - (int) mapping.getLong(footer));
+            for (int i = 0; i < segment.firstKeys.length; i++) {
+                segment.firstKeys[i] = index.getLong();
+                segment.lastKeys[i] = index.getLong();
+                segment.offsets[i] = (int) index.getLong();
+                segment.compressedLengths[i] = index.getInt();
+                segment.rawLengths[i] = index.getInt();
+                index.getInt();
+            }
+            return segment;
+        }
+    }
+
+    /**
+     * Returns the rows of an account in the order they were written, newest first.
+     */
+    List<ArchivedRow> read(long accountKey) {
+        List<ArchivedRow> rows = new ArrayList<>();
+        for (int block = firstBlockEndingAtOrAfter(accountKey);
+             block < firstKeys.length && firstKeys[block] <= accountKey;
+             block++) {
+            ByteBuffer raw = inflate(block);
+            while (raw.hasRemaining()) {
+                long rowKey = ArchivedRowCodec.peekAccountKey(raw);
+                if (rowKey > accountKey) {
+                    break;
+                }
+                if (rowKey == accountKey) {
+                    rows.add(ArchivedRowCodec.read(raw));
+                } else {
+                    ArchivedRowCodec.skip(raw);
+                }
+            }
+        }
+        return rows;
+    }
+
+    private int firstBlockEndingAtOrAfter(long accountKey) {
+        int low = 0;
+        int high = lastKeys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (lastKeys[middle] < accountKey) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private ByteBuffer inflate(int block) {
+        byte[] raw = new byte[rawLengths[block]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(mapping.slice(offsets[block], compressedLengths[block]));
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, raw.length - length);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != raw.length) {
+                throw new IllegalStateException("Block " + block + " of archive segment " + file + " is truncated");
+            }
+            return ByteBuffer.wrap(raw);
+        } catch (DataFormatException ex) {
+            throw new IllegalStateException("Block " + block + " of archive segment " + file + " is corrupt", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+}
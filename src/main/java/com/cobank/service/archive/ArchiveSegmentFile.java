@@ -0,0 +1,16 @@
+package com.cobank.service.archive;
+
+/**
+ * A segment file written by an archive run.
+ *
+ * @param sha256 digest of the whole file, to detect a segment that changed after it was written
+ */
+public record ArchiveSegmentFile(
+        String fileName,
+        long minAccountKey,
+        long maxAccountKey,
+        long rows,
+        long sizeBytes,
+        byte[] sha256
+) {
+}
@@ -0,0 +1,152 @@
+package com.cobank.service.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Writes one archive segment from rows sorted by account key, newest first within an account. Rows are deflated in
+ * blocks of about {@link #BLOCK_SIZE} bytes, and the file ends with an index holding the account key range of every
+ * block, so a read inflates only the blocks of one account. Layout:
+ * <pre>
+ * MAGIC VERSION | block* | (firstKey lastKey offset compressedLength rawLength rows)* | indexOffset blocks MAGIC
+ * </pre>
+ * Rows go to a temporary file that {@link #finish()} moves into place, so a segment on disk is always complete.
+ */
+final class ArchiveSegmentWriter implements Closeable {
+
+    static final int MAGIC = 0x43424841;
+    static final int VERSION = 1;
+    static final int BLOCK_SIZE = 64 * 1024;
+    static final int FOOTER_SIZE = 8 + 4 + 4;
+
+    private final Path target;
+    private final Path temporary;
+    private final FileChannel channel;
+    private final MessageDigest digest;
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream block = new ByteArrayOutputStream(BLOCK_SIZE + 1024);
+    private final DataOutputStream blockOut = new DataOutputStream(block);
+    private final byte[] deflated = new byte[8192];
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final List<BlockEntry> index = new ArrayList<>();
+
+    private long blockFirstKey;
+    private long blockLastKey;
+    private int blockRows;
+    private long rows;
+    private boolean finished;
+
+    ArchiveSegmentWriter(Path target) throws IOException {
+        this.target = target;
+        this.temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        this.channel = FileChannel.open(temporary, CREATE_NEW, WRITE);
+        this.digest = sha256();
+        this.out = new DataOutputStream(new DigestOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel), BLOCK_SIZE), digest));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    void append(ArchivedRow row) throws IOException {
+        if (rows > 0 && row.accountKey() < blockLastKey) {
+            throw new IllegalArgumentException("Archive rows must be sorted by account key");
+        }
+        if (blockRows == 0) {
+            blockFirstKey = row.accountKey();
+        }
+        ArchivedRowCodec.write(row, blockOut);
+        blockLastKey = row.accountKey();
+        blockRows++;
+        rows++;
+        if (block.size() >= BLOCK_SIZE) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * Bytes written so far, not counting the block being filled and the index.
+     */
+    long size() {
+        return out.size();
+    }
+
+    ArchiveSegmentFile finish() throws IOException {
+        flushBlock();
+        long indexOffset = out.size();
+        for (BlockEntry entry : index) {
+            out.writeLong(entry.firstKey());
+            out.writeLong(entry.lastKey());
+            out.writeLong(entry.offset());
+            out.writeInt(entry.compressedLength());
+            out.writeInt(entry.rawLength());
+            out.writeInt(entry.rows());
+        }
+        out.writeLong(indexOffset);
+        out.writeInt(index.size());
+        out.writeInt(MAGIC);
+        out.flush();
+        channel.force(true);
+        out.close();
+        finished = true;
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+
+        return new ArchiveSegmentFile(target.getFileName().toString(), index.get(0).firstKey(),
+                index.get(index.size() - 1).lastKey(), rows, Files.size(target), digest.digest());
+    }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        if (!finished) {
+            out.close();
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (blockRows == 0) {
+            return;
+        }
+        long offset = out.size();
+        deflater.reset();
+        deflater.setInput(block.toByteArray());
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            int length = deflater.deflate(deflated);
+            out.write(deflated, 0, length);
+            compressedLength += length;
+        }
+        index.add(new BlockEntry(blockFirstKey, blockLastKey, offset, compressedLength, block.size(), blockRows));
+        block.reset();
+        blockRows = 0;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    record BlockEntry(long firstKey, long lastKey, long offset, int compressedLength, int rawLength, int rows) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.cobank.service.archive;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * What the archive holds for one account.
+ *
+ * @param lastHash hash of the latest archived row, which the oldest hot row links to
+ */
+public record ArchivedAccount(
+        long accountKey,
+        long archivedRows,
+        BigDecimal netFlow,
+        BigDecimal lastResultingBalance,
+        LocalDateTime lastPostedAt,
+        byte[] lastHash
+) {
+}
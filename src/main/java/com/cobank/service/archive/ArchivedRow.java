@@ -0,0 +1,56 @@
+package com.cobank.service.archive;
+
+import com.cobank.api.dto.TransactionHistoryFilter;
+import com.cobank.api.dto.TransactionHistoryResponse;
+import com.cobank.api.dto.TransactionType;
+import com.cobank.domain.TransactionHistory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * A {@code transaction_history} row as kept in an archive segment, hash chain included.
+ *
+ * @param storedDescription description as stored, {@code null} when it is derived from type and amount
+ */
+public record ArchivedRow(
+        UUID id,
+        long accountKey,
+        LocalDateTime timestamp,
+        TransactionType type,
+        BigDecimal amount,
+        BigDecimal resultingBalance,
+        String storedDescription,
+        byte[] prevHash,
+        byte[] hash
+) {
+
+    /**
+     * Applies a history filter the way {@code TransactionHistorySearchRepository} does in SQL.
+     */
+    public boolean matches(TransactionHistoryFilter filter) {
+        return (filter.from() == null || !timestamp.isBefore(filter.from()))
+                && (filter.to() == null || timestamp.isBefore(filter.to()))
+                && (filter.type() == null || type == filter.type())
+                && (filter.minAmount() == null || amount.compareTo(filter.minAmount()) >= 0)
+                && (filter.maxAmount() == null || amount.compareTo(filter.maxAmount()) <= 0)
+                && (filter.description() == null
+                || description().toLowerCase(Locale.ROOT).contains(filter.description().toLowerCase(Locale.ROOT)));
+    }
+
+    public TransactionHistoryResponse toResponse(String iban) {
+        return new TransactionHistoryResponse(
+                iban,
+                type,
+                amount,
+                resultingBalance,
+                timestamp,
+                description());
+    }
+
+    private String description() {
+        return storedDescription != null ? storedDescription : TransactionHistory.defaultDescription(type, amount);
+    }
+}
@@ -0,0 +1,100 @@
+package com.cobank.service.archive;
+
+import com.cobank.domain.TransactionTypeCodeConverter;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Binary form of an archived row inside a segment block. Amounts are stored as cents and timestamps as microseconds,
+ * the precision of the database columns, so a row reads back exactly as it was stored.
+ */
+final class ArchivedRowCodec {
+
+    private static final long MICROS_PER_SECOND = 1_000_000;
+
+    private ArchivedRowCodec() {
+    }
+
+    static void write(ArchivedRow row, DataOutputStream out) throws IOException {
+        out.writeLong(row.accountKey());
+        out.writeLong(row.id().getMostSignificantBits());
+        out.writeLong(row.id().getLeastSignificantBits());
+        out.writeLong(row.timestamp().toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + row.timestamp().getNano() / 1000);
+        out.writeShort(TransactionTypeCodeConverter.INSTANCE.convertToDatabaseColumn(row.type()));
+        out.writeLong(cents(row.amount()));
+        out.writeLong(cents(row.resultingBalance()));
+        writeBytes(row.storedDescription() == null ? null : row.storedDescription().getBytes(StandardCharsets.UTF_8), out);
+        writeBytes(row.prevHash(), out);
+        writeBytes(row.hash(), out);
+    }
+
+    static ArchivedRow read(ByteBuffer in) {
+        long accountKey = in.getLong();
+        UUID id = new UUID(in.getLong(), in.getLong());
+        long micros = in.getLong();
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * 1000, ZoneOffset.UTC);
+        short typeCode = in.getShort();
+        BigDecimal amount = BigDecimal.valueOf(in.getLong(), 2);
+        BigDecimal resultingBalance = BigDecimal.valueOf(in.getLong(), 2);
+        byte[] description = readBytes(in);
+        return new ArchivedRow(
+                id,
+                accountKey,
+                timestamp,
+                TransactionTypeCodeConverter.INSTANCE.convertToEntityAttribute(typeCode),
+                amount,
+                resultingBalance,
+                description == null ? null : new String(description, StandardCharsets.UTF_8),
+                readBytes(in),
+                readBytes(in));
+    }
+
+    /**
+     * Moves past a row without decoding it.
+     */
+    static void skip(ByteBuffer in) {
+        in.position(in.position() + 8 + 8 + 8 + 8 + 2 + 8 + 8);
+        for (int i = 0; i < 3; i++) {
+            int length = in.getInt();
+            if (length > 0) {
+                in.position(in.position() + length);
+            }
+        }
+    }
+
+    static long peekAccountKey(ByteBuffer in) {
+        return in.getLong(in.position());
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static void writeBytes(byte[] bytes, DataOutputStream out) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return bytes;
+    }
+}
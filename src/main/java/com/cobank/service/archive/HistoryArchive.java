@@ -0,0 +1,125 @@
+package com.cobank.service.archive;
+
+import com.cobank.api.dto.TransactionHistoryFilter;
+import com.cobank.api.dto.TransactionHistoryResponse;
+import com.cobank.repository.HistoryArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read side of the history archive. Segments are mapped on first use and stay mapped, as they never change. The
+ * archive only holds rows older than every row still in {@code transaction_history}, so callers read it after the hot
+ * rows of an account.
+ */
+@Slf4j
+@Component
+public class HistoryArchive {
+
+    private static final Comparator<ArchivedRow> NEWEST_FIRST =
+            Comparator.comparing(ArchivedRow::timestamp).reversed();
+
+    private final HistoryArchiveRepository historyArchiveRepository;
+    private final Path directory;
+    private final Map<String, ArchiveSegment> segments = new ConcurrentHashMap<>();
+
+    public HistoryArchive(HistoryArchiveRepository historyArchiveRepository,
+                          @Value("${history-archive.directory:archive}") String directory) {
+        this.historyArchiveRepository = historyArchiveRepository;
+        this.directory = Path.of(directory).toAbsolutePath().normalize();
+    }
+
+    public Optional<ArchivedAccount> findAccount(long accountKey) {
+        return historyArchiveRepository.findAccount(accountKey);
+    }
+
+    /**
+     * Returns the archived rows of an account, newest first.
+     */
+    public List<ArchivedRow> read(long accountKey) {
+        List<ArchivedRow> rows = new ArrayList<>();
+        for (String fileName : historyArchiveRepository.findSegmentFiles(accountKey)) {
+            rows.addAll(segment(fileName).read(accountKey));
+        }
+        // Runs archive disjoint periods, unless history with old timestamps was ingested in between
+        rows.sort(NEWEST_FIRST);
+        return rows;
+    }
+
+    /**
+     * Finds the balance left by the last archived posting in {@code (after, asOf]}. The segments are only read when
+     * {@code asOf} falls before the latest archived posting.
+     */
+    public Optional<BigDecimal> findBalanceAsOf(String iban, LocalDateTime after, LocalDateTime asOf) {
+        return historyArchiveRepository.findAccount(iban)
+                .filter(archived -> archived.lastPostedAt().isAfter(after))
+                .flatMap(archived -> !asOf.isBefore(archived.lastPostedAt())
+                        ? Optional.of(archived.lastResultingBalance())
+                        : read(archived.accountKey()).stream()
+                                .filter(row -> row.timestamp().isAfter(after) && !row.timestamp().isAfter(asOf))
+                                .findFirst()
+                                .map(ArchivedRow::resultingBalance));
+    }
+
+    /**
+     * Completes a page of hot history, read from {@code transaction_history} or its projection, from the archive once
+     * it reaches past the oldest hot row. Archived rows are older than every hot row, so they continue the hot rows of
+     * the account in the same order. An unfiltered page that is filled by hot rows only needs the archived row count,
+     * which is kept in the database.
+     */
+    public Page<TransactionHistoryResponse> continuePage(String iban, long accountKey, TransactionHistoryFilter filter,
+                                                         Pageable pageable, Page<TransactionHistoryResponse> hotPage) {
+        Optional<ArchivedAccount> archived = findAccount(accountKey)
+                .filter(account -> filter.from() == null || !filter.from().isAfter(account.lastPostedAt()));
+        if (archived.isEmpty()) {
+            return hotPage;
+        }
+        long hotTotal = hotPage.getTotalElements();
+        if (filter.isEmpty() && hotPage.getNumberOfElements() == pageable.getPageSize()) {
+            return new PageImpl<>(hotPage.getContent(), pageable, hotTotal + archived.get().archivedRows());
+        }
+
+        List<ArchivedRow> archivedRows = read(accountKey).stream()
+                .filter(row -> row.matches(filter))
+                .toList();
+        List<TransactionHistoryResponse> content = new ArrayList<>(hotPage.getContent());
+        archivedRows.stream()
+                .skip(Math.max(0, pageable.getOffset() - hotTotal))
+                .limit(pageable.getPageSize() - content.size())
+                .forEach(row -> content.add(row.toResponse(iban)));
+        log.debug("Read {} archived postings for IBAN={}", content.size() - hotPage.getNumberOfElements(), iban);
+        return new PageImpl<>(content, pageable, hotTotal + archivedRows.size());
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    private ArchiveSegment segment(String fileName) {
+        return segments.computeIfAbsent(fileName, name -> {
+            Path file = directory.resolve(name);
+            try {
+                ArchiveSegment segment = ArchiveSegment.open(file);
+                log.info("Mapped archive segment {}", file);
+                return segment;
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to map archive segment " + file, ex);
+            }
+        });
+    }
+}
@@ -0,0 +1,224 @@
+package com.cobank.service.archive;
+
+import com.cobank.api.dto.HistoryArchiveResponse;
+import com.cobank.api.dto.TransactionType;
+import com.cobank.domain.TransactionTypeCodeConverter;
+import com.cobank.repository.HistoryArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves history older than the hot window into archive segments. A run streams the rows in account order into
+ * segments of at most {@code history-archive.max-segment-size}, records them together with per-account totals and
+ * deletes the rows, all in one repeatable read transaction, so the rows deleted are exactly the rows written. Segments
+ * of a run that does not commit are removed again.
+ */
+@Slf4j
+@Service
+public class HistoryArchiveService {
+
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.ofPattern("uuuuMMdd");
+    private static final int ACCOUNT_BATCH = 1000;
+
+    private final HistoryArchiveRepository historyArchiveRepository;
+    private final Path directory;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration hotWindow;
+    private final long maxSegmentBytes;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public HistoryArchiveService(HistoryArchiveRepository historyArchiveRepository,
+                                 HistoryArchive historyArchive,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${history-archive.hot-window:P90D}") Duration hotWindow,
+                                 @Value("${history-archive.max-segment-size:256MB}") DataSize maxSegmentSize) {
+        if (maxSegmentSize.toBytes() > DataSize.ofGigabytes(1).toBytes()) {
+            throw new IllegalArgumentException("history-archive.max-segment-size must not exceed 1GB");
+        }
+        this.historyArchiveRepository = historyArchiveRepository;
+        this.directory = historyArchive.directory();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.transactionTemplate.setTimeout(3600);
+        this.hotWindow = hotWindow;
+        this.maxSegmentBytes = maxSegmentSize.toBytes();
+    }
+
+    public HistoryArchiveResponse archive() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("History archive is already running");
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(hotWindow).truncatedTo(ChronoUnit.DAYS);
+        ArchiveRun run = new ArchiveRun(cutoff);
+        try {
+            return transactionTemplate.execute(status -> archive(run));
+        } catch (RuntimeException ex) {
+            run.discard();
+            throw ex;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Scheduled(cron = "${history-archive.cron:-}")
+    public void scheduledArchive() {
+        archive();
+    }
+
+    private HistoryArchiveResponse archive(ArchiveRun run) {
+        LocalDateTime cutoff = run.cutoff;
+        if (historyArchiveRepository.findLatestArchivedBefore().filter(latest -> !cutoff.isAfter(latest)).isPresent()) {
+            return new HistoryArchiveResponse(cutoff, 0, 0, 0, 0);
+        }
+
+        historyArchiveRepository.streamArchivable(cutoff, run);
+        run.finish();
+        historyArchiveRepository.insertSegments(cutoff, run.segments);
+        int deleted = historyArchiveRepository.deleteArchived(cutoff);
+        if (deleted != run.rows) {
+            throw new IllegalStateException("Archived " + run.rows + " history rows but " + deleted + " were deleted");
+        }
+
+        long bytes = run.segments.stream().mapToLong(ArchiveSegmentFile::sizeBytes).sum();
+        log.info("Archived {} history rows of {} accounts posted before {} into {} segments of {} bytes",
+                run.rows, run.accounts, cutoff, run.segments.size(), bytes);
+        return new HistoryArchiveResponse(cutoff, run.segments.size(), run.rows, run.accounts, bytes);
+    }
+
+    /**
+     * Writes the streamed rows and sums them per account. A segment is only closed between accounts, so one run keeps
+     * the rows of an account in a single segment.
+     */
+    private final class ArchiveRun implements RowCallbackHandler {
+
+        private final LocalDateTime cutoff;
+        private final List<ArchiveSegmentFile> segments = new ArrayList<>();
+        private final List<Path> written = new ArrayList<>();
+        private final List<ArchivedAccount> pendingAccounts = new ArrayList<>();
+        private ArchiveSegmentWriter writer;
+        private ArchivedRow latest;
+        private long accountRows;
+        private BigDecimal accountNetFlow;
+        private long rows;
+        private long accounts;
+
+        private ArchiveRun(LocalDateTime cutoff) {
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            ArchivedRow row = toArchivedRow(rs);
+            try {
+                if (latest == null || latest.accountKey() != row.accountKey()) {
+                    finishAccount();
+                    if (writer != null && writer.size() >= maxSegmentBytes) {
+                        finishSegment();
+                    }
+                    if (writer == null) {
+                        writer = newSegment();
+                    }
+                    latest = row;
+                }
+                writer.append(row);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to write archive segment", ex);
+            }
+            accountRows++;
+            accountNetFlow = accountNetFlow.add(row.type() == TransactionType.DEPOSIT ? row.amount() : row.amount().negate());
+            rows++;
+        }
+
+        void finish() {
+            finishAccount();
+            try {
+                finishSegment();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to write archive segment", ex);
+            }
+            if (!pendingAccounts.isEmpty()) {
+                historyArchiveRepository.addArchivedAccounts(pendingAccounts);
+                pendingAccounts.clear();
+            }
+        }
+
+        void discard() {
+            try {
+                if (writer != null) {
+                    writer.close();
+                }
+                for (Path file : written) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException ex) {
+                log.warn("Failed to remove segments of an aborted archive run", ex);
+            }
+        }
+
+        private void finishAccount() {
+            if (latest != null) {
+                pendingAccounts.add(new ArchivedAccount(latest.accountKey(), accountRows, accountNetFlow,
+                        latest.resultingBalance(), latest.timestamp(), latest.hash()));
+                accounts++;
+                if (pendingAccounts.size() >= ACCOUNT_BATCH) {
+                    historyArchiveRepository.addArchivedAccounts(pendingAccounts);
+                    pendingAccounts.clear();
+                }
+            }
+            accountRows = 0;
+            accountNetFlow = BigDecimal.ZERO;
+        }
+
+        private ArchiveSegmentWriter newSegment() throws IOException {
+            Files.createDirectories(directory);
+            Path file = directory.resolve("history-%s-%s.seg".formatted(FILE_DATE.format(cutoff), UUID.randomUUID()));
+            written.add(file);
+            return new ArchiveSegmentWriter(file);
+        }
+
+        private void finishSegment() throws IOException {
+            if (writer != null) {
+                try (ArchiveSegmentWriter finishing = writer) {
+                    writer = null;
+                    segments.add(finishing.finish());
+                }
+            }
+        }
+
+        private ArchivedRow toArchivedRow(ResultSet rs) throws SQLException {
+            return new ArchivedRow(
+                    rs.getObject("id", UUID.class),
+                    rs.getLong("account_key"),
+                    rs.getTimestamp("timestamp").toLocalDateTime(),
+                    TransactionTypeCodeConverter.INSTANCE.convertToEntityAttribute(rs.getShort("type_code")),
+                    rs.getBigDecimal("amount"),
+                    rs.getBigDecimal("resulting_balance"),
+                    rs.getString("description"),
+                    rs.getBytes("prev_hash"),
+                    rs.getBytes("hash"));
+        }
+    }
+}
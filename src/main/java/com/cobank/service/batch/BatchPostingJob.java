@@ -0,0 +1,99 @@
+package com.cobank.service.batch;
+
+import com.cobank.api.dto.BatchPostingRequest;
+import com.cobank.repository.BatchPostingRepository;
+import com.cobank.repository.JobRunRepository;
+import com.cobank.service.job.KeyRange;
+import com.cobank.service.job.RangeJob;
+import com.cobank.service.job.RangeResult;
+import com.cobank.service.job.Throttle;
+import com.cobank.service.transaction.TransactionPostedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies the rule of a batch posting to all accounts, one account key range per transaction. Each range is posted
+ * with a single set-based statement and checkpointed in the same transaction, so a resumed run never posts an
+ * account twice.
+ */
+@Slf4j
+@Component
+public class BatchPostingJob implements RangeJob {
+
+    public static final String JOB_TYPE = "BATCH_POSTING";
+
+    private final BatchPostingRepository batchPostingRepository;
+    private final JobRunRepository jobRunRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int parallelism;
+    private final long rangeSize;
+    private final Throttle throttle;
+    private final Map<Long, BatchPostingRequest> rulesByRun = new ConcurrentHashMap<>();
+
+    public BatchPostingJob(BatchPostingRepository batchPostingRepository,
+                           JobRunRepository jobRunRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${batch-posting.parallelism:4}") int parallelism,
+                           @Value("${batch-posting.range-size:1000}") long rangeSize,
+                           @Value("${batch-posting.max-accounts-per-second:5000}") double maxAccountsPerSecond) {
+        this.batchPostingRepository = batchPostingRepository;
+        this.jobRunRepository = jobRunRepository;
+        this.eventPublisher = eventPublisher;
+        this.parallelism = parallelism;
+        this.rangeSize = rangeSize;
+        this.throttle = new Throttle(maxAccountsPerSecond);
+    }
+
+    @Override
+    public String jobType() {
+        return JOB_TYPE;
+    }
+
+    @Override
+    public int parallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public List<KeyRange> plan() {
+        return batchPostingRepository.findAccountKeyBounds()
+                .map(bounds -> KeyRange.split(bounds.start(), bounds.end(), rangeSize))
+                .orElse(List.of());
+    }
+
+    // Postings lock single accounts, so ranges wait for them rather than failing on their updates
+    @Override
+    public int isolationLevel() {
+        return TransactionDefinition.ISOLATION_READ_COMMITTED;
+    }
+
+    @Override
+    public RangeResult process(long runId, KeyRange range) {
+        BatchPostingRequest rule = rulesByRun.computeIfAbsent(runId, this::loadRule);
+        // Every account of the range costs a permit, so daytime postings keep most of the database
+        throttle.acquire((int) (range.end() - range.start() + 1));
+
+        List<TransactionPostedEvent> postings = batchPostingRepository.apply(rule, range, LocalDateTime.now());
+        // Published inside the range transaction, so outbox and rollups commit with the postings
+        postings.forEach(eventPublisher::publishEvent);
+
+        long skipped = batchPostingRepository.countAccounts(range) - postings.size();
+        log.debug("Batch posting {} posted {} and skipped {} accounts in range {}-{}",
+                rule.reference(), postings.size(), skipped, range.start(), range.end());
+        return new RangeResult(postings.size(), skipped);
+    }
+
+    private BatchPostingRequest loadRule(long runId) {
+        return jobRunRepository.findParameters(runId)
+                .flatMap(batchPostingRepository::findRule)
+                .orElseThrow(() -> new IllegalStateException("Batch posting run " + runId + " has no rule"));
+    }
+}
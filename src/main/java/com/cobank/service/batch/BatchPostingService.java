@@ -0,0 +1,87 @@
+package com.cobank.service.batch;
+
+import com.cobank.api.dto.BatchPostingKind;
+import com.cobank.api.dto.BatchPostingRequest;
+import com.cobank.api.dto.JobRunResponse;
+import com.cobank.repository.BatchPostingRepository;
+import com.cobank.repository.JobRunRepository;
+import com.cobank.service.job.RangeJobRunner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Starts batch postings such as month-end interest or account fees. A reference is posted at most once: starting it
+ * again returns its run, or resumes the run when it did not finish.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchPostingService {
+
+    private final RangeJobRunner rangeJobRunner;
+    private final BatchPostingJob batchPostingJob;
+    private final BatchPostingRepository batchPostingRepository;
+    private final JobRunRepository jobRunRepository;
+
+    public synchronized JobRunResponse start(BatchPostingRequest request) {
+        validate(request);
+
+        Optional<BatchPostingRequest> existingRule = batchPostingRepository.findRule(request.reference());
+        if (existingRule.isPresent() && !sameRule(existingRule.get(), request)) {
+            throw new IllegalArgumentException("Reference " + request.reference() + " was already used for another rule");
+        }
+
+        // The runner resumes the unfinished run of the job type, which has to be this posting
+        Optional<Long> unfinishedRun = jobRunRepository.findUnfinishedRun(BatchPostingJob.JOB_TYPE);
+        Optional<String> unfinishedReference = unfinishedRun.flatMap(jobRunRepository::findParameters);
+        if (unfinishedReference.isPresent() && !unfinishedReference.get().equals(request.reference())) {
+            throw new IllegalArgumentException("Batch posting " + unfinishedReference.get()
+                    + " has not finished, start it again to resume it first");
+        }
+
+        Optional<Long> previousRun = jobRunRepository.findLatestRun(BatchPostingJob.JOB_TYPE, request.reference());
+        if (previousRun.isPresent() && unfinishedRun.isEmpty()) {
+            log.info("Batch posting {} was already applied by run {}", request.reference(), previousRun.get());
+            return findRun(previousRun.get());
+        }
+
+        if (existingRule.isEmpty()) {
+            batchPostingRepository.saveRule(request);
+        }
+        return findRun(rangeJobRunner.start(batchPostingJob, request.reference()));
+    }
+
+    private JobRunResponse findRun(long runId) {
+        return rangeJobRunner.findRun(runId)
+                .orElseThrow(() -> new IllegalStateException("Batch posting run " + runId + " was not recorded"));
+    }
+
+    private static void validate(BatchPostingRequest request) {
+        if (request.kind() == BatchPostingKind.INTEREST && !isPositive(request.rate())) {
+            throw new IllegalArgumentException("Interest needs a positive rate");
+        }
+        if (request.kind() == BatchPostingKind.FEE && !isPositive(request.amount())) {
+            throw new IllegalArgumentException("A fee needs a positive amount");
+        }
+    }
+
+    private static boolean isPositive(BigDecimal value) {
+        return value != null && value.signum() > 0;
+    }
+
+    private static boolean sameRule(BatchPostingRequest stored, BatchPostingRequest requested) {
+        return stored.kind() == requested.kind()
+                && sameValue(stored.rate(), requested.rate())
+                && sameValue(stored.amount(), requested.amount())
+                && Objects.equals(stored.description(), requested.description());
+    }
+
+    private static boolean sameValue(BigDecimal left, BigDecimal right) {
+        return left == null ? right == null : right != null && left.compareTo(right) == 0;
+    }
+}
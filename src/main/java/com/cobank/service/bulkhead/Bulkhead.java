@@ -0,0 +1,17 @@
+package com.cobank.service.bulkhead;
+
+import java.util.Locale;
+
+/**
+ * Workloads that get a connection pool of their own, so that one of them exhausting its pool cannot starve the
+ * others. Everything outside these workloads uses the default pool.
+ */
+public enum Bulkhead {
+    POSTING,
+    BALANCE,
+    HISTORY;
+
+    public String poolName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,50 @@
+package com.cobank.service.bulkhead;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Assigns use case calls to a bulkhead by the use case interface they implement. It runs before the retry and
+ * transaction interceptors, so every attempt borrows its connection from the bulkhead's pool.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "bulkheads.enabled", havingValue = "true")
+public class BulkheadAspect {
+
+    @Around("execution(* com.cobank.service.ProcessTransactionUseCase.*(..))")
+    public Object posting(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedIn(Bulkhead.POSTING, joinPoint);
+    }
+
+    @Around("execution(* com.cobank.service.FetchBalanceUseCase.*(..))"
+            + " || execution(* com.cobank.service.FetchAccountVersionUseCase.*(..))"
+            + " || execution(* com.cobank.service.FetchBalanceSnapshotUseCase.*(..))"
+            + " || execution(* com.cobank.service.FetchHistoricalBalanceUseCase.*(..))")
+    public Object balance(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedIn(Bulkhead.BALANCE, joinPoint);
+    }
+
+    @Around("execution(* com.cobank.service.GetTransactionHistoryUseCase.*(..))"
+            + " || execution(* com.cobank.service.SearchTransactionHistoryUseCase.*(..))"
+            + " || execution(* com.cobank.service.GetAccountSummaryUseCase.*(..))")
+    public Object history(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedIn(Bulkhead.HISTORY, joinPoint);
+    }
+
+    private Object proceedIn(Bulkhead bulkhead, ProceedingJoinPoint joinPoint) throws Throwable {
+        Bulkhead previous = BulkheadRoutingDataSource.current();
+        BulkheadRoutingDataSource.enter(bulkhead);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            BulkheadRoutingDataSource.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.cobank.service.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool of the bulkhead the current thread runs in, see {@link BulkheadAspect}.
+ * A transaction keeps the connection it started with, so the bulkhead has to be chosen before it begins.
+ */
+public class BulkheadRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final ThreadLocal<Bulkhead> CURRENT = new ThreadLocal<>();
+
+    private final HikariDataSource defaultPool;
+    private final Map<Bulkhead, HikariDataSource> pools;
+
+    public BulkheadRoutingDataSource(HikariDataSource defaultPool, Map<Bulkhead, HikariDataSource> pools) {
+        this.defaultPool = defaultPool;
+        this.pools = Map.copyOf(pools);
+        setDefaultTargetDataSource(defaultPool);
+        setTargetDataSources(new HashMap<>(pools));
+        afterPropertiesSet();
+    }
+
+    static Bulkhead current() {
+        return CURRENT.get();
+    }
+
+    static void enter(Bulkhead bulkhead) {
+        CURRENT.set(bulkhead);
+    }
+
+    static void restore(Bulkhead previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+        defaultPool.close();
+    }
+}
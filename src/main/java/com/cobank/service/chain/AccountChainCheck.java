@@ -0,0 +1,74 @@
+package com.cobank.service.chain;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Verifies the hash chain of one account from its rows in any order. Rows are linked through their previous hash
+ * rather than their timestamps, so rows posted within the same microsecond need no tie-break. Once history has been
+ * archived, the chain of hot rows starts from the hash of the latest archived row instead of from nothing.
+ */
+final class AccountChainCheck {
+
+    private static final ByteBuffer FIRST = ByteBuffer.allocate(0);
+
+    private final long accountKey;
+    private final byte[] tail;
+    private final byte[] head;
+    private final Map<ByteBuffer, Link> byPrevious = new HashMap<>();
+    private final List<ChainViolation> violations = new ArrayList<>();
+
+    /**
+     * @param tail hash the oldest hot row links to, {@code null} when nothing was archived
+     * @param head hash of the latest row as stored on the account
+     */
+    AccountChainCheck(long accountKey, byte[] tail, byte[] head) {
+        this.accountKey = accountKey;
+        this.tail = tail;
+        this.head = head;
+    }
+
+    long accountKey() {
+        return accountKey;
+    }
+
+    /**
+     * @param computedHash hash recomputed from the previous hash and contents of the row
+     */
+    void add(UUID historyId, byte[] previousHash, byte[] storedHash, byte[] computedHash) {
+        if (storedHash == null) {
+            violations.add(new ChainViolation(accountKey, historyId, ChainViolation.Kind.UNCHAINED));
+            return;
+        }
+        if (!Arrays.equals(storedHash, computedHash)) {
+            violations.add(new ChainViolation(accountKey, historyId, ChainViolation.Kind.HASH_MISMATCH));
+        }
+        ByteBuffer previous = previousHash == null ? FIRST : ByteBuffer.wrap(previousHash);
+        if (byPrevious.putIfAbsent(previous, new Link(historyId, storedHash)) != null) {
+            violations.add(new ChainViolation(accountKey, historyId, ChainViolation.Kind.FORK));
+        }
+    }
+
+    List<ChainViolation> finish() {
+        byte[] last = tail;
+        Link link = byPrevious.remove(tail == null ? FIRST : ByteBuffer.wrap(tail));
+        while (link != null) {
+            last = link.hash();
+            link = byPrevious.remove(ByteBuffer.wrap(link.hash()));
+        }
+        byPrevious.values().forEach(unreachable ->
+                violations.add(new ChainViolation(accountKey, unreachable.historyId(), ChainViolation.Kind.BROKEN_LINK)));
+        if (!Arrays.equals(last, head)) {
+            violations.add(new ChainViolation(accountKey, null, ChainViolation.Kind.HEAD_MISMATCH));
+        }
+        return violations;
+    }
+
+    private record Link(UUID historyId, byte[] hash) {
+    }
+}
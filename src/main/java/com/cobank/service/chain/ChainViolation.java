@@ -0,0 +1,22 @@
+package com.cobank.service.chain;
+
+import java.util.UUID;
+
+/**
+ * A break in the hash chain of an account. {@code historyId} is empty for violations of the chain as a whole.
+ */
+public record ChainViolation(long accountKey, UUID historyId, Kind kind) {
+
+    public enum Kind {
+        /** The row was written without a hash. */
+        UNCHAINED,
+        /** The contents of the row do not hash to its stored hash. */
+        HASH_MISMATCH,
+        /** Another row of the account follows the same predecessor. */
+        FORK,
+        /** The row does not follow from the first row of the account, so a row before it was altered or removed. */
+        BROKEN_LINK,
+        /** The chain does not end in the hash stored on the account, so its latest rows were altered or removed. */
+        HEAD_MISMATCH
+    }
+}
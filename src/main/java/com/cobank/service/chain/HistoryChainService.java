@@ -0,0 +1,26 @@
+package com.cobank.service.chain;
+
+import com.cobank.api.dto.JobRunResponse;
+import com.cobank.service.job.RangeJobRunner;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class HistoryChainService {
+
+    private final RangeJobRunner rangeJobRunner;
+    private final HistoryChainVerificationJob historyChainVerificationJob;
+
+    public JobRunResponse startVerification() {
+        long runId = rangeJobRunner.start(historyChainVerificationJob);
+        return rangeJobRunner.findRun(runId)
+                .orElseThrow(() -> new IllegalStateException("Hash chain verification run " + runId + " was not recorded"));
+    }
+
+    @Scheduled(cron = "${history-chain.verification.cron:-}")
+    public void scheduledVerification() {
+        rangeJobRunner.start(historyChainVerificationJob);
+    }
+}
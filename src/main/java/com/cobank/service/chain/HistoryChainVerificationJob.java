@@ -0,0 +1,104 @@
+package com.cobank.service.chain;
+
+import com.cobank.domain.HistoryChain;
+import com.cobank.domain.TransactionTypeCodeConverter;
+import com.cobank.repository.HistoryChainRepository;
+import com.cobank.service.job.KeyRange;
+import com.cobank.service.job.RangeJob;
+import com.cobank.service.job.RangeResult;
+import com.cobank.service.job.Throttle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recomputes the hash chains of all accounts, one account key range per transaction. The rows of a range are streamed
+ * and only the links of the current account are kept in memory.
+ */
+@Slf4j
+@Component
+public class HistoryChainVerificationJob implements RangeJob {
+
+    public static final String JOB_TYPE = "HISTORY_CHAIN_VERIFICATION";
+
+    private static final int THROTTLE_BLOCK = 1000;
+
+    private final HistoryChainRepository historyChainRepository;
+    private final int parallelism;
+    private final long rangeSize;
+    private final Throttle throttle;
+
+    public HistoryChainVerificationJob(HistoryChainRepository historyChainRepository,
+                                       @Value("${history-chain.verification.parallelism:4}") int parallelism,
+                                       @Value("${history-chain.verification.range-size:10000}") long rangeSize,
+                                       @Value("${history-chain.verification.max-rows-per-second:200000}") double maxRowsPerSecond) {
+        this.historyChainRepository = historyChainRepository;
+        this.parallelism = parallelism;
+        this.rangeSize = rangeSize;
+        this.throttle = new Throttle(maxRowsPerSecond);
+    }
+
+    @Override
+    public String jobType() {
+        return JOB_TYPE;
+    }
+
+    @Override
+    public int parallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public List<KeyRange> plan() {
+        return historyChainRepository.findAccountKeyBounds()
+                .map(bounds -> KeyRange.split(bounds.start(), bounds.end(), rangeSize))
+                .orElse(List.of());
+    }
+
+    @Override
+    public RangeResult process(long runId, KeyRange range) {
+        List<ChainViolation> violations = new ArrayList<>();
+        AtomicLong rows = new AtomicLong();
+        AccountChainCheck[] current = {null};
+
+        historyChainRepository.streamChains(range.start(), range.end(), rs -> {
+            long accountKey = rs.getLong("account_key");
+            if (current[0] == null || current[0].accountKey() != accountKey) {
+                if (current[0] != null) {
+                    violations.addAll(current[0].finish());
+                }
+                current[0] = new AccountChainCheck(accountKey, rs.getBytes("tail"), rs.getBytes("head"));
+            }
+
+            UUID historyId = rs.getObject("id", UUID.class);
+            if (historyId != null) {
+                byte[] previousHash = rs.getBytes("prev_hash");
+                current[0].add(historyId, previousHash, rs.getBytes("hash"), HistoryChain.hash(
+                        previousHash,
+                        accountKey,
+                        rs.getTimestamp("timestamp").toLocalDateTime(),
+                        TransactionTypeCodeConverter.INSTANCE.convertToEntityAttribute(rs.getShort("type_code")),
+                        rs.getBigDecimal("amount"),
+                        rs.getBigDecimal("resulting_balance"),
+                        rs.getString("description")));
+            }
+            if (rows.incrementAndGet() % THROTTLE_BLOCK == 0) {
+                throttle.acquire(THROTTLE_BLOCK);
+            }
+        });
+        if (current[0] != null) {
+            violations.addAll(current[0].finish());
+        }
+
+        if (!violations.isEmpty()) {
+            log.warn("Found {} hash chain violations in account range {}-{}", violations.size(), range.start(), range.end());
+            historyChainRepository.saveViolations(runId, violations);
+        }
+        return new RangeResult(rows.get(), violations.size());
+    }
+}
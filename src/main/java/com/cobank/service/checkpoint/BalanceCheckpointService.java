@@ -0,0 +1,78 @@
+package com.cobank.service.checkpoint;
+
+import com.cobank.api.dto.FetchBalanceResponse;
+import com.cobank.repository.AccountRepository;
+import com.cobank.repository.BalanceCheckpointRepository;
+import com.cobank.service.FetchHistoricalBalanceUseCase;
+import com.cobank.service.archive.HistoryArchive;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Slf4j
+@Service
+public class BalanceCheckpointService implements FetchHistoricalBalanceUseCase {
+
+    private static final LocalDateTime BEGINNING_OF_HISTORY = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+    private final AccountRepository accountRepository;
+    private final HistoryArchive historyArchive;
+    private final Duration settleMargin;
+
+    public BalanceCheckpointService(BalanceCheckpointRepository balanceCheckpointRepository,
+                                    AccountRepository accountRepository,
+                                    HistoryArchive historyArchive,
+                                    @Value("${balance-checkpoint.settle-margin:PT5M}") Duration settleMargin) {
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
+        this.accountRepository = accountRepository;
+        this.historyArchive = historyArchive;
+        this.settleMargin = settleMargin;
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    @Override
+    public Optional<FetchBalanceResponse> getBalanceAsOf(String iban, LocalDateTime asOf) {
+        log.info("Fetching balance for IBAN={} as of {}", iban, asOf);
+
+        return accountRepository.findByIban(iban)
+                .map(account -> {
+                    Optional<BalanceCheckpointRepository.Checkpoint> checkpoint =
+                            balanceCheckpointRepository.findLatestOnOrBefore(iban, asOf);
+                    LocalDateTime after = checkpoint
+                            .map(BalanceCheckpointRepository.Checkpoint::checkpointAt)
+                            .orElse(BEGINNING_OF_HISTORY);
+                    // Archived postings are older than every hot one, so they only count without a hot match
+                    BigDecimal balance = balanceCheckpointRepository.findLastResultingBalance(iban, after, asOf)
+                            .or(() -> historyArchive.findBalanceAsOf(iban, after, asOf))
+                            .or(() -> checkpoint.map(BalanceCheckpointRepository.Checkpoint::balance))
+                            .orElse(BigDecimal.ZERO);
+                    return new FetchBalanceResponse(iban, balance);
+                });
+    }
+
+    /**
+     * Checkpoints every account that posted since the previous run. The cutoff trails the clock by the settle margin
+     * because a posting takes its timestamp before it commits, so a younger row may still become visible.
+     */
+    @Scheduled(cron = "${balance-checkpoint.cron:0 15 0 * * *}")
+    @Transactional(timeout = 600)
+    public void checkpoint() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(settleMargin);
+        LocalDateTime after = balanceCheckpointRepository.findLatestCheckpointTime().orElse(BEGINNING_OF_HISTORY);
+        if (!cutoff.isAfter(after)) {
+            return;
+        }
+
+        int checkpoints = balanceCheckpointRepository.checkpointAccountsPostedBetween(after, cutoff);
+        log.info("Wrote {} balance checkpoints at {}", checkpoints, cutoff);
+    }
+}
@@ -0,0 +1,75 @@
+package com.cobank.service.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces concurrent identical balance, version and history reads, so a burst of requests for one IBAN runs one
+ * query. It runs before the retry, cache and transaction interceptors, so callers that share a result never borrow a
+ * connection. A shared result may be one in-flight query older than a posting that committed while it ran, the same
+ * staleness a caller would see had it arrived a moment earlier. Calls made inside a transaction are not coalesced, as
+ * they must read their own snapshot.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "coalescing.enabled", havingValue = "true")
+public class CoalescingAspect {
+
+    private final SingleFlight singleFlight;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public CoalescingAspect(@Value("${coalescing.max-wait:PT5S}") Duration maxWait, MeterRegistry meterRegistry) {
+        this.singleFlight = new SingleFlight(maxWait);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("cobank.coalescing.in-flight", singleFlight, SingleFlight::inFlight)
+                .description("Distinct reads currently executing on behalf of coalesced callers")
+                .register(meterRegistry);
+    }
+
+    @Around("execution(* com.cobank.service.FetchBalanceUseCase.*(..))"
+            + " || execution(* com.cobank.service.FetchAccountVersionUseCase.*(..))"
+            + " || execution(* com.cobank.service.GetTransactionHistoryUseCase.*(..))")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        SingleFlight.Result result = singleFlight.execute(
+                new Key(method, Arrays.asList(joinPoint.getArgs())), joinPoint::proceed);
+        counter(method.getName(), result.outcome()).increment();
+        return result.value();
+    }
+
+    private Counter counter(String operation, SingleFlight.Outcome outcome) {
+        return counters.computeIfAbsent(operation + '/' + outcome, name -> Counter.builder("cobank.coalescing.calls")
+                .description("Coalesced reads by whether they executed, shared an in-flight result or waited too long")
+                .tag("operation", operation)
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                .register(meterRegistry));
+    }
+
+    // Pageable and the other arguments of these use cases implement equals
+    private record Key(Method method, List<Object> args) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.cobank.service.coalescing;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Lets concurrent calls with the same key share one execution. The first caller executes, callers that arrive while it
+ * runs wait for its result or exception. A caller that has waited {@code maxWait} executes on its own, so a stuck
+ * execution cannot hold up every caller of its key.
+ */
+final class SingleFlight {
+
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+
+    SingleFlight(Duration maxWait) {
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    Result execute(Object key, Call call) throws Throwable {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            try {
+                return new Result(existing.get(maxWaitNanos, TimeUnit.NANOSECONDS), Outcome.SHARED);
+            } catch (ExecutionException ex) {
+                throw ex.getCause();
+            } catch (TimeoutException ex) {
+                return new Result(call.call(), Outcome.TIMED_OUT);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw ex;
+            }
+        }
+
+        try {
+            Object value = call.call();
+            flight.complete(value);
+            return new Result(value, Outcome.EXECUTED);
+        } catch (Throwable ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    @FunctionalInterface
+    interface Call {
+        Object call() throws Throwable;
+    }
+
+    enum Outcome {
+        EXECUTED, SHARED, TIMED_OUT
+    }
+
+    record Result(Object value, Outcome outcome) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.cobank.service.contention;
+
+import com.cobank.api.dto.TransactionRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.interceptor.MethodInvocationRetryCallback;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Counts failed attempts of retried postings against their IBAN. Retry listener beans apply to every
+ * {@code @Retryable} method, only those that take a {@link TransactionRequest} are counted.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContentionRetryListener implements RetryListener {
+
+    private final ContentionTracker contentionTracker;
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                 Throwable throwable) {
+        if (callback instanceof MethodInvocationRetryCallback<?, ?> invocation) {
+            Arrays.stream(invocation.getInvocation().getArguments())
+                    .filter(TransactionRequest.class::isInstance)
+                    .map(TransactionRequest.class::cast)
+                    .findFirst()
+                    .ifPresent(request -> contentionTracker.recordRetry(request.iban()));
+        }
+    }
+}
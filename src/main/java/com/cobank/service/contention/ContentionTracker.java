@@ -0,0 +1,106 @@
+package com.cobank.service.contention;
+
+import com.cobank.api.dto.ContendedAccountResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the accounts that postings contend on. A lock wait of at least {@code contention.lock-wait-threshold} and a
+ * retried posting each count as one contention event of the IBAN. Events are counted in a count-min sketch, so memory
+ * stays fixed however many accounts contend, and the {@code contention.top-accounts} accounts with the most events are
+ * tracked in detail. All counts are halved every {@code contention.decay-interval-ms}, so the top reflects recent
+ * contention.
+ */
+@Component
+public class ContentionTracker {
+
+    private final boolean enabled;
+    private final long lockWaitThresholdNanos;
+    private final CountMinSketch events;
+    private final TopContendedAccounts topAccounts;
+    private final Timer lockWaits;
+    private final Counter retries;
+
+    public ContentionTracker(MeterRegistry meterRegistry,
+                             @Value("${contention.enabled:true}") boolean enabled,
+                             @Value("${contention.lock-wait-threshold:5ms}") Duration lockWaitThreshold,
+                             @Value("${contention.top-accounts:20}") int topAccounts,
+                             @Value("${contention.sketch-depth:4}") int sketchDepth,
+                             @Value("${contention.sketch-width:4096}") int sketchWidth) {
+        this.enabled = enabled;
+        this.lockWaitThresholdNanos = lockWaitThreshold.toNanos();
+        this.events = new CountMinSketch(sketchDepth, sketchWidth);
+        this.topAccounts = new TopContendedAccounts(topAccounts);
+        this.lockWaits = Timer.builder("cobank.contention.lock-wait")
+                .description("Time postings took to lock their account")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.retries = Counter.builder("cobank.contention.retries")
+                .description("Posting attempts that failed with a retryable error")
+                .register(meterRegistry);
+        // One gauge per rank rather than per IBAN, so the number of series stays fixed
+        for (int rank = 1; rank <= topAccounts; rank++) {
+            int index = rank - 1;
+            Gauge.builder("cobank.contention.top-account.events", this, tracker -> tracker.eventsAtRank(index))
+                    .description("Estimated recent contention events of the account at this rank")
+                    .tag("rank", String.valueOf(rank))
+                    .register(meterRegistry);
+        }
+    }
+
+    public void recordLockWait(String iban, long waitNanos) {
+        if (!enabled) {
+            return;
+        }
+        lockWaits.record(waitNanos, TimeUnit.NANOSECONDS);
+        if (waitNanos < lockWaitThresholdNanos) {
+            return;
+        }
+        long estimate = events.add(iban, 1);
+        synchronized (topAccounts) {
+            topAccounts.recordLockWait(iban, estimate, waitNanos);
+        }
+    }
+
+    public void recordRetry(String iban) {
+        if (!enabled) {
+            return;
+        }
+        retries.increment();
+        long estimate = events.add(iban, 1);
+        synchronized (topAccounts) {
+            topAccounts.recordRetry(iban, estimate);
+        }
+    }
+
+    /**
+     * The tracked accounts, most contended first.
+     */
+    public List<ContendedAccountResponse> topAccounts() {
+        synchronized (topAccounts) {
+            return topAccounts.top();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${contention.decay-interval-ms:60000}")
+    public void decay() {
+        events.decay();
+        synchronized (topAccounts) {
+            topAccounts.decay();
+        }
+    }
+
+    private double eventsAtRank(int index) {
+        List<ContendedAccountResponse> top = topAccounts();
+        return index < top.size() ? top.get(index).estimatedEvents() : 0;
+    }
+}
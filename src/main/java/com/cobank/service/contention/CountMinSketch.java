@@ -0,0 +1,67 @@
+package com.cobank.service.contention;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.CRC32;
+
+/**
+ * Approximate counts of any number of keys in a fixed number of counters. An estimate never undercounts, it overcounts
+ * by the counts of colliding keys. Thread-safe.
+ */
+final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final AtomicLongArray counters;
+
+    CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("depth and width must be positive");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counters = new AtomicLongArray(depth * width);
+    }
+
+    /**
+     * Adds to the count of the key and returns its new estimate.
+     */
+    long add(String key, long count) {
+        long hash1 = key.hashCode();
+        long hash2 = secondHash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.addAndGet(index(hash1, hash2, row), count));
+        }
+        return estimate;
+    }
+
+    long estimate(String key) {
+        long hash1 = key.hashCode();
+        long hash2 = secondHash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash1, hash2, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Halves every counter, so that counts fade with age.
+     */
+    void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.updateAndGet(i, count -> count >> 1);
+        }
+    }
+
+    private int index(long hash1, long hash2, int row) {
+        return row * width + (int) Math.floorMod(hash1 + row * hash2, (long) width);
+    }
+
+    private static long secondHash(String key) {
+        CRC32 crc = new CRC32();
+        crc.update(key.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue() | 1;
+    }
+}
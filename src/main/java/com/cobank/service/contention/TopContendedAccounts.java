@@ -0,0 +1,128 @@
+package com.cobank.service.contention;
+
+import com.cobank.api.dto.ContendedAccountResponse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The accounts with the highest estimated contention, at most {@code capacity} of them. An account that is offered
+ * with a higher estimate than the lowest tracked account replaces it. Lock waits and retries are only recorded in
+ * detail while an account is tracked. Not thread-safe.
+ */
+final class TopContendedAccounts {
+
+    static final long[] BUCKET_MILLIS = {1, 5, 10, 50, 100, 500, 1_000, 5_000};
+
+    private final int capacity;
+    private final Map<String, AccountContention> accounts = new HashMap<>();
+
+    TopContendedAccounts(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    void recordLockWait(String iban, long estimate, long waitNanos) {
+        AccountContention account = offer(iban, estimate);
+        if (account != null) {
+            account.lockWaits++;
+            account.lockWaitNanos += waitNanos;
+            account.maxLockWaitNanos = Math.max(account.maxLockWaitNanos, waitNanos);
+            account.buckets[bucket(TimeUnit.NANOSECONDS.toMillis(waitNanos))]++;
+        }
+    }
+
+    void recordRetry(String iban, long estimate) {
+        AccountContention account = offer(iban, estimate);
+        if (account != null) {
+            account.retries++;
+        }
+    }
+
+    /**
+     * Halves all counts, and forgets accounts without contention left.
+     */
+    void decay() {
+        accounts.values().removeIf(account -> {
+            account.estimate >>= 1;
+            account.lockWaits >>= 1;
+            account.lockWaitNanos >>= 1;
+            account.retries >>= 1;
+            for (int i = 0; i < account.buckets.length; i++) {
+                account.buckets[i] >>= 1;
+            }
+            return account.estimate == 0;
+        });
+    }
+
+    List<ContendedAccountResponse> top() {
+        List<ContendedAccountResponse> top = new ArrayList<>(accounts.size());
+        accounts.forEach((iban, account) -> top.add(account.toResponse(iban)));
+        top.sort(Comparator.comparingLong(ContendedAccountResponse::estimatedEvents).reversed());
+        return top;
+    }
+
+    int size() {
+        return accounts.size();
+    }
+
+    private AccountContention offer(String iban, long estimate) {
+        AccountContention account = accounts.get(iban);
+        if (account == null) {
+            if (accounts.size() >= capacity) {
+                Map.Entry<String, AccountContention> lowest = accounts.entrySet().stream()
+                        .min(Comparator.comparingLong(entry -> entry.getValue().estimate))
+                        .orElseThrow();
+                if (lowest.getValue().estimate >= estimate) {
+                    return null;
+                }
+                accounts.remove(lowest.getKey());
+            }
+            account = new AccountContention();
+            accounts.put(iban, account);
+        }
+        account.estimate = estimate;
+        return account;
+    }
+
+    private static int bucket(long waitMillis) {
+        for (int i = 0; i < BUCKET_MILLIS.length; i++) {
+            if (waitMillis < BUCKET_MILLIS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_MILLIS.length;
+    }
+
+    private static final class AccountContention {
+
+        private long estimate;
+        private long lockWaits;
+        private long lockWaitNanos;
+        private long maxLockWaitNanos;
+        private long retries;
+        private final long[] buckets = new long[BUCKET_MILLIS.length + 1];
+
+        ContendedAccountResponse toResponse(String iban) {
+            List<ContendedAccountResponse.Bucket> distribution = new ArrayList<>(buckets.length);
+            for (int i = 0; i < buckets.length; i++) {
+                distribution.add(new ContendedAccountResponse.Bucket(
+                        i < BUCKET_MILLIS.length ? BUCKET_MILLIS[i] : null, buckets[i]));
+            }
+            return new ContendedAccountResponse(
+                    iban,
+                    estimate,
+                    lockWaits,
+                    TimeUnit.NANOSECONDS.toMillis(lockWaitNanos),
+                    TimeUnit.NANOSECONDS.toMillis(maxLockWaitNanos),
+                    retries,
+                    distribution);
+        }
+    }
+}
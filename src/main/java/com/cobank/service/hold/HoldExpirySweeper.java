@@ -0,0 +1,65 @@
+package com.cobank.service.hold;
+
+import com.cobank.repository.FundHoldRepository;
+import com.cobank.repository.FundHoldRepository.ExpiredHold;
+import com.cobank.service.AccountChangedEvent;
+import com.cobank.service.limits.WithdrawalLimitService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Releases the funds of holds that were neither captured nor released before they expired. Each batch is one
+ * statement in its own transaction, so accounts are only locked briefly, and sweepers on several nodes skip each
+ * other's holds. The amounts of expired holds are given back to the withdrawal limits.
+ */
+@Slf4j
+@Component
+public class HoldExpirySweeper {
+
+    private final FundHoldRepository fundHoldRepository;
+    private final WithdrawalLimitService withdrawalLimitService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final Counter expired;
+
+    public HoldExpirySweeper(FundHoldRepository fundHoldRepository,
+                             WithdrawalLimitService withdrawalLimitService,
+                             ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry,
+                             @Value("${holds.expiry.batch-size:1000}") int batchSize) {
+        this.fundHoldRepository = fundHoldRepository;
+        this.withdrawalLimitService = withdrawalLimitService;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.expired = Counter.builder("cobank.holds.expired")
+                .description("Holds released because they expired")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${holds.expiry.interval-ms:60000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+        List<ExpiredHold> batch;
+        do {
+            batch = fundHoldRepository.expire(now, batchSize);
+            batch.forEach(hold -> {
+                withdrawalLimitService.release(hold.iban(), hold.amount(), hold.authorizedAt());
+                eventPublisher.publishEvent(new AccountChangedEvent(hold.iban()));
+            });
+            expired.increment(batch.size());
+            total += batch.size();
+        } while (batch.size() == batchSize);
+        if (total > 0) {
+            log.info("Expired {} holds", total);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.cobank.service.hold;
+
+import com.cobank.api.dto.CaptureHoldRequest;
+import com.cobank.api.dto.HoldRequest;
+import com.cobank.api.dto.HoldResponse;
+import com.cobank.api.dto.HoldStatus;
+import com.cobank.domain.HistoryChain;
+import com.cobank.repository.AccountRepository;
+import com.cobank.repository.FundHoldRepository;
+import com.cobank.service.AccountChangedEvent;
+import com.cobank.service.AuthorizeHoldUseCase;
+import com.cobank.service.CaptureHoldUseCase;
+import com.cobank.service.GetHoldUseCase;
+import com.cobank.service.ReleaseHoldUseCase;
+import com.cobank.service.iban.IbanService;
+import com.cobank.service.limits.WithdrawalLimitService;
+import com.cobank.service.transaction.TransactionPostedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Authorizes, captures and releases holds. A hold reserves funds by raising the held amount of its account, and only
+ * the capture posts a withdrawal, so a card-style payment costs one posting instead of a withdrawal and a compensating
+ * deposit. Withdrawal limits are applied when the hold is authorized, and the part of the hold that is not captured is
+ * given back to them.
+ */
+@Slf4j
+@Service
+public class HoldService implements AuthorizeHoldUseCase, CaptureHoldUseCase, ReleaseHoldUseCase, GetHoldUseCase {
+
+    private final FundHoldRepository fundHoldRepository;
+    private final AccountRepository accountRepository;
+    private final IbanService ibanService;
+    private final WithdrawalLimitService withdrawalLimitService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration defaultDuration;
+
+    public HoldService(FundHoldRepository fundHoldRepository,
+                       AccountRepository accountRepository,
+                       IbanService ibanService,
+                       WithdrawalLimitService withdrawalLimitService,
+                       ApplicationEventPublisher eventPublisher,
+                       @Value("${holds.default-duration:P7D}") Duration defaultDuration) {
+        this.fundHoldRepository = fundHoldRepository;
+        this.accountRepository = accountRepository;
+        this.ibanService = ibanService;
+        this.withdrawalLimitService = withdrawalLimitService;
+        this.eventPublisher = eventPublisher;
+        this.defaultDuration = defaultDuration;
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, timeout = 5)
+    public Optional<HoldResponse> authorizeHold(HoldRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = request.expiresAt() != null ? request.expiresAt() : now.plus(defaultDuration);
+        if (!expiresAt.isAfter(now)) {
+            throw new IllegalArgumentException("expiresAt must be in the future");
+        }
+
+        Optional<Long> accountKey = ibanService.findAccountKey(request.iban());
+        Optional<Long> id = accountKey.flatMap(key ->
+                fundHoldRepository.authorize(key, request.amount(), request.reference(), now, expiresAt));
+        if (id.isEmpty()) {
+            if (accountKey.isEmpty() || accountRepository.findVersionByIban(request.iban()).isEmpty()) {
+                return Optional.empty();
+            }
+            throw new IllegalArgumentException("Insufficient available balance for a hold of " + request.amount());
+        }
+        withdrawalLimitService.reserve(request.iban(), request.amount(), now);
+        eventPublisher.publishEvent(new AccountChangedEvent(request.iban()));
+
+        log.info("Authorized hold {} of {} on IBAN={} until {}", id.get(), request.amount(), request.iban(), expiresAt);
+        return fundHoldRepository.findById(id.get());
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, timeout = 5)
+    public Optional<HoldResponse> captureHold(long id, CaptureHoldRequest request) {
+        BigDecimal amount = request != null ? request.amount() : null;
+        String description = request != null ? request.description() : null;
+        LocalDateTime now = HistoryChain.timestamp(LocalDateTime.now());
+
+        Optional<TransactionPostedEvent> posting = fundHoldRepository.capture(id, amount, description, now);
+        if (posting.isEmpty()) {
+            Optional<HoldResponse> hold = fundHoldRepository.findById(id);
+            if (hold.isPresent()) {
+                throw new IllegalArgumentException(rejection(hold.get(), amount, now));
+            }
+            return Optional.empty();
+        }
+        eventPublisher.publishEvent(posting.get());
+        Optional<HoldResponse> hold = fundHoldRepository.findById(id);
+        hold.ifPresent(captured -> withdrawalLimitService.releaseRemainder(captured.iban(),
+                captured.amount().subtract(captured.capturedAmount()), captured.createdAt()));
+
+        log.info("Captured {} of hold {} on IBAN={}", posting.get().amount(), id, posting.get().iban());
+        return hold;
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, timeout = 5)
+    public Optional<HoldResponse> releaseHold(long id) {
+        boolean released = fundHoldRepository.release(id, LocalDateTime.now());
+        Optional<HoldResponse> hold = fundHoldRepository.findById(id);
+        if (released) {
+            hold.ifPresent(settled -> {
+                withdrawalLimitService.release(settled.iban(), settled.amount(), settled.createdAt());
+                eventPublisher.publishEvent(new AccountChangedEvent(settled.iban()));
+            });
+            log.info("Released hold {}", id);
+        }
+        return hold;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<HoldResponse> getHold(long id) {
+        return fundHoldRepository.findById(id);
+    }
+
+    private static String rejection(HoldResponse hold, BigDecimal amount, LocalDateTime now) {
+        if (hold.status() != HoldStatus.ACTIVE) {
+            return "Hold " + hold.id() + " is " + hold.status();
+        }
+        if (!hold.expiresAt().isAfter(now)) {
+            return "Hold " + hold.id() + " expired at " + hold.expiresAt();
+        }
+        return "Capture of " + amount + " exceeds hold " + hold.id() + " of " + hold.amount();
+    }
+}
@@ -1,17 +1,23 @@
 package com.cobank.service.iban;
 
+import com.cobank.service.sharding.ShardDirectory;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Optional;
+
 @Service
 public class IbanService {
     private final String countryCode;
     private final String checkDigits;
     private final String bankCode;
     private final int accountNumberLength;
+    private final ObjectProvider<ShardDirectory> shardDirectory;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -20,25 +26,68 @@ public class IbanService {
             @Value("${iban.country-code}") String countryCode,
             @Value("${iban.check-digits}") String checkDigits,
             @Value("${iban.bank-code}") String bankCode,
-            @Value("${iban.account-number-length}") int accountNumberLength
+            @Value("${iban.account-number-length}") int accountNumberLength,
+            ObjectProvider<ShardDirectory> shardDirectory
     ) {
         this.countryCode = countryCode;
         this.checkDigits = checkDigits;
         this.bankCode = bankCode;
         this.accountNumberLength = accountNumberLength;
+        this.shardDirectory = shardDirectory;
     }
 
+    /**
+     * Issues the IBAN of a new account. With sharding, its account number also places the account on a shard, see
+     * {@link ShardDirectory#allocateAccountKeys}.
+     */
     public String generateIban() {
-        long sequenceNumber = getNextAccountSequence();
+        ShardDirectory directory = shardDirectory.getIfAvailable();
+        return toIban(directory == null ? getNextAccountSequence() : directory.allocateAccountKey());
+    }
+
+    public List<String> generateIbans(int count) {
+        ShardDirectory directory = shardDirectory.getIfAvailable();
+        return (directory == null ? getNextAccountSequences(count) : directory.allocateAccountKeys(count)).stream()
+                .map(this::toIban)
+                .toList();
+    }
+
+    public String toIban(long sequenceNumber) {
         String accountNumber = String.format("%0" + accountNumberLength + "d", sequenceNumber);
 
         return "%s%s%s%s".formatted(countryCode, checkDigits, bankCode, accountNumber);
     }
 
+    /**
+     * Returns the account number of an IBAN issued by this bank, which keys the account's history rows. IBANs of
+     * other banks or formats have no key.
+     */
+    public Optional<Long> findAccountKey(String iban) {
+        String prefix = countryCode + checkDigits + bankCode;
+        if (iban == null || iban.length() != prefix.length() + accountNumberLength || !iban.startsWith(prefix)) {
+            return Optional.empty();
+        }
+        String accountNumber = iban.substring(prefix.length());
+        if (!accountNumber.chars().allMatch(Character::isDigit)) {
+            return Optional.empty();
+        }
+        return Optional.of(Long.parseLong(accountNumber));
+    }
+
     private long getNextAccountSequence() {
         Query query = entityManager.createNativeQuery(
                 "SELECT nextval('account_sequence')"
         );
         return ((Number) query.getSingleResult()).longValue();
     }
+
+    private List<Long> getNextAccountSequences(int count) {
+        Query query = entityManager.createNativeQuery(
+                "SELECT nextval('account_sequence') FROM generate_series(1, :count)"
+        );
+        query.setParameter("count", count);
+        return ((List<?>) query.getResultList()).stream()
+                .map(value -> ((Number) value).longValue())
+                .toList();
+    }
 }
\ No newline at end of file
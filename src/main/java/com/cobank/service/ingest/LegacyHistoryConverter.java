@@ -0,0 +1,131 @@
+package com.cobank.service.ingest;
+
+import com.cobank.api.dto.TransactionType;
+import com.cobank.domain.TransactionHistory;
+import com.cobank.domain.TransactionTypeCodeConverter;
+import com.cobank.repository.PgCopySupport;
+import com.cobank.service.support.CsvParser;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Converts lines of a legacy history export into COPY rows for {@code transaction_history}. Instances are stateless
+ * after construction and may be shared between threads.
+ */
+final class LegacyHistoryConverter {
+
+    private static final int MONEY_SCALE = 2;
+
+    private final Function<String, Optional<Long>> accountKeys;
+
+    private final int ibanColumn;
+    private final int typeColumn;
+    private final int amountColumn;
+    private final int resultingBalanceColumn;
+    private final int timestampColumn;
+    private final int descriptionColumn;
+
+    LegacyHistoryConverter(String header, Function<String, Optional<Long>> accountKeys) {
+        this.accountKeys = accountKeys;
+        List<String> columns = header == null ? null : CsvParser.split(header);
+        if (columns == null) {
+            throw new IllegalArgumentException("History ingest requires a header row");
+        }
+        List<String> names = columns.stream().map(String::trim).toList();
+        this.ibanColumn = requiredColumn(names, "iban");
+        this.typeColumn = requiredColumn(names, "transactionType");
+        this.amountColumn = requiredColumn(names, "amount");
+        this.resultingBalanceColumn = requiredColumn(names, "resultingBalance");
+        this.timestampColumn = requiredColumn(names, "timestamp");
+        this.descriptionColumn = names.indexOf("description");
+    }
+
+    Row convert(String line, long lineNumber) {
+        List<String> fields = CsvParser.split(line);
+        if (fields == null) {
+            throw invalid(lineNumber, "unterminated quoted field");
+        }
+        String iban = field(fields, ibanColumn, lineNumber, "iban");
+        long accountKey = accountKeys.apply(iban)
+                .orElseThrow(() -> invalid(lineNumber, "IBAN is not an account of this bank"));
+        TransactionType type;
+        try {
+            type = TransactionType.valueOf(field(fields, typeColumn, lineNumber, "transactionType"));
+        } catch (IllegalArgumentException ex) {
+            throw invalid(lineNumber, "unknown transaction type");
+        }
+        BigDecimal amount = money(field(fields, amountColumn, lineNumber, "amount"), lineNumber, "amount");
+        if (amount.signum() <= 0) {
+            throw invalid(lineNumber, "amount must be positive");
+        }
+        BigDecimal resultingBalance = money(
+                field(fields, resultingBalanceColumn, lineNumber, "resultingBalance"), lineNumber, "resultingBalance");
+        LocalDateTime timestamp;
+        try {
+            timestamp = LocalDateTime.parse(field(fields, timestampColumn, lineNumber, "timestamp").replace(' ', 'T'));
+        } catch (DateTimeParseException ex) {
+            throw invalid(lineNumber, "invalid timestamp");
+        }
+        // A missing description is kept as empty, because a null one means the derived default
+        String description = descriptionColumn >= 0 && descriptionColumn < fields.size()
+                ? fields.get(descriptionColumn)
+                : "";
+
+        StringBuilder row = new StringBuilder(160);
+        PgCopySupport.appendCsvField(row, UUID.randomUUID());
+        row.append(',');
+        PgCopySupport.appendCsvField(row, accountKey);
+        row.append(',');
+        PgCopySupport.appendCsvField(row, TransactionTypeCodeConverter.INSTANCE.convertToDatabaseColumn(type));
+        row.append(',');
+        PgCopySupport.appendCsvField(row, amount.toPlainString());
+        row.append(',');
+        PgCopySupport.appendCsvField(row, resultingBalance.toPlainString());
+        row.append(',');
+        PgCopySupport.appendCsvField(row, timestamp);
+        row.append(',');
+        PgCopySupport.appendCsvField(row, TransactionHistory.storedDescription(type, amount, description));
+        row.append('\n');
+        return new Row(iban, row.toString());
+    }
+
+    private static int requiredColumn(List<String> names, String name) {
+        int index = names.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("History ingest header is missing column " + name);
+        }
+        return index;
+    }
+
+    private static String field(List<String> fields, int column, long lineNumber, String name) {
+        if (column >= fields.size()) {
+            throw invalid(lineNumber, "missing " + name);
+        }
+        return fields.get(column).trim();
+    }
+
+    private static BigDecimal money(String value, long lineNumber, String name) {
+        try {
+            BigDecimal amount = new BigDecimal(value);
+            if (amount.scale() > MONEY_SCALE) {
+                throw invalid(lineNumber, name + " has more than " + MONEY_SCALE + " decimals");
+            }
+            return amount;
+        } catch (NumberFormatException ex) {
+            throw invalid(lineNumber, "invalid " + name);
+        }
+    }
+
+    private static IllegalArgumentException invalid(long lineNumber, String message) {
+        return new IllegalArgumentException("Line " + lineNumber + ": " + message);
+    }
+
+    record Row(String iban, String copyRow) {
+    }
+}
@@ -0,0 +1,181 @@
+package com.cobank.service.ingest;
+
+import com.cobank.api.dto.HistoryIngestResponse;
+import com.cobank.repository.HistoryIngestRepository;
+import com.cobank.service.iban.IbanService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Loads a legacy transaction history export into {@code transaction_history}. The file is streamed in chunks, each
+ * chunk is converted in parallel and written with COPY in the same transaction that advances the checkpoint, so an
+ * interrupted ingest resumes after the last committed chunk. Postings are not published as events; rebuild the read
+ * model and backfill the rollups once the ingest has completed.
+ */
+@Slf4j
+@Service
+public class LegacyHistoryIngestService {
+
+    private final HistoryIngestRepository historyIngestRepository;
+    private final IbanService ibanService;
+    private final TransactionTemplate transactionTemplate;
+    private final Path directory;
+    private final int chunkSize;
+    private final boolean deferIndexes;
+    private final Set<String> runningSources = ConcurrentHashMap.newKeySet();
+
+    public LegacyHistoryIngestService(HistoryIngestRepository historyIngestRepository,
+                                      IbanService ibanService,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${history-ingest.directory:import}") String directory,
+                                      @Value("${history-ingest.chunk-size:50000}") int chunkSize,
+                                      @Value("${history-ingest.defer-indexes:true}") boolean deferIndexes) {
+        this.historyIngestRepository = historyIngestRepository;
+        this.ibanService = ibanService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setTimeout(300);
+        this.directory = Path.of(directory).toAbsolutePath().normalize();
+        this.chunkSize = chunkSize;
+        this.deferIndexes = deferIndexes;
+    }
+
+    /**
+     * Ingests {@code fileName} from the configured ingest directory. Accounts touched by the file must not receive
+     * postings until the ingest has completed, because their balances are overwritten from the ingested history.
+     */
+    public HistoryIngestResponse ingest(String fileName) {
+        Path file = resolve(fileName);
+        String source = directory.relativize(file).toString();
+        if (!runningSources.add(source)) {
+            throw new IllegalStateException("Ingest of " + source + " is already running");
+        }
+        try {
+            return ingest(source, file);
+        } finally {
+            runningSources.remove(source);
+        }
+    }
+
+    private HistoryIngestResponse ingest(String source, Path file) {
+        long sourceSize = size(file);
+        HistoryIngestRepository.Checkpoint checkpoint = historyIngestRepository.findCheckpoint(source)
+                .orElseGet(() -> startCheckpoint(source, sourceSize));
+        if (checkpoint.sourceSize() != sourceSize) {
+            throw new IllegalArgumentException("Source " + source + " changed since its ingest was started");
+        }
+        if (checkpoint.completed()) {
+            log.info("History ingest of {} already completed", source);
+            return new HistoryIngestResponse(source, checkpoint.committedLines(), checkpoint.committedLines(),
+                    checkpoint.rowsIngested(), 0);
+        }
+        log.info("Ingesting history from {} after line {}, indexes deferred: {}",
+                source, checkpoint.committedLines(), checkpoint.indexesDeferred());
+
+        long committedLines = checkpoint.committedLines();
+        long rowsIngested = checkpoint.rowsIngested();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            LegacyHistoryConverter converter = new LegacyHistoryConverter(reader.readLine(), ibanService::findAccountKey);
+            for (long skipped = 0; skipped < committedLines; skipped++) {
+                if (reader.readLine() == null) {
+                    throw new IllegalArgumentException("Source " + source + " is shorter than its checkpoint");
+                }
+            }
+
+            List<String> lines = new ArrayList<>(chunkSize);
+            String line;
+            do {
+                line = reader.readLine();
+                if (line != null) {
+                    lines.add(line);
+                }
+                if (lines.size() == chunkSize || (line == null && !lines.isEmpty())) {
+                    // Data lines are numbered after the header, which is line 1
+                    rowsIngested += appendChunk(source, converter, lines, committedLines + 2);
+                    committedLines += lines.size();
+                    lines.clear();
+                    log.debug("Committed {} lines of {}, {} rows ingested", committedLines, source, rowsIngested);
+                }
+            } while (line != null);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read " + source, ex);
+        }
+
+        if (checkpoint.indexesDeferred()) {
+            log.info("Recreating transaction history index after ingest of {}", source);
+            historyIngestRepository.createHistoryIndex();
+        }
+        Integer accountsUpdated = transactionTemplate.execute(status -> {
+            int updated = historyIngestRepository.applyFinalBalances(source);
+            historyIngestRepository.rechainAccounts(source);
+            historyIngestRepository.complete(source);
+            return updated;
+        });
+
+        log.info("History ingest of {} finished: lines={}, rows={}, accounts updated={}",
+                source, committedLines, rowsIngested, accountsUpdated);
+        return new HistoryIngestResponse(source, checkpoint.committedLines(), committedLines, rowsIngested,
+                accountsUpdated == null ? 0 : accountsUpdated);
+    }
+
+    private HistoryIngestRepository.Checkpoint startCheckpoint(String source, long sourceSize) {
+        // Dropping the history index is only safe while nothing reads the table, i.e. for the initial load
+        boolean indexesDeferred = deferIndexes && historyIngestRepository.isHistoryEmpty();
+        historyIngestRepository.createCheckpoint(source, sourceSize, indexesDeferred);
+        if (indexesDeferred) {
+            historyIngestRepository.dropHistoryIndex();
+        }
+        return new HistoryIngestRepository.Checkpoint(sourceSize, 0, 0, indexesDeferred, false);
+    }
+
+    private long appendChunk(String source, LegacyHistoryConverter converter, List<String> lines, long firstLineNumber) {
+        List<LegacyHistoryConverter.Row> rows = IntStream.range(0, lines.size())
+                .parallel()
+                .mapToObj(i -> lines.get(i).isBlank() ? null : converter.convert(lines.get(i), firstLineNumber + i))
+                .filter(Objects::nonNull)
+                .toList();
+
+        StringBuilder copyRows = new StringBuilder(rows.size() * 160);
+        Set<String> ibans = new HashSet<>();
+        for (LegacyHistoryConverter.Row row : rows) {
+            copyRows.append(row.copyRow());
+            ibans.add(row.iban());
+        }
+        long committedLines = firstLineNumber - 2 + lines.size();
+        Long copied = transactionTemplate.execute(status ->
+                historyIngestRepository.appendChunk(source, copyRows.toString(), ibans, committedLines));
+        return copied == null ? 0 : copied;
+    }
+
+    private Path resolve(String fileName) {
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No ingest file " + fileName + " in the ingest directory");
+        }
+        return file;
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read " + file, ex);
+        }
+    }
+}
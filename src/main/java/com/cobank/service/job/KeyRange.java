@@ -0,0 +1,18 @@
+package com.cobank.service.job;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inclusive range of account numbers, the unit of work and of checkpointing for range jobs.
+ */
+public record KeyRange(long start, long end) {
+
+    public static List<KeyRange> split(long min, long max, long rangeSize) {
+        List<KeyRange> ranges = new ArrayList<>();
+        for (long start = min; start <= max; start += rangeSize) {
+            ranges.add(new KeyRange(start, Math.min(max, start + rangeSize - 1)));
+        }
+        return ranges;
+    }
+}
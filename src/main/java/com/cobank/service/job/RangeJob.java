@@ -0,0 +1,31 @@
+package com.cobank.service.job;
+
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+
+public interface RangeJob {
+
+    String jobType();
+
+    int parallelism();
+
+    /**
+     * Splits the work of a new run. Resumed runs reuse the ranges that were planned when they started.
+     */
+    List<KeyRange> plan();
+
+    /**
+     * Processes one range inside the transaction that also checkpoints it, so findings written here are committed
+     * exactly once per range.
+     */
+    RangeResult process(long runId, KeyRange range);
+
+    /**
+     * Isolation of the range transactions. Jobs that write rows which live postings also update can lower it, so that
+     * they wait for those postings instead of failing on them.
+     */
+    default int isolationLevel() {
+        return TransactionDefinition.ISOLATION_REPEATABLE_READ;
+    }
+}
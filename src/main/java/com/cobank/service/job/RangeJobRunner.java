@@ -0,0 +1,137 @@
+package com.cobank.service.job;
+
+import com.cobank.api.dto.JobRunResponse;
+import com.cobank.repository.JobRunRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link RangeJob}s in the background on a fork-join pool sized by the job. Every range is processed and
+ * checkpointed in one transaction, and starting a job whose previous run did not complete resumes that run with the
+ * ranges it still has pending.
+ * <p>
+ * A run belongs to the node that started it for as long as that node renews its lease in {@code job_run}, so starting
+ * the job on another node, or on the same node again, reports the run in progress. A run whose node stopped renewing
+ * for {@code jobs.run-lease} is taken over by the next start. Should the earlier node still be running, ranges it
+ * completes afterwards are rolled back.
+ */
+@Slf4j
+@Component
+public class RangeJobRunner {
+
+    private final JobRunRepository jobRunRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration lease;
+    private final String owner = UUID.randomUUID().toString();
+    private final ExecutorService launcher = Executors.newCachedThreadPool();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor();
+
+    public RangeJobRunner(JobRunRepository jobRunRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${jobs.run-lease:PT1M}") Duration lease) {
+        this.jobRunRepository = jobRunRepository;
+        this.transactionManager = transactionManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lease = lease;
+    }
+
+    public long start(RangeJob job) {
+        return start(job, null);
+    }
+
+    public long start(RangeJob job, String parameters) {
+        Claim claim = transactionTemplate.execute(status -> {
+            jobRunRepository.lockJobType(job.jobType());
+            return jobRunRepository.findUnfinishedRun(job.jobType())
+                    .map(unfinished -> new Claim(unfinished, jobRunRepository.claim(unfinished, owner, lease)))
+                    .orElseGet(() -> new Claim(
+                            jobRunRepository.createRun(job.jobType(), parameters, job.plan(), owner), true));
+        });
+
+        if (!claim.claimed()) {
+            log.info("{} run {} is already in progress", job.jobType(), claim.runId());
+            return claim.runId();
+        }
+        log.info("Running {} run {}", job.jobType(), claim.runId());
+        launcher.execute(() -> run(job, claim.runId()));
+        return claim.runId();
+    }
+
+    public Optional<JobRunResponse> findRun(long runId) {
+        return jobRunRepository.findRun(runId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        launcher.shutdownNow();
+        heartbeats.shutdownNow();
+    }
+
+    private void run(RangeJob job, long runId) {
+        List<KeyRange> pending = jobRunRepository.findPendingRanges(runId);
+        log.info("{} run {} processing {} ranges with parallelism {}", job.jobType(), runId, pending.size(), job.parallelism());
+
+        TransactionTemplate rangeTransactionTemplate = new TransactionTemplate(transactionManager);
+        rangeTransactionTemplate.setIsolationLevel(job.isolationLevel());
+        rangeTransactionTemplate.setTimeout(600);
+
+        long interval = Math.max(lease.toMillis() / 3, 1);
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(
+                () -> renewLease(job, runId), interval, interval, TimeUnit.MILLISECONDS);
+        ForkJoinPool pool = new ForkJoinPool(job.parallelism());
+        try {
+            pool.submit(() -> pending.parallelStream()
+                    .forEach(range -> processRange(job, runId, range, rangeTransactionTemplate))).join();
+            jobRunRepository.finish(runId, owner, JobRunRepository.COMPLETED);
+            log.info("{} run {} completed", job.jobType(), runId);
+        } catch (RuntimeException ex) {
+            jobRunRepository.finish(runId, owner, JobRunRepository.FAILED);
+            log.error("{} run {} failed and can be resumed: {}", job.jobType(), runId, ex.getMessage(), ex);
+        } finally {
+            heartbeat.cancel(false);
+            pool.shutdown();
+        }
+    }
+
+    private void renewLease(RangeJob job, long runId) {
+        try {
+            if (!jobRunRepository.heartbeat(runId, owner)) {
+                log.warn("{} run {} was taken over by another node", job.jobType(), runId);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Renewing the lease on {} run {} failed: {}", job.jobType(), runId, ex.getMessage());
+        }
+    }
+
+    private void processRange(RangeJob job, long runId, KeyRange range, TransactionTemplate rangeTransactionTemplate) {
+        rangeTransactionTemplate.executeWithoutResult(status -> {
+            RangeResult result = job.process(runId, range);
+            if (!jobRunRepository.completeRange(runId, range, result)) {
+                status.setRollbackOnly();
+                log.warn("{} run {} range {}-{} was completed by another node", job.jobType(), runId, range.start(),
+                        range.end());
+                return;
+            }
+            log.debug("{} run {} completed range {}-{}: {}", job.jobType(), runId, range.start(), range.end(), result);
+        });
+    }
+
+    private record Claim(long runId, boolean claimed) {
+    }
+}
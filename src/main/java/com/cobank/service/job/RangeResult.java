@@ -0,0 +1,4 @@
+package com.cobank.service.job;
+
+public record RangeResult(long processed, long findings) {
+}
@@ -0,0 +1,38 @@
+package com.cobank.service.job;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces callers to a steady number of permits per second, shared by all threads of a job.
+ */
+public class Throttle {
+
+    private final long nanosPerPermit;
+    private long nextFreeNanos = System.nanoTime();
+
+    public Throttle(double permitsPerSecond) {
+        this.nanosPerPermit = permitsPerSecond <= 0 ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    public void acquire(int permits) {
+        long waitNanos = reserve(permits);
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while throttled", ex);
+            }
+        }
+    }
+
+    private synchronized long reserve(int permits) {
+        if (nanosPerPermit == 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long start = Math.max(nextFreeNanos, now);
+        nextFreeNanos = start + permits * nanosPerPermit;
+        return start - now;
+    }
+}
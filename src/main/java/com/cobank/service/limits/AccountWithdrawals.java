@@ -0,0 +1,56 @@
+package com.cobank.service.limits;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Withdrawals of one account over the last hour, in five-minute buckets, and the last day, in hourly buckets.
+ */
+final class AccountWithdrawals {
+
+    private static final long HOUR_BUCKET_SECONDS = 5 * 60;
+    private static final long DAY_BUCKET_SECONDS = 60 * 60;
+
+    private final SlidingWindowCounter lastHour = new SlidingWindowCounter(12);
+    private final SlidingWindowCounter lastDay = new SlidingWindowCounter(24);
+
+    synchronized void add(long epochSecond, long amountCents) {
+        lastHour.add(epochSecond / HOUR_BUCKET_SECONDS, amountCents, 1);
+        lastDay.add(epochSecond / DAY_BUCKET_SECONDS, amountCents, 1);
+    }
+
+    /**
+     * Adds the withdrawal when it stays within the limits, otherwise returns the limit it would exceed.
+     */
+    synchronized Optional<String> tryReserve(long epochSecond, long amountCents, WithdrawalLimits limits) {
+        long hourBucket = epochSecond / HOUR_BUCKET_SECONDS;
+        long dayBucket = epochSecond / DAY_BUCKET_SECONDS;
+        if (lastHour.count(hourBucket) + 1 > limits.hourlyCount()) {
+            return Optional.of("limit of " + limits.hourlyCount() + " withdrawals per hour");
+        }
+        if (lastHour.amount(hourBucket) + amountCents > limits.hourlyAmountCents()) {
+            return Optional.of("hourly withdrawal limit of " + format(limits.hourlyAmountCents()));
+        }
+        if (lastDay.amount(dayBucket) + amountCents > limits.dailyAmountCents()) {
+            return Optional.of("daily withdrawal limit of " + format(limits.dailyAmountCents()));
+        }
+        add(epochSecond, amountCents);
+        return Optional.empty();
+    }
+
+    synchronized void release(long epochSecond, long amountCents) {
+        release(epochSecond, amountCents, 1);
+    }
+
+    /**
+     * Takes back an amount added at {@code epochSecond}, and {@code count} withdrawals with it.
+     */
+    synchronized void release(long epochSecond, long amountCents, int count) {
+        lastHour.add(epochSecond / HOUR_BUCKET_SECONDS, -amountCents, -count);
+        lastDay.add(epochSecond / DAY_BUCKET_SECONDS, -amountCents, -count);
+    }
+
+    private static String format(long cents) {
+        return BigDecimal.valueOf(cents, 2).toPlainString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.cobank.service.limits;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+/**
+ * Set membership without false negatives in a fixed number of bits. Thread-safe.
+ */
+final class BloomFilter {
+
+    private final BitSet bits;
+    private final int size;
+    private final int hashes;
+
+    BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(1, expectedInsertions);
+        this.size = (int) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.hashes = Math.max(1, (int) Math.round((double) size / n * Math.log(2)));
+        this.bits = new BitSet(size);
+    }
+
+    synchronized void add(String value) {
+        long hash1 = value.hashCode();
+        long hash2 = secondHash(value);
+        for (int i = 0; i < hashes; i++) {
+            bits.set(index(hash1, hash2, i));
+        }
+    }
+
+    synchronized boolean mightContain(String value) {
+        long hash1 = value.hashCode();
+        long hash2 = secondHash(value);
+        for (int i = 0; i < hashes; i++) {
+            if (!bits.get(index(hash1, hash2, i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(long hash1, long hash2, int i) {
+        return (int) Math.floorMod(hash1 + i * hash2, (long) size);
+    }
+
+    private static long secondHash(String value) {
+        CRC32 crc = new CRC32();
+        crc.update(value.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue() | 1;
+    }
+}
@@ -0,0 +1,64 @@
+package com.cobank.service.limits;
+
+/**
+ * Sums amounts and counts over the last {@code buckets} time buckets in a ring of fixed size. The oldest bucket is
+ * counted in full, so the window covers up to one bucket more than its nominal length and errs on the side of the
+ * limit. A bucket never drops below zero, so taking back more than was added to it, such as a hold authorized before
+ * the window was rebuilt, cannot raise the limit. Not thread-safe.
+ */
+final class SlidingWindowCounter {
+
+    private final long[] amounts;
+    private final int[] counts;
+    private long head = Long.MIN_VALUE;
+
+    SlidingWindowCounter(int buckets) {
+        this.amounts = new long[buckets];
+        this.counts = new int[buckets];
+    }
+
+    void add(long bucket, long amount, int count) {
+        advance(bucket);
+        if (bucket <= head - amounts.length) {
+            return;
+        }
+        int slot = slot(bucket);
+        amounts[slot] = Math.max(0, amounts[slot] + amount);
+        counts[slot] = Math.max(0, counts[slot] + count);
+    }
+
+    long amount(long currentBucket) {
+        advance(currentBucket);
+        long sum = 0;
+        for (long amount : amounts) {
+            sum += amount;
+        }
+        return sum;
+    }
+
+    int count(long currentBucket) {
+        advance(currentBucket);
+        int sum = 0;
+        for (int count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    private void advance(long bucket) {
+        if (bucket <= head) {
+            return;
+        }
+        long steps = head == Long.MIN_VALUE ? amounts.length : Math.min(bucket - head, amounts.length);
+        for (long step = 0; step < steps; step++) {
+            int slot = slot(bucket - step);
+            amounts[slot] = 0;
+            counts[slot] = 0;
+        }
+        head = bucket;
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) amounts.length);
+    }
+}
@@ -0,0 +1,8 @@
+package com.cobank.service.limits;
+
+public class WithdrawalLimitExceededException extends IllegalArgumentException {
+
+    public WithdrawalLimitExceededException(String message) {
+        super(message);
+    }
+}
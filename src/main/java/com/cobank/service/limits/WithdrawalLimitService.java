@@ -0,0 +1,282 @@
+package com.cobank.service.limits;
+
+import com.cobank.repository.WithdrawalLimitRepository;
+import com.cobank.service.iban.IbanService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enforces hourly and daily withdrawal limits per account from in-memory sliding windows, so the posting path does not
+ * have to sum the account's history. The windows are rebuilt from the last day of history on startup and at most
+ * {@code withdrawal-limits.max-accounts} are kept. Only accounts whose window was evicted are reloaded from the
+ * database, which a Bloom filter of evicted IBANs tells apart from accounts without recent withdrawals.
+ * <p>
+ * Every node only counts the withdrawals and holds it processes itself after startup. IBAN-affinity routing covers
+ * postings but not holds, so with several nodes the limits are enforced per node and are not exact.
+ */
+@Slf4j
+@Component
+public class WithdrawalLimitService implements ApplicationRunner {
+
+    private static final Duration WINDOW = Duration.ofDays(1);
+    private static final double EVICTION_FILTER_FALSE_POSITIVE_RATE = 0.01;
+
+    private final WithdrawalLimitRepository withdrawalLimitRepository;
+    private final IbanService ibanService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final WithdrawalLimits limits;
+    private final int maxAccounts;
+    private final Map<String, AccountWithdrawals> accounts;
+    private final Counter rejections;
+    private final Counter databaseFallbacks;
+
+    // Evictions older than the window no longer matter, so the filters are rotated once per window
+    private BloomFilter evicted;
+    private BloomFilter previouslyEvicted;
+    private LocalDateTime evictedSince = LocalDateTime.now();
+
+    public WithdrawalLimitService(WithdrawalLimitRepository withdrawalLimitRepository,
+                                  IbanService ibanService,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${withdrawal-limits.enabled:false}") boolean enabled,
+                                  @Value("${withdrawal-limits.hourly-amount:2000}") BigDecimal hourlyAmount,
+                                  @Value("${withdrawal-limits.daily-amount:5000}") BigDecimal dailyAmount,
+                                  @Value("${withdrawal-limits.hourly-count:10}") int hourlyCount,
+                                  @Value("${withdrawal-limits.max-accounts:50000}") int maxAccounts) {
+        this.withdrawalLimitRepository = withdrawalLimitRepository;
+        this.ibanService = ibanService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.limits = new WithdrawalLimits(toCents(hourlyAmount), toCents(dailyAmount), hourlyCount);
+        this.maxAccounts = maxAccounts;
+        this.evicted = newEvictionFilter();
+        this.previouslyEvicted = newEvictionFilter();
+        this.accounts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, AccountWithdrawals> eldest) {
+                if (size() <= WithdrawalLimitService.this.maxAccounts) {
+                    return false;
+                }
+                evicted.add(eldest.getKey());
+                return true;
+            }
+        };
+        this.rejections = Counter.builder("cobank.limits.rejections")
+                .description("Withdrawals rejected for exceeding a limit")
+                .register(meterRegistry);
+        this.databaseFallbacks = Counter.builder("cobank.limits.database-fallbacks")
+                .description("Withdrawal windows reloaded from the history after their eviction")
+                .register(meterRegistry);
+        Gauge.builder("cobank.limits.accounts", this, service -> service.trackedAccounts())
+                .description("Accounts with an in-memory withdrawal window")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime since = LocalDateTime.now().minus(WINDOW);
+        long[] withdrawals = {0};
+        transactionTemplate.executeWithoutResult(status -> withdrawalLimitRepository.streamWithdrawalsSince(since, rs -> {
+            String iban = rs.getString("iban");
+            AccountWithdrawals window;
+            synchronized (accounts) {
+                window = accounts.computeIfAbsent(iban, key -> new AccountWithdrawals());
+            }
+            window.add(toEpochSecond(rs.getTimestamp("timestamp").toLocalDateTime()), toCents(rs.getBigDecimal("amount")));
+            withdrawals[0]++;
+        }));
+        log.info("Rebuilt withdrawal windows of {} accounts from {} withdrawals since {}",
+                trackedAccounts(), withdrawals[0], since);
+    }
+
+    /**
+     * Counts the withdrawal against the limits of the account, or throws when it would exceed one. The reservation
+     * belongs to the surrounding transaction: it holds the limit while the transaction runs, stays when it commits and
+     * is released when it rolls back, so a retried or failed posting is never counted twice.
+     */
+    public void reserve(String iban, BigDecimal amount, LocalDateTime at) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalTransactionStateException("Withdrawal limits are reserved inside a transaction");
+        }
+        long epochSecond = toEpochSecond(at);
+        long amountCents = toCents(amount);
+        AccountWithdrawals window = window(iban, at);
+
+        window.tryReserve(epochSecond, amountCents, limits).ifPresent(limit -> {
+            rejections.increment();
+            throw new WithdrawalLimitExceededException("Withdrawal exceeds the " + limit);
+        });
+        reservations().add(() -> window.release(epochSecond, amountCents));
+    }
+
+    /**
+     * Gives back a withdrawal reserved at {@code at} that was not posted, such as a released or expired hold. Inside a
+     * transaction it is given back only once the transaction commits.
+     */
+    public void release(String iban, BigDecimal amount, LocalDateTime at) {
+        release(iban, amount, at, 1);
+    }
+
+    /**
+     * Gives back the part of a withdrawal reserved at {@code at} that was not posted, such as the rest of a partially
+     * captured hold. The withdrawal itself still counts.
+     */
+    public void releaseRemainder(String iban, BigDecimal amount, LocalDateTime at) {
+        release(iban, amount, at, 0);
+    }
+
+    private void release(String iban, BigDecimal amount, LocalDateTime at, int count) {
+        if (!enabled || amount.signum() <= 0) {
+            return;
+        }
+        long epochSecond = toEpochSecond(at);
+        long amountCents = toCents(amount);
+        Runnable release = () -> {
+            // An evicted window is reloaded from the history, which does not hold unposted withdrawals
+            AccountWithdrawals window;
+            synchronized (accounts) {
+                window = accounts.get(iban);
+            }
+            if (window != null) {
+                window.release(epochSecond, amountCents, count);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release.run();
+                }
+            });
+        } else {
+            release.run();
+        }
+    }
+
+    private Reservations reservations() {
+        Reservations reservations = (Reservations) TransactionSynchronizationManager.getResource(this);
+        if (reservations == null) {
+            reservations = new Reservations(this);
+            TransactionSynchronizationManager.bindResource(this, reservations);
+            TransactionSynchronizationManager.registerSynchronization(reservations);
+        }
+        return reservations;
+    }
+
+    private AccountWithdrawals window(String iban, LocalDateTime at) {
+        synchronized (accounts) {
+            AccountWithdrawals window = accounts.get(iban);
+            if (window != null) {
+                return window;
+            }
+            rotateEvictionFilters(at);
+            if (!evicted.mightContain(iban) && !previouslyEvicted.mightContain(iban)) {
+                // Never evicted, so the startup rebuild and the postings since then are complete
+                return accounts.computeIfAbsent(iban, key -> new AccountWithdrawals());
+            }
+        }
+
+        databaseFallbacks.increment();
+        AccountWithdrawals reloaded = new AccountWithdrawals();
+        ibanService.findAccountKey(iban).ifPresent(accountKey -> withdrawalLimitRepository.findWithdrawalsSince(
+                accountKey, at.minus(WINDOW), rs -> reloaded.add(
+                        toEpochSecond(rs.getTimestamp("timestamp").toLocalDateTime()), toCents(rs.getBigDecimal("amount")))));
+        synchronized (accounts) {
+            return accounts.computeIfAbsent(iban, key -> reloaded);
+        }
+    }
+
+    private void rotateEvictionFilters(LocalDateTime now) {
+        if (evictedSince.plus(WINDOW).isBefore(now)) {
+            previouslyEvicted = evicted;
+            evicted = newEvictionFilter();
+            evictedSince = now;
+        }
+    }
+
+    private BloomFilter newEvictionFilter() {
+        return new BloomFilter(maxAccounts, EVICTION_FILTER_FALSE_POSITIVE_RATE);
+    }
+
+    private int trackedAccounts() {
+        synchronized (accounts) {
+            return accounts.size();
+        }
+    }
+
+    /**
+     * The reservations of one transaction, which are undone unless it commits. Like other transaction resources they
+     * are unbound while the transaction is suspended, so a nested transaction collects its own.
+     */
+    private static final class Reservations implements TransactionSynchronization {
+
+        private final Object key;
+        private final List<Runnable> undo = new ArrayList<>();
+
+        private Reservations(Object key) {
+            this.key = key;
+        }
+
+        void add(Runnable release) {
+            undo.add(release);
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(key);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(key, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(key);
+            if (status != STATUS_COMMITTED) {
+                undo.forEach(Runnable::run);
+            }
+        }
+    }
+
+    private static long toEpochSecond(LocalDateTime at) {
+        // History timestamps are local, only their distance matters here
+        return at.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,4 @@
+package com.cobank.service.limits;
+
+record WithdrawalLimits(long hourlyAmountCents, long dailyAmountCents, int hourlyCount) {
+}
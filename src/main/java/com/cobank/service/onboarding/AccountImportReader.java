@@ -0,0 +1,112 @@
+package com.cobank.service.onboarding;
+
+import com.cobank.api.dto.AccountImportFormat;
+import com.cobank.api.dto.CreateAccountRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.cobank.service.support.CsvParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams {@link CreateAccountRequest}s out of a CSV file with a header row or an NDJSON file, one row at a time.
+ * A row that cannot be parsed is returned with its error so that the rest of the file still loads.
+ */
+class AccountImportReader implements Iterator<ImportRow> {
+
+    private final BufferedReader reader;
+    private final AccountImportFormat format;
+    private final ObjectMapper objectMapper;
+    private int firstNameColumn = -1;
+    private int addressColumn = -1;
+    private int emailColumn = -1;
+    private long lineNumber;
+    private String nextLine;
+
+    AccountImportReader(Reader reader, AccountImportFormat format, ObjectMapper objectMapper) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if (format == AccountImportFormat.CSV) {
+            readHeader();
+        }
+        this.nextLine = readNonBlankLine();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextLine != null;
+    }
+
+    @Override
+    public ImportRow next() {
+        if (nextLine == null) {
+            throw new NoSuchElementException();
+        }
+        String line = nextLine;
+        long current = lineNumber;
+        nextLine = readNonBlankLine();
+        return format == AccountImportFormat.CSV ? parseCsv(current, line) : parseJson(current, line);
+    }
+
+    private ImportRow parseJson(long line, String json) {
+        try {
+            return ImportRow.parsed(line, objectMapper.readValue(json, CreateAccountRequest.class));
+        } catch (JsonProcessingException ex) {
+            return ImportRow.unparseable(line, "Malformed JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    private ImportRow parseCsv(long line, String csv) {
+        List<String> fields = CsvParser.split(csv);
+        if (fields == null) {
+            return ImportRow.unparseable(line, "Unterminated quoted field");
+        }
+        int columns = Math.max(firstNameColumn, Math.max(addressColumn, emailColumn)) + 1;
+        if (fields.size() < columns) {
+            return ImportRow.unparseable(line, "Expected " + columns + " columns but found " + fields.size());
+        }
+        return ImportRow.parsed(line, new CreateAccountRequest(
+                fields.get(firstNameColumn), fields.get(addressColumn), fields.get(emailColumn)));
+    }
+
+    private void readHeader() {
+        String header = readNonBlankLine();
+        List<String> columns = header == null ? null : CsvParser.split(header);
+        if (columns == null) {
+            throw new IllegalArgumentException("CSV import requires a header row with firstName, address and email");
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i).trim()) {
+                case "firstName" -> firstNameColumn = i;
+                case "address" -> addressColumn = i;
+                case "email" -> emailColumn = i;
+                default -> {
+                    // Unknown columns are ignored
+                }
+            }
+        }
+        if (firstNameColumn < 0 || addressColumn < 0 || emailColumn < 0) {
+            throw new IllegalArgumentException("CSV header must contain the columns firstName, address and email");
+        }
+    }
+
+    private String readNonBlankLine() {
+        try {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+            } while (line != null && line.isBlank());
+            return line;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read import file", ex);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.cobank.service.onboarding;
+
+import com.cobank.api.dto.CreateAccountRequest;
+
+record ImportRow(long line, CreateAccountRequest request, String parseError) {
+
+    static ImportRow parsed(long line, CreateAccountRequest request) {
+        return new ImportRow(line, request, null);
+    }
+
+    static ImportRow unparseable(long line, String parseError) {
+        return new ImportRow(line, null, parseError);
+    }
+}
@@ -0,0 +1,12 @@
+package com.cobank.service.outbox;
+
+import java.time.LocalDateTime;
+
+public record OutboxMessage(
+        long id,
+        String iban,
+        String eventType,
+        String payload,
+        LocalDateTime createdAt
+) {
+}
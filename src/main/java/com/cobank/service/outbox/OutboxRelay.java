@@ -0,0 +1,101 @@
+package com.cobank.service.outbox;
+
+import com.cobank.repository.OutboxRepository;
+import com.cobank.service.sharding.ShardRoutingDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+    private final int workers;
+    private final int batchSize;
+    private final int retentionHours;
+    private final ExecutorService executor;
+    private final Counter published;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       OutboxSink outboxSink,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.workers:2}") int workers,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.retention-hours:24}") int retentionHours) {
+        this.outboxRepository = outboxRepository;
+        this.outboxSink = outboxSink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setTimeout(30);
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.retentionHours = retentionHours;
+        this.executor = Executors.newFixedThreadPool(workers);
+        this.published = Counter.builder("cobank.outbox.published")
+                .description("Outbox messages handed to the sink")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:500}")
+    public void relay() {
+        CompletableFuture<?>[] drains = IntStream.range(0, workers)
+                .mapToObj(partition -> CompletableFuture.runAsync(
+                        ShardRoutingDataSource.wrap(() -> drain(partition)), executor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(drains).join();
+    }
+
+    @Scheduled(cron = "${outbox.cleanup-cron:0 0 * * * *}")
+    public void deletePublished() {
+        int deleted = outboxRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours));
+        log.info("Deleted {} published outbox messages", deleted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void drain(int partition) {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch(partition);
+            } while (relayed == batchSize);
+        } catch (RuntimeException ex) {
+            log.error("Outbox relay for partition {} failed, the batch will be retried: {}", partition, ex.getMessage(), ex);
+        }
+    }
+
+    private int relayBatch(int partition) {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxMessage> batch = outboxRepository.claimBatch(partition, workers, batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            outboxSink.publish(batch);
+            outboxRepository.markPublished(batch);
+            return batch.size();
+        });
+        published.increment(relayed == null ? 0 : relayed);
+        return relayed == null ? 0 : relayed;
+    }
+}
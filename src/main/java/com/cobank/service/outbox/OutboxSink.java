@@ -0,0 +1,11 @@
+package com.cobank.service.outbox;
+
+import java.util.List;
+
+/**
+ * Destination for relayed outbox messages. A batch is only marked as published once {@link #publish(List)} returns,
+ * so implementations must either deliver the whole batch or throw.
+ */
+public interface OutboxSink {
+    void publish(List<OutboxMessage> batch);
+}
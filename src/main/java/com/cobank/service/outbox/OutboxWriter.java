@@ -0,0 +1,28 @@
+package com.cobank.service.outbox;
+
+import com.cobank.repository.OutboxRepository;
+import com.cobank.service.transaction.TransactionPostedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "outbox.enabled", havingValue = "true")
+public class OutboxWriter {
+
+    static final String TRANSACTION_POSTED = "TransactionPosted";
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    // Runs inside the posting transaction, so the outbox row commits or rolls back together with the posting
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void on(TransactionPostedEvent event) throws JsonProcessingException {
+        outboxRepository.append(event.iban(), TRANSACTION_POSTED, objectMapper.writeValueAsString(event));
+    }
+}
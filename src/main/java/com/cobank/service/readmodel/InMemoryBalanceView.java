@@ -0,0 +1,46 @@
+package com.cobank.service.readmodel;
+
+import com.cobank.api.dto.BalanceSnapshot;
+import com.cobank.api.dto.FetchBalanceResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Balances projected on this node. Projections of other nodes are not seen, so an entry is only served for the read
+ * model version it was projected at.
+ */
+@Component
+public class InMemoryBalanceView {
+
+    private final boolean enabled;
+    private final Map<String, BalanceSnapshot> balances = new ConcurrentHashMap<>();
+
+    public InMemoryBalanceView(@Value("${cqrs.in-memory-balances:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void update(BalanceSnapshot snapshot) {
+        if (!enabled) {
+            return;
+        }
+        balances.merge(snapshot.balance().iban(), snapshot,
+                (current, next) -> next.version() < current.version() ? current : next);
+    }
+
+    /**
+     * Finds the balance if it was projected at {@code version} of the read model or later.
+     */
+    public Optional<FetchBalanceResponse> find(String iban, long version) {
+        return Optional.ofNullable(balances.get(iban))
+                .filter(snapshot -> snapshot.version() >= version)
+                .map(BalanceSnapshot::balance);
+    }
+
+    public void clear() {
+        balances.clear();
+    }
+}
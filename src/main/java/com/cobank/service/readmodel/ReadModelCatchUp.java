@@ -0,0 +1,62 @@
+package com.cobank.service.readmodel;
+
+import com.cobank.repository.ReadModelRepository;
+import com.cobank.service.sharding.ShardRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Replays postings and hold changes into the read model that the projector dropped, for instance when its queue was
+ * full or the projection failed. Each run covers the changes since the previous run, less {@code cqrs.catch-up-overlap}
+ * for changes that committed late, and the first run after startup covers {@code cqrs.catch-up-window}. Older gaps are
+ * only closed by a rebuild. Accounts opened without an event, such as imported ones, are projected by account key.
+ * Runs are idempotent, so every node runs them.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cqrs.enabled", havingValue = "true")
+public class ReadModelCatchUp {
+
+    private final ReadModelRepository readModelRepository;
+    private final Duration window;
+    private final Duration overlap;
+    // Per shard, see ShardAspect
+    private final Map<String, LocalDateTime> caughtUpTo = new ConcurrentHashMap<>();
+    private final Map<String, Long> projectedAccountsTo = new ConcurrentHashMap<>();
+
+    public ReadModelCatchUp(ReadModelRepository readModelRepository,
+                            @Value("${cqrs.catch-up-window:PT1H}") Duration window,
+                            @Value("${cqrs.catch-up-overlap:PT1M}") Duration overlap) {
+        this.readModelRepository = readModelRepository;
+        this.window = window;
+        this.overlap = overlap;
+    }
+
+    // One snapshot, so the balances brought up to date match the postings projected
+    @Scheduled(fixedDelayString = "${cqrs.catch-up-interval-ms:10000}", initialDelayString = "${cqrs.catch-up-interval-ms:10000}")
+    @Transactional(isolation = Isolation.REPEATABLE_READ, timeout = 60)
+    public void catchUp() {
+        String shard = Objects.toString(ShardRoutingDataSource.current(), "");
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = caughtUpTo.getOrDefault(shard, startedAt.minus(window));
+
+        int projected = readModelRepository.catchUp(since);
+        if (projected > 0) {
+            log.warn("Projected {} postings since {} that the read model had missed", projected, since);
+        }
+        caughtUpTo.put(shard, startedAt.minus(overlap));
+        projectedAccountsTo.put(shard,
+                readModelRepository.projectNewAccounts(projectedAccountsTo.getOrDefault(shard, 0L)));
+    }
+}
@@ -0,0 +1,57 @@
+package com.cobank.service.readmodel;
+
+import com.cobank.repository.ReadModelRepository;
+import com.cobank.service.AccountChangedEvent;
+import com.cobank.service.transaction.TransactionPostedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cqrs.enabled", havingValue = "true")
+public class ReadModelProjector {
+
+    private final ReadModelRepository readModelRepository;
+    private final InMemoryBalanceView inMemoryBalanceView;
+    private final Timer projectionLag;
+
+    public ReadModelProjector(ReadModelRepository readModelRepository,
+                              InMemoryBalanceView inMemoryBalanceView,
+                              MeterRegistry meterRegistry) {
+        this.readModelRepository = readModelRepository;
+        this.inMemoryBalanceView = inMemoryBalanceView;
+        this.projectionLag = Timer.builder("cobank.readmodel.projection.lag")
+                .description("Time between a posting and its projection into the read model")
+                .register(meterRegistry);
+    }
+
+    @Async("readModelExecutor")
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void on(TransactionPostedEvent event) {
+        log.debug("Projecting posting {} for IBAN={}", event.historyId(), event.iban());
+
+        readModelRepository.project(event).ifPresent(inMemoryBalanceView::update);
+        projectionLag.record(Duration.between(event.timestamp(), LocalDateTime.now()));
+    }
+
+    // Hold expiry publishes outside a transaction, once its statement has committed
+    @Async("readModelExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void on(AccountChangedEvent event) {
+        log.debug("Projecting account change for IBAN={}", event.iban());
+
+        readModelRepository.projectAccount(event.iban(), null).ifPresent(inMemoryBalanceView::update);
+    }
+}
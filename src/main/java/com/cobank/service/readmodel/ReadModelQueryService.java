@@ -0,0 +1,81 @@
+package com.cobank.service.readmodel;
+
+import com.cobank.api.dto.FetchBalanceResponse;
+import com.cobank.api.dto.TransactionHistoryFilter;
+import com.cobank.api.dto.TransactionHistoryResponse;
+import com.cobank.repository.ReadModelRepository;
+import com.cobank.service.FetchAccountVersionUseCase;
+import com.cobank.service.FetchBalanceUseCase;
+import com.cobank.service.GetTransactionHistoryUseCase;
+import com.cobank.service.archive.HistoryArchive;
+import com.cobank.service.iban.IbanService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Serves balance and history reads from the read model alone, so reads never touch the accounts or their history. The
+ * version of an account is that of its read model row, which describes the projected balance, held amount and
+ * postings. Reads lag the account until the projector or {@link ReadModelCatchUp} has projected its latest change.
+ */
+@Slf4j
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cqrs.enabled", havingValue = "true")
+public class ReadModelQueryService implements FetchBalanceUseCase, GetTransactionHistoryUseCase, FetchAccountVersionUseCase {
+
+    private final ReadModelRepository readModelRepository;
+    private final InMemoryBalanceView inMemoryBalanceView;
+    private final HistoryArchive historyArchive;
+    private final IbanService ibanService;
+
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<FetchBalanceResponse> getBalanceByIban(String iban) {
+        if (iban == null) {
+            return Optional.empty();
+        }
+        return readModelRepository.findVersion(iban).flatMap(version -> inMemoryBalanceView.find(iban, version)
+                .or(() -> readModelRepository.findBalance(iban, version)));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<Long> getAccountVersion(String iban) {
+        if (iban == null) {
+            return Optional.empty();
+        }
+        return readModelRepository.findVersion(iban);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<Long> getHistoryVersion(String iban) {
+        return getAccountVersion(iban);
+    }
+
+    // One snapshot, so the page holds exactly the postings projected at the version read first
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    @Override
+    public Page<TransactionHistoryResponse> getTransactionHistory(String iban, Pageable pageable) {
+        log.info("Fetching projected transaction history for IBAN={} with page={} and size={}",
+                iban, pageable.getPageNumber(), pageable.getPageSize());
+        Optional<Long> version = readModelRepository.findVersion(iban);
+        Optional<Long> accountKey = ibanService.findAccountKey(iban);
+        if (version.isEmpty() || accountKey.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        // Archived rows are deleted from the projection with the history, and continue it like the hot rows
+        return historyArchive.continuePage(iban, accountKey.get(), TransactionHistoryFilter.NONE, pageable,
+                readModelRepository.findHistory(iban, pageable));
+    }
+}
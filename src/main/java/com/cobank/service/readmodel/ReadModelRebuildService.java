@@ -0,0 +1,28 @@
+package com.cobank.service.readmodel;
+
+import com.cobank.api.dto.ReadModelRebuildResponse;
+import com.cobank.repository.ReadModelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReadModelRebuildService {
+
+    private final ReadModelRepository readModelRepository;
+    private final InMemoryBalanceView inMemoryBalanceView;
+
+    @Transactional(timeout = 600)
+    public ReadModelRebuildResponse rebuild() {
+        log.info("Rebuilding read model from transaction history");
+
+        ReadModelRebuildResponse result = readModelRepository.rebuild();
+        inMemoryBalanceView.clear();
+
+        log.info("Read model rebuilt with {} history rows and {} balances", result.historyRows(), result.balanceRows());
+        return result;
+    }
+}
@@ -0,0 +1,18 @@
+package com.cobank.service.reconciliation;
+
+import java.math.BigDecimal;
+
+public record Discrepancy(
+        String iban,
+        BigDecimal accountBalance,
+        BigDecimal lastResultingBalance,
+        BigDecimal netFlow
+) {
+
+    public static boolean isConsistent(BigDecimal accountBalance, BigDecimal lastResultingBalance, BigDecimal netFlow) {
+        boolean matchesLastPosting = lastResultingBalance == null
+                ? accountBalance.signum() == 0
+                : accountBalance.compareTo(lastResultingBalance) == 0;
+        return matchesLastPosting && accountBalance.compareTo(netFlow) == 0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.cobank.service.reconciliation;
+
+import com.cobank.repository.ReconciliationRepository;
+import com.cobank.service.job.KeyRange;
+import com.cobank.service.job.RangeJob;
+import com.cobank.service.job.RangeResult;
+import com.cobank.service.job.Throttle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class ReconciliationJob implements RangeJob {
+
+    public static final String JOB_TYPE = "RECONCILIATION";
+
+    private static final int THROTTLE_BLOCK = 100;
+
+    private final ReconciliationRepository reconciliationRepository;
+    private final int parallelism;
+    private final long rangeSize;
+    private final Throttle throttle;
+
+    public ReconciliationJob(ReconciliationRepository reconciliationRepository,
+                             @Value("${reconciliation.parallelism:4}") int parallelism,
+                             @Value("${reconciliation.range-size:10000}") long rangeSize,
+                             @Value("${reconciliation.max-accounts-per-second:20000}") double maxAccountsPerSecond) {
+        this.reconciliationRepository = reconciliationRepository;
+        this.parallelism = parallelism;
+        this.rangeSize = rangeSize;
+        this.throttle = new Throttle(maxAccountsPerSecond);
+    }
+
+    @Override
+    public String jobType() {
+        return JOB_TYPE;
+    }
+
+    @Override
+    public int parallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public List<KeyRange> plan() {
+        return reconciliationRepository.findAccountKeyBounds()
+                .map(bounds -> KeyRange.split(bounds.start(), bounds.end(), rangeSize))
+                .orElse(List.of());
+    }
+
+    @Override
+    public RangeResult process(long runId, KeyRange range) {
+        List<Discrepancy> discrepancies = new ArrayList<>();
+        AtomicLong processed = new AtomicLong();
+
+        reconciliationRepository.streamLedger(range.start(), range.end(), rs -> {
+            BigDecimal accountBalance = rs.getBigDecimal("balance");
+            BigDecimal lastResultingBalance = rs.getBigDecimal("last_resulting_balance");
+            BigDecimal netFlow = rs.getBigDecimal("net_flow");
+            if (!Discrepancy.isConsistent(accountBalance, lastResultingBalance, netFlow)) {
+                discrepancies.add(new Discrepancy(rs.getString("iban"), accountBalance, lastResultingBalance, netFlow));
+            }
+            if (processed.incrementAndGet() % THROTTLE_BLOCK == 0) {
+                throttle.acquire(THROTTLE_BLOCK);
+            }
+        });
+
+        if (!discrepancies.isEmpty()) {
+            log.warn("Found {} ledger discrepancies in account range {}-{}", discrepancies.size(), range.start(), range.end());
+            reconciliationRepository.saveDiscrepancies(runId, discrepancies);
+        }
+        return new RangeResult(processed.get(), discrepancies.size());
+    }
+}
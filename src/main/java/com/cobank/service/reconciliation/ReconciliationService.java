@@ -0,0 +1,26 @@
+package com.cobank.service.reconciliation;
+
+import com.cobank.api.dto.JobRunResponse;
+import com.cobank.service.job.RangeJobRunner;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class ReconciliationService {
+
+    private final RangeJobRunner rangeJobRunner;
+    private final ReconciliationJob reconciliationJob;
+
+    public JobRunResponse startReconciliation() {
+        long runId = rangeJobRunner.start(reconciliationJob);
+        return rangeJobRunner.findRun(runId)
+                .orElseThrow(() -> new IllegalStateException("Reconciliation run " + runId + " was not recorded"));
+    }
+
+    @Scheduled(cron = "${reconciliation.cron:-}")
+    public void scheduledReconciliation() {
+        rangeJobRunner.start(reconciliationJob);
+    }
+}
@@ -0,0 +1,21 @@
+package com.cobank.service.rollup;
+
+import com.cobank.repository.DailyRollupRepository;
+import com.cobank.service.transaction.TransactionPostedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class DailyRollupUpdater {
+
+    private final DailyRollupRepository dailyRollupRepository;
+
+    // The account row is already locked by the posting, so this upsert never contends with another posting
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void on(TransactionPostedEvent event) {
+        dailyRollupRepository.apply(event);
+    }
+}
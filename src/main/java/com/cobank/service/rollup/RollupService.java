@@ -0,0 +1,73 @@
+package com.cobank.service.rollup;
+
+import com.cobank.api.dto.AccountSummaryResponse;
+import com.cobank.api.dto.RollupBackfillResponse;
+import com.cobank.repository.AccountRepository;
+import com.cobank.repository.DailyRollupRepository;
+import com.cobank.service.GetAccountSummaryUseCase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RollupService implements GetAccountSummaryUseCase {
+
+    private static final int BACKFILL_CHUNK_DAYS = 31;
+
+    private final DailyRollupRepository dailyRollupRepository;
+    private final AccountRepository accountRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    @Override
+    public Optional<AccountSummaryResponse> getAccountSummary(String iban, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("The 'from' date must not be after the 'to' date.");
+        }
+        return accountRepository.findByIban(iban)
+                .map(account -> {
+                    DailyRollupRepository.Totals totals = dailyRollupRepository.sumBetween(iban, from, to);
+                    BigDecimal openingBalance = dailyRollupRepository
+                            .findClosingBalanceOnOrBefore(iban, from.minusDays(1))
+                            .orElse(BigDecimal.ZERO);
+                    BigDecimal closingBalance = dailyRollupRepository
+                            .findClosingBalanceOnOrBefore(iban, to)
+                            .orElse(openingBalance);
+
+                    return new AccountSummaryResponse(iban, from, to, openingBalance, closingBalance,
+                            totals.depositTotal(), totals.depositCount(),
+                            totals.withdrawalTotal(), totals.withdrawalCount());
+                });
+    }
+
+    public RollupBackfillResponse backfill() {
+        LocalDate through = LocalDate.now().minusDays(1);
+        LocalDate from = dailyRollupRepository.findFirstHistoryDay().orElse(through.plusDays(1));
+        log.info("Backfilling daily rollups from {} through {}", from, through);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long rows = 0;
+        for (LocalDate chunkStart = from; !chunkStart.isAfter(through); chunkStart = chunkStart.plusDays(BACKFILL_CHUNK_DAYS)) {
+            LocalDate chunkStartDay = chunkStart;
+            LocalDate chunkEnd = chunkStart.plusDays(BACKFILL_CHUNK_DAYS - 1).isAfter(through)
+                    ? through
+                    : chunkStart.plusDays(BACKFILL_CHUNK_DAYS - 1);
+            Integer chunkRows = transactionTemplate.execute(status -> dailyRollupRepository.backfill(chunkStartDay, chunkEnd));
+            rows += chunkRows == null ? 0 : chunkRows;
+            log.debug("Backfilled rollups from {} through {}", chunkStartDay, chunkEnd);
+        }
+
+        log.info("Backfilled {} daily rollup rows", rows);
+        return new RollupBackfillResponse(from, through, rows);
+    }
+}
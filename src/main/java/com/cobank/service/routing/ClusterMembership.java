@@ -0,0 +1,13 @@
+package com.cobank.service.routing;
+
+import java.util.List;
+
+/**
+ * Source of the application nodes that share the IBAN ring. Members are identified by their base URL.
+ */
+public interface ClusterMembership {
+
+    String self();
+
+    List<String> members();
+}
@@ -0,0 +1,61 @@
+package com.cobank.service.routing;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring that maps keys to member nodes. Each member is placed at {@code virtualNodes}
+ * points on the ring, so adding or removing a member only moves the keys adjacent to its points. Hashing is
+ * independent of the JVM, so every node that sees the same members computes the same owners.
+ */
+public final class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> points;
+    private final List<String> members;
+
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one member");
+        }
+        this.members = members.stream().distinct().sorted().toList();
+        TreeMap<Long, String> ring = new TreeMap<>();
+        for (String member : this.members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(member + "#" + i), member);
+            }
+        }
+        this.points = ring;
+    }
+
+    public String ownerOf(String key) {
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(key));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    public List<String> members() {
+        return members;
+    }
+
+    static long hash(String key) {
+        byte[] digest = md5().digest(key.getBytes(StandardCharsets.UTF_8));
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("MD5 is required by every JVM", ex);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.cobank.service.routing;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decides which node owns an IBAN, so that all postings for an account are serialized in one JVM instead of
+ * contending for the account row lock across nodes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "routing.enabled", havingValue = "true")
+public class IbanRouter {
+
+    private final ClusterMembership membership;
+    private final int virtualNodes;
+    private volatile ConsistentHashRing ring;
+
+    public IbanRouter(ClusterMembership membership, @Value("${routing.virtual-nodes:128}") int virtualNodes) {
+        this.membership = membership;
+        this.virtualNodes = virtualNodes;
+        this.ring = new ConsistentHashRing(membership.members(), virtualNodes);
+    }
+
+    /**
+     * Returns the base URL of the owning node, or empty when this node owns the IBAN.
+     */
+    public Optional<String> remoteOwner(String iban) {
+        String owner = ring.ownerOf(iban);
+        return owner.equals(membership.self()) ? Optional.empty() : Optional.of(owner);
+    }
+
+    public String self() {
+        return membership.self();
+    }
+
+    @Scheduled(fixedDelayString = "${routing.refresh-interval-ms:5000}")
+    public void refresh() {
+        if (membership instanceof TableClusterMembership tableMembership) {
+            tableMembership.refresh();
+        }
+        List<String> members = membership.members().stream().distinct().sorted().toList();
+        if (!members.equals(ring.members())) {
+            log.info("IBAN ring membership changed from {} to {}", ring.members(), members);
+            ring = new ConsistentHashRing(members, virtualNodes);
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (membership instanceof TableClusterMembership tableMembership) {
+            tableMembership.leave();
+        }
+    }
+}
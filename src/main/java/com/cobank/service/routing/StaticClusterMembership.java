@@ -0,0 +1,29 @@
+package com.cobank.service.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StaticClusterMembership implements ClusterMembership {
+
+    private final String self;
+    private final List<String> members;
+
+    public StaticClusterMembership(String self, List<String> nodes) {
+        List<String> members = new ArrayList<>(nodes);
+        if (!members.contains(self)) {
+            members.add(self);
+        }
+        this.self = self;
+        this.members = List.copyOf(members);
+    }
+
+    @Override
+    public String self() {
+        return self;
+    }
+
+    @Override
+    public List<String> members() {
+        return members;
+    }
+}
@@ -0,0 +1,53 @@
+package com.cobank.service.routing;
+
+import com.cobank.repository.ClusterNodeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Membership from the shared {@code cluster_node} table. Every node refreshes its own heartbeat and treats nodes
+ * whose heartbeat is younger than the time-to-live as members. The last known members are kept while the database
+ * is unreachable.
+ */
+@Slf4j
+public class TableClusterMembership implements ClusterMembership {
+
+    private final ClusterNodeRepository clusterNodeRepository;
+    private final String self;
+    private final Duration timeToLive;
+    private volatile List<String> members;
+
+    public TableClusterMembership(ClusterNodeRepository clusterNodeRepository, String self, Duration timeToLive) {
+        this.clusterNodeRepository = clusterNodeRepository;
+        this.self = self;
+        this.timeToLive = timeToLive;
+        this.members = List.of(self);
+    }
+
+    @Override
+    public String self() {
+        return self;
+    }
+
+    @Override
+    public List<String> members() {
+        return members;
+    }
+
+    public void refresh() {
+        try {
+            clusterNodeRepository.heartbeat(self);
+            List<String> alive = clusterNodeRepository.findAliveWithin(timeToLive);
+            members = alive.contains(self) ? alive : List.of(self);
+        } catch (DataAccessException ex) {
+            log.warn("Failed to refresh cluster membership, keeping {} members: {}", members.size(), ex.getMessage());
+        }
+    }
+
+    public void leave() {
+        clusterNodeRepository.delete(self);
+    }
+}
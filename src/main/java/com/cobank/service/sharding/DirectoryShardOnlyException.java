@@ -0,0 +1,12 @@
+package com.cobank.service.sharding;
+
+/**
+ * The job works on the accounts of a single database and would only cover the directory shard, so it is refused while
+ * sharding is enabled.
+ */
+public class DirectoryShardOnlyException extends IllegalStateException {
+
+    public DirectoryShardOnlyException(String job) {
+        super(job + " only covers the directory shard and is not available while sharding is enabled");
+    }
+}
@@ -0,0 +1,132 @@
+package com.cobank.service.sharding;
+
+import com.cobank.api.dto.HoldRequest;
+import com.cobank.api.dto.ShardRangeStatus;
+import com.cobank.api.dto.StandingOrderRequest;
+import com.cobank.api.dto.TransactionRequest;
+import com.cobank.service.iban.IbanService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs use case calls in the shard of their account. It runs before the retry and transaction interceptors, so every
+ * attempt borrows its connection from that shard. Calls for IBANs without a shard run in the directory shard, where
+ * they find no account.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ShardAspect {
+
+    private final ShardDirectory shardDirectory;
+    private final IbanService ibanService;
+
+    @Around("execution(* com.cobank.service.FetchBalanceUseCase.*(..))"
+            + " || execution(* com.cobank.service.FetchAccountVersionUseCase.*(..))"
+            + " || execution(* com.cobank.service.FetchBalanceSnapshotUseCase.*(..))"
+            + " || execution(* com.cobank.service.FetchHistoricalBalanceUseCase.*(..))"
+            + " || execution(* com.cobank.service.GetTransactionHistoryUseCase.*(..))"
+            + " || execution(* com.cobank.service.SearchTransactionHistoryUseCase.*(..))"
+            + " || execution(* com.cobank.service.GetAccountSummaryUseCase.*(..))"
+            + " || execution(* com.cobank.service.GetStandingOrdersUseCase.*(..))")
+    public Object byIban(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedIn(shardOf((String) joinPoint.getArgs()[0]), joinPoint);
+    }
+
+    @Around("execution(* com.cobank.service.ProcessTransactionUseCase.*(..))"
+            + " || execution(* com.cobank.service.AuthorizeHoldUseCase.*(..))"
+            + " || execution(* com.cobank.service.ScheduleStandingOrderUseCase.*(..))")
+    public Object byRequest(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedIn(shardOf(ibanOf(joinPoint.getArgs()[0])), joinPoint);
+    }
+
+    @Around("execution(* com.cobank.service.GetHoldUseCase.*(..))"
+            + " || execution(* com.cobank.service.CaptureHoldUseCase.*(..))"
+            + " || execution(* com.cobank.service.ReleaseHoldUseCase.*(..))"
+            + " || execution(* com.cobank.service.CancelStandingOrderUseCase.*(..))")
+    public Object byId(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedIn(shardDirectory.shardOfId((long) joinPoint.getArgs()[0]), joinPoint);
+    }
+
+    // The IBANs are issued inside the call, from the shard it runs in, see IbanService
+    @Around("execution(* com.cobank.service.CreateAccountUseCase.*(..))"
+            + " || execution(* com.cobank.service.ImportAccountsUseCase.*(..))")
+    public Object newAccounts(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedIn(shardDirectory.leastLoaded(), joinPoint);
+    }
+
+    // Background work on account data runs once in every shard, and so do the startup runners that read or warm it
+    @Around("execution(* com.cobank.service.outbox.OutboxRelay.relay())"
+            + " || execution(* com.cobank.service.outbox.OutboxRelay.deletePublished())"
+            + " || execution(* com.cobank.service.hold.HoldExpirySweeper.sweep())"
+            + " || execution(* com.cobank.service.standingorder.StandingOrderScheduler.executeDue())"
+            + " || execution(* com.cobank.service.checkpoint.BalanceCheckpointService.checkpoint())"
+            + " || execution(* com.cobank.service.readmodel.ReadModelCatchUp.catchUp())"
+            + " || execution(* com.cobank.service.limits.WithdrawalLimitService.run(..))"
+            + " || execution(* com.cobank.service.startup.StartupWarmUp.run(..))")
+    public Object everyShard(ProceedingJoinPoint joinPoint) throws Throwable {
+        for (String shard : shardDirectory.shards()) {
+            try {
+                proceedIn(shard, joinPoint);
+            } catch (RuntimeException ex) {
+                log.error("{} failed in shard {}: {}", joinPoint.getSignature().toShortString(), shard,
+                        ex.getMessage(), ex);
+            }
+        }
+        return null;
+    }
+
+    // Range jobs and other admin jobs plan their work over the accounts of one database
+    @Around("execution(* com.cobank.service.reconciliation.ReconciliationService.*(..))"
+            + " || execution(* com.cobank.service.chain.HistoryChainService.*(..))"
+            + " || execution(* com.cobank.service.batch.BatchPostingService.start(..))"
+            + " || execution(* com.cobank.service.archive.HistoryArchiveService.archive())"
+            + " || execution(* com.cobank.service.archive.HistoryArchiveService.scheduledArchive())"
+            + " || execution(* com.cobank.service.rollup.RollupService.backfill())"
+            + " || execution(* com.cobank.service.ingest.LegacyHistoryIngestService.ingest(..))"
+            + " || execution(* com.cobank.service.readmodel.ReadModelRebuildService.rebuild())")
+    public Object directoryShardOnly(ProceedingJoinPoint joinPoint) {
+        throw new DirectoryShardOnlyException(joinPoint.getSignature().toShortString());
+    }
+
+    private static String ibanOf(Object request) {
+        if (request instanceof TransactionRequest transaction) {
+            return transaction.iban();
+        }
+        if (request instanceof HoldRequest hold) {
+            return hold.iban();
+        }
+        return request instanceof StandingOrderRequest standingOrder ? standingOrder.iban() : null;
+    }
+
+    private String shardOf(String iban) {
+        return ibanService.findAccountKey(iban)
+                .flatMap(accountKey -> shardDirectory.find(accountKey).map(range -> {
+                    if (range.status() == ShardRangeStatus.MOVING) {
+                        throw new ShardMovingException(accountKey);
+                    }
+                    return range.shard();
+                }))
+                .orElse(shardDirectory.directoryShard());
+    }
+
+    private Object proceedIn(String shard, ProceedingJoinPoint joinPoint) throws Throwable {
+        String previous = ShardRoutingDataSource.current();
+        ShardRoutingDataSource.enter(shard);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ShardRoutingDataSource.restore(previous);
+        }
+    }
+}
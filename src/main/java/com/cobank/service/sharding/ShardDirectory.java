@@ -0,0 +1,102 @@
+package com.cobank.service.sharding;
+
+import com.cobank.repository.ShardRangeRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Knows which shard holds an account, and places new accounts. Account keys are assigned to shards in ranges, and a
+ * new account takes the next key of an open range of the shard with the fewest accounts, so the directory stays small
+ * however many accounts there are. Every node keeps a copy of the directory and reloads it every
+ * {@code sharding.refresh-interval-ms}.
+ * <p>
+ * Holds and standing orders are found by their id instead, so every shard issues those ids from a block of its own:
+ * the bits above {@link #ID_SHARD_SHIFT} hold the number of the shard.
+ */
+public class ShardDirectory {
+
+    public static final int ID_SHARD_SHIFT = 40;
+
+    private final ShardRangeRepository shardRangeRepository;
+    private final String directoryShard;
+    private final Set<String> shards;
+    private final Map<Integer, String> shardsByNumber = new HashMap<>();
+    private final long rangeSize;
+    private volatile ShardMap map;
+
+    public ShardDirectory(ShardRangeRepository shardRangeRepository,
+                          String directoryShard,
+                          Map<String, Integer> shardNumbers,
+                          long rangeSize) {
+        this.shardRangeRepository = shardRangeRepository;
+        this.directoryShard = directoryShard;
+        this.shards = Set.copyOf(shardNumbers.keySet());
+        shardNumbers.forEach((shard, number) -> shardsByNumber.put(number, shard));
+        this.rangeSize = rangeSize;
+        refresh();
+    }
+
+    public static long firstId(int shardNumber) {
+        return (long) shardNumber << ID_SHARD_SHIFT;
+    }
+
+    public String directoryShard() {
+        return directoryShard;
+    }
+
+    public Set<String> shards() {
+        return shards;
+    }
+
+    public ShardMap map() {
+        return map;
+    }
+
+    public Optional<ShardRange> find(long accountKey) {
+        return map.find(accountKey);
+    }
+
+    /**
+     * The shard that issued a hold or standing order id.
+     */
+    public String shardOfId(long id) {
+        return shardsByNumber.getOrDefault((int) (id >>> ID_SHARD_SHIFT), directoryShard);
+    }
+
+    public String leastLoaded() {
+        return map.leastLoaded(shards);
+    }
+
+    public long allocateAccountKey() {
+        return allocateAccountKeys(1).get(0);
+    }
+
+    /**
+     * Allocates keys for new accounts on the shard the calling thread runs in, or on the least loaded shard outside
+     * one. Opens a new range for the shard when its open ranges run out.
+     */
+    public List<Long> allocateAccountKeys(int count) {
+        String shard = Optional.ofNullable(ShardRoutingDataSource.current()).orElseGet(this::leastLoaded);
+        List<Long> keys = new ArrayList<>(count);
+        while (keys.size() < count) {
+            List<Long> allocated = shardRangeRepository.allocate(shard, count - keys.size());
+            if (allocated.isEmpty()) {
+                shardRangeRepository.open(shard, rangeSize);
+            }
+            keys.addAll(allocated);
+        }
+        refresh();
+        return keys;
+    }
+
+    @Scheduled(fixedDelayString = "${sharding.refresh-interval-ms:5000}")
+    public void refresh() {
+        map = new ShardMap(shardRangeRepository.findAll());
+    }
+}
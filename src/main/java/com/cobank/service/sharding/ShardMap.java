@@ -0,0 +1,56 @@
+package com.cobank.service.sharding;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the shard directory, looked up by account key.
+ */
+public class ShardMap {
+
+    private final NavigableMap<Long, ShardRange> ranges = new TreeMap<>();
+
+    public ShardMap(Collection<ShardRange> ranges) {
+        ranges.forEach(range -> this.ranges.put(range.startKey(), range));
+    }
+
+    public Optional<ShardRange> find(long accountKey) {
+        return Optional.ofNullable(ranges.floorEntry(accountKey))
+                .map(Map.Entry::getValue)
+                .filter(range -> range.contains(accountKey));
+    }
+
+    public List<ShardRange> overlapping(long fromKey, long toKey) {
+        Long first = Optional.ofNullable(ranges.floorKey(fromKey)).orElse(fromKey);
+        return ranges.subMap(first, true, toKey, true).values().stream()
+                .filter(range -> range.overlaps(fromKey, toKey))
+                .toList();
+    }
+
+    public List<ShardRange> ranges() {
+        return List.copyOf(ranges.values());
+    }
+
+    public Map<String, Long> allocatedKeys() {
+        return ranges.values().stream()
+                .collect(Collectors.groupingBy(ShardRange::shard, Collectors.summingLong(ShardRange::allocatedKeys)));
+    }
+
+    /**
+     * The shard with the fewest accounts, by name when several have as few. Shards without ranges count as empty.
+     */
+    public String leastLoaded(Collection<String> shards) {
+        Map<String, Long> allocated = allocatedKeys();
+        Function<String, Long> load = shard -> allocated.getOrDefault(shard, 0L);
+        return shards.stream()
+                .min(Comparator.comparing(load).thenComparing(Comparator.naturalOrder()))
+                .orElseThrow();
+    }
+}
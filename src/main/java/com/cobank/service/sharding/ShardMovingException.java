@@ -0,0 +1,13 @@
+package com.cobank.service.sharding;
+
+import org.springframework.dao.TransientDataAccessResourceException;
+
+/**
+ * The account is in a range that is being moved to another shard. The request can be repeated once the move is done.
+ */
+public class ShardMovingException extends TransientDataAccessResourceException {
+
+    public ShardMovingException(long accountKey) {
+        super("Account " + accountKey + " is being moved to another shard");
+    }
+}
@@ -0,0 +1,43 @@
+package com.cobank.service.sharding;
+
+import com.cobank.api.dto.ShardRangeStatus;
+
+import java.util.List;
+
+/**
+ * Account keys {@code startKey} to {@code endKey}, both inclusive, and the shard that holds their accounts. An open
+ * range hands out its keys to new accounts from {@code nextKey} on, {@code nextKey} is null once it is closed.
+ */
+public record ShardRange(long startKey, long endKey, String shard, Long nextKey, ShardRangeStatus status) {
+
+    public boolean contains(long accountKey) {
+        return accountKey >= startKey && accountKey <= endKey;
+    }
+
+    public boolean overlaps(long fromKey, long toKey) {
+        return startKey <= toKey && endKey >= fromKey;
+    }
+
+    /**
+     * Keys handed out so far, all keys of a closed range. Used as the load of the shard.
+     */
+    public long allocatedKeys() {
+        return (nextKey == null ? endKey + 1 : nextKey) - startKey;
+    }
+
+    /**
+     * Splits the range into the keys before {@code accountKey} and the rest. The lower part stays open only while it
+     * has keys left, the upper part continues where the range was.
+     */
+    public List<ShardRange> splitAt(long accountKey) {
+        if (accountKey <= startKey || accountKey > endKey) {
+            throw new IllegalArgumentException(
+                    "Key " + accountKey + " does not split range " + startKey + "-" + endKey);
+        }
+        Long lowerNext = nextKey == null || nextKey >= accountKey ? null : nextKey;
+        Long upperNext = nextKey == null ? null : Math.max(nextKey, accountKey);
+        return List.of(
+                new ShardRange(startKey, accountKey - 1, shard, lowerNext, status),
+                new ShardRange(accountKey, endKey, shard, upperNext, status));
+    }
+}
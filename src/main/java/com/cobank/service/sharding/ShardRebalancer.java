@@ -0,0 +1,278 @@
+package com.cobank.service.sharding;
+
+import com.cobank.api.dto.ShardMoveRequest;
+import com.cobank.api.dto.ShardMoveResponse;
+import com.cobank.api.dto.ShardRangeResponse;
+import com.cobank.api.dto.ShardRangeStatus;
+import com.cobank.repository.ShardRangeRepository;
+import com.cobank.service.iban.IbanService;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves ranges of accounts, with all their data, between shards. The range is first marked as moving, so that nodes
+ * turn its requests away once they reloaded the directory, then the accounts are locked on the source shard and
+ * their rows in every table of {@link #MOVED_TABLES} are copied to the target with COPY. The directory points to the
+ * target once the copy committed, and only then are the rows deleted from the source. A move that fails before that
+ * leaves the range on the source shard, and can be repeated: the target drops what an earlier attempt left behind.
+ * <p>
+ * Accounts with holds or standing orders are not moved, as those are found by an id of the shard that issued them.
+ * Neither are accounts with archived history or unpublished outbox events, which would be published out of order.
+ * Reconciliation discrepancies, chain violations and ingest bookkeeping stay behind with the job runs on the source
+ * shard they belong to.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardRebalancer {
+
+    private record MovedTable(String name, String columns, String rows) {
+    }
+
+    private static final String BY_ACCOUNT_KEY = "account_key BETWEEN %1$d AND %2$d";
+    private static final String BY_IBAN = "iban IN (SELECT iban FROM accounts WHERE account_key BETWEEN %1$d AND %2$d)";
+
+    // In copy order, the rows of the other tables are found through the accounts, so those are deleted last
+    private static final List<MovedTable> MOVED_TABLES = List.of(
+            new MovedTable("accounts",
+                    "id, iban, first_name, address, email, balance, version, history_hash, held_amount",
+                    BY_ACCOUNT_KEY),
+            new MovedTable("transaction_history",
+                    "id, account_key, timestamp, type_code, amount, resulting_balance, description, prev_hash, hash",
+                    BY_ACCOUNT_KEY),
+            new MovedTable("account_daily_rollup",
+                    "iban, day, deposit_total, deposit_count, withdrawal_total, withdrawal_count, closing_balance, "
+                            + "last_posted_at",
+                    BY_IBAN),
+            new MovedTable("balance_checkpoint", "iban, checkpoint_at, balance", BY_IBAN),
+            new MovedTable("account_balance_view",
+                    "iban, balance, held_amount, last_posted_at, projected_at, version", BY_IBAN),
+            new MovedTable("transaction_history_view",
+                    "history_id, iban, transaction_type, amount, resulting_balance, timestamp, description",
+                    BY_IBAN));
+
+    private final ShardRoutingDataSource dataSource;
+    private final ShardDirectory shardDirectory;
+    private final ShardRangeRepository shardRangeRepository;
+    private final IbanService ibanService;
+    private final TransactionTemplate directoryTransaction;
+    private final Duration drainTime;
+
+    public ShardRebalancer(ShardRoutingDataSource dataSource,
+                           ShardDirectory shardDirectory,
+                           ShardRangeRepository shardRangeRepository,
+                           IbanService ibanService,
+                           @Value("${sharding.move-drain-time:PT15S}") Duration drainTime) {
+        this.dataSource = dataSource;
+        this.shardDirectory = shardDirectory;
+        this.shardRangeRepository = shardRangeRepository;
+        this.ibanService = ibanService;
+        this.directoryTransaction = new TransactionTemplate(
+                new DataSourceTransactionManager(dataSource.pool(dataSource.directoryShard())));
+        this.drainTime = drainTime;
+    }
+
+    public List<ShardRangeResponse> ranges() {
+        return shardDirectory.map().ranges().stream()
+                .map(range -> new ShardRangeResponse(
+                        ibanService.toIban(range.startKey()),
+                        ibanService.toIban(range.endKey()),
+                        range.shard(),
+                        range.status(),
+                        range.allocatedKeys(),
+                        range.nextKey() != null && range.nextKey() <= range.endKey()))
+                .toList();
+    }
+
+    public ShardMoveResponse move(ShardMoveRequest request) {
+        long fromKey = accountKey(request.fromIban());
+        long toKey = accountKey(request.toIban());
+        String target = request.targetShard();
+        if (fromKey > toKey) {
+            throw new IllegalArgumentException("fromIban must not come after toIban");
+        }
+        dataSource.pool(target);
+
+        String source = directoryTransaction.execute(status -> markMoving(fromKey, toKey, target));
+        shardDirectory.refresh();
+        log.info("Moving accounts {} to {} from shard {} to {}", fromKey, toKey, source, target);
+
+        boolean assigned = false;
+        try {
+            // Nodes route by their copy of the directory, give them time to see the move and finish their requests
+            Thread.sleep(drainTime.toMillis());
+            try (Connection sourceConnection = dataSource.pool(source).getConnection();
+                 Connection targetConnection = dataSource.pool(target).getConnection()) {
+                // Hikari rolls back what is not committed when a connection returns to the pool
+                sourceConnection.setAutoCommit(false);
+                targetConnection.setAutoCommit(false);
+                lockMovableAccounts(sourceConnection, fromKey, toKey);
+
+                delete(targetConnection, fromKey, toKey);
+                Map<String, Long> copied = new LinkedHashMap<>();
+                for (MovedTable table : MOVED_TABLES) {
+                    copied.put(table.name(), copy(sourceConnection, targetConnection, table, fromKey, toKey));
+                }
+                targetConnection.commit();
+
+                shardRangeRepository.assign(fromKey, toKey, target);
+                assigned = true;
+                shardDirectory.refresh();
+
+                delete(sourceConnection, fromKey, toKey);
+                sourceConnection.commit();
+                log.info("Moved rows {} from shard {} to {}", copied, source, target);
+                return new ShardMoveResponse(request.fromIban(), request.toIban(), source, target,
+                        copied.get("accounts"), copied.get("transaction_history"));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while moving accounts " + fromKey + " to " + toKey, ex);
+        } catch (SQLException | IOException ex) {
+            if (assigned) {
+                log.warn("Accounts {} to {} are on shard {} now, but stay on shard {} as well: {}", fromKey, toKey,
+                        target, source, ex.getMessage());
+            }
+            throw new DataAccessResourceFailureException("Moving accounts failed: " + ex.getMessage(), ex);
+        } finally {
+            if (!assigned) {
+                shardRangeRepository.assign(fromKey, toKey, source);
+                shardDirectory.refresh();
+            }
+        }
+    }
+
+    private long accountKey(String iban) {
+        return ibanService.findAccountKey(iban)
+                .orElseThrow(() -> new IllegalArgumentException("Not an IBAN of this bank: " + iban));
+    }
+
+    // Splits the directory at the edges of the keys, so that exactly the keys move
+    private String markMoving(long fromKey, long toKey, String target) {
+        List<ShardRange> ranges = shardRangeRepository.lockOverlapping(fromKey, toKey);
+        if (ranges.isEmpty()) {
+            throw new IllegalArgumentException("No accounts were issued from " + fromKey + " to " + toKey);
+        }
+        List<String> sources = ranges.stream().map(ShardRange::shard).distinct().toList();
+        if (sources.size() > 1) {
+            throw new IllegalArgumentException("The accounts are spread over shards " + sources + ", move them apart");
+        }
+        if (sources.get(0).equals(target)) {
+            throw new IllegalArgumentException("The accounts are on shard " + target + " already");
+        }
+        if (ranges.stream().anyMatch(range -> range.status() == ShardRangeStatus.MOVING)) {
+            throw new IllegalArgumentException("The accounts are being moved already");
+        }
+
+        ShardRange first = ranges.get(0);
+        if (first.startKey() < fromKey) {
+            shardRangeRepository.split(first, fromKey);
+        }
+        ShardRange last = ranges.get(ranges.size() - 1);
+        if (last.endKey() > toKey) {
+            shardRangeRepository.split(last.startKey() < fromKey ? last.splitAt(fromKey).get(1) : last, toKey + 1);
+        }
+        shardRangeRepository.markMoving(fromKey, toKey);
+        return sources.get(0);
+    }
+
+    private void lockMovableAccounts(Connection connection, long fromKey, long toKey) throws SQLException {
+        execute(connection, """
+                SELECT account_key
+                FROM accounts
+                WHERE account_key BETWEEN ? AND ?
+                ORDER BY account_key
+                FOR UPDATE
+                """, fromKey, toKey);
+        long blocking = count(connection, """
+                WITH moving AS (SELECT CAST(? AS BIGINT) AS from_key, CAST(? AS BIGINT) AS to_key)
+                SELECT (SELECT COUNT(*)
+                        FROM fund_hold, moving
+                        WHERE account_key BETWEEN from_key AND to_key)
+                     + (SELECT COUNT(*)
+                        FROM standing_order, moving
+                        WHERE account_key BETWEEN from_key AND to_key)
+                     + (SELECT COUNT(*)
+                        FROM history_archive_account, moving
+                        WHERE account_key BETWEEN from_key AND to_key)
+                     + (SELECT COUNT(*)
+                        FROM transaction_outbox o, accounts a, moving
+                        WHERE o.iban = a.iban
+                          AND a.account_key BETWEEN from_key AND to_key
+                          AND o.published_at IS NULL)
+                """, fromKey, toKey);
+        if (blocking > 0) {
+            throw new IllegalArgumentException(
+                    "The accounts have holds, standing orders, archived history or unpublished outbox events");
+        }
+    }
+
+    private void delete(Connection connection, long fromKey, long toKey) throws SQLException {
+        for (int i = MOVED_TABLES.size() - 1; i >= 0; i--) {
+            MovedTable table = MOVED_TABLES.get(i);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DELETE FROM %s WHERE %s".formatted(table.name(),
+                        table.rows().formatted(fromKey, toKey)));
+            }
+        }
+    }
+
+    // Spools through a file, so a range of any size moves in fixed memory
+    private long copy(Connection source, Connection target, MovedTable table, long fromKey, long toKey)
+            throws SQLException, IOException {
+        Path spool = Files.createTempFile("shard-move-" + table.name(), ".bin");
+        try {
+            try (OutputStream out = Files.newOutputStream(spool)) {
+                source.unwrap(PGConnection.class).getCopyAPI().copyOut(
+                        "COPY (SELECT %s FROM %s WHERE %s) TO STDOUT WITH (FORMAT binary)".formatted(table.columns(),
+                                table.name(), table.rows().formatted(fromKey, toKey)), out);
+            }
+            try (InputStream in = Files.newInputStream(spool)) {
+                return target.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                        "COPY %s (%s) FROM STDIN WITH (FORMAT binary)".formatted(table.name(), table.columns()), in);
+            }
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    private static void execute(Connection connection, String sql, long fromKey, long toKey) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, fromKey);
+            statement.setLong(2, toKey);
+            statement.execute();
+        }
+    }
+
+    private static long count(Connection connection, String sql, long fromKey, long toKey) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, fromKey);
+            statement.setLong(2, toKey);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+}
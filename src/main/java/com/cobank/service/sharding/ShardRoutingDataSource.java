@@ -0,0 +1,89 @@
+package com.cobank.service.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hands out connections of the shard the current thread runs in, see {@link ShardAspect}. Threads outside a shard get
+ * the directory shard, which holds the shard directory, the account sequence and all accounts created before
+ * sharding. A transaction keeps the connection it started with, so the shard has to be chosen before it begins.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final String directoryShard;
+    private final Map<String, HikariDataSource> pools;
+
+    public ShardRoutingDataSource(String directoryShard, Map<String, HikariDataSource> pools) {
+        this.directoryShard = directoryShard;
+        this.pools = new LinkedHashMap<>(pools);
+        setDefaultTargetDataSource(pools.get(directoryShard));
+        setTargetDataSources(new HashMap<>(pools));
+        afterPropertiesSet();
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    static void enter(String shard) {
+        CURRENT.set(shard);
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Runs the task in the shard of the calling thread, for work handed to a thread pool.
+     */
+    public static Runnable wrap(Runnable task) {
+        String shard = CURRENT.get();
+        return () -> {
+            String previous = CURRENT.get();
+            restore(shard);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public String directoryShard() {
+        return directoryShard;
+    }
+
+    public Set<String> shards() {
+        return pools.keySet();
+    }
+
+    public HikariDataSource pool(String shard) {
+        HikariDataSource pool = pools.get(shard);
+        if (pool == null) {
+            throw new IllegalArgumentException("Unknown shard " + shard);
+        }
+        return pool;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,21 @@
+package com.cobank.service.standingorder;
+
+import com.cobank.api.dto.StandingOrderFrequency;
+import com.cobank.api.dto.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record DueStandingOrder(
+        long id,
+        long accountKey,
+        TransactionType type,
+        BigDecimal amount,
+        StandingOrderFrequency frequency,
+        LocalDateTime startAt,
+        LocalDateTime endAt,
+        String description,
+        LocalDateTime dueAt,
+        int executions
+) {
+}
@@ -0,0 +1,7 @@
+package com.cobank.service.standingorder;
+
+import java.math.BigDecimal;
+
+public record LockedAccount(long accountKey, String iban, BigDecimal balance, BigDecimal heldAmount, long version,
+                            byte[] historyHash) {
+}
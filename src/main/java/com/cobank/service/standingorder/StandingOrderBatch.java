@@ -0,0 +1,109 @@
+package com.cobank.service.standingorder;
+
+import com.cobank.api.dto.StandingOrderOutcome;
+import com.cobank.api.dto.StandingOrderStatus;
+import com.cobank.api.dto.TransactionType;
+import com.cobank.domain.HistoryChain;
+import com.cobank.domain.TransactionHistory;
+import com.cobank.service.limits.WithdrawalLimitExceededException;
+import com.cobank.service.transaction.TransactionPostedEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Applies a batch of due standing orders to the locked balances of their accounts in memory. Orders of the same
+ * account are applied in the order given, each on the balance and hash chain left by the previous one, so the batch can
+ * be written with one statement per table.
+ */
+final class StandingOrderBatch {
+
+    private final Map<Long, LockedAccount> accounts;
+    private final Map<Long, LockedAccount> changedAccounts = new LinkedHashMap<>();
+    private final LocalDateTime executedAt;
+    private final BiConsumer<String, BigDecimal> withdrawalReservation;
+    private final List<StandingOrderPosting> postings = new ArrayList<>();
+    private final List<StandingOrderExecution> executions = new ArrayList<>();
+
+    /**
+     * @param withdrawalReservation counts a withdrawal against the limits of the IBAN, or throws
+     *                              {@link WithdrawalLimitExceededException}
+     */
+    StandingOrderBatch(Map<Long, LockedAccount> accounts, LocalDateTime executedAt,
+                       BiConsumer<String, BigDecimal> withdrawalReservation) {
+        this.accounts = new LinkedHashMap<>(accounts);
+        this.executedAt = HistoryChain.timestamp(executedAt);
+        this.withdrawalReservation = withdrawalReservation;
+    }
+
+    void execute(DueStandingOrder order) {
+        LockedAccount account = accounts.get(order.accountKey());
+        if (account == null) {
+            executions.add(new StandingOrderExecution(order.id(), order.dueAt(), executedAt,
+                    StandingOrderOutcome.ACCOUNT_NOT_FOUND, order.executions(), order.dueAt(), StandingOrderStatus.CANCELLED));
+            return;
+        }
+        executions.add(next(order, post(order, account)));
+    }
+
+    List<StandingOrderPosting> postings() {
+        return postings;
+    }
+
+    List<StandingOrderExecution> executions() {
+        return executions;
+    }
+
+    List<LockedAccount> changedAccounts() {
+        return List.copyOf(changedAccounts.values());
+    }
+
+    private StandingOrderOutcome post(DueStandingOrder order, LockedAccount account) {
+        BigDecimal balance;
+        if (order.type() == TransactionType.DEPOSIT) {
+            balance = account.balance().add(order.amount());
+        } else {
+            if (account.balance().subtract(account.heldAmount()).compareTo(order.amount()) < 0) {
+                return StandingOrderOutcome.INSUFFICIENT_FUNDS;
+            }
+            try {
+                withdrawalReservation.accept(account.iban(), order.amount());
+            } catch (WithdrawalLimitExceededException ex) {
+                return StandingOrderOutcome.LIMIT_EXCEEDED;
+            }
+            balance = account.balance().subtract(order.amount());
+        }
+
+        String storedDescription = TransactionHistory.storedDescription(order.type(), order.amount(), order.description());
+        byte[] hash = HistoryChain.hash(account.historyHash(), account.accountKey(), executedAt, order.type(),
+                order.amount(), balance, storedDescription);
+        LockedAccount posted = new LockedAccount(account.accountKey(), account.iban(), balance, account.heldAmount(),
+                account.version() + 1, hash);
+        accounts.put(posted.accountKey(), posted);
+        changedAccounts.put(posted.accountKey(), posted);
+
+        String description = order.description() != null
+                ? order.description()
+                : TransactionHistory.defaultDescription(order.type(), order.amount());
+        postings.add(new StandingOrderPosting(posted.accountKey(), storedDescription, account.historyHash(), hash,
+                new TransactionPostedEvent(UUID.randomUUID(), posted.iban(), order.type(), order.amount(), balance,
+                        executedAt, description, posted.version())));
+        return StandingOrderOutcome.POSTED;
+    }
+
+    // A failed execution is not retried: the order moves on to its next due date like a posted one
+    private StandingOrderExecution next(DueStandingOrder order, StandingOrderOutcome outcome) {
+        int executed = order.executions() + 1;
+        LocalDateTime nextDueAt = order.frequency().occurrence(order.startAt(), executed);
+        boolean finished = nextDueAt == null || (order.endAt() != null && nextDueAt.isAfter(order.endAt()));
+        return new StandingOrderExecution(order.id(), order.dueAt(), executedAt, outcome, executed,
+                finished ? order.dueAt() : nextDueAt,
+                finished ? StandingOrderStatus.COMPLETED : StandingOrderStatus.ACTIVE);
+    }
+}
@@ -0,0 +1,20 @@
+package com.cobank.service.standingorder;
+
+import com.cobank.api.dto.StandingOrderOutcome;
+import com.cobank.api.dto.StandingOrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * The state of a standing order after one of its executions.
+ */
+public record StandingOrderExecution(
+        long orderId,
+        LocalDateTime dueAt,
+        LocalDateTime executedAt,
+        StandingOrderOutcome outcome,
+        int executions,
+        LocalDateTime nextDueAt,
+        StandingOrderStatus status
+) {
+}
@@ -0,0 +1,12 @@
+package com.cobank.service.standingorder;
+
+import com.cobank.service.transaction.TransactionPostedEvent;
+
+public record StandingOrderPosting(
+        long accountKey,
+        String storedDescription,
+        byte[] prevHash,
+        byte[] hash,
+        TransactionPostedEvent event
+) {
+}
@@ -0,0 +1,173 @@
+package com.cobank.service.standingorder;
+
+import com.cobank.api.dto.StandingOrderOutcome;
+import com.cobank.repository.StandingOrderRepository;
+import com.cobank.service.limits.WithdrawalLimitService;
+import com.cobank.service.sharding.ShardRoutingDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Executes due standing orders in batches. Each worker claims the orders of its partition from the oldest due bucket
+ * that another node has not taken, locks their accounts once and writes balances, history and the next due dates with
+ * one statement each, instead of posting every order through its own transaction.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "standing-orders.enabled", havingValue = "true")
+public class StandingOrderScheduler {
+
+    private final StandingOrderRepository standingOrderRepository;
+    private final WithdrawalLimitService withdrawalLimitService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final int workers;
+    private final int batchSize;
+    private final long bucketSeconds;
+    private final ExecutorService executor;
+    private final Timer executionLag;
+    private volatile Duration oldestDueLag = Duration.ZERO;
+
+    public StandingOrderScheduler(StandingOrderRepository standingOrderRepository,
+                                  WithdrawalLimitService withdrawalLimitService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${standing-orders.workers:4}") int workers,
+                                  @Value("${standing-orders.batch-size:500}") int batchSize,
+                                  @Value("${standing-orders.bucket:PT1M}") Duration bucket) {
+        this.standingOrderRepository = standingOrderRepository;
+        this.withdrawalLimitService = withdrawalLimitService;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Postings lock single accounts, so batches wait for them rather than failing on their updates
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.transactionTemplate.setTimeout(30);
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.bucketSeconds = Math.max(1, bucket.getSeconds());
+        this.executor = Executors.newFixedThreadPool(workers);
+        this.executionLag = Timer.builder("cobank.standing-orders.execution.lag")
+                .description("Time between the due date of a standing order and its execution")
+                .register(meterRegistry);
+        Gauge.builder("cobank.standing-orders.oldest-due.lag", this, scheduler -> scheduler.oldestDueLag.toMillis() / 1000.0)
+                .description("Seconds the oldest unexecuted standing order is overdue")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${standing-orders.poll-interval-ms:1000}")
+    public void executeDue() {
+        LocalDateTime now = LocalDateTime.now();
+        oldestDueLag = standingOrderRepository.findOldestDue(now)
+                .map(due -> Duration.between(due, now))
+                .orElse(Duration.ZERO);
+
+        CompletableFuture<?>[] drains = IntStream.range(0, workers)
+                .mapToObj(partition -> CompletableFuture.runAsync(
+                        ShardRoutingDataSource.wrap(() -> drain(partition, now)), executor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(drains).join();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void drain(int partition, LocalDateTime now) {
+        try {
+            int executed;
+            do {
+                executed = executeBatch(partition, now);
+            } while (executed > 0);
+        } catch (RuntimeException ex) {
+            log.error("Standing orders of partition {} failed, the batch will be retried: {}", partition, ex.getMessage(), ex);
+        }
+    }
+
+    private int executeBatch(int partition, LocalDateTime now) {
+        StandingOrderBatch batch = transactionTemplate.execute(status -> {
+            List<DueStandingOrder> orders = claimOldestBucket(partition, now);
+            if (orders.isEmpty()) {
+                return null;
+            }
+
+            Map<Long, LockedAccount> accounts = standingOrderRepository.lockAccounts(
+                            orders.stream().map(DueStandingOrder::accountKey).distinct().toList())
+                    .stream()
+                    .collect(Collectors.toMap(LockedAccount::accountKey, Function.identity()));
+            LocalDateTime executedAt = LocalDateTime.now();
+            StandingOrderBatch executing = new StandingOrderBatch(accounts, executedAt,
+                    (iban, amount) -> withdrawalLimitService.reserve(iban, amount, executedAt));
+            orders.forEach(executing::execute);
+
+            standingOrderRepository.updateBalances(executing.changedAccounts());
+            standingOrderRepository.insertHistory(executing.postings());
+            standingOrderRepository.saveExecutions(executing.executions());
+            // Published inside the batch transaction, so outbox and rollups commit with the postings
+            executing.postings().forEach(posting -> eventPublisher.publishEvent(posting.event()));
+            return executing;
+        });
+        if (batch == null) {
+            return 0;
+        }
+
+        batch.executions().forEach(execution -> {
+            executionLag.record(Duration.between(execution.dueAt(), execution.executedAt()));
+            meterRegistry.counter("cobank.standing-orders.executions", "outcome", execution.outcome().name()).increment();
+        });
+        long posted = batch.executions().stream()
+                .filter(execution -> execution.outcome() == StandingOrderOutcome.POSTED)
+                .count();
+        log.debug("Standing orders of partition {} executed {} orders, {} posted",
+                partition, batch.executions().size(), posted);
+        return batch.executions().size();
+    }
+
+    // Orders of a bucket that another node has claimed completely are skipped, so its later buckets still run
+    private List<DueStandingOrder> claimOldestBucket(int partition, LocalDateTime now) {
+        Optional<LocalDateTime> due = standingOrderRepository.findOldestDue(partition, workers, now);
+        while (due.isPresent()) {
+            LocalDateTime bucketEnd = bucketEnd(due.get());
+            List<DueStandingOrder> orders = standingOrderRepository.claimDue(partition, workers, now, bucketEnd, batchSize);
+            if (!orders.isEmpty()) {
+                return orders;
+            }
+            due = standingOrderRepository.findNextDue(partition, workers, bucketEnd, now);
+        }
+        return List.of();
+    }
+
+    // Buckets are aligned to the epoch, so orders due at the same moment always share a bucket
+    private LocalDateTime bucketEnd(LocalDateTime due) {
+        long second = due.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(second - Math.floorMod(second, bucketSeconds) + bucketSeconds, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,62 @@
+package com.cobank.service.standingorder;
+
+import com.cobank.api.dto.StandingOrderRequest;
+import com.cobank.api.dto.StandingOrderResponse;
+import com.cobank.repository.StandingOrderRepository;
+import com.cobank.service.CancelStandingOrderUseCase;
+import com.cobank.service.GetStandingOrdersUseCase;
+import com.cobank.service.ScheduleStandingOrderUseCase;
+import com.cobank.service.iban.IbanService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StandingOrderService implements ScheduleStandingOrderUseCase, GetStandingOrdersUseCase,
+        CancelStandingOrderUseCase {
+
+    private final StandingOrderRepository standingOrderRepository;
+    private final IbanService ibanService;
+
+    @Override
+    @Transactional
+    public Optional<StandingOrderResponse> scheduleStandingOrder(StandingOrderRequest request) {
+        LocalDateTime startAt = request.startAt() != null ? request.startAt() : LocalDateTime.now();
+        if (request.endAt() != null && request.endAt().isBefore(startAt)) {
+            throw new IllegalArgumentException("endAt must not be before startAt");
+        }
+
+        // Nothing is stored for a well-formed IBAN without an account
+        return ibanService.findAccountKey(request.iban())
+                .flatMap(accountKey -> standingOrderRepository.insert(accountKey, request, startAt))
+                .flatMap(id -> {
+                    log.info("Scheduled {} standing order {} for IBAN={} from {}", request.frequency(), id,
+                            request.iban(), startAt);
+                    return standingOrderRepository.findById(id);
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StandingOrderResponse> getStandingOrders(String iban) {
+        return ibanService.findAccountKey(iban)
+                .map(standingOrderRepository::findByAccountKey)
+                .orElse(List.of());
+    }
+
+    @Override
+    @Transactional
+    public Optional<StandingOrderResponse> cancelStandingOrder(long id) {
+        if (standingOrderRepository.cancel(id)) {
+            log.info("Cancelled standing order {}", id);
+        }
+        return standingOrderRepository.findById(id);
+    }
+}
@@ -0,0 +1,59 @@
+package com.cobank.service.startup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+/**
+ * Reports how long after JVM start the node became ready for traffic and when the warm-up reached its peak
+ * throughput, both as JVM uptime in seconds.
+ */
+@Slf4j
+@Component
+public class StartupTimings {
+
+    private volatile double timeToReadySeconds = Double.NaN;
+    private volatile double timeToPeakThroughputSeconds = Double.NaN;
+    private volatile double peakThroughput = Double.NaN;
+
+    public StartupTimings(MeterRegistry meterRegistry) {
+        Gauge.builder("cobank.startup.time-to-ready", this, timings -> timings.timeToReadySeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("cobank.startup.time-to-peak-throughput", this, timings -> timings.timeToPeakThroughputSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("cobank.startup.warm-up.peak-throughput", this, timings -> timings.peakThroughput)
+                .baseUnit("iterations.per.second")
+                .register(meterRegistry);
+    }
+
+    public void recordPeakThroughput(double iterationsPerSecond, Duration uptime) {
+        peakThroughput = iterationsPerSecond;
+        timeToPeakThroughputSeconds = toSeconds(uptime);
+    }
+
+    @EventListener
+    public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && Double.isNaN(timeToReadySeconds)) {
+            timeToReadySeconds = toSeconds(uptime());
+            log.info("Ready for traffic {}s after JVM start, warm-up peaked at {} iterations/s after {}s",
+                    timeToReadySeconds, peakThroughput, timeToPeakThroughputSeconds);
+        }
+    }
+
+    static Duration uptime() {
+        return Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    private static double toSeconds(Duration duration) {
+        return duration.toMillis() / 1000.0;
+    }
+}
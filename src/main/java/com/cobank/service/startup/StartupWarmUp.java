@@ -0,0 +1,180 @@
+package com.cobank.service.startup;
+
+import com.cobank.api.dto.TransactionRequest;
+import com.cobank.api.dto.TransactionType;
+import com.cobank.domain.Account;
+import com.cobank.repository.AccountRepository;
+import com.cobank.service.FetchBalanceUseCase;
+import com.cobank.service.GetTransactionHistoryUseCase;
+import com.cobank.service.ProcessTransactionUseCase;
+import com.cobank.service.iban.IbanService;
+import com.cobank.service.transaction.HistoryPageCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs the posting and read paths against a throwaway account until throughput stops improving, so the JIT has
+ * compiled them before real traffic arrives. Spring Boot only reports readiness once all runners have returned, so
+ * the node keeps refusing traffic while this runs.
+ * <p>
+ * Every posting runs in a serializable transaction of its own, like real postings, which creates the account and is
+ * rolled back. Each node picks its own account number from the top {@link #WARM_UP_ACCOUNTS} numbers, so nodes that
+ * start together do not queue on each other's account.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "startup.warm-up.enabled", havingValue = "true")
+public class StartupWarmUp implements ApplicationRunner {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+    static final long WARM_UP_ACCOUNTS = 1_000_000;
+
+    private final AccountRepository accountRepository;
+    private final ProcessTransactionUseCase processTransactionUseCase;
+    private final FetchBalanceUseCase fetchBalanceUseCase;
+    private final GetTransactionHistoryUseCase getTransactionHistoryUseCase;
+    private final HistoryPageCache historyPageCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final StartupTimings timings;
+    private final Duration maxDuration;
+    private final Duration window;
+    private final int plateauWindows;
+    private final double plateauTolerance;
+    private final String iban;
+
+    public StartupWarmUp(AccountRepository accountRepository,
+                         ProcessTransactionUseCase processTransactionUseCase,
+                         FetchBalanceUseCase fetchBalanceUseCase,
+                         GetTransactionHistoryUseCase getTransactionHistoryUseCase,
+                         HistoryPageCache historyPageCache,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         StartupTimings timings,
+                         IbanService ibanService,
+                         @Value("${iban.account-number-length}") int accountNumberLength,
+                         @Value("${startup.warm-up.max-duration:PT30S}") Duration maxDuration,
+                         @Value("${startup.warm-up.window:PT1S}") Duration window,
+                         @Value("${startup.warm-up.plateau-windows:3}") int plateauWindows,
+                         @Value("${startup.warm-up.plateau-tolerance:0.05}") double plateauTolerance) {
+        this.accountRepository = accountRepository;
+        this.processTransactionUseCase = processTransactionUseCase;
+        this.fetchBalanceUseCase = fetchBalanceUseCase;
+        this.getTransactionHistoryUseCase = getTransactionHistoryUseCase;
+        this.historyPageCache = historyPageCache;
+        // The isolation and timeout of TransactionService#processTransaction, which joins these transactions
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        this.transactionTemplate.setTimeout(5);
+        this.objectMapper = objectMapper;
+        this.timings = timings;
+        this.maxDuration = maxDuration;
+        this.window = window;
+        this.plateauWindows = plateauWindows;
+        this.plateauTolerance = plateauTolerance;
+        this.iban = ibanService.toIban(warmUpAccountNumber(accountNumberLength, ThreadLocalRandom.current()));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Warming up the posting and read paths for at most {}", maxDuration);
+        ThroughputPlateau plateau = new ThroughputPlateau(plateauWindows, plateauTolerance);
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+        long iterations = 0;
+        try {
+            boolean plateauReached = false;
+            while (!plateauReached && System.nanoTime() < deadline) {
+                long windowStart = System.nanoTime();
+                long windowEnd = Math.min(windowStart + window.toNanos(), deadline);
+                long windowIterations = 0;
+                while (System.nanoTime() < windowEnd) {
+                    runIteration();
+                    windowIterations++;
+                }
+                iterations += windowIterations;
+                double throughput = windowIterations * 1e9 / (System.nanoTime() - windowStart);
+                plateauReached = plateau.record(throughput, StartupTimings.uptime());
+            }
+        } catch (RuntimeException ex) {
+            // A failed warm-up only costs latency, it must not keep the node from starting
+            log.warn("Warm-up stopped after {} iterations: {}", iterations, ex.getMessage());
+        }
+
+        if (plateau.peakThroughput() > 0) {
+            timings.recordPeakThroughput(plateau.peakThroughput(), plateau.peakAt());
+        }
+        log.info("Warm-up finished after {} iterations, peak of {} iterations/s reached at {}s uptime",
+                iterations, Math.round(plateau.peakThroughput()), plateau.peakAt().toMillis() / 1000.0);
+    }
+
+    /**
+     * An account number among the highest {@link #WARM_UP_ACCOUNTS}, which the account sequence does not reach in
+     * practice.
+     */
+    static long warmUpAccountNumber(int accountNumberLength, Random random) {
+        long highest = (long) Math.pow(10, accountNumberLength) - 1;
+        return highest - random.nextLong(Math.max(Math.min(WARM_UP_ACCOUNTS, highest / 2), 1));
+    }
+
+    private void runIteration() {
+        try {
+            post(TransactionType.DEPOSIT, BigDecimal.ZERO, false);
+            post(TransactionType.WITHDRAWAL, AMOUNT, true);
+        } finally {
+            // The history page was cached from rolled back postings
+            historyPageCache.evict(iban);
+        }
+    }
+
+    private void post(TransactionType type, BigDecimal openingBalance, boolean read) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Rolling back leaves no account, history or sequence gap behind and publishes no posting events
+            status.setRollbackOnly();
+            accountRepository.save(warmUpAccount(openingBalance));
+            serialize(processTransactionUseCase.processTransaction(new TransactionRequest(iban, type, AMOUNT)));
+            if (read) {
+                serialize(fetchBalanceUseCase.getBalanceByIban(iban));
+                serialize(getTransactionHistoryUseCase.getTransactionHistory(iban, FIRST_PAGE).getContent());
+            }
+        });
+    }
+
+    private Account warmUpAccount(BigDecimal balance) {
+        return Account.builder()
+                .id(UUID.randomUUID())
+                .iban(iban)
+                .firstName("Warm-up")
+                .address("Warm-up")
+                .email(iban + "@warm-up.invalid")
+                .balance(balance)
+                .build();
+    }
+
+    // Responses go through the same ObjectMapper as the controllers, so serialization is warmed up as well
+    private void serialize(Object response) {
+        try {
+            objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.cobank.service.startup;
+
+import java.time.Duration;
+
+/**
+ * Tracks the throughput of consecutive measurement windows and reports a plateau once the best window has not been
+ * beaten by more than the tolerance for the given number of windows.
+ */
+class ThroughputPlateau {
+
+    private final int plateauWindows;
+    private final double tolerance;
+
+    private double peakThroughput;
+    private Duration peakAt = Duration.ZERO;
+    private int windowsWithoutGain;
+
+    ThroughputPlateau(int plateauWindows, double tolerance) {
+        if (plateauWindows < 1 || tolerance < 0) {
+            throw new IllegalArgumentException("plateauWindows must be positive and tolerance must not be negative");
+        }
+        this.plateauWindows = plateauWindows;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Records the throughput of a finished window, with {@code uptime} being the JVM uptime at its end. Returns
+     * whether throughput has reached its plateau.
+     */
+    boolean record(double throughput, Duration uptime) {
+        if (throughput > peakThroughput * (1 + tolerance)) {
+            peakThroughput = throughput;
+            peakAt = uptime;
+            windowsWithoutGain = 0;
+        } else {
+            peakThroughput = Math.max(peakThroughput, throughput);
+            windowsWithoutGain++;
+        }
+        return windowsWithoutGain >= plateauWindows;
+    }
+
+    double peakThroughput() {
+        return peakThroughput;
+    }
+
+    Duration peakAt() {
+        return peakAt;
+    }
+}
@@ -0,0 +1,164 @@
+package com.cobank.service.stream;
+
+import com.cobank.api.dto.BalanceChangeEvent;
+import com.cobank.service.FetchBalanceSnapshotUseCase;
+import com.cobank.service.SubscribeBalanceChangesUseCase;
+import com.cobank.service.transaction.TransactionPostedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans committed postings out to server-sent event subscribers. Subscriptions are held as async servlet responses,
+ * so an idle subscriber costs a map entry and an open connection but no thread. Pushes are sent from the
+ * {@link DispatchLanes} lane of their account, one at a time.
+ */
+@Slf4j
+@Service
+public class BalanceStreamService implements SubscribeBalanceChangesUseCase {
+
+    static final String POSTING_EVENT = "posting";
+    static final String BALANCE_EVENT = "balance";
+
+    private final Map<String, Set<SseEmitter>> subscribersByIban = new ConcurrentHashMap<>();
+    private final Map<SseEmitter, Set<String>> subscriptions = new ConcurrentHashMap<>();
+    private final FetchBalanceSnapshotUseCase fetchBalanceSnapshotUseCase;
+    private final DispatchLanes balanceStreamLanes;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final int maxSubscriptions;
+    private final int maxIbansPerSubscription;
+
+    public BalanceStreamService(FetchBalanceSnapshotUseCase fetchBalanceSnapshotUseCase,
+                                DispatchLanes balanceStreamLanes,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${balance-stream.timeout:PT30M}") Duration timeout,
+                                @Value("${balance-stream.max-subscriptions:50000}") int maxSubscriptions,
+                                @Value("${balance-stream.max-ibans-per-subscription:20}") int maxIbansPerSubscription) {
+        this.fetchBalanceSnapshotUseCase = fetchBalanceSnapshotUseCase;
+        this.balanceStreamLanes = balanceStreamLanes;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.maxSubscriptions = maxSubscriptions;
+        this.maxIbansPerSubscription = maxIbansPerSubscription;
+        Gauge.builder("cobank.stream.subscriptions", subscriptions, Map::size)
+                .description("Open balance stream subscriptions on this node")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<SseEmitter> subscribe(Set<String> ibans) {
+        if (ibans.isEmpty() || ibans.size() > maxIbansPerSubscription) {
+            throw new IllegalArgumentException(
+                    "A subscription must name between 1 and " + maxIbansPerSubscription + " IBANs");
+        }
+        if (subscriptions.size() >= maxSubscriptions) {
+            log.warn("Rejecting balance stream subscription, {} subscriptions open", subscriptions.size());
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        subscriptions.put(emitter, Set.copyOf(ibans));
+        ibans.forEach(iban -> subscribersByIban.computeIfAbsent(iban, key -> ConcurrentHashMap.newKeySet()).add(emitter));
+        emitter.onCompletion(() -> unsubscribe(emitter));
+        emitter.onTimeout(() -> unsubscribe(emitter));
+        emitter.onError(error -> unsubscribe(emitter));
+
+        // Snapshots are sent after registering, so no posting falls between the snapshot and the first push. Balance
+        // and version come from one account row, so the version identifies exactly the balance sent.
+        for (String iban : ibans) {
+            fetchBalanceSnapshotUseCase.getBalanceSnapshot(iban).ifPresent(snapshot -> send(emitter, SseEmitter.event()
+                    .id(eventId(iban, snapshot.version()))
+                    .name(BALANCE_EVENT)
+                    .data(snapshot.balance(), MediaType.APPLICATION_JSON)
+                    .build()));
+        }
+        return Optional.of(emitter);
+    }
+
+    @TransactionalEventListener
+    public void on(TransactionPostedEvent event) {
+        balanceStreamLanes.execute(event.iban(), () -> push(event));
+    }
+
+    @Scheduled(fixedDelayString = "${balance-stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        // Keeps idle connections from being closed by proxies and detects clients that went away
+        Set<ResponseBodyEmitter.DataWithMediaType> comment = SseEmitter.event().comment("keep-alive").build();
+        subscriptions.keySet().forEach(emitter -> send(emitter, comment));
+    }
+
+    int subscriptionCount() {
+        return subscriptions.size();
+    }
+
+    private void push(TransactionPostedEvent event) {
+        Set<SseEmitter> emitters = subscribersByIban.get(event.iban());
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        // Serialized once and shared by all subscribers of the account
+        Set<ResponseBodyEmitter.DataWithMediaType> message = SseEmitter.event()
+                .id(eventId(event.iban(), event.accountVersion()))
+                .name(POSTING_EVENT)
+                .data(toJson(new BalanceChangeEvent(event.iban(), event.transactionType(), event.amount(),
+                        event.resultingBalance(), event.timestamp(), event.accountVersion())))
+                .build();
+        emitters.forEach(emitter -> send(emitter, message));
+    }
+
+    private void send(SseEmitter emitter, Set<ResponseBodyEmitter.DataWithMediaType> message) {
+        try {
+            emitter.send(message);
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Dropping balance stream subscriber: {}", ex.getMessage());
+            unsubscribe(emitter);
+            emitter.completeWithError(ex);
+        }
+    }
+
+    private void unsubscribe(SseEmitter emitter) {
+        Set<String> ibans = subscriptions.remove(emitter);
+        if (ibans == null) {
+            return;
+        }
+        for (String iban : ibans) {
+            subscribersByIban.computeIfPresent(iban, (key, emitters) -> {
+                emitters.remove(emitter);
+                return emitters.isEmpty() ? null : emitters;
+            });
+        }
+    }
+
+    private String toJson(BalanceChangeEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize balance change", ex);
+        }
+    }
+
+    private static String eventId(String iban, long version) {
+        return iban + ":" + version;
+    }
+}
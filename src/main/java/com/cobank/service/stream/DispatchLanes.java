@@ -0,0 +1,41 @@
+package com.cobank.service.stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-threaded executors chosen by the hash of a key, so the tasks of one key run one at a time and in the order
+ * they were submitted, while tasks of other keys run in parallel on the other lanes. A task submitted to a full lane
+ * is dropped.
+ */
+@Slf4j
+public class DispatchLanes {
+
+    private final ThreadPoolExecutor[] lanes;
+
+    public DispatchLanes(String name, int lanes, int queueCapacity) {
+        this.lanes = new ThreadPoolExecutor[lanes];
+        int laneCapacity = Math.max(queueCapacity / lanes, 1);
+        AtomicInteger threads = new AtomicInteger();
+        for (int i = 0; i < lanes; i++) {
+            this.lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(laneCapacity),
+                    task -> new Thread(task, name + "-" + threads.incrementAndGet()),
+                    (task, pool) -> log.warn("{} lane is full, dropping a task", name));
+        }
+    }
+
+    public void execute(String key, Runnable task) {
+        lanes[Math.floorMod(key.hashCode(), lanes.length)].execute(task);
+    }
+
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdownNow();
+        }
+    }
+}
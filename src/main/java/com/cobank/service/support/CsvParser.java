@@ -0,0 +1,45 @@
+package com.cobank.service.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a single CSV line into its fields, honouring RFC 4180 quoting. Returns {@code null} when a quoted field is
+ * not terminated on the line.
+ */
+public final class CsvParser {
+
+    private CsvParser() {
+    }
+
+    public static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
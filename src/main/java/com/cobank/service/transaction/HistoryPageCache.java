@@ -0,0 +1,70 @@
+package com.cobank.service.transaction;
+
+import com.cobank.api.dto.TransactionHistoryResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Caches history pages under the account version they were read at. The caller reads the version in the same
+ * snapshot as the page, so a page is only ever served with the version of the postings it contains: a read that
+ * started before a posting stores its page under the old version, which no later read asks for.
+ */
+@Component
+@RequiredArgsConstructor
+public class HistoryPageCache {
+
+    static final String CACHE_NAME = "transactionHistory";
+
+    private final CacheManager cacheManager;
+
+    record Key(String iban, long version, int page, int size) {
+    }
+
+    @SuppressWarnings("unchecked")
+    public Page<TransactionHistoryResponse> get(String iban, long version, Pageable pageable,
+                                                Supplier<Page<TransactionHistoryResponse>> loader) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return loader.get();
+        }
+        Key key = new Key(iban, version, pageable.getPageNumber(), pageable.getPageSize());
+        Page<TransactionHistoryResponse> cached = cache.get(key, Page.class);
+        if (cached != null) {
+            return cached;
+        }
+        Page<TransactionHistoryResponse> page = loader.get();
+        cache.put(key, page);
+        evictOlderThan(cache, iban, version);
+        return page;
+    }
+
+    /**
+     * Drops every cached page of the account.
+     */
+    public void evict(String iban) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+        if (cache.getNativeCache() instanceof ConcurrentMap<?, ?>) {
+            evictOlderThan(cache, iban, Long.MAX_VALUE);
+        } else {
+            cache.clear();
+        }
+    }
+
+    // Pages of older versions are never read again, only the default map cache allows dropping them per account
+    private static void evictOlderThan(Cache cache, String iban, long version) {
+        if (cache.getNativeCache() instanceof ConcurrentMap<?, ?> entries) {
+            entries.keySet().removeIf(key -> key instanceof Key page && page.iban().equals(iban)
+                    && page.version() < version);
+        }
+    }
+}
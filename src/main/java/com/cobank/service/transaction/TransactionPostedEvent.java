@@ -0,0 +1,19 @@
+package com.cobank.service.transaction;
+
+import com.cobank.api.dto.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record TransactionPostedEvent(
+        UUID historyId,
+        String iban,
+        TransactionType transactionType,
+        BigDecimal amount,
+        BigDecimal resultingBalance,
+        LocalDateTime timestamp,
+        String description,
+        long accountVersion
+) {
+}
@@ -1,20 +1,29 @@
 package com.cobank.service.transaction;
 
+import com.cobank.api.dto.TransactionHistoryFilter;
 import com.cobank.api.dto.TransactionHistoryResponse;
 import com.cobank.api.dto.TransactionRequest;
 import com.cobank.api.dto.TransactionResponse;
 import com.cobank.api.dto.TransactionType;
 import com.cobank.domain.Account;
+import com.cobank.domain.HistoryChain;
 import com.cobank.domain.TransactionHistory;
 import com.cobank.repository.AccountRepository;
 import com.cobank.repository.TransactionHistoryRepository;
+import com.cobank.repository.TransactionHistorySearchRepository;
 import com.cobank.service.GetTransactionHistoryUseCase;
 import com.cobank.service.ProcessTransactionUseCase;
+import com.cobank.service.SearchTransactionHistoryUseCase;
+import com.cobank.service.archive.HistoryArchive;
+import com.cobank.service.contention.ContentionTracker;
+import com.cobank.service.iban.IbanService;
+import com.cobank.service.limits.WithdrawalLimitExceededException;
+import com.cobank.service.limits.WithdrawalLimitService;
 import jakarta.persistence.PessimisticLockException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.postgresql.util.PSQLException;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.dao.DataAccessException;
 import org.springframework.retry.annotation.Backoff;
@@ -24,6 +33,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -34,10 +45,18 @@ import java.util.Optional;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class TransactionService implements ProcessTransactionUseCase, GetTransactionHistoryUseCase {
+public class TransactionService implements ProcessTransactionUseCase, GetTransactionHistoryUseCase,
+        SearchTransactionHistoryUseCase {
 
     private final AccountRepository accountRepository;
     private final TransactionHistoryRepository transactionHistoryRepository;
+    private final TransactionHistorySearchRepository transactionHistorySearchRepository;
+    private final IbanService ibanService;
+    private final WithdrawalLimitService withdrawalLimitService;
+    private final HistoryArchive historyArchive;
+    private final ContentionTracker contentionTracker;
+    private final HistoryPageCache historyPageCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Retryable(
@@ -56,25 +75,52 @@ public class TransactionService implements ProcessTransactionUseCase, GetTransac
 
         try {
             validateRequestAmount(request);
-            return accountRepository.findByIbanForUpdate(request.iban())
+            return lockAccount(request.iban())
                     .map(account -> executeTransaction(request, account));
+        } catch (WithdrawalLimitExceededException ex) {
+            rollBack();
+            log.warn("Transaction rejected by withdrawal limits: IBAN={}, Error={}", request.iban(), ex.getMessage());
+            return Optional.of(new TransactionResponse(request.iban(), BigDecimal.valueOf(-1), ex.getMessage()));
         } catch (IllegalArgumentException ex) {
+            rollBack();
             log.error("Transaction failed due to invalid input: IBAN={}, Error={}", request.iban(), ex.getMessage());
-            return Optional.of(new TransactionResponse(request.iban(), BigDecimal.valueOf(-1), "Invalid transaction amount"));
+            return Optional.of(new TransactionResponse(request.iban(), BigDecimal.valueOf(-1), ex.getMessage()));
         } catch (DataAccessException ex) {
+            rollBack();
             log.error("Database error during transaction processing for IBAN={}: {}", request.iban(), ex.getMessage(), ex);
             return Optional.of(new TransactionResponse(request.iban(), BigDecimal.valueOf(-1), "Database error, please try again later"));
         }
     }
 
+    // A rejected posting is answered normally but must not commit, or it would keep its withdrawal limit reservation
+    private static void rollBack() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+    }
+
+    private Optional<Account> lockAccount(String iban) {
+        long start = System.nanoTime();
+        try {
+            return accountRepository.findByIbanForUpdate(iban);
+        } finally {
+            contentionTracker.recordLockWait(iban, System.nanoTime() - start);
+        }
+    }
+
     private TransactionResponse executeTransaction(TransactionRequest request, Account account) {
         log.info("Executing transaction for IBAN={}, Type={}, Amount={}", request.iban(), request.type(), request.amount());
 
+        // Resolved before the account changes, so a rejected posting leaves nothing to commit
+        long accountKey = ibanService.findAccountKey(account.getIban())
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "IBAN " + account.getIban() + " is not an account of this bank"));
         BigDecimal initialBalance = account.getBalance();
         BigDecimal newBalance = applyTransaction(request, account);
 
-        recordTransactionHistory(account.getIban(), request.type(), request.amount(), newBalance,
-                String.format("%s transaction of %.2f", request.type(), request.amount()));
+        TransactionHistory history = recordTransactionHistory(account, accountKey, request.type(), request.amount(),
+                TransactionHistory.defaultDescription(request.type(), request.amount()));
+        eventPublisher.publishEvent(toTransactionPostedEvent(account.getIban(), history, account.getVersion()));
 
         log.info("Transaction completed successfully. IBAN={}, Initial Balance={}, New Balance={}",
                 account.getIban(), initialBalance, newBalance);
@@ -90,11 +136,13 @@ public class TransactionService implements ProcessTransactionUseCase, GetTransac
         if (request.type() == TransactionType.DEPOSIT) {
             account.setBalance(account.getBalance().add(amount));
         } else if (request.type() == TransactionType.WITHDRAWAL) {
-            if (account.getBalance().compareTo(amount) < 0) {
+            if (account.getAvailableBalance().compareTo(amount) < 0) {
                 throw new IllegalArgumentException("Insufficient funds for withdrawal.");
             }
+            withdrawalLimitService.reserve(account.getIban(), amount, LocalDateTime.now());
             account.setBalance(account.getBalance().subtract(amount));
         }
+        account.setVersion(account.getVersion() + 1);
         accountRepository.save(account);
         log.debug("Transaction applied successfully for IBAN={}. New balance={}", account.getIban(), account.getBalance());
         return account.getBalance();
@@ -118,46 +166,105 @@ public class TransactionService implements ProcessTransactionUseCase, GetTransac
                 "Transaction could not be completed after multiple attempts. Please try again later."));
     }
 
+    /**
+     * Records the posting that left the locked account at its current balance and advances the account's hash chain,
+     * which is written with the account update.
+     */
     @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.REPEATABLE_READ)
-    public TransactionHistory recordTransactionHistory(String iban, TransactionType transactionType,
-                                                       BigDecimal amount, BigDecimal resultingBalance, String description) {
+    public TransactionHistory recordTransactionHistory(Account account, long accountKey,
+                                                       TransactionType transactionType, BigDecimal amount,
+                                                       String description) {
+        String iban = account.getIban();
+        BigDecimal resultingBalance = account.getBalance();
         log.debug("Recording transaction history for IBAN={}, Type={}, Amount={}, New Balance={}",
                 iban, transactionType, amount, resultingBalance);
 
+        LocalDateTime timestamp = HistoryChain.timestamp(LocalDateTime.now());
+        String storedDescription = TransactionHistory.storedDescription(transactionType, amount, description);
+        byte[] hash = HistoryChain.hash(account.getHistoryHash(), accountKey, timestamp, transactionType, amount,
+                resultingBalance, storedDescription);
         TransactionHistory history = TransactionHistory.builder()
-                .iban(iban)
+                .accountKey(accountKey)
                 .transactionType(transactionType)
                 .amount(amount)
                 .resultingBalance(resultingBalance)
-                .timestamp(LocalDateTime.now())
-                .description(description)
+                .timestamp(timestamp)
+                .description(storedDescription)
+                .prevHash(account.getHistoryHash())
+                .hash(hash)
                 .build();
         TransactionHistory savedHistory = transactionHistoryRepository.save(history);
+        account.setHistoryHash(hash);
 
         log.debug("Transaction history recorded successfully for IBAN={}, History ID={}", iban, savedHistory.getId());
         return savedHistory;
     }
 
-    @Cacheable(value = "transactionHistory", key = "#iban + '-' + #pageable.pageNumber + '-' + #pageable.pageSize")
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<Long> getHistoryVersion(String iban) {
+        return Optional.ofNullable(iban)
+                .flatMap(accountRepository::findVersionByIban);
+    }
+
     @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
     @Override
     public Page<TransactionHistoryResponse> getTransactionHistory(String iban, Pageable pageable) {
         log.info("Fetching transaction history for IBAN={} with page={} and size={}", iban, pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<TransactionHistory> historyPage = transactionHistoryRepository.findByIbanOrderByTimestampDesc(iban, pageable);
+        // The first read fixes the snapshot, so the page below holds exactly the postings of this version
+        Optional<Long> version = accountRepository.findVersionByIban(iban);
+        Optional<Long> accountKey = ibanService.findAccountKey(iban);
+        if (version.isEmpty() || accountKey.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        Page<TransactionHistoryResponse> historyPage = historyPageCache.get(iban, version.get(), pageable,
+                () -> historyArchive.continuePage(iban, accountKey.get(), TransactionHistoryFilter.NONE, pageable,
+                        transactionHistorySearchRepository.search(iban, accountKey.get(), TransactionHistoryFilter.NONE,
+                                pageable)));
 
         log.debug("Transaction history fetched for IBAN={} with total records={}", iban, historyPage.getTotalElements());
-        return historyPage.map(this::toTransactionHistoryResponse);
+        return historyPage;
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    @Override
+    public Page<TransactionHistoryResponse> searchTransactionHistory(String iban, TransactionHistoryFilter filter,
+                                                                     Pageable pageable) {
+        validateFilter(filter);
+        log.info("Searching transaction history for IBAN={} with filter={}, page={} and size={}",
+                iban, filter, pageable.getPageNumber(), pageable.getPageSize());
+
+        return ibanService.findAccountKey(iban)
+                .map(accountKey -> historyArchive.continuePage(iban, accountKey, filter, pageable,
+                        transactionHistorySearchRepository.search(iban, accountKey, filter, pageable)))
+                .orElseGet(() -> Page.empty(pageable));
+    }
+
+    private void validateFilter(TransactionHistoryFilter filter) {
+        if (filter.from() != null && filter.to() != null && !filter.from().isBefore(filter.to())) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (filter.minAmount() != null && filter.maxAmount() != null
+                && filter.minAmount().compareTo(filter.maxAmount()) > 0) {
+            throw new IllegalArgumentException("minAmount must not exceed maxAmount");
+        }
+        // Shorter terms have no trigrams to look up and would scan every description of the account
+        if (filter.description() != null && filter.description().length() < 3) {
+            throw new IllegalArgumentException("description must contain at least 3 characters");
+        }
     }
 
-    private TransactionHistoryResponse toTransactionHistoryResponse(TransactionHistory history) {
-        return new TransactionHistoryResponse(
-                history.getIban(),
+    private TransactionPostedEvent toTransactionPostedEvent(String iban, TransactionHistory history, long accountVersion) {
+        return new TransactionPostedEvent(
+                history.getId(),
+                iban,
                 history.getTransactionType(),
                 history.getAmount(),
                 history.getResultingBalance(),
                 history.getTimestamp(),
-                history.getDescription()
+                history.getDescription(),
+                accountVersion
         );
     }
-}
\ No newline at end of file
+}
@@ -1,34 +1,62 @@
 package com.cobank.web;
 
 import com.cobank.api.AccountApi;
+import com.cobank.api.AccountSummaryApi;
 import com.cobank.api.BalanceApi;
+import com.cobank.api.BalanceStreamApi;
 import com.cobank.api.TransactionApi;
 import com.cobank.api.dto.*;
 import com.cobank.service.CreateAccountUseCase;
+import com.cobank.service.FetchAccountVersionUseCase;
 import com.cobank.service.FetchBalanceUseCase;
+import com.cobank.service.FetchHistoricalBalanceUseCase;
+import com.cobank.service.GetAccountSummaryUseCase;
 import com.cobank.service.GetTransactionHistoryUseCase;
+import com.cobank.service.ImportAccountsUseCase;
 import com.cobank.service.ProcessTransactionUseCase;
+import com.cobank.service.SearchTransactionHistoryUseCase;
+import com.cobank.service.SubscribeBalanceChangesUseCase;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @RestController
 @RequiredArgsConstructor
 public class AccountController implements
         AccountApi,
         BalanceApi,
-        TransactionApi {
+        TransactionApi,
+        AccountSummaryApi,
+        BalanceStreamApi {
 
     private final CreateAccountUseCase createAccountUseCase;
     private final FetchBalanceUseCase fetchBalanceUseCase;
+    private final FetchAccountVersionUseCase fetchAccountVersionUseCase;
+    private final FetchHistoricalBalanceUseCase fetchHistoricalBalanceUseCase;
     private final ProcessTransactionUseCase processTransactionUseCase;
     private final GetTransactionHistoryUseCase getTransactionHistoryUseCase;
+    private final SearchTransactionHistoryUseCase searchTransactionHistoryUseCase;
+    private final GetAccountSummaryUseCase getAccountSummaryUseCase;
+    private final ImportAccountsUseCase importAccountsUseCase;
+    private final SubscribeBalanceChangesUseCase subscribeBalanceChangesUseCase;
 
     @Override
     public ResponseEntity<CreateAccountResponse> createAccount(CreateAccountRequest request) {
@@ -38,9 +66,31 @@ public class AccountController implements
     }
 
     @Override
-    public ResponseEntity<FetchBalanceResponse> getBalance(String iban) {
+    public ResponseEntity<AccountImportResponse> importAccounts(String contentType, InputStream body) {
+        AccountImportFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? AccountImportFormat.CSV
+                : AccountImportFormat.NDJSON;
+        return ResponseEntity.ok(importAccountsUseCase.importAccounts(
+                format, new InputStreamReader(body, StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public ResponseEntity<FetchBalanceResponse> getBalance(String iban, LocalDateTime asOf, String ifNoneMatch) {
+        if (asOf != null) {
+            return fetchHistoricalBalanceUseCase.getBalanceAsOf(iban, asOf)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(
+                            new FetchBalanceResponse(iban, BigDecimal.valueOf(-1.0))));
+        }
+
+        // The version is read before the balance, so the tag never claims a newer state than the body
+        Optional<String> etag = fetchAccountVersionUseCase.getAccountVersion(iban)
+                .map(version -> ETags.of(String.valueOf(version)));
+        if (etag.isPresent() && ETags.matches(ifNoneMatch, etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+        }
         return fetchBalanceUseCase.getBalanceByIban(iban)
-                .map(ResponseEntity::ok)
+                .map(balance -> withETag(ResponseEntity.ok(), etag).body(balance))
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(
                         new FetchBalanceResponse(iban, BigDecimal.valueOf(-1.0))));
     }
@@ -54,13 +104,64 @@ public class AccountController implements
     }
 
     @Override
-    public ResponseEntity<Page<TransactionHistoryResponse>> getTransactionHistory(String iban, int page, int size) {
+    public ResponseEntity<Page<TransactionHistoryResponse>> getTransactionHistory(String iban, int page, int size,
+                                                                                  TransactionHistoryFilter filter,
+                                                                                  String ifNoneMatch) {
+        return transactionHistory(iban, page, size, filter, ifNoneMatch, Function.identity());
+    }
+
+    @Override
+    public ResponseEntity<CompactHistoryPage> getCompactTransactionHistory(String iban, int page, int size,
+                                                                           TransactionHistoryFilter filter,
+                                                                           String ifNoneMatch) {
+        return transactionHistory(iban, page, size, filter, ifNoneMatch,
+                historyPage -> CompactHistoryPage.of(iban, historyPage), "cbor");
+    }
+
+    @Override
+    public ResponseEntity<AccountSummaryResponse> getAccountSummary(String iban, LocalDate from, LocalDate to) {
+        return getAccountSummaryUseCase.getAccountSummary(iban, from, to)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, Optional<String> etag) {
+        etag.ifPresent(builder::eTag);
+        return builder;
+    }
+
+    @Override
+    public ResponseEntity<SseEmitter> streamBalanceChanges(Set<String> ibans) {
+        return subscribeBalanceChangesUseCase.subscribe(ibans)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    private <T> ResponseEntity<T> transactionHistory(String iban, int page, int size, TransactionHistoryFilter filter,
+                                                     String ifNoneMatch,
+                                                     Function<Page<TransactionHistoryResponse>, T> representation,
+                                                     String... representationTag) {
+        // Each representation and filter needs its own strong tag
+        String filterTag = filter.isEmpty() ? null : ETags.digest(filter.from(), filter.to(), filter.type(),
+                filter.minAmount(), filter.maxAmount(), filter.description());
+        Optional<String> etag = getTransactionHistoryUseCase.getHistoryVersion(iban)
+                .map(version -> ETags.of(Stream.concat(
+                                Stream.of(String.valueOf(version), String.valueOf(page), String.valueOf(size), filterTag),
+                                Stream.of(representationTag))
+                        .filter(Objects::nonNull)
+                        .toArray(String[]::new)));
+        if (etag.isPresent() && ETags.matches(ifNoneMatch, etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+        }
+
         Pageable pageable = PageRequest.of(page, size);
-        Page<TransactionHistoryResponse> historyPage =
-                getTransactionHistoryUseCase.getTransactionHistory(iban, pageable);
-        if (historyPage.isEmpty()) {
+        Page<TransactionHistoryResponse> historyPage = filter.isEmpty()
+                ? getTransactionHistoryUseCase.getTransactionHistory(iban, pageable)
+                : searchTransactionHistoryUseCase.searchTransactionHistory(iban, filter, pageable);
+        // A filter may legitimately match nothing on a known account
+        if (historyPage.isEmpty() && (filter.isEmpty() || etag.isEmpty())) {
             throw new IllegalArgumentException("No transaction history found for the specified IBAN");
         }
-        return ResponseEntity.ok(historyPage);
+        return withETag(ResponseEntity.ok(), etag).body(representation.apply(historyPage));
     }
-}
\ No newline at end of file
+}
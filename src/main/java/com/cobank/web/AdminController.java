@@ -0,0 +1,87 @@
+package com.cobank.web;
+
+import com.cobank.api.AdminApi;
+import com.cobank.api.dto.BatchPostingRequest;
+import com.cobank.api.dto.ContendedAccountResponse;
+import com.cobank.api.dto.HistoryArchiveResponse;
+import com.cobank.api.dto.HistoryIngestResponse;
+import com.cobank.api.dto.JobRunResponse;
+import com.cobank.api.dto.ReadModelRebuildResponse;
+import com.cobank.api.dto.RollupBackfillResponse;
+import com.cobank.service.archive.HistoryArchiveService;
+import com.cobank.service.batch.BatchPostingService;
+import com.cobank.service.chain.HistoryChainService;
+import com.cobank.service.contention.ContentionTracker;
+import com.cobank.service.ingest.LegacyHistoryIngestService;
+import com.cobank.service.job.RangeJobRunner;
+import com.cobank.service.readmodel.ReadModelRebuildService;
+import com.cobank.service.reconciliation.ReconciliationService;
+import com.cobank.service.rollup.RollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class AdminController implements AdminApi {
+
+    private final ReadModelRebuildService readModelRebuildService;
+    private final RollupService rollupService;
+    private final ReconciliationService reconciliationService;
+    private final RangeJobRunner rangeJobRunner;
+    private final LegacyHistoryIngestService legacyHistoryIngestService;
+    private final BatchPostingService batchPostingService;
+    private final HistoryChainService historyChainService;
+    private final HistoryArchiveService historyArchiveService;
+    private final ContentionTracker contentionTracker;
+
+    @Override
+    public ResponseEntity<ReadModelRebuildResponse> rebuildReadModel() {
+        return ResponseEntity.ok(readModelRebuildService.rebuild());
+    }
+
+    @Override
+    public ResponseEntity<RollupBackfillResponse> backfillRollups() {
+        return ResponseEntity.ok(rollupService.backfill());
+    }
+
+    @Override
+    public ResponseEntity<JobRunResponse> startReconciliation() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reconciliationService.startReconciliation());
+    }
+
+    @Override
+    public ResponseEntity<JobRunResponse> startHistoryChainVerification() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(historyChainService.startVerification());
+    }
+
+    @Override
+    public ResponseEntity<JobRunResponse> startBatchPosting(BatchPostingRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(batchPostingService.start(request));
+    }
+
+    @Override
+    public ResponseEntity<JobRunResponse> getJobRun(long runId) {
+        return rangeJobRunner.findRun(runId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    @Override
+    public ResponseEntity<List<ContendedAccountResponse>> getContendedAccounts() {
+        return ResponseEntity.ok(contentionTracker.topAccounts());
+    }
+
+    @Override
+    public ResponseEntity<HistoryArchiveResponse> archiveHistory() {
+        return ResponseEntity.ok(historyArchiveService.archive());
+    }
+
+    @Override
+    public ResponseEntity<HistoryIngestResponse> ingestHistory(String file) {
+        return ResponseEntity.ok(legacyHistoryIngestService.ingest(file));
+    }
+}
@@ -0,0 +1,65 @@
+package com.cobank.web;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Builds strong entity tags from account versions and evaluates {@code If-None-Match} against them.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(String... parts) {
+        return "\"" + String.join("-", parts) + "\"";
+    }
+
+    /**
+     * Condenses request parameters into one tag part. The values are hashed with SHA-256 in a canonical form, so
+     * different parameters never share a tag while equal amounts written differently, such as 10 and 10.00, do.
+     */
+    static String digest(Object... values) {
+        StringBuilder canonical = new StringBuilder();
+        for (Object value : values) {
+            String text = value == null ? null
+                    : value instanceof BigDecimal amount ? amount.stripTrailingZeros().toPlainString()
+                    : value.toString();
+            // Length prefixed, so no two lists of values read the same
+            canonical.append(text == null ? "-" : text.length() + ":" + text).append(';');
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * Uses the weak comparison that RFC 9110 prescribes for {@code If-None-Match}, so a {@code W/} prefix added by an
+     * intermediary still matches.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,5 +1,6 @@
 package com.cobank.web;
 
+import com.cobank.service.sharding.DirectoryShardOnlyException;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -32,6 +33,11 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>("Invalid request: " + ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(DirectoryShardOnlyException.class)
+    public ResponseEntity<String> handleDirectoryShardOnlyException(DirectoryShardOnlyException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(DataAccessException.class)
     public ResponseEntity<String> handleDatabaseException(DataAccessException ex) {
         return new ResponseEntity<>("Data access error. Please try again later.", HttpStatus.SERVICE_UNAVAILABLE);
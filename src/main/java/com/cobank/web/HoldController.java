@@ -0,0 +1,52 @@
+package com.cobank.web;
+
+import com.cobank.api.HoldApi;
+import com.cobank.api.dto.CaptureHoldRequest;
+import com.cobank.api.dto.HoldRequest;
+import com.cobank.api.dto.HoldResponse;
+import com.cobank.service.AuthorizeHoldUseCase;
+import com.cobank.service.CaptureHoldUseCase;
+import com.cobank.service.GetHoldUseCase;
+import com.cobank.service.ReleaseHoldUseCase;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class HoldController implements HoldApi {
+
+    private final AuthorizeHoldUseCase authorizeHoldUseCase;
+    private final GetHoldUseCase getHoldUseCase;
+    private final CaptureHoldUseCase captureHoldUseCase;
+    private final ReleaseHoldUseCase releaseHoldUseCase;
+
+    @Override
+    public ResponseEntity<HoldResponse> authorizeHold(HoldRequest request) {
+        return authorizeHoldUseCase.authorizeHold(request)
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    @Override
+    public ResponseEntity<HoldResponse> getHold(long id) {
+        return getHoldUseCase.getHold(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    @Override
+    public ResponseEntity<HoldResponse> captureHold(long id, CaptureHoldRequest request) {
+        return captureHoldUseCase.captureHold(id, request)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    @Override
+    public ResponseEntity<HoldResponse> releaseHold(long id) {
+        return releaseHoldUseCase.releaseHold(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+}
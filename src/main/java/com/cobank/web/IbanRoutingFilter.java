@@ -0,0 +1,158 @@
+package com.cobank.web;
+
+import com.cobank.service.routing.IbanRouter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Sends postings to the node that owns their IBAN. Runs after the security filters, so only authenticated requests
+ * are routed, and the owner authenticates the forwarded request again with the original credentials.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "routing.enabled", havingValue = "true")
+public class IbanRoutingFilter extends OncePerRequestFilter {
+
+    static final String FORWARDED_BY_HEADER = "X-Cobank-Forwarded-By";
+    private static final String ROUTED_PATH = "/transactions";
+    private static final List<String> FORWARDED_HEADERS =
+            List.of(HttpHeaders.AUTHORIZATION, HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT);
+
+    private final IbanRouter ibanRouter;
+    private final RestClient routingRestClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean redirect;
+
+    public IbanRoutingFilter(IbanRouter ibanRouter,
+                             @Qualifier("routingRestClient") RestClient routingRestClient,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${routing.mode:forward}") String mode) {
+        this.ibanRouter = ibanRouter;
+        this.routingRestClient = routingRestClient;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.redirect = "redirect".equals(mode);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !ROUTED_PATH.equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Ring views can briefly differ between nodes; a forwarded request is never forwarded again
+        if (request.getHeader(FORWARDED_BY_HEADER) != null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        HttpServletRequest replayable = new CachedBodyRequest(request, body);
+        Optional<String> owner = extractIban(body).flatMap(ibanRouter::remoteOwner);
+        if (owner.isEmpty()) {
+            count("local");
+            chain.doFilter(replayable, response);
+            return;
+        }
+
+        String target = owner.get() + request.getRequestURI();
+        if (redirect) {
+            count("redirected");
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader(HttpHeaders.LOCATION, target);
+            return;
+        }
+
+        try {
+            forward(request, response, target, body);
+            count("forwarded");
+        } catch (ResourceAccessException ex) {
+            if (!isConnectFailure(ex)) {
+                // The owner may have applied the posting, so retrying locally could post it twice
+                log.error("Forwarded posting to {} did not complete: {}", target, ex.getMessage());
+                count("failed");
+                response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(), "Owning node did not respond");
+                return;
+            }
+            // The row lock still serializes postings, so an unreachable owner only costs affinity
+            log.warn("Owner {} is unreachable, processing posting locally: {}", owner.get(), ex.getMessage());
+            count("fallback");
+            chain.doFilter(replayable, response);
+        }
+    }
+
+    private void forward(HttpServletRequest request, HttpServletResponse response, String target, byte[] body) {
+        routingRestClient.post()
+                .uri(target)
+                .headers(headers -> {
+                    FORWARDED_HEADERS.forEach(name -> {
+                        String value = request.getHeader(name);
+                        if (value != null) {
+                            headers.set(name, value);
+                        }
+                    });
+                    headers.set(FORWARDED_BY_HEADER, ibanRouter.self());
+                })
+                .body(body)
+                .exchange((forwardedRequest, ownerResponse) -> {
+                    response.setStatus(ownerResponse.getStatusCode().value());
+                    if (ownerResponse.getHeaders().getContentType() != null) {
+                        response.setContentType(ownerResponse.getHeaders().getContentType().toString());
+                    }
+                    StreamUtils.copy(ownerResponse.getBody(), response.getOutputStream());
+                    return null;
+                });
+    }
+
+    private Optional<String> extractIban(byte[] body) {
+        try {
+            JsonNode tree = objectMapper.readTree(body);
+            JsonNode iban = tree == null ? null : tree.path("iban");
+            return iban != null && iban.isTextual() ? Optional.of(iban.asText()) : Optional.empty();
+        } catch (IOException ex) {
+            // Malformed bodies are rejected by the controller on this node
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isConnectFailure(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("cobank.routing.requests", "outcome", outcome).increment();
+    }
+}
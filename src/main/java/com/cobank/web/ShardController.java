@@ -0,0 +1,31 @@
+package com.cobank.web;
+
+import com.cobank.api.ShardApi;
+import com.cobank.api.dto.ShardMoveRequest;
+import com.cobank.api.dto.ShardMoveResponse;
+import com.cobank.api.dto.ShardRangeResponse;
+import com.cobank.service.sharding.ShardRebalancer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardController implements ShardApi {
+
+    private final ShardRebalancer shardRebalancer;
+
+    @Override
+    public ResponseEntity<List<ShardRangeResponse>> getShardRanges() {
+        return ResponseEntity.ok(shardRebalancer.ranges());
+    }
+
+    @Override
+    public ResponseEntity<ShardMoveResponse> moveRange(ShardMoveRequest request) {
+        return ResponseEntity.ok(shardRebalancer.move(request));
+    }
+}
@@ -0,0 +1,42 @@
+package com.cobank.web;
+
+import com.cobank.api.StandingOrderApi;
+import com.cobank.api.dto.StandingOrderRequest;
+import com.cobank.api.dto.StandingOrderResponse;
+import com.cobank.service.CancelStandingOrderUseCase;
+import com.cobank.service.GetStandingOrdersUseCase;
+import com.cobank.service.ScheduleStandingOrderUseCase;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class StandingOrderController implements StandingOrderApi {
+
+    private final ScheduleStandingOrderUseCase scheduleStandingOrderUseCase;
+    private final GetStandingOrdersUseCase getStandingOrdersUseCase;
+    private final CancelStandingOrderUseCase cancelStandingOrderUseCase;
+
+    @Override
+    public ResponseEntity<StandingOrderResponse> scheduleStandingOrder(StandingOrderRequest request) {
+        return scheduleStandingOrderUseCase.scheduleStandingOrder(request)
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    @Override
+    public ResponseEntity<List<StandingOrderResponse>> getStandingOrders(String iban) {
+        return ResponseEntity.ok(getStandingOrdersUseCase.getStandingOrders(iban));
+    }
+
+    @Override
+    public ResponseEntity<StandingOrderResponse> cancelStandingOrder(long id) {
+        return cancelStandingOrderUseCase.cancelStandingOrder(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+}
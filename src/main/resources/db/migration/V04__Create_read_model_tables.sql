@@ -0,0 +1,20 @@
+CREATE TABLE account_balance_view
+(
+    iban           VARCHAR(34)    PRIMARY KEY,
+    balance        NUMERIC(15, 2) NOT NULL,
+    last_posted_at TIMESTAMP      NOT NULL,
+    projected_at   TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE transaction_history_view
+(
+    history_id        UUID PRIMARY KEY,
+    iban              VARCHAR(34)    NOT NULL,
+    transaction_type  VARCHAR(20)    NOT NULL,
+    amount            DECIMAL(15, 2) NOT NULL,
+    resulting_balance DECIMAL(15, 2) NOT NULL,
+    timestamp         TIMESTAMP      NOT NULL,
+    description       TEXT
+);
+
+CREATE INDEX idx_history_view_iban_timestamp ON transaction_history_view (iban, timestamp DESC);
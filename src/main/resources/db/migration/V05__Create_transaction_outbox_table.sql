@@ -0,0 +1,11 @@
+CREATE TABLE transaction_outbox
+(
+    id           BIGSERIAL PRIMARY KEY,
+    iban         VARCHAR(34) NOT NULL,
+    event_type   VARCHAR(50) NOT NULL,
+    payload      TEXT        NOT NULL,
+    created_at   TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP
+);
+
+CREATE INDEX idx_outbox_unpublished ON transaction_outbox (id) WHERE published_at IS NULL;
@@ -0,0 +1,12 @@
+CREATE TABLE account_daily_rollup
+(
+    iban             VARCHAR(34)    NOT NULL,
+    day              DATE           NOT NULL,
+    deposit_total    NUMERIC(17, 2) NOT NULL DEFAULT 0,
+    deposit_count    INTEGER        NOT NULL DEFAULT 0,
+    withdrawal_total NUMERIC(17, 2) NOT NULL DEFAULT 0,
+    withdrawal_count INTEGER        NOT NULL DEFAULT 0,
+    closing_balance  NUMERIC(15, 2) NOT NULL,
+    last_posted_at   TIMESTAMP      NOT NULL,
+    PRIMARY KEY (iban, day)
+);
@@ -0,0 +1,14 @@
+CREATE TABLE balance_checkpoint
+(
+    iban          VARCHAR(34)    NOT NULL,
+    checkpoint_at TIMESTAMP      NOT NULL,
+    balance       NUMERIC(15, 2) NOT NULL,
+    PRIMARY KEY (iban, checkpoint_at)
+);
+
+-- The latest checkpoint, where the next checkpoint run starts
+CREATE INDEX idx_balance_checkpoint_at ON balance_checkpoint (checkpoint_at);
+
+-- Checkpoint runs read the postings of a time window across all accounts. History is appended in time order,
+-- so block ranges serve those windows at a fraction of a B-tree's size.
+CREATE INDEX idx_history_timestamp_brin ON transaction_history USING BRIN (timestamp);
@@ -0,0 +1,39 @@
+CREATE TABLE job_run
+(
+    id           BIGSERIAL PRIMARY KEY,
+    job_type     VARCHAR(50) NOT NULL,
+    parameters   TEXT,
+    status       VARCHAR(20) NOT NULL,
+    started_at   TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    finished_at  TIMESTAMP,
+    -- The node running it, which renews its lease by the heartbeat while it does
+    owner        VARCHAR(36),
+    heartbeat_at TIMESTAMP
+);
+
+CREATE INDEX idx_job_run_type_status ON job_run (job_type, status);
+
+CREATE TABLE job_range
+(
+    run_id       BIGINT      NOT NULL REFERENCES job_run (id),
+    range_start  BIGINT      NOT NULL,
+    range_end    BIGINT      NOT NULL,
+    status       VARCHAR(20) NOT NULL,
+    processed    BIGINT      NOT NULL DEFAULT 0,
+    findings     BIGINT      NOT NULL DEFAULT 0,
+    completed_at TIMESTAMP,
+    PRIMARY KEY (run_id, range_start)
+);
+
+CREATE TABLE reconciliation_discrepancy
+(
+    id                     BIGSERIAL PRIMARY KEY,
+    run_id                 BIGINT         NOT NULL REFERENCES job_run (id),
+    iban                   VARCHAR(34)    NOT NULL,
+    account_balance        NUMERIC(15, 2) NOT NULL,
+    last_resulting_balance NUMERIC(15, 2),
+    net_flow               NUMERIC(17, 2) NOT NULL,
+    detected_at            TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_discrepancy_run ON reconciliation_discrepancy (run_id);
@@ -0,0 +1,18 @@
+CREATE TABLE history_ingest_checkpoint
+(
+    source           VARCHAR(255) PRIMARY KEY,
+    source_size      BIGINT    NOT NULL,
+    committed_lines  BIGINT    NOT NULL DEFAULT 0,
+    rows_ingested    BIGINT    NOT NULL DEFAULT 0,
+    indexes_deferred BOOLEAN   NOT NULL DEFAULT FALSE,
+    started_at       TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at       TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at     TIMESTAMP
+);
+
+CREATE TABLE history_ingest_account
+(
+    source VARCHAR(255) NOT NULL REFERENCES history_ingest_checkpoint (source),
+    iban   VARCHAR(34)  NOT NULL,
+    PRIMARY KEY (source, iban)
+);
@@ -0,0 +1,8 @@
+ALTER TABLE accounts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE account_balance_view ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+UPDATE account_balance_view v
+SET version = a.version
+FROM accounts a
+WHERE a.iban = v.iban;
@@ -0,0 +1,5 @@
+CREATE TABLE cluster_node
+(
+    node_url     VARCHAR(255) PRIMARY KEY,
+    heartbeat_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,56 @@
+-- The account key is the account number of the IBAN (iban.account-number-length trailing digits)
+ALTER TABLE accounts
+    ADD COLUMN account_key BIGINT GENERATED ALWAYS AS (CAST(RIGHT(iban, ${account_number_length}) AS BIGINT)) STORED;
+
+CREATE UNIQUE INDEX idx_accounts_account_key ON accounts (account_key);
+
+-- Fixed-width columns first, so rows carry no alignment padding
+CREATE TABLE transaction_history_compact
+(
+    id                UUID PRIMARY KEY,
+    account_key       BIGINT         NOT NULL,
+    timestamp         TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    type_code         SMALLINT       NOT NULL CHECK (type_code IN (0, 1)),
+    amount            NUMERIC(15, 2) NOT NULL,
+    resulting_balance NUMERIC(15, 2) NOT NULL,
+    description       TEXT
+);
+
+-- Descriptions that only restate type and amount are derived on read, so a missing one is kept as empty
+INSERT INTO transaction_history_compact (id, account_key, timestamp, type_code, amount, resulting_balance, description)
+SELECT id,
+       CAST(RIGHT(iban, ${account_number_length}) AS BIGINT),
+       timestamp,
+       CASE transaction_type WHEN 'DEPOSIT' THEN 0 ELSE 1 END,
+       amount,
+       resulting_balance,
+       CASE
+           WHEN description IS NULL THEN ''
+           WHEN description = transaction_type || ' transaction of ' || TO_CHAR(amount, 'FM9999999999999990.00')
+               THEN NULL
+           ELSE description
+           END
+FROM transaction_history;
+
+DROP TABLE transaction_history;
+ALTER TABLE transaction_history_compact RENAME TO transaction_history;
+ALTER INDEX transaction_history_compact_pkey RENAME TO transaction_history_pkey;
+
+CREATE INDEX idx_account_key_timestamp ON transaction_history (account_key, timestamp DESC);
+-- Dropped with the old table, see V07
+CREATE INDEX idx_history_timestamp_brin ON transaction_history USING BRIN (timestamp);
+
+-- The history in its API shape, for rebuilds and ad-hoc queries
+CREATE VIEW transaction_history_expanded AS
+SELECT h.id,
+       a.iban,
+       h.account_key,
+       CASE h.type_code WHEN 0 THEN 'DEPOSIT' ELSE 'WITHDRAWAL' END AS transaction_type,
+       h.amount,
+       h.resulting_balance,
+       h.timestamp,
+       COALESCE(h.description,
+                CASE h.type_code WHEN 0 THEN 'DEPOSIT' ELSE 'WITHDRAWAL' END
+                    || ' transaction of ' || TO_CHAR(h.amount, 'FM9999999999999990.00')) AS description
+FROM transaction_history h
+         JOIN accounts a ON a.account_key = h.account_key;
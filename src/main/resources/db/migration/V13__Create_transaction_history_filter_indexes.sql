@@ -0,0 +1,28 @@
+-- Both extensions are trusted, so the database owner can create them
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+-- Type filter, still ordered by time within the account
+CREATE INDEX idx_history_account_type_timestamp ON transaction_history (account_key, type_code, timestamp DESC);
+
+-- Amount ranges within an account
+CREATE INDEX idx_history_account_amount ON transaction_history (account_key, amount);
+
+-- The description as served, derived from type and amount when none is stored. Must match
+-- TransactionHistory#defaultDescription; the cast to text keeps the two decimals of the column.
+CREATE FUNCTION history_description(type_code SMALLINT, amount NUMERIC, description TEXT)
+    RETURNS TEXT
+    LANGUAGE sql
+    IMMUTABLE
+AS
+$$
+SELECT COALESCE(description,
+                CASE type_code WHEN 0 THEN 'DEPOSIT' ELSE 'WITHDRAWAL' END
+                    || ' transaction of ' || CAST(CAST(amount AS NUMERIC(15, 2)) AS TEXT))
+$$;
+
+-- Description text within an account, stored or derived
+CREATE INDEX idx_history_account_description_trgm ON transaction_history
+    USING GIN (account_key, history_description(type_code, amount, description) gin_trgm_ops);
+
+-- Time windows across all accounts use idx_history_timestamp_brin, see V07
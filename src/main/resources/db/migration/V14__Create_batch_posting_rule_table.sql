@@ -0,0 +1,10 @@
+-- Rules of batch postings, referenced from job_run.parameters by their reference
+CREATE TABLE batch_posting_rule
+(
+    reference   VARCHAR(100) PRIMARY KEY,
+    kind        VARCHAR(20)  NOT NULL,
+    rate        NUMERIC(12, 8),
+    amount      NUMERIC(15, 2),
+    description VARCHAR(255),
+    created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,22 @@
+-- Recurring and future-dated postings. Execution n is due at start_at plus n periods of the frequency.
+CREATE TABLE standing_order
+(
+    id               BIGSERIAL PRIMARY KEY,
+    account_key      BIGINT         NOT NULL REFERENCES accounts (account_key),
+    type_code        SMALLINT       NOT NULL CHECK (type_code IN (0, 1)),
+    amount           NUMERIC(15, 2) NOT NULL CHECK (amount > 0),
+    frequency        VARCHAR(10)    NOT NULL,
+    start_at         TIMESTAMP      NOT NULL,
+    end_at           TIMESTAMP,
+    description      VARCHAR(255),
+    status           VARCHAR(20)    NOT NULL DEFAULT 'ACTIVE',
+    next_due_at      TIMESTAMP      NOT NULL,
+    executions       INTEGER        NOT NULL DEFAULT 0,
+    last_executed_at TIMESTAMP,
+    last_outcome     VARCHAR(30),
+    created_at       TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Schedulers claim in due order, and finished orders drop out of the index
+CREATE INDEX idx_standing_order_due ON standing_order (next_due_at, id) WHERE status = 'ACTIVE';
+CREATE INDEX idx_standing_order_account ON standing_order (account_key);
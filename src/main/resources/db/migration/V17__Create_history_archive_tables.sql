@@ -0,0 +1,52 @@
+-- Immutable segment files holding history rows older than the hot window, see HistoryArchiveService
+CREATE TABLE history_archive_segment
+(
+    id              BIGSERIAL PRIMARY KEY,
+    file_name       VARCHAR(255) NOT NULL UNIQUE,
+    archived_before TIMESTAMP    NOT NULL,
+    min_account_key BIGINT       NOT NULL,
+    max_account_key BIGINT       NOT NULL,
+    row_count       BIGINT       NOT NULL,
+    size_bytes      BIGINT       NOT NULL,
+    sha256          BYTEA        NOT NULL,
+    created_at      TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- What the archive holds per account, so reconciliation and chain verification need not read the segments
+CREATE TABLE history_archive_account
+(
+    account_key            BIGINT PRIMARY KEY,
+    archived_rows          BIGINT         NOT NULL,
+    net_flow               NUMERIC(15, 2) NOT NULL,
+    last_resulting_balance NUMERIC(15, 2) NOT NULL,
+    last_posted_at         TIMESTAMP      NOT NULL,
+    last_hash              BYTEA
+);
+
+-- The oldest hot row of an archived account links to the hash of its latest archived row
+CREATE OR REPLACE FUNCTION rechain_history(p_account_key BIGINT)
+    RETURNS BYTEA
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    entry RECORD;
+    head  BYTEA;
+BEGIN
+    SELECT last_hash INTO head FROM history_archive_account WHERE account_key = p_account_key;
+    FOR entry IN SELECT id, timestamp, type_code, amount, resulting_balance, description
+                 FROM transaction_history
+                 WHERE account_key = p_account_key
+                 ORDER BY timestamp, id
+        LOOP
+            UPDATE transaction_history
+            SET prev_hash = head,
+                hash      = history_hash(head, p_account_key, entry.timestamp, entry.type_code, entry.amount,
+                                         entry.resulting_balance, entry.description)
+            WHERE id = entry.id
+            RETURNING hash INTO head;
+        END LOOP;
+    UPDATE accounts SET history_hash = head WHERE account_key = p_account_key;
+    RETURN head;
+END
+$$;
@@ -0,0 +1,21 @@
+-- Funds reserved by active holds. The available balance of an account is balance - held_amount.
+ALTER TABLE accounts
+    ADD COLUMN held_amount NUMERIC(15, 2) NOT NULL DEFAULT 0 CHECK (held_amount >= 0);
+
+-- Authorized amounts that are later captured as a withdrawal, released, or expire
+CREATE TABLE fund_hold
+(
+    id              BIGSERIAL PRIMARY KEY,
+    account_key     BIGINT         NOT NULL,
+    amount          NUMERIC(15, 2) NOT NULL CHECK (amount > 0),
+    reference       VARCHAR(255),
+    status          VARCHAR(20)    NOT NULL DEFAULT 'ACTIVE',
+    expires_at      TIMESTAMP      NOT NULL,
+    captured_amount NUMERIC(15, 2),
+    settled_at      TIMESTAMP,
+    created_at      TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- The sweeper claims in expiry order, and settled holds drop out of the index
+CREATE INDEX idx_fund_hold_expiry ON fund_hold (expires_at, id) WHERE status = 'ACTIVE';
+CREATE INDEX idx_fund_hold_account ON fund_hold (account_key);
@@ -0,0 +1,13 @@
+-- Directory of the shard that holds each range of account keys, read from the directory shard only.
+-- Open ranges hand out their keys to new accounts from next_key on, next_key is NULL once a range is closed.
+CREATE TABLE shard_range
+(
+    start_key BIGINT PRIMARY KEY,
+    end_key   BIGINT      NOT NULL,
+    shard     VARCHAR(64) NOT NULL,
+    next_key  BIGINT,
+    status    VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    CHECK (end_key >= start_key)
+);
+
+CREATE INDEX idx_shard_range_open ON shard_range (shard, start_key) WHERE next_key IS NOT NULL;
@@ -0,0 +1,13 @@
+-- The read model serves balances on its own, so it keeps the held amount and accounts without postings as well
+ALTER TABLE account_balance_view
+    ADD COLUMN held_amount NUMERIC(15, 2) NOT NULL DEFAULT 0,
+    ALTER COLUMN last_posted_at DROP NOT NULL;
+
+INSERT INTO account_balance_view (iban, balance, held_amount, version, projected_at)
+SELECT iban, balance, held_amount, version, CURRENT_TIMESTAMP
+FROM accounts
+ON CONFLICT (iban) DO UPDATE
+    SET balance = EXCLUDED.balance,
+        held_amount = EXCLUDED.held_amount,
+        version = EXCLUDED.version
+    WHERE account_balance_view.version <= EXCLUDED.version;
@@ -0,0 +1,2 @@
+-- The relay claims an account's messages only from its oldest unpublished one
+CREATE INDEX idx_outbox_unpublished_iban ON transaction_outbox (iban, id) WHERE published_at IS NULL;
@@ -0,0 +1,102 @@
+package com.cobank.api.dto;
+
+import com.cobank.domain.TransactionTypeCodeConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class CompactHistoryPageBenchmarkTest {
+
+    private static final String IBAN = "NL00COOP1234567890";
+    private static final int PAGE_SIZE = 500;
+    private static final int ITERATIONS = 200;
+
+    private final ObjectMapper jsonMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final CBORMapper cborMapper = new CBORMapper();
+
+    @Test
+    void of_ShouldEncodeDeltasAndCents_Losslessly() throws Exception {
+        Page<TransactionHistoryResponse> page = historyPage(3);
+
+        CompactHistoryPage compact = cborMapper.readValue(
+                cborMapper.writeValueAsBytes(CompactHistoryPage.of(IBAN, page)), CompactHistoryPage.class);
+
+        assertEquals(IBAN, compact.iban());
+        assertEquals(CompactHistoryPage.toEpochMicros(page.getContent().get(0).timestamp()), compact.newestTimestamp());
+        long timestamp = compact.newestTimestamp();
+        for (int i = 0; i < page.getNumberOfElements(); i++) {
+            TransactionHistoryResponse expected = page.getContent().get(i);
+            CompactHistoryPage.Entry entry = compact.entries().get(i);
+            timestamp -= entry.elapsedMicros();
+            assertEquals(CompactHistoryPage.toEpochMicros(expected.timestamp()), timestamp);
+            assertEquals(expected.transactionType(),
+                    TransactionTypeCodeConverter.INSTANCE.convertToEntityAttribute((short) entry.type()));
+            assertEquals(expected.amount(), BigDecimal.valueOf(entry.amountCents(), 2));
+            assertEquals(expected.resultingBalance(), BigDecimal.valueOf(entry.resultingBalanceCents(), 2));
+            assertEquals(expected.description(), entry.description());
+        }
+    }
+
+    @Test
+    void compactCbor_ShouldBeSmallerAndCheaperThanJsonPage() throws Exception {
+        Page<TransactionHistoryResponse> page = historyPage(PAGE_SIZE);
+
+        byte[] json = jsonMapper.writeValueAsBytes(page);
+        byte[] cbor = cborMapper.writeValueAsBytes(CompactHistoryPage.of(IBAN, page));
+
+        long jsonNanos = measure(() -> jsonMapper.writeValueAsBytes(page));
+        long cborNanos = measure(() -> cborMapper.writeValueAsBytes(CompactHistoryPage.of(IBAN, page)));
+
+        log.info("History page of {} entries: JSON {} bytes in {} us, compact CBOR {} bytes in {} us",
+                PAGE_SIZE, json.length, jsonNanos / 1_000, cbor.length, cborNanos / 1_000);
+        assertTrue(cbor.length * 2 < json.length, "compact page should be less than half the JSON size");
+    }
+
+    private long measure(ThrowingRunnable serialization) throws Exception {
+        for (int i = 0; i < ITERATIONS; i++) {
+            serialization.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            serialization.run();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    private Page<TransactionHistoryResponse> historyPage(int size) {
+        List<TransactionHistoryResponse> content = new ArrayList<>(size);
+        LocalDateTime timestamp = LocalDateTime.of(2024, 11, 8, 10, 30, 0, 123_456_000);
+        BigDecimal balance = BigDecimal.valueOf(1_000_000, 2);
+        for (int i = 0; i < size; i++) {
+            TransactionType type = i % 3 == 0 ? TransactionType.WITHDRAWAL : TransactionType.DEPOSIT;
+            BigDecimal amount = BigDecimal.valueOf(1_000 + i * 37L, 2);
+            content.add(new TransactionHistoryResponse(IBAN, type, amount, balance, timestamp,
+                    String.format("%s transaction of %.2f", type, amount)));
+            balance = type == TransactionType.DEPOSIT ? balance.subtract(amount) : balance.add(amount);
+            timestamp = timestamp.minusSeconds(97 + i % 3_600).minusNanos(1_000L * i);
+        }
+        return new PageImpl<>(content, PageRequest.of(0, size), 10_000);
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,139 @@
+package com.cobank.repository;
+
+import com.cobank.api.dto.HoldStatus;
+import com.cobank.api.dto.TransactionType;
+import com.cobank.domain.HistoryChain;
+import com.cobank.repository.FundHoldRepository.ExpiredHold;
+import com.cobank.service.transaction.TransactionPostedEvent;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers
+class FundHoldRepositoryTest {
+
+    private static final long ACCOUNT_KEY = 1234567890L;
+    private static final String IBAN = "NL00COOP1234567890";
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("cobankdb_test")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static FundHoldRepository fundHoldRepository;
+
+    @BeforeAll
+    static void init() {
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration")
+                .placeholders(Map.of("account_number_length", "10"))
+                .load()
+                .migrate();
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+        fundHoldRepository = new FundHoldRepository(jdbcTemplate);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE fund_hold, standing_order, transaction_history, accounts");
+        jdbcTemplate.update("""
+                INSERT INTO accounts (id, iban, first_name, address, email, balance, version)
+                VALUES (gen_random_uuid(), ?, 'Ann', 'Main Street 1', 'ann@example.com', 100, 0)
+                """, IBAN);
+    }
+
+    @Test
+    void authorizeReservesOnlyTheAvailableBalance() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusDays(1);
+
+        assertTrue(fundHoldRepository.authorize(ACCOUNT_KEY, new BigDecimal("60.00"), "Hotel", now, expiresAt).isPresent());
+        assertFalse(fundHoldRepository.authorize(ACCOUNT_KEY, new BigDecimal("40.01"), null, now, expiresAt).isPresent());
+        assertTrue(fundHoldRepository.authorize(ACCOUNT_KEY, new BigDecimal("40.00"), null, now, expiresAt).isPresent());
+
+        Map<String, Object> account = account();
+        assertEquals(new BigDecimal("100.00"), account.get("balance"));
+        assertEquals(new BigDecimal("100.00"), account.get("held_amount"));
+        assertEquals(2L, account.get("version"));
+    }
+
+    @Test
+    void partialCapturePostsTheAmountAndReleasesTheRest() {
+        long id = fundHoldRepository.authorize(ACCOUNT_KEY, new BigDecimal("60.00"), "Hotel",
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1)).orElseThrow();
+        LocalDateTime capturedAt = HistoryChain.timestamp(LocalDateTime.now());
+
+        TransactionPostedEvent posting = fundHoldRepository.capture(id, new BigDecimal("45.50"), null, capturedAt)
+                .orElseThrow();
+
+        assertEquals(new BigDecimal("45.50"), posting.amount());
+        assertEquals(new BigDecimal("54.50"), posting.resultingBalance());
+        assertEquals("Hotel", posting.description());
+        Map<String, Object> account = account();
+        assertEquals(new BigDecimal("54.50"), account.get("balance"));
+        assertEquals(new BigDecimal("0.00"), account.get("held_amount"));
+        byte[] expected = HistoryChain.hash(null, ACCOUNT_KEY, capturedAt, TransactionType.WITHDRAWAL,
+                new BigDecimal("45.50"), new BigDecimal("54.50"), "Hotel");
+        assertArrayEquals(expected, (byte[]) account.get("history_hash"));
+        assertArrayEquals(expected, jdbcTemplate.queryForObject(
+                "SELECT hash FROM transaction_history WHERE id = ?", byte[].class, posting.historyId()));
+        assertEquals(HoldStatus.CAPTURED, fundHoldRepository.findById(id).orElseThrow().status());
+        assertTrue(fundHoldRepository.capture(id, null, null, capturedAt).isEmpty());
+    }
+
+    @Test
+    void captureCannotExceedTheHold() {
+        long id = fundHoldRepository.authorize(ACCOUNT_KEY, new BigDecimal("10.00"), null,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1)).orElseThrow();
+
+        assertTrue(fundHoldRepository.capture(id, new BigDecimal("10.01"), null, LocalDateTime.now()).isEmpty());
+        assertEquals(HoldStatus.ACTIVE, fundHoldRepository.findById(id).orElseThrow().status());
+    }
+
+    @Test
+    void releaseAndExpiryReturnTheHeldAmount() {
+        LocalDateTime now = HistoryChain.timestamp(LocalDateTime.now());
+        long released = fundHoldRepository.authorize(ACCOUNT_KEY, new BigDecimal("10.00"), null, now, now.plusDays(1))
+                .orElseThrow();
+        long lapsed = fundHoldRepository.authorize(ACCOUNT_KEY, new BigDecimal("20.00"), null, now, now.plusMinutes(1))
+                .orElseThrow();
+        fundHoldRepository.authorize(ACCOUNT_KEY, new BigDecimal("30.00"), null, now, now.plusMinutes(2)).orElseThrow();
+
+        assertTrue(fundHoldRepository.release(released, now));
+        assertFalse(fundHoldRepository.release(released, now));
+        assertEquals(List.of(new ExpiredHold(IBAN, new BigDecimal("20.00"), now)),
+                fundHoldRepository.expire(now.plusMinutes(1), 10));
+        assertEquals(List.of(), fundHoldRepository.expire(now.plusMinutes(1), 10));
+
+        assertEquals(HoldStatus.RELEASED, fundHoldRepository.findById(released).orElseThrow().status());
+        assertEquals(HoldStatus.EXPIRED, fundHoldRepository.findById(lapsed).orElseThrow().status());
+        assertEquals(new BigDecimal("30.00"), account().get("held_amount"));
+        assertTrue(fundHoldRepository.capture(lapsed, null, null, now).isEmpty());
+    }
+
+    private static Map<String, Object> account() {
+        return jdbcTemplate.queryForMap(
+                "SELECT balance, held_amount, version, history_hash FROM accounts WHERE account_key = ?", ACCOUNT_KEY);
+    }
+}
@@ -0,0 +1,100 @@
+package com.cobank.repository;
+
+import com.cobank.api.dto.TransactionType;
+import com.cobank.domain.HistoryChain;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Checks that the {@code history_hash} database function, used by set-based postings and rechaining, hashes exactly
+ * like {@link HistoryChain}.
+ */
+@Testcontainers
+class HistoryChainFunctionTest {
+
+    private static final long ACCOUNT_KEY = 1234567890L;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("cobankdb_test")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void init() {
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration")
+                .placeholders(Map.of("account_number_length", "10"))
+                .load()
+                .migrate();
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+    }
+
+    @Test
+    void functionMatchesJavaHash() {
+        byte[] previous = HistoryChain.hash(null, ACCOUNT_KEY, LocalDateTime.of(2024, 1, 1, 0, 0),
+                TransactionType.DEPOSIT, new BigDecimal("1.00"), new BigDecimal("1.00"), null);
+        LocalDateTime timestamp = LocalDateTime.of(2024, 12, 31, 23, 59, 59, 999_999_000);
+
+        for (String description : new String[]{null, "", "Rent € 1/2"}) {
+            for (byte[] previousHash : new byte[][]{null, previous}) {
+                byte[] expected = HistoryChain.hash(previousHash, ACCOUNT_KEY, timestamp, TransactionType.WITHDRAWAL,
+                        new BigDecimal("12.5"), new BigDecimal("1000"), description);
+                byte[] actual = jdbcTemplate.queryForObject(
+                        "SELECT history_hash(?, ?, ?, CAST(? AS SMALLINT), ?, ?, ?)", byte[].class,
+                        previousHash, ACCOUNT_KEY, Timestamp.valueOf(timestamp), 1, new BigDecimal("12.5"),
+                        new BigDecimal("1000"), description);
+                assertArrayEquals(expected, actual, () -> "Description " + description);
+            }
+        }
+    }
+
+    @Test
+    void rechainLinksRowsInPostingOrderAndStoresTheHead() {
+        jdbcTemplate.update("""
+                INSERT INTO accounts (id, iban, first_name, address, email, balance, version)
+                VALUES (gen_random_uuid(), 'NL00COOP1234567890', 'Ann', 'Main Street 1', 'ann@example.com', 30, 0)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO transaction_history (id, account_key, timestamp, type_code, amount, resulting_balance, description)
+                SELECT gen_random_uuid(), ?, TIMESTAMP '2024-01-01' + i * INTERVAL '1 day', 0, 10, 10 * i, NULL
+                FROM generate_series(1, 3) AS i
+                """, ACCOUNT_KEY);
+
+        byte[] head = jdbcTemplate.queryForObject("SELECT rechain_history(?)", byte[].class, ACCOUNT_KEY);
+
+        byte[] expected = null;
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT timestamp, prev_hash, hash FROM transaction_history WHERE account_key = ? ORDER BY timestamp",
+                ACCOUNT_KEY);
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> row = rows.get(i);
+            assertArrayEquals(expected, (byte[]) row.get("prev_hash"));
+            expected = HistoryChain.hash(expected, ACCOUNT_KEY, ((Timestamp) row.get("timestamp")).toLocalDateTime(),
+                    TransactionType.DEPOSIT, BigDecimal.TEN, BigDecimal.TEN.multiply(BigDecimal.valueOf(i + 1)), null);
+            assertArrayEquals(expected, (byte[]) row.get("hash"));
+        }
+        assertArrayEquals(expected, head);
+        assertArrayEquals(expected, jdbcTemplate.queryForObject(
+                "SELECT history_hash FROM accounts WHERE account_key = ?", byte[].class, ACCOUNT_KEY));
+    }
+}
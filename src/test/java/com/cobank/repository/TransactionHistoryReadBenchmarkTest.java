@@ -0,0 +1,164 @@
+package com.cobank.repository;
+
+import com.cobank.api.dto.TransactionHistoryFilter;
+import com.cobank.api.dto.TransactionHistoryResponse;
+import com.cobank.domain.TransactionHistory;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares reading a history page through {@link TransactionHistory} entities, as history reads used to, with the
+ * projection read of {@link TransactionHistorySearchRepository}, with and without an exact count. Runs with
+ * {@code -Pbenchmarks}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@Testcontainers
+class TransactionHistoryReadBenchmarkTest {
+
+    private static final String IBAN = "NL00COOP0000000042";
+    private static final long ACCOUNT_KEY = 42;
+    private static final int POSTINGS = 5_000;
+    private static final int ITERATIONS = 50;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("cobankdb_test")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readTransaction;
+
+    @BeforeAll
+    static void init() {
+        System.setProperty("spring.datasource.url", postgres.getJdbcUrl());
+        System.setProperty("spring.datasource.username", postgres.getUsername());
+        System.setProperty("spring.datasource.password", postgres.getPassword());
+    }
+
+    @BeforeEach
+    void setUp() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        jdbcTemplate.update("DELETE FROM transaction_history WHERE account_key = ?", ACCOUNT_KEY);
+        jdbcTemplate.update("""
+                        INSERT INTO transaction_history (id, account_key, timestamp, type_code, amount, resulting_balance, description)
+                        SELECT gen_random_uuid(), ?, TIMESTAMP '2024-01-01' + i * INTERVAL '1 minute', (i % 2)::smallint,
+                               10 + i % 90, 1000 + i, CASE WHEN i % 3 = 0 THEN 'Invoice ' || i END
+                        FROM generate_series(1, ?) AS i
+                        """,
+                ACCOUNT_KEY, POSTINGS);
+        jdbcTemplate.execute("ANALYZE transaction_history");
+    }
+
+    @Test
+    void projectionReadOf100RowsIsCheaperThanEntityRead() {
+        compare(PageRequest.of(3, 100));
+    }
+
+    @Test
+    void projectionReadOf1000RowsIsCheaperThanEntityRead() {
+        compare(PageRequest.of(2, 1000));
+    }
+
+    private void compare(Pageable pageable) {
+        TransactionHistorySearchRepository exact = new TransactionHistorySearchRepository(jdbcTemplate, true);
+        TransactionHistorySearchRepository uncounted = new TransactionHistorySearchRepository(jdbcTemplate, false);
+
+        Page<TransactionHistoryResponse> entityPage = readTransaction.execute(status -> entityRead(pageable));
+        Page<TransactionHistoryResponse> projectionPage = exact.search(IBAN, ACCOUNT_KEY, TransactionHistoryFilter.NONE, pageable);
+        assertEquals(entityPage.getContent(), projectionPage.getContent());
+        assertEquals(POSTINGS, projectionPage.getTotalElements());
+        assertTrue(uncounted.search(IBAN, ACCOUNT_KEY, TransactionHistoryFilter.NONE, pageable).hasNext());
+
+        Measurement entities = measure(() -> readTransaction.execute(status -> entityRead(pageable)));
+        Measurement projection = measure(() -> readTransaction.execute(status ->
+                exact.search(IBAN, ACCOUNT_KEY, TransactionHistoryFilter.NONE, pageable)));
+        Measurement projectionUncounted = measure(() -> readTransaction.execute(status ->
+                uncounted.search(IBAN, ACCOUNT_KEY, TransactionHistoryFilter.NONE, pageable)));
+
+        log.info("History page of {} rows: entities {}, projection {}, projection without count {}",
+                pageable.getPageSize(), entities, projection, projectionUncounted);
+        assertTrue(projection.allocatedBytes() < entities.allocatedBytes(),
+                "projection should allocate less than entity hydration");
+        assertTrue(projectionUncounted.allocatedBytes() < entities.allocatedBytes(),
+                "projection should allocate less than entity hydration");
+    }
+
+    private Page<TransactionHistoryResponse> entityRead(Pageable pageable) {
+        List<TransactionHistoryResponse> content = entityManager.createQuery(
+                        "SELECT h FROM TransactionHistory h WHERE h.accountKey = :accountKey ORDER BY h.timestamp DESC",
+                        TransactionHistory.class)
+                .setParameter("accountKey", ACCOUNT_KEY)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultStream()
+                .map(history -> new TransactionHistoryResponse(IBAN, history.getTransactionType(), history.getAmount(),
+                        history.getResultingBalance(), history.getTimestamp(), history.getDescription()))
+                .toList();
+        long total = entityManager.createQuery(
+                        "SELECT COUNT(h) FROM TransactionHistory h WHERE h.accountKey = :accountKey", Long.class)
+                .setParameter("accountKey", ACCOUNT_KEY)
+                .getSingleResult();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private static Measurement measure(Supplier<?> read) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < ITERATIONS; i++) {
+            read.get();
+        }
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            read.get();
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Measurement(nanos / ITERATIONS, allocated / ITERATIONS);
+    }
+
+    private record Measurement(long nanos, long allocatedBytes) {
+
+        @Override
+        public String toString() {
+            return "%d us and %d KiB per page".formatted(nanos / 1_000, allocatedBytes / 1_024);
+        }
+    }
+}
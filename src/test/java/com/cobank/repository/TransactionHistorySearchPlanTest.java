@@ -0,0 +1,141 @@
+package com.cobank.repository;
+
+import com.cobank.api.dto.TransactionHistoryFilter;
+import com.cobank.api.dto.TransactionType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks on a realistically sized table that every history filter is answered through an index rather than a
+ * sequential scan of {@code transaction_history}.
+ */
+@Testcontainers
+class TransactionHistorySearchPlanTest {
+
+    private static final long ACCOUNT_KEY = 7;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("cobankdb_test")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    private static JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void init() {
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration")
+                .placeholders(Map.of("account_number_length", "10"))
+                .load()
+                .migrate();
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+
+        // 50 accounts with 10,000 postings each, one minute apart, and a free-text description on every 53rd posting
+        jdbcTemplate.update("""
+                INSERT INTO transaction_history (id, account_key, timestamp, type_code, amount, resulting_balance, description)
+                SELECT gen_random_uuid(), i % 50, TIMESTAMP '2024-01-01' + i * INTERVAL '1 minute', (i % 2)::smallint,
+                       ((i * 7919) % 100000) / 100.0, 1000, CASE WHEN i % 53 = 0 THEN 'Invoice ' || i END
+                FROM generate_series(1, 500000) AS i
+                """);
+        jdbcTemplate.execute("ANALYZE transaction_history");
+    }
+
+    @Test
+    void dateRangeUsesIndex() throws Exception {
+        assertIndexDriven(new TransactionHistoryFilter(START.plusDays(30), START.plusDays(31), null, null, null, null));
+    }
+
+    @Test
+    void typeUsesIndex() throws Exception {
+        assertIndexDriven(new TransactionHistoryFilter(null, null, TransactionType.WITHDRAWAL, null, null, null));
+    }
+
+    @Test
+    void amountRangeUsesIndex() throws Exception {
+        assertIndexDriven(new TransactionHistoryFilter(null, null, null,
+                new BigDecimal("990.00"), new BigDecimal("995.00"), null));
+    }
+
+    @Test
+    void descriptionUsesTrigramIndex() throws Exception {
+        // Posting 1007 belongs to account 7 and carries a description
+        List<String> indexes = assertIndexDriven(
+                new TransactionHistoryFilter(null, null, null, null, null, "Invoice 1007"));
+        assertTrue(indexes.contains("idx_history_account_description_trgm"), () -> "Indexes used: " + indexes);
+    }
+
+    @Test
+    void derivedDescriptionUsesTrigramIndex() throws Exception {
+        List<String> indexes = assertIndexDriven(
+                new TransactionHistoryFilter(null, null, null, null, null, "WITHDRAWAL transaction of 9"));
+        assertTrue(indexes.contains("idx_history_account_description_trgm"), () -> "Indexes used: " + indexes);
+    }
+
+    @Test
+    void combinedFiltersUseIndex() throws Exception {
+        assertIndexDriven(new TransactionHistoryFilter(START.plusDays(10), START.plusDays(200), TransactionType.DEPOSIT,
+                new BigDecimal("100.00"), new BigDecimal("500.00"), null));
+    }
+
+    @Test
+    void timeWindowAcrossAccountsUsesBrinIndex() throws Exception {
+        JsonNode plan = explain("SELECT COUNT(*) FROM transaction_history WHERE timestamp >= ? AND timestamp < ?",
+                Timestamp.valueOf(START.plusDays(100)), Timestamp.valueOf(START.plusDays(101)));
+        List<String> indexes = new ArrayList<>();
+        assertFalse(containsSeqScan(plan, indexes), () -> "Sequential scan: " + plan);
+        assertTrue(indexes.contains("idx_history_timestamp_brin"), () -> "Indexes used: " + indexes);
+    }
+
+    private List<String> assertIndexDriven(TransactionHistoryFilter filter) throws Exception {
+        TransactionHistorySearchRepository.Query query = TransactionHistorySearchRepository.where(ACCOUNT_KEY, filter);
+        List<Object> args = new ArrayList<>(query.args());
+        args.add(20);
+        args.add(0);
+
+        List<String> indexes = new ArrayList<>();
+        JsonNode plan = explain(TransactionHistorySearchRepository.pageSql(query), args.toArray());
+        assertFalse(containsSeqScan(plan, indexes), () -> "Sequential scan for " + filter + ": " + plan);
+        assertFalse(indexes.isEmpty(), () -> "No index used for " + filter + ": " + plan);
+        return indexes;
+    }
+
+    private JsonNode explain(String sql, Object... args) throws Exception {
+        String json = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, args);
+        return objectMapper.readTree(json).get(0).get("Plan");
+    }
+
+    private static boolean containsSeqScan(JsonNode node, List<String> indexes) {
+        if (node.has("Index Name")) {
+            indexes.add(node.get("Index Name").asText());
+        }
+        boolean seqScan = "Seq Scan".equals(node.path("Node Type").asText());
+        for (JsonNode child : node.path("Plans")) {
+            seqScan |= containsSeqScan(child, indexes);
+        }
+        return seqScan;
+    }
+}
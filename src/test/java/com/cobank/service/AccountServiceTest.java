@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -31,6 +32,9 @@ class AccountServiceTest {
     @Mock
     private IbanService ibanService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -66,6 +70,7 @@ class AccountServiceTest {
         assertEquals(mockAccount.getAddress(), response.get().address());
 
         verify(accountRepository, times(1)).save(any(Account.class));
+        verify(eventPublisher).publishEvent(new AccountChangedEvent(generatedIban));
     }
 
     @Test
@@ -107,6 +112,28 @@ class AccountServiceTest {
         verify(accountRepository, times(1)).findByIban(iban);
     }
 
+    @Test
+    void getBalanceByIban_ShouldSubtractHolds_FromAvailableBalance() {
+        // Arrange
+        String iban = "NL00COOP1234567890";
+        Account mockAccount = Account.builder()
+                .id(UUID.randomUUID())
+                .iban(iban)
+                .balance(new BigDecimal("501.00"))
+                .heldAmount(new BigDecimal("120.50"))
+                .build();
+
+        when(accountRepository.findByIban(iban)).thenReturn(Optional.of(mockAccount));
+
+        // Act
+        Optional<FetchBalanceResponse> balanceResponse = accountService.getBalanceByIban(iban);
+
+        // Assert
+        assertTrue(balanceResponse.isPresent());
+        assertEquals(new BigDecimal("501.00"), balanceResponse.get().balance());
+        assertEquals(new BigDecimal("380.50"), balanceResponse.get().availableBalance());
+    }
+
     @Test
     void getBalanceByIban_ShouldReturnEmpty_WhenAccountDoesNotExist() {
         // Arrange
@@ -0,0 +1,138 @@
+package com.cobank.service.archive;
+
+import com.cobank.api.dto.TransactionHistoryFilter;
+import com.cobank.api.dto.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArchiveSegmentTest {
+
+    private static final LocalDateTime NEWEST = LocalDateTime.of(2024, 6, 30, 23, 59, 59, 123_456_000);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void rowsOfAnAccountReadBackNewestFirstAcrossBlocks() throws IOException {
+        List<ArchivedRow> rows = new ArrayList<>();
+        rows.addAll(account(10, 3));
+        rows.addAll(account(20, 5_000));
+        rows.addAll(account(30, 1));
+        ArchiveSegmentFile file = write(rows);
+
+        ArchiveSegment segment = ArchiveSegment.open(directory.resolve(file.fileName()));
+
+        assertEquals(10, file.minAccountKey());
+        assertEquals(30, file.maxAccountKey());
+        assertEquals(5_004, file.rows());
+        assertEquals(Files.size(directory.resolve(file.fileName())), file.sizeBytes());
+        assertSameRows(rows.subList(0, 3), segment.read(10));
+        assertSameRows(rows.subList(3, 5_003), segment.read(20));
+        assertSameRows(rows.subList(5_003, 5_004), segment.read(30));
+        assertTrue(segment.read(15).isEmpty());
+        assertTrue(segment.read(5).isEmpty());
+        assertTrue(segment.read(31).isEmpty());
+    }
+
+    @Test
+    void segmentIsOnlyVisibleOnceFinished() throws IOException {
+        Path file = directory.resolve("history.seg");
+        try (ArchiveSegmentWriter writer = new ArchiveSegmentWriter(file)) {
+            writer.append(account(1, 1).get(0));
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void unsortedRowsAreRejected() throws IOException {
+        try (ArchiveSegmentWriter writer = new ArchiveSegmentWriter(directory.resolve("history.seg"))) {
+            writer.append(account(2, 1).get(0));
+
+            assertThrows(IllegalArgumentException.class, () -> writer.append(account(1, 1).get(0)));
+        }
+    }
+
+    @Test
+    void archivedRowsMatchFiltersLikeTheSearch() {
+        ArchivedRow row = account(1, 1).get(0);
+
+        assertTrue(row.matches(TransactionHistoryFilter.NONE));
+        assertTrue(row.matches(new TransactionHistoryFilter(NEWEST, null, TransactionType.DEPOSIT, null, null, "rent")));
+        assertFalse(row.matches(new TransactionHistoryFilter(null, NEWEST, null, null, null, null)));
+        assertFalse(row.matches(new TransactionHistoryFilter(null, null, null, new BigDecimal("10.01"), null, null)));
+        assertFalse(account(2, 2).get(1).matches(new TransactionHistoryFilter(null, null, null, null, null, "rent")));
+        assertTrue(account(2, 2).get(1).matches(
+                new TransactionHistoryFilter(null, null, null, null, null, "withdrawal transaction of 11")));
+        assertEquals("WITHDRAWAL transaction of 11.00", account(2, 2).get(1).toResponse("NL00COOP0000000002").description());
+    }
+
+    private ArchiveSegmentFile write(List<ArchivedRow> rows) throws IOException {
+        try (ArchiveSegmentWriter writer = new ArchiveSegmentWriter(directory.resolve("history.seg"))) {
+            for (ArchivedRow row : rows) {
+                writer.append(row);
+            }
+            return writer.finish();
+        }
+    }
+
+    private static List<ArchivedRow> account(long accountKey, int postings) {
+        List<ArchivedRow> rows = new ArrayList<>();
+        byte[] hash = null;
+        for (int i = 0; i < postings; i++) {
+            byte[] previous = i + 1 < postings ? UUID.randomUUID().toString().getBytes() : null;
+            boolean deposit = i % 2 == 0;
+            rows.add(new ArchivedRow(
+                    UUID.randomUUID(),
+                    accountKey,
+                    NEWEST.minusMinutes(i),
+                    deposit ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL,
+                    new BigDecimal(10 + i).setScale(2),
+                    new BigDecimal("1000.50").subtract(BigDecimal.valueOf(i)),
+                    deposit ? "Rent € " + i : null,
+                    previous,
+                    hash == null ? new byte[32] : hash));
+            hash = previous;
+        }
+        return rows;
+    }
+
+    private static void assertSameRows(List<ArchivedRow> expected, List<ArchivedRow> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            ArchivedRow want = expected.get(i);
+            ArchivedRow got = actual.get(i);
+            assertEquals(want.id(), got.id());
+            assertEquals(want.accountKey(), got.accountKey());
+            assertEquals(want.timestamp(), got.timestamp());
+            assertEquals(want.type(), got.type());
+            assertEquals(want.amount(), got.amount());
+            assertEquals(0, want.resultingBalance().compareTo(got.resultingBalance()));
+            assertEquals(want.storedDescription(), got.storedDescription());
+            assertArrayEquals(want.prevHash(), got.prevHash());
+            assertArrayEquals(want.hash(), got.hash());
+        }
+        if (!expected.isEmpty() && expected.get(expected.size() - 1).prevHash() == null) {
+            assertNull(actual.get(actual.size() - 1).prevHash());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.cobank.service.batch;
+
+import com.cobank.api.dto.BatchPostingKind;
+import com.cobank.api.dto.BatchPostingRequest;
+import com.cobank.api.dto.JobRunResponse;
+import com.cobank.repository.BatchPostingRepository;
+import com.cobank.repository.JobRunRepository;
+import com.cobank.service.job.RangeJobRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchPostingServiceTest {
+
+    private final BatchPostingRequest interest = new BatchPostingRequest(
+            "interest-2024-11", BatchPostingKind.INTEREST, new BigDecimal("0.0025"), null, null);
+
+    @InjectMocks
+    private BatchPostingService batchPostingService;
+
+    @Mock
+    private RangeJobRunner rangeJobRunner;
+
+    @Mock
+    private BatchPostingJob batchPostingJob;
+
+    @Mock
+    private BatchPostingRepository batchPostingRepository;
+
+    @Mock
+    private JobRunRepository jobRunRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(batchPostingRepository.findRule(any())).thenReturn(Optional.empty());
+        when(jobRunRepository.findUnfinishedRun(BatchPostingJob.JOB_TYPE)).thenReturn(Optional.empty());
+        when(jobRunRepository.findLatestRun(any(), any())).thenReturn(Optional.empty());
+        when(rangeJobRunner.findRun(any(Long.class))).thenAnswer(invocation -> Optional.of(run(invocation.getArgument(0))));
+    }
+
+    @Test
+    void start_ShouldSaveRuleAndStartRun() {
+        when(rangeJobRunner.start(batchPostingJob, interest.reference())).thenReturn(5L);
+
+        JobRunResponse run = batchPostingService.start(interest);
+
+        assertEquals(5L, run.runId());
+        verify(batchPostingRepository).saveRule(interest);
+    }
+
+    @Test
+    void start_ShouldReturnCompletedRunOfSameReference() {
+        when(batchPostingRepository.findRule(interest.reference())).thenReturn(Optional.of(interest));
+        when(jobRunRepository.findLatestRun(BatchPostingJob.JOB_TYPE, interest.reference())).thenReturn(Optional.of(3L));
+
+        JobRunResponse run = batchPostingService.start(interest);
+
+        assertEquals(3L, run.runId());
+        verify(rangeJobRunner, never()).start(any(), any());
+    }
+
+    @Test
+    void start_ShouldResumeUnfinishedRunOfSameReference() {
+        when(batchPostingRepository.findRule(interest.reference())).thenReturn(Optional.of(interest));
+        when(jobRunRepository.findUnfinishedRun(BatchPostingJob.JOB_TYPE)).thenReturn(Optional.of(3L));
+        when(jobRunRepository.findParameters(3L)).thenReturn(Optional.of(interest.reference()));
+        when(jobRunRepository.findLatestRun(BatchPostingJob.JOB_TYPE, interest.reference())).thenReturn(Optional.of(3L));
+        when(rangeJobRunner.start(batchPostingJob, interest.reference())).thenReturn(3L);
+
+        assertEquals(3L, batchPostingService.start(interest).runId());
+        verify(batchPostingRepository, never()).saveRule(any());
+    }
+
+    @Test
+    void start_ShouldRejectReferenceReusedForAnotherRule() {
+        when(batchPostingRepository.findRule(interest.reference())).thenReturn(Optional.of(new BatchPostingRequest(
+                interest.reference(), BatchPostingKind.INTEREST, new BigDecimal("0.0030"), null, null)));
+
+        assertThrows(IllegalArgumentException.class, () -> batchPostingService.start(interest));
+    }
+
+    @Test
+    void start_ShouldRejectWhileAnotherPostingIsUnfinished() {
+        when(jobRunRepository.findUnfinishedRun(BatchPostingJob.JOB_TYPE)).thenReturn(Optional.of(2L));
+        when(jobRunRepository.findParameters(2L)).thenReturn(Optional.of("fee-2024-10"));
+
+        assertThrows(IllegalArgumentException.class, () -> batchPostingService.start(interest));
+        verify(rangeJobRunner, never()).start(any(), any());
+    }
+
+    @Test
+    void start_ShouldRejectIncompleteRules() {
+        assertThrows(IllegalArgumentException.class, () -> batchPostingService.start(new BatchPostingRequest(
+                "fee-2024-11", BatchPostingKind.FEE, null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> batchPostingService.start(new BatchPostingRequest(
+                "interest-2024-12", BatchPostingKind.INTEREST, BigDecimal.ZERO, null, null)));
+    }
+
+    private static JobRunResponse run(long runId) {
+        return new JobRunResponse(runId, BatchPostingJob.JOB_TYPE, "RUNNING", 10, 0, 0, 0, LocalDateTime.now(), null);
+    }
+}
@@ -0,0 +1,84 @@
+package com.cobank.service.bulkhead;
+
+import com.cobank.api.dto.FetchBalanceResponse;
+import com.cobank.api.dto.TransactionHistoryResponse;
+import com.cobank.api.dto.TransactionResponse;
+import com.cobank.service.FetchBalanceUseCase;
+import com.cobank.service.GetTransactionHistoryUseCase;
+import com.cobank.service.ProcessTransactionUseCase;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BulkheadAspectTest {
+
+    private final List<Bulkhead> observed = new ArrayList<>();
+
+    @Test
+    void selectsBulkheadFromUseCaseInterface() {
+        ProcessTransactionUseCase posting = proxy((ProcessTransactionUseCase) request -> {
+            observed.add(BulkheadRoutingDataSource.current());
+            return Optional.empty();
+        });
+        FetchBalanceUseCase balance = proxy((FetchBalanceUseCase) iban -> {
+            observed.add(BulkheadRoutingDataSource.current());
+            return Optional.of(new FetchBalanceResponse(iban, BigDecimal.ONE));
+        });
+        GetTransactionHistoryUseCase history = proxy(new GetTransactionHistoryUseCase() {
+            @Override
+            public Page<TransactionHistoryResponse> getTransactionHistory(String iban, Pageable pageable) {
+                observed.add(BulkheadRoutingDataSource.current());
+                return Page.empty(pageable);
+            }
+
+            @Override
+            public Optional<Long> getHistoryVersion(String iban) {
+                observed.add(BulkheadRoutingDataSource.current());
+                return Optional.of(1L);
+            }
+        });
+
+        posting.processTransaction(null);
+        balance.getBalanceByIban("NL00COOP0000000001");
+        history.getHistoryVersion("NL00COOP0000000001");
+        history.getTransactionHistory("NL00COOP0000000001", PageRequest.of(0, 10));
+
+        assertEquals(List.of(Bulkhead.POSTING, Bulkhead.BALANCE, Bulkhead.HISTORY, Bulkhead.HISTORY), observed);
+        assertNull(BulkheadRoutingDataSource.current());
+    }
+
+    @Test
+    void restoresOuterBulkheadAfterNestedCall() {
+        FetchBalanceUseCase balance = proxy((FetchBalanceUseCase) iban -> {
+            observed.add(BulkheadRoutingDataSource.current());
+            return Optional.empty();
+        });
+        ProcessTransactionUseCase posting = proxy((ProcessTransactionUseCase) request -> {
+            balance.getBalanceByIban("NL00COOP0000000001");
+            observed.add(BulkheadRoutingDataSource.current());
+            return Optional.of(new TransactionResponse("NL00COOP0000000001", BigDecimal.ONE, "ok"));
+        });
+
+        posting.processTransaction(null);
+
+        assertEquals(List.of(Bulkhead.BALANCE, Bulkhead.POSTING), observed);
+        assertNull(BulkheadRoutingDataSource.current());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new BulkheadAspect());
+        return (T) factory.getProxy();
+    }
+}
@@ -0,0 +1,151 @@
+package com.cobank.service.chain;
+
+import com.cobank.api.dto.TransactionType;
+import com.cobank.domain.HistoryChain;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryChainTest {
+
+    private static final long ACCOUNT_KEY = 42;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 9, 0, 0, 123_456_789);
+    private static final int ITERATIONS = 100_000;
+
+    @Test
+    void hashCoversPredecessorAndStoredContents() {
+        byte[] first = hash(null, "10.00", null);
+
+        assertArrayEquals(first, HistoryChain.hash(null, ACCOUNT_KEY, START.withNano(123_456_000), TransactionType.DEPOSIT,
+                new BigDecimal("10"), new BigDecimal("110.000"), null));
+        assertFalse(Arrays.equals(first, hash(first, "10.00", null)));
+        assertFalse(Arrays.equals(first, hash(null, "10.01", null)));
+        assertFalse(Arrays.equals(first, hash(null, "10.00", "")));
+    }
+
+    @Test
+    void intactChainHasNoViolations() {
+        List<Row> rows = chain(5);
+        AccountChainCheck check = check(rows);
+
+        // Rows may arrive in any order
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            add(check, rows.get(i));
+        }
+
+        assertTrue(check.finish().isEmpty());
+    }
+
+    @Test
+    void alteredRowIsReported() {
+        List<Row> rows = chain(5);
+        AccountChainCheck check = check(rows);
+
+        rows.forEach(row -> check.add(row.id(), row.previous(), row.hash(),
+                row == rows.get(2) ? hash(row.previous(), "99.00", null) : row.hash()));
+
+        assertEquals(List.of(new ChainViolation(ACCOUNT_KEY, rows.get(2).id(), ChainViolation.Kind.HASH_MISMATCH)),
+                check.finish());
+    }
+
+    @Test
+    void removedRowBreaksTheLinkOfItsSuccessor() {
+        List<Row> rows = chain(5);
+        AccountChainCheck check = check(rows);
+
+        rows.stream().filter(row -> row != rows.get(1)).forEach(row -> add(check, row));
+
+        List<ChainViolation> violations = check.finish();
+        assertEquals(3, violations.stream().filter(violation -> violation.kind() == ChainViolation.Kind.BROKEN_LINK).count());
+        assertTrue(violations.contains(new ChainViolation(ACCOUNT_KEY, null, ChainViolation.Kind.HEAD_MISMATCH)));
+    }
+
+    @Test
+    void removedLatestRowMissesTheHead() {
+        List<Row> rows = chain(3);
+        AccountChainCheck check = check(rows);
+
+        add(check, rows.get(0));
+        add(check, rows.get(1));
+
+        assertEquals(List.of(new ChainViolation(ACCOUNT_KEY, null, ChainViolation.Kind.HEAD_MISMATCH)), check.finish());
+    }
+
+    @Test
+    void insertedRowForksTheChain() {
+        List<Row> rows = chain(3);
+        AccountChainCheck check = check(rows);
+        UUID inserted = UUID.randomUUID();
+        byte[] insertedHash = hash(rows.get(0).hash(), "1.00", null);
+
+        rows.forEach(row -> add(check, row));
+        check.add(inserted, rows.get(0).hash(), insertedHash, insertedHash);
+
+        List<ChainViolation> violations = check.finish();
+        assertTrue(violations.contains(new ChainViolation(ACCOUNT_KEY, inserted, ChainViolation.Kind.FORK)));
+    }
+
+    @Test
+    void chainContinuesFromLatestArchivedRow() {
+        List<Row> rows = chain(5);
+        AccountChainCheck check = new AccountChainCheck(ACCOUNT_KEY, rows.get(1).hash(), rows.get(4).hash());
+
+        rows.subList(2, 5).forEach(row -> add(check, row));
+
+        assertTrue(check.finish().isEmpty());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void hashingCostPerPostingStaysSmall() {
+        byte[] previous = hash(null, "10.00", null);
+        for (int i = 0; i < ITERATIONS; i++) {
+            previous = hash(previous, "10.00", "Rent");
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            previous = hash(previous, "10.00", "Rent");
+        }
+        long nanos = (System.nanoTime() - start) / ITERATIONS;
+
+        assertTrue(nanos < 50_000, () -> nanos + " ns per hash");
+    }
+
+    private static List<Row> chain(int length) {
+        List<Row> rows = new ArrayList<>();
+        byte[] previous = null;
+        for (int i = 0; i < length; i++) {
+            byte[] hash = hash(previous, "10.00", null);
+            rows.add(new Row(UUID.randomUUID(), previous, hash));
+            previous = hash;
+        }
+        return rows;
+    }
+
+    private static AccountChainCheck check(List<Row> rows) {
+        return new AccountChainCheck(ACCOUNT_KEY, null, rows.get(rows.size() - 1).hash());
+    }
+
+    private static void add(AccountChainCheck check, Row row) {
+        check.add(row.id(), row.previous(), row.hash(), row.hash());
+    }
+
+    private static byte[] hash(byte[] previous, String amount, String description) {
+        return HistoryChain.hash(previous, ACCOUNT_KEY, START, TransactionType.DEPOSIT, new BigDecimal(amount),
+                new BigDecimal("110.00"), description);
+    }
+
+    private record Row(UUID id, byte[] previous, byte[] hash) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.cobank.service.checkpoint;
+
+import com.cobank.api.dto.FetchBalanceResponse;
+import com.cobank.domain.Account;
+import com.cobank.repository.AccountRepository;
+import com.cobank.repository.BalanceCheckpointRepository;
+import com.cobank.service.archive.HistoryArchive;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BalanceCheckpointServiceTest {
+
+    private final String iban = "NL00COOP1234567890";
+    private final LocalDateTime asOf = LocalDateTime.of(2024, 11, 8, 10, 30);
+
+    @Mock
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private HistoryArchive historyArchive;
+
+    private BalanceCheckpointService balanceCheckpointService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        balanceCheckpointService = new BalanceCheckpointService(
+                balanceCheckpointRepository, accountRepository, historyArchive, Duration.ofMinutes(5));
+        when(accountRepository.findByIban(iban)).thenReturn(Optional.of(Account.builder()
+                .id(UUID.randomUUID())
+                .iban(iban)
+                .balance(BigDecimal.valueOf(900.0))
+                .build()));
+    }
+
+    @Test
+    void getBalanceAsOf_ShouldOnlyReadHistoryAfterCheckpoint() {
+        LocalDateTime checkpointAt = asOf.minusHours(10);
+        when(balanceCheckpointRepository.findLatestOnOrBefore(iban, asOf)).thenReturn(Optional.of(
+                new BalanceCheckpointRepository.Checkpoint(checkpointAt, BigDecimal.valueOf(500.0))));
+        when(balanceCheckpointRepository.findLastResultingBalance(iban, checkpointAt, asOf))
+                .thenReturn(Optional.of(BigDecimal.valueOf(650.0)));
+
+        Optional<FetchBalanceResponse> balance = balanceCheckpointService.getBalanceAsOf(iban, asOf);
+
+        assertTrue(balance.isPresent());
+        assertEquals(0, BigDecimal.valueOf(650.0).compareTo(balance.get().balance()));
+        verify(balanceCheckpointRepository).findLastResultingBalance(iban, checkpointAt, asOf);
+    }
+
+    @Test
+    void getBalanceAsOf_ShouldReturnCheckpointBalance_WhenNoPostingSinceCheckpoint() {
+        LocalDateTime checkpointAt = asOf.minusHours(10);
+        when(balanceCheckpointRepository.findLatestOnOrBefore(iban, asOf)).thenReturn(Optional.of(
+                new BalanceCheckpointRepository.Checkpoint(checkpointAt, BigDecimal.valueOf(500.0))));
+        when(balanceCheckpointRepository.findLastResultingBalance(iban, checkpointAt, asOf)).thenReturn(Optional.empty());
+
+        Optional<FetchBalanceResponse> balance = balanceCheckpointService.getBalanceAsOf(iban, asOf);
+
+        assertTrue(balance.isPresent());
+        assertEquals(0, BigDecimal.valueOf(500.0).compareTo(balance.get().balance()));
+    }
+
+    @Test
+    void getBalanceAsOf_ShouldPreferArchivedPostingOverOlderCheckpoint() {
+        LocalDateTime checkpointAt = asOf.minusDays(100);
+        when(balanceCheckpointRepository.findLatestOnOrBefore(iban, asOf)).thenReturn(Optional.of(
+                new BalanceCheckpointRepository.Checkpoint(checkpointAt, BigDecimal.valueOf(500.0))));
+        when(balanceCheckpointRepository.findLastResultingBalance(iban, checkpointAt, asOf)).thenReturn(Optional.empty());
+        when(historyArchive.findBalanceAsOf(iban, checkpointAt, asOf)).thenReturn(Optional.of(BigDecimal.valueOf(720.0)));
+
+        Optional<FetchBalanceResponse> balance = balanceCheckpointService.getBalanceAsOf(iban, asOf);
+
+        assertTrue(balance.isPresent());
+        assertEquals(0, BigDecimal.valueOf(720.0).compareTo(balance.get().balance()));
+    }
+
+    @Test
+    void getBalanceAsOf_ShouldReturnZero_BeforeFirstPosting() {
+        when(balanceCheckpointRepository.findLatestOnOrBefore(iban, asOf)).thenReturn(Optional.empty());
+        when(balanceCheckpointRepository.findLastResultingBalance(eq(iban), any(), eq(asOf))).thenReturn(Optional.empty());
+
+        Optional<FetchBalanceResponse> balance = balanceCheckpointService.getBalanceAsOf(iban, asOf);
+
+        assertTrue(balance.isPresent());
+        assertEquals(0, BigDecimal.ZERO.compareTo(balance.get().balance()));
+    }
+
+    @Test
+    void checkpoint_ShouldSkip_WhenPreviousCheckpointIsWithinSettleMargin() {
+        when(balanceCheckpointRepository.findLatestCheckpointTime()).thenReturn(Optional.of(LocalDateTime.now()));
+
+        balanceCheckpointService.checkpoint();
+
+        verify(balanceCheckpointRepository, never()).checkpointAccountsPostedBetween(any(), any());
+    }
+}
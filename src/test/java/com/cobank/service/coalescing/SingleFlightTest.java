@@ -0,0 +1,146 @@
+package com.cobank.service.coalescing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private static final int FOLLOWERS = 15;
+
+    private final SingleFlight singleFlight = new SingleFlight(Duration.ofSeconds(10));
+
+    @Test
+    void concurrentCallsWithTheSameKeyShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object value = new Object();
+        SingleFlight.Call call = () -> {
+            executions.incrementAndGet();
+            release.await();
+            return value;
+        };
+
+        CompletableFuture<SingleFlight.Result> leader = start(singleFlight, "NL00COOP0000000001", call);
+        List<CompletableFuture<SingleFlight.Result>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(startWaiting(singleFlight, "NL00COOP0000000001", call));
+        }
+        release.countDown();
+
+        assertEquals(SingleFlight.Outcome.EXECUTED, leader.get(10, TimeUnit.SECONDS).outcome());
+        for (CompletableFuture<SingleFlight.Result> follower : followers) {
+            SingleFlight.Result result = follower.get(10, TimeUnit.SECONDS);
+            assertEquals(SingleFlight.Outcome.SHARED, result.outcome());
+            assertSame(value, result.value());
+        }
+        assertEquals(1, executions.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void waitingCallersReceiveTheException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<SingleFlight.Result> leader = start(singleFlight, "key", () -> {
+            release.await();
+            throw new IllegalStateException("Database unavailable");
+        });
+        CompletableFuture<SingleFlight.Result> follower = startWaiting(singleFlight, "key", () -> "not executed");
+        release.countDown();
+
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(10, TimeUnit.SECONDS));
+        ExecutionException followerFailure = assertThrows(ExecutionException.class, () -> follower.get(10, TimeUnit.SECONDS));
+        assertTrue(leaderFailure.getCause() instanceof IllegalStateException);
+        assertSame(leaderFailure.getCause(), followerFailure.getCause());
+    }
+
+    @Test
+    void callsAfterCompletionExecuteAgain() throws Throwable {
+        AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute("key", executions::incrementAndGet);
+        SingleFlight.Result second = singleFlight.execute("key", executions::incrementAndGet);
+
+        assertEquals(2, second.value());
+        assertEquals(SingleFlight.Outcome.EXECUTED, second.outcome());
+    }
+
+    @Test
+    void differentKeysDoNotWaitForEachOther() throws Throwable {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<SingleFlight.Result> blocked = start(singleFlight, "page-0", () -> release.await(10, TimeUnit.SECONDS));
+        awaitInFlight(singleFlight);
+
+        SingleFlight.Result other = singleFlight.execute("page-1", () -> "page 1");
+
+        assertEquals(SingleFlight.Outcome.EXECUTED, other.outcome());
+        release.countDown();
+        blocked.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void callerThatWaitsTooLongExecutesItself() throws Throwable {
+        SingleFlight impatient = new SingleFlight(Duration.ofMillis(20));
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<SingleFlight.Result> stuck = start(impatient, "key", () -> release.await(10, TimeUnit.SECONDS));
+        awaitInFlight(impatient);
+
+        SingleFlight.Result result = impatient.execute("key", () -> "own");
+
+        assertEquals("own", result.value());
+        assertEquals(SingleFlight.Outcome.TIMED_OUT, result.outcome());
+        release.countDown();
+        stuck.get(10, TimeUnit.SECONDS);
+    }
+
+    private static CompletableFuture<SingleFlight.Result> start(SingleFlight singleFlight, Object key,
+                                                               SingleFlight.Call call) {
+        return spawn(singleFlight, key, call).result();
+    }
+
+    // Returns once the caller is parked on the in-flight execution
+    private static CompletableFuture<SingleFlight.Result> startWaiting(SingleFlight singleFlight, Object key,
+                                                                      SingleFlight.Call call) {
+        awaitInFlight(singleFlight);
+        Caller caller = spawn(singleFlight, key, call);
+        while (caller.thread().getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait();
+        }
+        return caller.result();
+    }
+
+    private static Caller spawn(SingleFlight singleFlight, Object key, SingleFlight.Call call) {
+        CompletableFuture<SingleFlight.Result> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                result.complete(singleFlight.execute(key, call));
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+        thread.start();
+        return new Caller(thread, result);
+    }
+
+    private static void awaitInFlight(SingleFlight singleFlight) {
+        while (singleFlight.inFlight() == 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private record Caller(Thread thread, CompletableFuture<SingleFlight.Result> result) {
+    }
+}
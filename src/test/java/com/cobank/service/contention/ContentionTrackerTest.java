@@ -0,0 +1,98 @@
+package com.cobank.service.contention;
+
+import com.cobank.api.dto.ContendedAccountResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentionTrackerTest {
+
+    private static final long WAIT = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ContentionTracker tracker = new ContentionTracker(meterRegistry, true, Duration.ofMillis(5), 5, 4, 1024);
+
+    @Test
+    void hotAccountsStandOutAmongManyColdAccounts() {
+        Set<String> hot = Set.of(iban(1), iban(2), iban(3), iban(4), iban(5));
+        for (int i = 0; i < 20_000; i++) {
+            tracker.recordLockWait(iban(1_000 + i), WAIT);
+            if (i % 100 == 0) {
+                hot.forEach(iban -> tracker.recordLockWait(iban, WAIT));
+                tracker.recordRetry(iban(1));
+            }
+        }
+
+        List<ContendedAccountResponse> top = tracker.topAccounts();
+
+        assertEquals(hot, top.stream().map(ContendedAccountResponse::iban).collect(Collectors.toSet()));
+        assertEquals(iban(1), top.get(0).iban());
+        assertEquals(200, top.get(0).retries());
+        assertEquals(21_000, meterRegistry.get("cobank.contention.lock-wait").timer().count());
+        assertEquals(top.get(0).estimatedEvents(), meterRegistry.get("cobank.contention.top-account.events")
+                .tag("rank", "1").gauge().value());
+    }
+
+    @Test
+    void shortLockWaitsAreNotContention() {
+        tracker.recordLockWait(iban(1), TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertTrue(tracker.topAccounts().isEmpty());
+        assertEquals(1, meterRegistry.get("cobank.contention.lock-wait").timer().count());
+    }
+
+    @Test
+    void lockWaitsAreDistributedOverBuckets() {
+        tracker.recordLockWait(iban(1), TimeUnit.MILLISECONDS.toNanos(7));
+        tracker.recordLockWait(iban(1), TimeUnit.MILLISECONDS.toNanos(70));
+        tracker.recordLockWait(iban(1), TimeUnit.MILLISECONDS.toNanos(72));
+        tracker.recordLockWait(iban(1), TimeUnit.SECONDS.toNanos(6));
+
+        ContendedAccountResponse account = tracker.topAccounts().get(0);
+
+        assertEquals(4, account.lockWaits());
+        assertEquals(6_149, account.totalLockWaitMillis());
+        assertEquals(6_000, account.maxLockWaitMillis());
+        List<ContendedAccountResponse.Bucket> buckets = account.lockWaitDistribution();
+        assertEquals(new ContendedAccountResponse.Bucket(10L, 1), buckets.get(2));
+        assertEquals(new ContendedAccountResponse.Bucket(100L, 2), buckets.get(4));
+        assertEquals(1, buckets.get(buckets.size() - 1).count());
+        assertNull(buckets.get(buckets.size() - 1).belowMillis());
+    }
+
+    @Test
+    void contentionFadesAway() {
+        tracker.recordLockWait(iban(1), WAIT);
+        tracker.recordLockWait(iban(1), WAIT);
+
+        tracker.decay();
+        assertEquals(1, tracker.topAccounts().get(0).estimatedEvents());
+        tracker.decay();
+        assertTrue(tracker.topAccounts().isEmpty());
+    }
+
+    @Test
+    void sketchNeverUndercounts() {
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        for (int i = 0; i < 1_000; i++) {
+            sketch.add(iban(i), i % 7 + 1);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(sketch.estimate(iban(i)) >= i % 7 + 1);
+        }
+    }
+
+    private static String iban(int number) {
+        return "NL00COOP%010d".formatted(number);
+    }
+}
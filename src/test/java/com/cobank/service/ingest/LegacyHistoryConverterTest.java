@@ -0,0 +1,63 @@
+package com.cobank.service.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LegacyHistoryConverterTest {
+
+    private final LegacyHistoryConverter converter = new LegacyHistoryConverter(
+            "timestamp,iban,transactionType,amount,resultingBalance,description",
+            iban -> iban.startsWith("NL00COOP") ? Optional.of(Long.parseLong(iban.substring(8))) : Optional.empty());
+
+    @Test
+    void convert_ShouldRenderCopyRowInTableColumnOrder() {
+        LegacyHistoryConverter.Row row = converter.convert(
+                "2019-03-01 10:15:00,NL00COOP0000000001,DEPOSIT,100.50,250.50,\"Salary, March\"", 2);
+
+        assertEquals("NL00COOP0000000001", row.iban());
+        String[] fields = row.copyRow().split("\",\"");
+        assertEquals("1", fields[1]);
+        assertEquals("0", fields[2]);
+        assertEquals("100.50", fields[3]);
+        assertEquals("250.50", fields[4]);
+        assertEquals("2019-03-01T10:15", fields[5]);
+        assertEquals("Salary, March\"\n", fields[6]);
+    }
+
+    @Test
+    void convert_ShouldOmitDerivableDescription_AndKeepEmptyOne() {
+        LegacyHistoryConverter.Row derived = converter.convert(
+                "2019-03-01T10:15:00,NL00COOP0000000001,WITHDRAWAL,10.00,90,WITHDRAWAL transaction of 10.00", 2);
+        LegacyHistoryConverter.Row empty = converter.convert(
+                "2019-03-01T10:15:00,NL00COOP0000000001,WITHDRAWAL,10,90,", 3);
+
+        assertTrue(derived.copyRow().endsWith("\"2019-03-01T10:15\",\n"));
+        assertTrue(empty.copyRow().endsWith("\"2019-03-01T10:15\",\"\"\n"));
+    }
+
+    @Test
+    void convert_ShouldRejectIbanOfAnotherBank() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> converter.convert(
+                "2019-03-01T10:15:00,DE00BANK0000000001,DEPOSIT,10,90,", 4));
+        assertEquals("Line 4: IBAN is not an account of this bank", ex.getMessage());
+    }
+
+    @Test
+    void convert_ShouldReportLineNumber_WhenRowIsInvalid() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> converter.convert(
+                "2019-03-01T10:15:00,NL00COOP0000000001,REFUND,10,90,", 7));
+        assertEquals("Line 7: unknown transaction type", ex.getMessage());
+
+        ex = assertThrows(IllegalArgumentException.class, () -> converter.convert(
+                "2019-03-01T10:15:00,NL00COOP0000000001,DEPOSIT,10.001,90,", 8));
+        assertEquals("Line 8: amount has more than 2 decimals", ex.getMessage());
+    }
+
+    @Test
+    void constructor_ShouldRejectHeaderWithoutRequiredColumns() {
+        assertThrows(IllegalArgumentException.class, () -> new LegacyHistoryConverter("iban,amount", iban -> Optional.empty()));
+    }
+}
@@ -0,0 +1,22 @@
+package com.cobank.service.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyRangeTest {
+
+    @Test
+    void split_ShouldCoverBoundsWithoutGapsOrOverlap() {
+        List<KeyRange> ranges = KeyRange.split(1, 25, 10);
+
+        assertEquals(List.of(new KeyRange(1, 10), new KeyRange(11, 20), new KeyRange(21, 25)), ranges);
+    }
+
+    @Test
+    void split_ShouldReturnSingleRange_WhenBoundsFitInOneRange() {
+        assertEquals(List.of(new KeyRange(7, 7)), KeyRange.split(7, 7, 10));
+    }
+}
@@ -0,0 +1,75 @@
+package com.cobank.service.limits;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountWithdrawalsTest {
+
+    private static final long HOUR = 60 * 60;
+    private static final long START = 1_700_000_000L;
+    private static final WithdrawalLimits LIMITS = new WithdrawalLimits(200_000, 500_000, 3);
+
+    @Test
+    void rejectsWithdrawalAboveHourlyAmount() {
+        AccountWithdrawals withdrawals = new AccountWithdrawals();
+
+        assertEquals(Optional.empty(), withdrawals.tryReserve(START, 150_000, LIMITS));
+        assertEquals(Optional.of("hourly withdrawal limit of 2000.00"), withdrawals.tryReserve(START + 60, 60_000, LIMITS));
+        assertEquals(Optional.empty(), withdrawals.tryReserve(START + 60, 50_000, LIMITS));
+    }
+
+    @Test
+    void rejectsWithdrawalAboveHourlyCount() {
+        AccountWithdrawals withdrawals = new AccountWithdrawals();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(withdrawals.tryReserve(START + i, 100, LIMITS).isEmpty());
+        }
+
+        assertEquals(Optional.of("limit of 3 withdrawals per hour"), withdrawals.tryReserve(START + 3, 100, LIMITS));
+    }
+
+    @Test
+    void hourlyWindowSlidesButDailyWindowKeepsCounting() {
+        AccountWithdrawals withdrawals = new AccountWithdrawals();
+        withdrawals.add(START, 200_000);
+        withdrawals.add(START + 2 * HOUR, 200_000);
+
+        assertTrue(withdrawals.tryReserve(START + 4 * HOUR, 100_000, LIMITS).isEmpty());
+        assertEquals(Optional.of("daily withdrawal limit of 5000.00"),
+                withdrawals.tryReserve(START + 6 * HOUR, 100, LIMITS));
+        assertTrue(withdrawals.tryReserve(START + 26 * HOUR, 200_000, LIMITS).isEmpty());
+    }
+
+    @Test
+    void releasedWithdrawalFreesTheLimit() {
+        AccountWithdrawals withdrawals = new AccountWithdrawals();
+        assertTrue(withdrawals.tryReserve(START, 200_000, LIMITS).isEmpty());
+        assertFalse(withdrawals.tryReserve(START + 1, 100, LIMITS).isEmpty());
+
+        withdrawals.release(START, 200_000);
+
+        assertTrue(withdrawals.tryReserve(START + 1, 200_000, LIMITS).isEmpty());
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.add("NL00COOP" + i);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(filter.mightContain("NL00COOP" + i));
+        }
+        long falsePositives = IntStream.range(1_000, 11_000)
+                .filter(i -> filter.mightContain("NL00COOP" + i))
+                .count();
+        assertTrue(falsePositives < 300, () -> falsePositives + " false positives");
+    }
+}
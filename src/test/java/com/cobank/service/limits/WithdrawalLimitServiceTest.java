@@ -0,0 +1,137 @@
+package com.cobank.service.limits;
+
+import com.cobank.repository.WithdrawalLimitRepository;
+import com.cobank.service.iban.IbanService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WithdrawalLimitServiceTest {
+
+    private static final String IBAN = "NL00COOP1234567890";
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private WithdrawalLimitRepository withdrawalLimitRepository;
+    @Mock
+    private IbanService ibanService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private WithdrawalLimitService withdrawalLimitService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        withdrawalLimitService = new WithdrawalLimitService(withdrawalLimitRepository, ibanService, transactionManager,
+                new SimpleMeterRegistry(), true, new BigDecimal("2000"), new BigDecimal("5000"), 10, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reserve_ShouldKeepTheReservation_WhenTheTransactionCommits() {
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED,
+                () -> withdrawalLimitService.reserve(IBAN, new BigDecimal("2000"), NOW));
+
+        assertThrows(WithdrawalLimitExceededException.class, () -> inTransaction(
+                TransactionSynchronization.STATUS_ROLLED_BACK,
+                () -> withdrawalLimitService.reserve(IBAN, new BigDecimal("1"), NOW.plusMinutes(1))));
+    }
+
+    @Test
+    void reserve_ShouldReleaseEveryReservation_WhenTheTransactionRollsBack() {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> {
+                withdrawalLimitService.reserve(IBAN, new BigDecimal("1000"), NOW);
+                withdrawalLimitService.reserve(IBAN, new BigDecimal("1000"), NOW);
+            });
+        }
+
+        assertDoesNotThrow(() -> inTransaction(TransactionSynchronization.STATUS_COMMITTED,
+                () -> withdrawalLimitService.reserve(IBAN, new BigDecimal("2000"), NOW.plusMinutes(1))));
+    }
+
+    @Test
+    void reserve_ShouldFail_WhenNoTransactionIsActive() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> withdrawalLimitService.reserve(IBAN, new BigDecimal("1"), NOW));
+    }
+
+    @Test
+    void release_ShouldFreeTheLimit_WhenAHoldIsReleased() {
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED,
+                () -> withdrawalLimitService.reserve(IBAN, new BigDecimal("2000"), NOW));
+
+        withdrawalLimitService.release(IBAN, new BigDecimal("2000"), NOW);
+
+        assertDoesNotThrow(() -> inTransaction(TransactionSynchronization.STATUS_COMMITTED,
+                () -> withdrawalLimitService.reserve(IBAN, new BigDecimal("2000"), NOW.plusMinutes(1))));
+    }
+
+    @Test
+    void releaseRemainder_ShouldKeepTheCapturedAmount_WhenAHoldIsPartiallyCaptured() {
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED,
+                () -> withdrawalLimitService.reserve(IBAN, new BigDecimal("2000"), NOW));
+
+        withdrawalLimitService.releaseRemainder(IBAN, new BigDecimal("500"), NOW);
+
+        assertThrows(WithdrawalLimitExceededException.class, () -> inTransaction(
+                TransactionSynchronization.STATUS_ROLLED_BACK,
+                () -> withdrawalLimitService.reserve(IBAN, new BigDecimal("500.01"), NOW.plusMinutes(1))));
+        assertDoesNotThrow(() -> inTransaction(TransactionSynchronization.STATUS_COMMITTED,
+                () -> withdrawalLimitService.reserve(IBAN, new BigDecimal("500"), NOW.plusMinutes(1))));
+    }
+
+    @Test
+    void release_ShouldWaitForTheCommit_WhenATransactionIsActive() {
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED,
+                () -> withdrawalLimitService.reserve(IBAN, new BigDecimal("2000"), NOW));
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK,
+                () -> withdrawalLimitService.release(IBAN, new BigDecimal("2000"), NOW));
+
+        assertThrows(WithdrawalLimitExceededException.class, () -> inTransaction(
+                TransactionSynchronization.STATUS_ROLLED_BACK,
+                () -> withdrawalLimitService.reserve(IBAN, new BigDecimal("1"), NOW.plusMinutes(1))));
+    }
+
+    // Runs the action like a transaction that ends with the given status, also when the action throws
+    private static void inTransaction(int status, Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+        } finally {
+            complete(status);
+        }
+    }
+
+    private static void complete(int status) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.cobank.service.onboarding;
+
+import com.cobank.api.dto.AccountImportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void csv_ShouldMapColumnsByHeader_AndHandleQuotedFields() {
+        String csv = "email,firstName,address\n"
+                + "ludwig@mymail.com,Ludwig,\"Beethovenstraat 9, Amsterdam\"\n"
+                + "clara@mymail.com,\"Clara \"\"C\"\"\",Schumannlaan 1\n";
+
+        List<ImportRow> rows = readAll(csv, AccountImportFormat.CSV);
+
+        assertEquals(2, rows.size());
+        assertEquals("Beethovenstraat 9, Amsterdam", rows.get(0).request().address());
+        assertEquals("Clara \"C\"", rows.get(1).request().firstName());
+        assertEquals(2, rows.get(0).line());
+        assertEquals(3, rows.get(1).line());
+    }
+
+    @Test
+    void csv_ShouldReportRowError_WhenColumnsAreMissing() {
+        String csv = """
+                firstName,address,email
+                Ludwig,Beethovenstraat 9
+                Clara,Schumannlaan 1,clara@mymail.com
+                """;
+
+        List<ImportRow> rows = readAll(csv, AccountImportFormat.CSV);
+
+        assertNotNull(rows.get(0).parseError());
+        assertNull(rows.get(1).parseError());
+    }
+
+    @Test
+    void csv_ShouldRejectFile_WhenHeaderLacksRequiredColumns() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AccountImportReader(new StringReader("name,email\n"), AccountImportFormat.CSV, objectMapper));
+    }
+
+    @Test
+    void ndjson_ShouldParseEachLine_AndSkipBlankLines() {
+        String ndjson = """
+                {"firstName":"Ludwig","address":"Beethovenstraat 9","email":"ludwig@mymail.com"}
+
+                {"firstName":"Clara",
+                """;
+
+        List<ImportRow> rows = readAll(ndjson, AccountImportFormat.NDJSON);
+
+        assertEquals(2, rows.size());
+        assertEquals("ludwig@mymail.com", rows.get(0).request().email());
+        assertEquals(3, rows.get(1).line());
+        assertNotNull(rows.get(1).parseError());
+    }
+
+    private List<ImportRow> readAll(String content, AccountImportFormat format) {
+        AccountImportReader reader = new AccountImportReader(new StringReader(content), format, objectMapper);
+        List<ImportRow> rows = new ArrayList<>();
+        reader.forEachRemaining(rows::add);
+        return rows;
+    }
+}
@@ -0,0 +1,66 @@
+package com.cobank.service.onboarding;
+
+import com.cobank.api.dto.AccountImportFormat;
+import com.cobank.api.dto.AccountImportResponse;
+import com.cobank.repository.BulkAccountRepository;
+import com.cobank.service.iban.IbanService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class BulkAccountImportServiceTest {
+
+    @Mock
+    private BulkAccountRepository bulkAccountRepository;
+
+    @Mock
+    private IbanService ibanService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ValidatorFactory validatorFactory;
+
+    private BulkAccountImportService bulkAccountImportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        bulkAccountImportService = new BulkAccountImportService(bulkAccountRepository, ibanService,
+                validatorFactory.getValidator(), new ObjectMapper(), transactionManager, 100, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void importAccounts_ShouldRejectRow_WhenValuesExceedTheirColumns() {
+        String csv = "firstName,address,email\n"
+                + "Ludwig," + "a".repeat(256) + ",ludwig@mymail.com\n"
+                + "b".repeat(51) + ",Schumannlaan 1,clara@mymail.com\n";
+
+        AccountImportResponse response = bulkAccountImportService.importAccounts(AccountImportFormat.CSV,
+                new StringReader(csv));
+
+        assertEquals(2, response.rejected());
+        assertEquals("Address must be at most 255 characters", response.errors().get(0).message());
+        assertEquals("First name must be at most 50 characters", response.errors().get(1).message());
+        verify(bulkAccountRepository, never()).insertSkippingDuplicates(any());
+    }
+}
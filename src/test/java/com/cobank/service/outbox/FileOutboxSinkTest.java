@@ -0,0 +1,43 @@
+package com.cobank.service.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileOutboxSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void publish_ShouldAppendOneLinePerMessage_InBatchOrder() throws Exception {
+        Path path = directory.resolve("relay/outbox.ndjson");
+        FileOutboxSink sink = new FileOutboxSink(path, objectMapper);
+
+        sink.publish(List.of(message(1), message(2)));
+        sink.publish(List.of(message(3)));
+
+        List<String> lines = Files.readAllLines(path);
+        assertEquals(3, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            JsonNode line = objectMapper.readTree(lines.get(i));
+            assertEquals(i + 1, line.get("id").asLong());
+            assertEquals("NL00COOP1234567890", line.get("iban").asText());
+        }
+    }
+
+    private OutboxMessage message(long id) {
+        return new OutboxMessage(id, "NL00COOP1234567890", OutboxWriter.TRANSACTION_POSTED, "{}", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,114 @@
+package com.cobank.service.outbox;
+
+import com.cobank.repository.OutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Testcontainers
+class OutboxRelayTest {
+
+    private static final int ACCOUNTS = 20;
+    private static final int MESSAGES_PER_ACCOUNT = 50;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("cobankdb_test")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    private static DriverManagerDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    private final Map<String, List<Integer>> published = new ConcurrentHashMap<>();
+    private final List<OutboxRelay> nodes = new ArrayList<>();
+
+    @BeforeAll
+    static void init() {
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration")
+                .placeholders(Map.of("account_number_length", "10"))
+                .load()
+                .migrate();
+        dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE transaction_outbox");
+        OutboxRepository outboxRepository = new OutboxRepository(jdbcTemplate);
+        for (int sequence = 0; sequence < MESSAGES_PER_ACCOUNT; sequence++) {
+            for (int account = 0; account < ACCOUNTS; account++) {
+                outboxRepository.append(iban(account), "TransactionPosted", Integer.toString(sequence));
+            }
+        }
+        // Slow sinks keep a batch in flight while the other node polls the same partition
+        OutboxSink sink = batch -> {
+            sleep();
+            batch.forEach(message -> published.computeIfAbsent(message.iban(), iban -> new ArrayList<>())
+                    .add(Integer.parseInt(message.payload())));
+        };
+        for (int node = 0; node < 2; node++) {
+            nodes.add(new OutboxRelay(outboxRepository, sink, new DataSourceTransactionManager(dataSource),
+                    new SimpleMeterRegistry(), 4, 10, 24));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(OutboxRelay::shutdown);
+    }
+
+    @Test
+    void relaysOnSeveralNodesPublishEveryAccountInOrderAndOnce() throws Exception {
+        while (unpublished() > 0) {
+            CompletableFuture.allOf(nodes.stream()
+                            .map(node -> CompletableFuture.runAsync(node::relay))
+                            .toArray(CompletableFuture[]::new))
+                    .get(60, TimeUnit.SECONDS);
+        }
+
+        List<Integer> inOrder = IntStream.range(0, MESSAGES_PER_ACCOUNT).boxed().toList();
+        assertEquals(ACCOUNTS, published.size());
+        published.forEach((iban, sequences) -> assertEquals(inOrder, sequences, iban));
+    }
+
+    private static long unpublished() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transaction_outbox WHERE published_at IS NULL", Long.class);
+    }
+
+    private static String iban(int account) {
+        return "NL00COOP%010d".formatted(account);
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
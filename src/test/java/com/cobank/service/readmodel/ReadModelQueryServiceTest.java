@@ -0,0 +1,145 @@
+package com.cobank.service.readmodel;
+
+import com.cobank.api.dto.BalanceSnapshot;
+import com.cobank.api.dto.FetchBalanceResponse;
+import com.cobank.api.dto.TransactionHistoryFilter;
+import com.cobank.api.dto.TransactionHistoryResponse;
+import com.cobank.repository.ReadModelRepository;
+import com.cobank.service.archive.HistoryArchive;
+import com.cobank.service.iban.IbanService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReadModelQueryServiceTest {
+
+    private final String iban = "NL00COOP1234567890";
+
+    @Mock
+    private ReadModelRepository readModelRepository;
+
+    @Mock
+    private HistoryArchive historyArchive;
+
+    @Mock
+    private IbanService ibanService;
+
+    private InMemoryBalanceView inMemoryBalanceView;
+
+    private ReadModelQueryService readModelQueryService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        inMemoryBalanceView = new InMemoryBalanceView(true);
+        readModelQueryService = new ReadModelQueryService(readModelRepository, inMemoryBalanceView, historyArchive,
+                ibanService);
+    }
+
+    @Test
+    void getBalanceByIban_ShouldServeFromInMemoryView_WhenProjected() {
+        when(readModelRepository.findVersion(iban)).thenReturn(Optional.of(1L));
+        inMemoryBalanceView.update(snapshot(BigDecimal.valueOf(250.0), BigDecimal.valueOf(50.0), 1));
+
+        Optional<FetchBalanceResponse> response = readModelQueryService.getBalanceByIban(iban);
+
+        assertTrue(response.isPresent());
+        assertEquals(0, BigDecimal.valueOf(250.0).compareTo(response.get().balance()));
+        assertEquals(0, BigDecimal.valueOf(200.0).compareTo(response.get().availableBalance()));
+        verify(readModelRepository, never()).findBalance(anyString(), anyLong());
+    }
+
+    @Test
+    void getBalanceByIban_ShouldIgnoreOlderProjection_WhenArrivingOutOfOrder() {
+        when(readModelRepository.findVersion(iban)).thenReturn(Optional.of(2L));
+        inMemoryBalanceView.update(snapshot(BigDecimal.valueOf(300.0), BigDecimal.ZERO, 2));
+        inMemoryBalanceView.update(snapshot(BigDecimal.valueOf(100.0), BigDecimal.ZERO, 1));
+
+        Optional<FetchBalanceResponse> response = readModelQueryService.getBalanceByIban(iban);
+
+        assertTrue(response.isPresent());
+        assertEquals(0, BigDecimal.valueOf(300.0).compareTo(response.get().balance()));
+    }
+
+    @Test
+    void getBalanceByIban_ShouldReadTheReadModel_WhenInMemoryViewLagsIt() {
+        inMemoryBalanceView.update(snapshot(BigDecimal.valueOf(250.0), BigDecimal.ZERO, 1));
+        FetchBalanceResponse projected = new FetchBalanceResponse(iban, BigDecimal.valueOf(260.0),
+                BigDecimal.valueOf(240.0));
+        when(readModelRepository.findVersion(iban)).thenReturn(Optional.of(2L));
+        when(readModelRepository.findBalance(iban, 2L)).thenReturn(Optional.of(projected));
+
+        assertEquals(Optional.of(projected), readModelQueryService.getBalanceByIban(iban));
+    }
+
+    @Test
+    void getBalanceByIban_ShouldReturnEmpty_WhenAccountWasNeverProjected() {
+        when(readModelRepository.findVersion(iban)).thenReturn(Optional.empty());
+
+        assertFalse(readModelQueryService.getBalanceByIban(iban).isPresent());
+        verify(readModelRepository, never()).findBalance(anyString(), anyLong());
+    }
+
+    @Test
+    void getBalanceByIban_ShouldReturnEmpty_WhenIbanIsNull() {
+        assertFalse(readModelQueryService.getBalanceByIban(null).isPresent());
+        verify(readModelRepository, never()).findBalance(anyString(), anyLong());
+    }
+
+    @Test
+    void getAccountVersion_ShouldReturnTheReadModelVersion() {
+        when(readModelRepository.findVersion(iban)).thenReturn(Optional.of(7L));
+
+        assertEquals(Optional.of(7L), readModelQueryService.getAccountVersion(iban));
+    }
+
+    @Test
+    void getHistoryVersion_ShouldReturnTheReadModelVersion() {
+        when(readModelRepository.findVersion(iban)).thenReturn(Optional.of(7L));
+
+        assertEquals(Optional.of(7L), readModelQueryService.getHistoryVersion(iban));
+    }
+
+    @Test
+    void getTransactionHistory_ShouldContinueIntoArchive_WhenProjectionRunsOut() {
+        Pageable pageable = PageRequest.of(1, 20);
+        Page<TransactionHistoryResponse> projected = new PageImpl<>(List.of(), pageable, 20);
+        Page<TransactionHistoryResponse> continued = new PageImpl<>(List.of(), pageable, 45);
+        when(readModelRepository.findVersion(iban)).thenReturn(Optional.of(3L));
+        when(ibanService.findAccountKey(iban)).thenReturn(Optional.of(1234567890L));
+        when(readModelRepository.findHistory(iban, pageable)).thenReturn(projected);
+        when(historyArchive.continuePage(iban, 1234567890L, TransactionHistoryFilter.NONE, pageable, projected))
+                .thenReturn(continued);
+
+        assertSame(continued, readModelQueryService.getTransactionHistory(iban, pageable));
+    }
+
+    @Test
+    void getTransactionHistory_ShouldReturnEmpty_WhenAccountWasNeverProjected() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(readModelRepository.findVersion(iban)).thenReturn(Optional.empty());
+        when(ibanService.findAccountKey(iban)).thenReturn(Optional.of(1234567890L));
+
+        assertTrue(readModelQueryService.getTransactionHistory(iban, pageable).isEmpty());
+        verify(readModelRepository, never()).findHistory(anyString(), any(Pageable.class));
+    }
+
+    private BalanceSnapshot snapshot(BigDecimal balance, BigDecimal heldAmount, long version) {
+        return new BalanceSnapshot(new FetchBalanceResponse(iban, balance, balance.subtract(heldAmount)), version);
+    }
+}
@@ -0,0 +1,35 @@
+package com.cobank.service.reconciliation;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiscrepancyTest {
+
+    @Test
+    void isConsistent_ShouldAccept_WhenBalanceMatchesLastPostingAndNetFlow() {
+        assertTrue(Discrepancy.isConsistent(new BigDecimal("150.00"), new BigDecimal("150.00"), new BigDecimal("150.00")));
+    }
+
+    @Test
+    void isConsistent_ShouldAccept_WhenAccountWithoutHistoryHasZeroBalance() {
+        assertTrue(Discrepancy.isConsistent(new BigDecimal("0.00"), null, BigDecimal.ZERO));
+    }
+
+    @Test
+    void isConsistent_ShouldReject_WhenBalanceDriftedFromLastPosting() {
+        assertFalse(Discrepancy.isConsistent(new BigDecimal("200.00"), new BigDecimal("150.00"), new BigDecimal("200.00")));
+    }
+
+    @Test
+    void isConsistent_ShouldReject_WhenHistoryIsMissingAPosting() {
+        assertFalse(Discrepancy.isConsistent(new BigDecimal("150.00"), new BigDecimal("150.00"), new BigDecimal("100.00")));
+    }
+
+    @Test
+    void isConsistent_ShouldReject_WhenAccountWithoutHistoryHasBalance() {
+        assertFalse(Discrepancy.isConsistent(new BigDecimal("10.00"), null, BigDecimal.ZERO));
+    }
+}
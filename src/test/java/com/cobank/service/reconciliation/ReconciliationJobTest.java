@@ -0,0 +1,151 @@
+package com.cobank.service.reconciliation;
+
+import com.cobank.api.dto.JobRunResponse;
+import com.cobank.repository.JobRunRepository;
+import com.cobank.repository.ReconciliationRepository;
+import com.cobank.service.job.KeyRange;
+import com.cobank.service.job.RangeJobRunner;
+import com.cobank.service.job.RangeResult;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Testcontainers
+class ReconciliationJobTest {
+
+    private static final int ACCOUNTS = 20;
+    private static final long RANGE_SIZE = 5;
+    private static final String BROKEN_IBAN = iban(7);
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("cobankdb_test")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    private static DriverManagerDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    private final List<RangeJobRunner> nodes = new ArrayList<>();
+    private JobRunRepository jobRunRepository;
+    private ReconciliationJob reconciliationJob;
+
+    @BeforeAll
+    static void init() {
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration")
+                .placeholders(Map.of("account_number_length", "10"))
+                .load()
+                .migrate();
+        dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE reconciliation_discrepancy, job_range, job_run, transaction_history, accounts"
+                + " CASCADE");
+        for (int account = 1; account <= ACCOUNTS; account++) {
+            BigDecimal balance = account == 7 ? new BigDecimal("99.00") : new BigDecimal("100.00");
+            jdbcTemplate.update("""
+                            INSERT INTO accounts (id, iban, first_name, address, email, balance)
+                            VALUES (?, ?, 'Test', 'Main Street 1', ?, ?)
+                            """,
+                    UUID.randomUUID(), iban(account), "account" + account + "@cobank.test", balance);
+            jdbcTemplate.update("""
+                            INSERT INTO transaction_history (id, account_key, type_code, amount, resulting_balance)
+                            VALUES (?, ?, 0, 100.00, 100.00)
+                            """,
+                    UUID.randomUUID(), account);
+        }
+        jobRunRepository = new JobRunRepository(jdbcTemplate);
+        reconciliationJob = new ReconciliationJob(new ReconciliationRepository(jdbcTemplate, dataSource, 100), 2,
+                RANGE_SIZE, 1_000_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(RangeJobRunner::shutdown);
+    }
+
+    @Test
+    void processesEveryRangeAndRecordsDiscrepancies() throws Exception {
+        long runId = node().start(reconciliationJob);
+
+        JobRunResponse run = awaitFinished(runId);
+        assertEquals(JobRunRepository.COMPLETED, run.status());
+        assertEquals(ACCOUNTS / RANGE_SIZE, run.completedRanges());
+        assertEquals(ACCOUNTS, run.processed());
+        assertEquals(1, run.findings());
+        assertEquals(List.of(BROKEN_IBAN), jdbcTemplate.queryForList(
+                "SELECT iban FROM reconciliation_discrepancy WHERE run_id = ?", String.class, runId));
+    }
+
+    @Test
+    void resumesAFailedRunFromItsCheckpoint() throws Exception {
+        long runId = jobRunRepository.createRun(ReconciliationJob.JOB_TYPE, null, reconciliationJob.plan(), "crashed");
+        // The range of the broken account was checkpointed before the run failed
+        jobRunRepository.completeRange(runId, new KeyRange(6, 10), new RangeResult(5, 0));
+        jobRunRepository.finish(runId, "crashed", JobRunRepository.FAILED);
+
+        assertEquals(runId, node().start(reconciliationJob));
+
+        JobRunResponse run = awaitFinished(runId);
+        assertEquals(JobRunRepository.COMPLETED, run.status());
+        assertEquals(ACCOUNTS, run.processed());
+        assertEquals(0, run.findings());
+    }
+
+    @Test
+    void leavesARunToTheNodeHoldingItsLease() throws Exception {
+        long runId = jobRunRepository.createRun(ReconciliationJob.JOB_TYPE, null, reconciliationJob.plan(), "other");
+
+        assertEquals(runId, node().start(reconciliationJob));
+        Thread.sleep(500);
+        assertEquals(0, jobRunRepository.findRun(runId).orElseThrow().completedRanges());
+
+        jdbcTemplate.update("UPDATE job_run SET heartbeat_at = heartbeat_at - INTERVAL '1 hour' WHERE id = ?", runId);
+        assertEquals(runId, node().start(reconciliationJob));
+        assertEquals(JobRunRepository.COMPLETED, awaitFinished(runId).status());
+    }
+
+    private RangeJobRunner node() {
+        RangeJobRunner node = new RangeJobRunner(jobRunRepository, new DataSourceTransactionManager(dataSource),
+                Duration.ofSeconds(30));
+        nodes.add(node);
+        return node;
+    }
+
+    private JobRunResponse awaitFinished(long runId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        JobRunResponse run = jobRunRepository.findRun(runId).orElseThrow();
+        while (JobRunRepository.RUNNING.equals(run.status()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            run = jobRunRepository.findRun(runId).orElseThrow();
+        }
+        return run;
+    }
+
+    private static String iban(int accountKey) {
+        return "NL00COOP%010d".formatted(accountKey);
+    }
+}
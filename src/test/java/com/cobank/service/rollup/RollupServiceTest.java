@@ -0,0 +1,95 @@
+package com.cobank.service.rollup;
+
+import com.cobank.api.dto.AccountSummaryResponse;
+import com.cobank.domain.Account;
+import com.cobank.repository.AccountRepository;
+import com.cobank.repository.DailyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RollupServiceTest {
+
+    private final String iban = "NL00COOP1234567890";
+    private final LocalDate from = LocalDate.of(2024, 11, 1);
+    private final LocalDate to = LocalDate.of(2024, 11, 30);
+
+    @InjectMocks
+    private RollupService rollupService;
+
+    @Mock
+    private DailyRollupRepository dailyRollupRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void getAccountSummary_ShouldCombineRollupTotalsAndBalances() {
+        when(accountRepository.findByIban(iban)).thenReturn(Optional.of(account()));
+        when(dailyRollupRepository.sumBetween(iban, from, to)).thenReturn(new DailyRollupRepository.Totals(
+                BigDecimal.valueOf(300.0), 3, BigDecimal.valueOf(50.0), 1));
+        when(dailyRollupRepository.findClosingBalanceOnOrBefore(iban, from.minusDays(1)))
+                .thenReturn(Optional.of(BigDecimal.valueOf(1000.0)));
+        when(dailyRollupRepository.findClosingBalanceOnOrBefore(iban, to))
+                .thenReturn(Optional.of(BigDecimal.valueOf(1250.0)));
+
+        Optional<AccountSummaryResponse> summary = rollupService.getAccountSummary(iban, from, to);
+
+        assertTrue(summary.isPresent());
+        assertEquals(0, BigDecimal.valueOf(1000.0).compareTo(summary.get().openingBalance()));
+        assertEquals(0, BigDecimal.valueOf(1250.0).compareTo(summary.get().closingBalance()));
+        assertEquals(3, summary.get().depositCount());
+        assertEquals(1, summary.get().withdrawalCount());
+    }
+
+    @Test
+    void getAccountSummary_ShouldCarryOpeningBalance_WhenRangeHasNoActivity() {
+        when(accountRepository.findByIban(iban)).thenReturn(Optional.of(account()));
+        when(dailyRollupRepository.sumBetween(iban, from, to)).thenReturn(new DailyRollupRepository.Totals(
+                BigDecimal.ZERO, 0, BigDecimal.ZERO, 0));
+        when(dailyRollupRepository.findClosingBalanceOnOrBefore(any(), any())).thenReturn(Optional.empty());
+
+        Optional<AccountSummaryResponse> summary = rollupService.getAccountSummary(iban, from, to);
+
+        assertTrue(summary.isPresent());
+        assertEquals(0, BigDecimal.ZERO.compareTo(summary.get().openingBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(summary.get().closingBalance()));
+    }
+
+    @Test
+    void getAccountSummary_ShouldReturnEmpty_WhenAccountDoesNotExist() {
+        when(accountRepository.findByIban(iban)).thenReturn(Optional.empty());
+
+        assertFalse(rollupService.getAccountSummary(iban, from, to).isPresent());
+        verifyNoInteractions(dailyRollupRepository);
+    }
+
+    @Test
+    void getAccountSummary_ShouldReject_WhenRangeIsInverted() {
+        assertThrows(IllegalArgumentException.class, () -> rollupService.getAccountSummary(iban, to, from));
+    }
+
+    private Account account() {
+        return Account.builder()
+                .id(UUID.randomUUID())
+                .iban(iban)
+                .balance(BigDecimal.valueOf(1250.0))
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.cobank.service.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 20_000;
+    private final List<String> nodes = List.of("http://localhost:8080", "http://localhost:8081", "http://localhost:8082");
+
+    @Test
+    void ownerOf_ShouldNotDependOnMemberOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(nodes, 128);
+        ConsistentHashRing reordered = new ConsistentHashRing(
+                List.of(nodes.get(2), nodes.get(0), nodes.get(1)), 128);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(ring.ownerOf(iban(i)), reordered.ownerOf(iban(i)));
+        }
+    }
+
+    @Test
+    void ownerOf_ShouldSpreadKeysEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(nodes, 128);
+
+        Map<String, Integer> owned = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            owned.merge(ring.ownerOf(iban(i)), 1, Integer::sum);
+        }
+
+        assertEquals(nodes.size(), owned.size());
+        owned.values().forEach(count -> assertTrue(Math.abs(count - KEYS / nodes.size()) < KEYS / 10,
+                "owned keys " + owned));
+    }
+
+    @Test
+    void ownerOf_ShouldOnlyMoveKeysToAddedNode() {
+        ConsistentHashRing ring = new ConsistentHashRing(nodes.subList(0, 2), 128);
+        ConsistentHashRing grown = new ConsistentHashRing(nodes, 128);
+
+        for (int i = 0; i < KEYS; i++) {
+            String before = ring.ownerOf(iban(i));
+            String after = grown.ownerOf(iban(i));
+            assertTrue(before.equals(after) || after.equals(nodes.get(2)));
+        }
+    }
+
+    @Test
+    void constructor_ShouldRejectEmptyMembership() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 128));
+    }
+
+    private static String iban(int accountNumber) {
+        return String.format("NL00COOP%010d", accountNumber);
+    }
+}
@@ -0,0 +1,152 @@
+package com.cobank.service.sharding;
+
+import com.cobank.api.dto.ShardRangeStatus;
+import com.cobank.api.dto.TransactionRequest;
+import com.cobank.api.dto.TransactionType;
+import com.cobank.config.ReadModelConfig;
+import com.cobank.repository.ShardRangeRepository;
+import com.cobank.service.CreateAccountUseCase;
+import com.cobank.service.FetchBalanceUseCase;
+import com.cobank.service.GetHoldUseCase;
+import com.cobank.service.ProcessTransactionUseCase;
+import com.cobank.service.iban.IbanService;
+import com.cobank.service.readmodel.ReadModelRebuildService;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardAspectTest {
+
+    private final List<String> observed = new ArrayList<>();
+    private final IbanService ibanService = new IbanService("NL", "00", "COOP", 10,
+            new StaticListableBeanFactory().getBeanProvider(ShardDirectory.class));
+    private final ShardDirectory shardDirectory = new ShardDirectory(
+            new FixedShardRanges(List.of(
+                    new ShardRange(0, 999, "shard-0", null, ShardRangeStatus.ACTIVE),
+                    new ShardRange(1_000, 1_999, "shard-1", 1_500L, ShardRangeStatus.ACTIVE),
+                    new ShardRange(2_000, 2_999, "shard-2", null, ShardRangeStatus.MOVING))),
+            "shard-0",
+            Map.of("shard-0", 0, "shard-1", 1, "shard-2", 2),
+            1_000);
+
+    @Test
+    void runsAccountCallsInTheShardOfTheAccount() {
+        FetchBalanceUseCase balance = proxy((FetchBalanceUseCase) iban -> {
+            observed.add(ShardRoutingDataSource.current());
+            return Optional.empty();
+        });
+        ProcessTransactionUseCase posting = proxy((ProcessTransactionUseCase) request -> {
+            observed.add(ShardRoutingDataSource.current());
+            return Optional.empty();
+        });
+
+        balance.getBalanceByIban(ibanService.toIban(1_234));
+        balance.getBalanceByIban(ibanService.toIban(5));
+        balance.getBalanceByIban("DE89370400440532013000");
+        posting.processTransaction(
+                new TransactionRequest(ibanService.toIban(1_001), TransactionType.DEPOSIT, BigDecimal.ONE));
+
+        assertEquals(List.of("shard-1", "shard-0", "shard-0", "shard-1"), observed);
+        assertNull(ShardRoutingDataSource.current());
+    }
+
+    @Test
+    void turnsAwayAccountsThatAreBeingMoved() {
+        FetchBalanceUseCase balance = proxy((FetchBalanceUseCase) iban -> Optional.empty());
+
+        assertThrows(ShardMovingException.class, () -> balance.getBalanceByIban(ibanService.toIban(2_500)));
+    }
+
+    @Test
+    void findsHoldsByTheShardThatIssuedTheirId() {
+        GetHoldUseCase holds = proxy((GetHoldUseCase) id -> {
+            observed.add(ShardRoutingDataSource.current());
+            return Optional.empty();
+        });
+
+        holds.getHold(42);
+        holds.getHold(ShardDirectory.firstId(2) + 42);
+
+        assertEquals(List.of("shard-0", "shard-2"), observed);
+    }
+
+    @Test
+    void createsAccountsInTheLeastLoadedShard() {
+        CreateAccountUseCase accounts = proxy((CreateAccountUseCase) request -> {
+            observed.add(ShardRoutingDataSource.current());
+            return Optional.empty();
+        });
+
+        accounts.createAccount(null);
+
+        assertEquals(List.of("shard-1"), observed);
+    }
+
+    @Test
+    void projectsPostingsInTheShardOfThePosting() throws Exception {
+        ThreadPoolTaskExecutor readModelExecutor = new ReadModelConfig().readModelExecutor(10);
+        readModelExecutor.initialize();
+        try {
+            List<Future<String>> projections = new ArrayList<>();
+            ProcessTransactionUseCase posting = proxy((ProcessTransactionUseCase) request -> {
+                projections.add(readModelExecutor.submit(ShardRoutingDataSource::current));
+                return Optional.empty();
+            });
+
+            posting.processTransaction(
+                    new TransactionRequest(ibanService.toIban(1_001), TransactionType.DEPOSIT, BigDecimal.ONE));
+            posting.processTransaction(
+                    new TransactionRequest(ibanService.toIban(5), TransactionType.DEPOSIT, BigDecimal.ONE));
+
+            assertEquals("shard-1", projections.get(0).get(10, TimeUnit.SECONDS));
+            assertEquals("shard-0", projections.get(1).get(10, TimeUnit.SECONDS));
+        } finally {
+            readModelExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void refusesJobsThatWouldOnlyCoverTheDirectoryShard() {
+        ReadModelRebuildService rebuild = proxy(new ReadModelRebuildService(null, null));
+
+        DirectoryShardOnlyException refused = assertThrows(DirectoryShardOnlyException.class, rebuild::rebuild);
+        assertEquals("ReadModelRebuildService.rebuild() only covers the directory shard and is not available while"
+                + " sharding is enabled", refused.getMessage());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new ShardAspect(shardDirectory, ibanService));
+        return (T) factory.getProxy();
+    }
+
+    private static class FixedShardRanges extends ShardRangeRepository {
+
+        private final List<ShardRange> ranges;
+
+        FixedShardRanges(List<ShardRange> ranges) {
+            super(new JdbcTemplate());
+            this.ranges = ranges;
+        }
+
+        @Override
+        public List<ShardRange> findAll() {
+            return ranges;
+        }
+    }
+}
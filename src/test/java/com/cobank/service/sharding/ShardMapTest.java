@@ -0,0 +1,72 @@
+package com.cobank.service.sharding;
+
+import com.cobank.api.dto.ShardRangeStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardMapTest {
+
+    private final ShardMap map = new ShardMap(List.of(
+            range(0, 999, "shard-0", null),
+            range(1_000, 1_999, "shard-1", 1_250L),
+            range(2_000, 2_999, "shard-2", 2_100L),
+            range(5_000, 5_999, "shard-1", 5_000L)));
+
+    @Test
+    void findsTheRangeOfAnAccountKey() {
+        assertEquals("shard-0", map.find(0).orElseThrow().shard());
+        assertEquals("shard-1", map.find(1_999).orElseThrow().shard());
+        assertEquals("shard-2", map.find(2_000).orElseThrow().shard());
+        assertEquals(Optional.empty(), map.find(3_000));
+        assertEquals(Optional.empty(), map.find(-1));
+    }
+
+    @Test
+    void loadCountsTheIssuedKeys() {
+        assertEquals(1_000, map.allocatedKeys().get("shard-0"));
+        assertEquals(250, map.allocatedKeys().get("shard-1"));
+        assertEquals(100, map.allocatedKeys().get("shard-2"));
+        assertEquals("shard-2", map.leastLoaded(List.of("shard-0", "shard-1", "shard-2")));
+        assertEquals("shard-3", map.leastLoaded(List.of("shard-0", "shard-1", "shard-2", "shard-3")));
+    }
+
+    @Test
+    void overlappingRangesAreFoundFromEitherEdge() {
+        assertEquals(List.of(1_000L, 2_000L), startKeys(map.overlapping(1_500, 2_500)));
+        assertEquals(List.of(5_000L), startKeys(map.overlapping(3_000, 5_000)));
+        assertTrue(map.overlapping(3_000, 4_999).isEmpty());
+    }
+
+    @Test
+    void splittingKeepsAllocatingWhereTheRangeWas() {
+        ShardRange open = range(1_000, 1_999, "shard-1", 1_250L);
+
+        assertEquals(List.of(range(1_000, 1_099, "shard-1", null), range(1_100, 1_999, "shard-1", 1_250L)),
+                open.splitAt(1_100));
+        assertEquals(List.of(range(1_000, 1_499, "shard-1", 1_250L), range(1_500, 1_999, "shard-1", 1_500L)),
+                open.splitAt(1_500));
+        assertEquals(List.of(range(0, 499, "shard-0", null), range(500, 999, "shard-0", null)),
+                range(0, 999, "shard-0", null).splitAt(500));
+        assertThrows(IllegalArgumentException.class, () -> open.splitAt(1_000));
+    }
+
+    @Test
+    void idsNameTheShardThatIssuedThem() {
+        assertEquals(1L << ShardDirectory.ID_SHARD_SHIFT, ShardDirectory.firstId(1));
+        assertEquals(3, (ShardDirectory.firstId(3) + 12_345) >>> ShardDirectory.ID_SHARD_SHIFT);
+    }
+
+    private static List<Long> startKeys(List<ShardRange> ranges) {
+        return ranges.stream().map(ShardRange::startKey).toList();
+    }
+
+    private static ShardRange range(long startKey, long endKey, String shard, Long nextKey) {
+        return new ShardRange(startKey, endKey, shard, nextKey, ShardRangeStatus.ACTIVE);
+    }
+}
@@ -0,0 +1,121 @@
+package com.cobank.service.standingorder;
+
+import com.cobank.api.dto.StandingOrderFrequency;
+import com.cobank.api.dto.StandingOrderOutcome;
+import com.cobank.api.dto.StandingOrderStatus;
+import com.cobank.api.dto.TransactionType;
+import com.cobank.service.limits.WithdrawalLimitExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StandingOrderBatchTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 31, 0, 0);
+    private static final LocalDateTime EXECUTED_AT = START.plusSeconds(5);
+    private static final String IBAN = "NL00COOP0000000007";
+
+    @Test
+    void ordersOfOneAccountApplyOnTheBalanceLeftByThePreviousOne() {
+        StandingOrderBatch batch = batch(new BigDecimal("100.00"));
+
+        batch.execute(order(1, TransactionType.WITHDRAWAL, "80.00", StandingOrderFrequency.MONTHLY, null));
+        batch.execute(order(2, TransactionType.WITHDRAWAL, "30.00", StandingOrderFrequency.MONTHLY, null));
+        batch.execute(order(3, TransactionType.DEPOSIT, "50.00", StandingOrderFrequency.MONTHLY, null));
+
+        assertEquals(List.of(StandingOrderOutcome.POSTED, StandingOrderOutcome.INSUFFICIENT_FUNDS, StandingOrderOutcome.POSTED),
+                batch.executions().stream().map(StandingOrderExecution::outcome).toList());
+        assertEquals(2, batch.postings().size());
+        assertEquals(List.of(new LockedAccount(7, IBAN, new BigDecimal("70.00"), BigDecimal.ZERO, 3,
+                        batch.postings().get(1).hash())),
+                batch.changedAccounts());
+        assertNull(batch.postings().get(0).prevHash());
+        assertSame(batch.postings().get(0).hash(), batch.postings().get(1).prevHash());
+        assertEquals(new BigDecimal("20.00"), batch.postings().get(0).event().resultingBalance());
+        assertEquals(2, batch.postings().get(0).event().accountVersion());
+        assertNull(batch.postings().get(0).storedDescription());
+    }
+
+    @Test
+    void monthlyOrderKeepsItsDayOfMonth() {
+        StandingOrderBatch batch = batch(BigDecimal.TEN);
+
+        batch.execute(new DueStandingOrder(1, 7, TransactionType.DEPOSIT, BigDecimal.ONE, StandingOrderFrequency.MONTHLY,
+                START, null, "Allowance", START.plusMonths(1), 1));
+
+        StandingOrderExecution execution = batch.executions().get(0);
+        assertEquals(LocalDateTime.of(2025, 3, 31, 0, 0), execution.nextDueAt());
+        assertEquals(2, execution.executions());
+        assertEquals(StandingOrderStatus.ACTIVE, execution.status());
+        assertEquals("Allowance", batch.postings().get(0).storedDescription());
+    }
+
+    @Test
+    void orderCompletesAfterItsLastExecution() {
+        StandingOrderBatch batch = batch(BigDecimal.TEN);
+
+        batch.execute(order(1, TransactionType.DEPOSIT, "1.00", StandingOrderFrequency.ONCE, null));
+        batch.execute(order(2, TransactionType.DEPOSIT, "1.00", StandingOrderFrequency.WEEKLY, START.plusDays(6)));
+
+        assertTrue(batch.executions().stream().allMatch(execution -> execution.status() == StandingOrderStatus.COMPLETED));
+    }
+
+    @Test
+    void withdrawalOverLimitIsNotPosted() {
+        StandingOrderBatch batch = new StandingOrderBatch(
+                Map.of(7L, new LockedAccount(7, IBAN, BigDecimal.TEN, BigDecimal.ZERO, 1, null)), EXECUTED_AT,
+                (iban, amount) -> {
+                    throw new WithdrawalLimitExceededException("Withdrawal exceeds the daily withdrawal limit");
+                });
+
+        batch.execute(order(1, TransactionType.WITHDRAWAL, "1.00", StandingOrderFrequency.DAILY, null));
+
+        assertEquals(StandingOrderOutcome.LIMIT_EXCEEDED, batch.executions().get(0).outcome());
+        assertEquals(START.plusDays(1), batch.executions().get(0).nextDueAt());
+        assertTrue(batch.postings().isEmpty());
+        assertTrue(batch.changedAccounts().isEmpty());
+    }
+
+    @Test
+    void orderOfMissingAccountIsCancelled() {
+        StandingOrderBatch batch = new StandingOrderBatch(Map.of(), EXECUTED_AT, (iban, amount) -> { });
+
+        batch.execute(order(1, TransactionType.DEPOSIT, "1.00", StandingOrderFrequency.DAILY, null));
+
+        assertEquals(StandingOrderOutcome.ACCOUNT_NOT_FOUND, batch.executions().get(0).outcome());
+        assertEquals(StandingOrderStatus.CANCELLED, batch.executions().get(0).status());
+    }
+
+    @Test
+    void heldFundsAreNotAvailableToWithdrawals() {
+        StandingOrderBatch batch = new StandingOrderBatch(
+                Map.of(7L, new LockedAccount(7, IBAN, new BigDecimal("100.00"), new BigDecimal("60.00"), 1, null)),
+                EXECUTED_AT, (iban, amount) -> { });
+
+        batch.execute(order(1, TransactionType.WITHDRAWAL, "50.00", StandingOrderFrequency.MONTHLY, null));
+        batch.execute(order(2, TransactionType.WITHDRAWAL, "40.00", StandingOrderFrequency.MONTHLY, null));
+
+        assertEquals(List.of(StandingOrderOutcome.INSUFFICIENT_FUNDS, StandingOrderOutcome.POSTED),
+                batch.executions().stream().map(StandingOrderExecution::outcome).toList());
+        assertEquals(new BigDecimal("60.00"), batch.changedAccounts().get(0).balance());
+        assertEquals(new BigDecimal("60.00"), batch.changedAccounts().get(0).heldAmount());
+    }
+
+    private static StandingOrderBatch batch(BigDecimal balance) {
+        return new StandingOrderBatch(Map.of(7L, new LockedAccount(7, IBAN, balance, BigDecimal.ZERO, 1, null)),
+                EXECUTED_AT, (iban, amount) -> { });
+    }
+
+    private static DueStandingOrder order(long id, TransactionType type, String amount, StandingOrderFrequency frequency,
+                                          LocalDateTime endAt) {
+        return new DueStandingOrder(id, 7, type, new BigDecimal(amount), frequency, START, endAt, null, START, 0);
+    }
+}
@@ -0,0 +1,83 @@
+package com.cobank.service.standingorder;
+
+import com.cobank.api.dto.StandingOrderFrequency;
+import com.cobank.api.dto.StandingOrderOutcome;
+import com.cobank.api.dto.TransactionType;
+import com.cobank.repository.StandingOrderRepository;
+import com.cobank.service.limits.WithdrawalLimitService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StandingOrderSchedulerTest {
+
+    private static final String IBAN = "NL00COOP0000000007";
+    private static final LocalDateTime OLDEST_DUE = LocalDateTime.of(2025, 1, 31, 0, 0, 10);
+    private static final LocalDateTime NEXT_DUE = LocalDateTime.of(2025, 1, 31, 0, 5);
+
+    @Mock
+    private StandingOrderRepository standingOrderRepository;
+
+    @Mock
+    private WithdrawalLimitService withdrawalLimitService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StandingOrderScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        scheduler = new StandingOrderScheduler(standingOrderRepository, withdrawalLimitService, eventPublisher,
+                transactionManager, new SimpleMeterRegistry(), 1, 500, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void executeDue_ShouldMoveOnToTheNextBucket_WhenTheOldestIsClaimedByAnotherNode() {
+        LocalDateTime oldestBucketEnd = LocalDateTime.of(2025, 1, 31, 0, 1);
+        LocalDateTime nextBucketEnd = LocalDateTime.of(2025, 1, 31, 0, 6);
+        when(standingOrderRepository.findOldestDue(eq(0), eq(1), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(OLDEST_DUE));
+        when(standingOrderRepository.claimDue(eq(0), eq(1), any(LocalDateTime.class), eq(oldestBucketEnd), eq(500)))
+                .thenReturn(List.of());
+        when(standingOrderRepository.findNextDue(eq(0), eq(1), eq(oldestBucketEnd), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(NEXT_DUE));
+        when(standingOrderRepository.claimDue(eq(0), eq(1), any(LocalDateTime.class), eq(nextBucketEnd), eq(500)))
+                .thenReturn(List.of(new DueStandingOrder(1, 7, TransactionType.DEPOSIT, new BigDecimal("25.00"),
+                        StandingOrderFrequency.MONTHLY, NEXT_DUE, null, null, NEXT_DUE, 0)), List.of());
+        when(standingOrderRepository.lockAccounts(anyList()))
+                .thenReturn(List.of(new LockedAccount(7, IBAN, new BigDecimal("100.00"), BigDecimal.ZERO, 1, null)));
+
+        scheduler.executeDue();
+
+        verify(standingOrderRepository).saveExecutions(argThat(executions -> executions.size() == 1
+                && executions.get(0).outcome() == StandingOrderOutcome.POSTED));
+    }
+}
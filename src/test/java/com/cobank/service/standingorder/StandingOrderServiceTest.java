@@ -0,0 +1,53 @@
+package com.cobank.service.standingorder;
+
+import com.cobank.api.dto.StandingOrderFrequency;
+import com.cobank.api.dto.StandingOrderRequest;
+import com.cobank.api.dto.TransactionType;
+import com.cobank.repository.StandingOrderRepository;
+import com.cobank.service.iban.IbanService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StandingOrderServiceTest {
+
+    private static final String IBAN = "NL00COOP0000000007";
+
+    @InjectMocks
+    private StandingOrderService standingOrderService;
+
+    @Mock
+    private StandingOrderRepository standingOrderRepository;
+
+    @Mock
+    private IbanService ibanService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void scheduleStandingOrder_ShouldReturnEmpty_WhenTheIbanHasNoAccount() {
+        StandingOrderRequest request = new StandingOrderRequest(IBAN, TransactionType.DEPOSIT, new BigDecimal("10.00"),
+                StandingOrderFrequency.MONTHLY, null, null, null);
+        when(ibanService.findAccountKey(IBAN)).thenReturn(Optional.of(7L));
+        when(standingOrderRepository.insert(eq(7L), eq(request), any())).thenReturn(Optional.empty());
+
+        assertTrue(standingOrderService.scheduleStandingOrder(request).isEmpty());
+        verify(standingOrderRepository, never()).findById(anyLong());
+    }
+}
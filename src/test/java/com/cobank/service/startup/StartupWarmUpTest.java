@@ -0,0 +1,34 @@
+package com.cobank.service.startup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupWarmUpTest {
+
+    @Test
+    void warmUpAccountNumber_ShouldPickAmongTheHighestNumbers() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1_000; i++) {
+            long number = StartupWarmUp.warmUpAccountNumber(10, random);
+            assertTrue(number > 9_999_999_999L - StartupWarmUp.WARM_UP_ACCOUNTS && number <= 9_999_999_999L);
+        }
+    }
+
+    @Test
+    void warmUpAccountNumber_ShouldKeepToTheUpperHalf_WhenAccountNumbersAreShort() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1_000; i++) {
+            long number = StartupWarmUp.warmUpAccountNumber(3, random);
+            assertTrue(number > 499 && number <= 999, () -> number + " is not in the upper half");
+        }
+    }
+
+    @Test
+    void warmUpAccountNumber_ShouldDifferBetweenNodes() {
+        assertNotEquals(StartupWarmUp.warmUpAccountNumber(10, new Random(1)),
+                StartupWarmUp.warmUpAccountNumber(10, new Random(2)));
+    }
+}
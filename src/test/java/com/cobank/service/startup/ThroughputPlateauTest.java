@@ -0,0 +1,45 @@
+package com.cobank.service.startup;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThroughputPlateauTest {
+
+    @Test
+    void reportsPlateauAfterWindowsWithoutSignificantGain() {
+        ThroughputPlateau plateau = new ThroughputPlateau(2, 0.05);
+
+        assertFalse(plateau.record(100, Duration.ofSeconds(5)));
+        assertFalse(plateau.record(400, Duration.ofSeconds(6)));
+        assertFalse(plateau.record(410, Duration.ofSeconds(7)));
+        assertTrue(plateau.record(390, Duration.ofSeconds(8)));
+
+        assertEquals(410, plateau.peakThroughput());
+        assertEquals(Duration.ofSeconds(6), plateau.peakAt());
+    }
+
+    @Test
+    void significantGainRestartsTheCount() {
+        ThroughputPlateau plateau = new ThroughputPlateau(2, 0.05);
+
+        plateau.record(100, Duration.ofSeconds(1));
+        assertFalse(plateau.record(101, Duration.ofSeconds(2)));
+        assertFalse(plateau.record(200, Duration.ofSeconds(3)));
+        assertFalse(plateau.record(200, Duration.ofSeconds(4)));
+        assertTrue(plateau.record(200, Duration.ofSeconds(5)));
+
+        assertEquals(Duration.ofSeconds(3), plateau.peakAt());
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new ThroughputPlateau(0, 0.05));
+        assertThrows(IllegalArgumentException.class, () -> new ThroughputPlateau(3, -0.1));
+    }
+}
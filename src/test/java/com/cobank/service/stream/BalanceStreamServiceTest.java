@@ -0,0 +1,95 @@
+package com.cobank.service.stream;
+
+import com.cobank.api.dto.BalanceSnapshot;
+import com.cobank.api.dto.FetchBalanceResponse;
+import com.cobank.api.dto.TransactionType;
+import com.cobank.service.FetchBalanceSnapshotUseCase;
+import com.cobank.service.transaction.TransactionPostedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BalanceStreamServiceTest {
+
+    private final String iban = "NL00COOP1234567890";
+
+    private FetchBalanceSnapshotUseCase fetchBalanceSnapshotUseCase;
+    private DispatchLanes balanceStreamLanes;
+    private BalanceStreamService balanceStreamService;
+
+    @BeforeEach
+    void setUp() {
+        fetchBalanceSnapshotUseCase = mock(FetchBalanceSnapshotUseCase.class);
+        balanceStreamLanes = mock(DispatchLanes.class);
+        balanceStreamService = new BalanceStreamService(fetchBalanceSnapshotUseCase, balanceStreamLanes,
+                new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), 2, 3);
+        when(fetchBalanceSnapshotUseCase.getBalanceSnapshot(anyString()))
+                .thenReturn(Optional.of(new BalanceSnapshot(new FetchBalanceResponse(iban, BigDecimal.TEN), 4)));
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(balanceStreamLanes).execute(anyString(), any(Runnable.class));
+    }
+
+    @Test
+    void subscribe_ShouldSendSnapshotAndRegister() {
+        assertTrue(balanceStreamService.subscribe(Set.of(iban)).isPresent());
+
+        assertEquals(1, balanceStreamService.subscriptionCount());
+        verify(fetchBalanceSnapshotUseCase).getBalanceSnapshot(iban);
+    }
+
+    @Test
+    void subscribe_ShouldReturnEmpty_WhenNodeIsFull() {
+        balanceStreamService.subscribe(Set.of(iban));
+        balanceStreamService.subscribe(Set.of(iban));
+
+        assertTrue(balanceStreamService.subscribe(Set.of(iban)).isEmpty());
+        assertEquals(2, balanceStreamService.subscriptionCount());
+    }
+
+    @Test
+    void subscribe_ShouldRejectEmptyOrOversizedIbanSets() {
+        assertThrows(IllegalArgumentException.class, () -> balanceStreamService.subscribe(Set.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> balanceStreamService.subscribe(Set.of("A", "B", "C", "D")));
+        assertEquals(0, balanceStreamService.subscriptionCount());
+    }
+
+    @Test
+    void on_ShouldPushWithoutDroppingSubscribers() {
+        balanceStreamService.subscribe(Set.of(iban));
+
+        assertDoesNotThrow(() -> balanceStreamService.on(new TransactionPostedEvent(UUID.randomUUID(),
+                "NL00COOP0000000001", TransactionType.DEPOSIT, BigDecimal.ONE, BigDecimal.ONE,
+                LocalDateTime.now(), "DEPOSIT transaction of 1.00", 1)));
+        assertDoesNotThrow(() -> balanceStreamService.on(new TransactionPostedEvent(UUID.randomUUID(),
+                iban, TransactionType.DEPOSIT, BigDecimal.ONE, BigDecimal.valueOf(11), LocalDateTime.now(),
+                "DEPOSIT transaction of 1.00", 5)));
+        assertEquals(1, balanceStreamService.subscriptionCount());
+    }
+
+    @Test
+    void on_ShouldDispatchInTheLaneOfTheAccount() {
+        balanceStreamService.on(new TransactionPostedEvent(UUID.randomUUID(), iban, TransactionType.DEPOSIT,
+                BigDecimal.ONE, BigDecimal.valueOf(11), LocalDateTime.now(), "DEPOSIT transaction of 1.00", 5));
+
+        verify(balanceStreamLanes).execute(eq(iban), any(Runnable.class));
+    }
+}
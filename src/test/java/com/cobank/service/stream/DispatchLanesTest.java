@@ -0,0 +1,71 @@
+package com.cobank.service.stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DispatchLanesTest {
+
+    private final DispatchLanes lanes = new DispatchLanes("test", 4, 10_000);
+
+    @AfterEach
+    void tearDown() {
+        lanes.shutdown();
+    }
+
+    @Test
+    void execute_ShouldRunTasksOfAKeyInSubmissionOrder() throws Exception {
+        Map<String, List<Integer>> executed = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(8 * 500);
+        for (int task = 0; task < 500; task++) {
+            for (int key = 0; key < 8; key++) {
+                String iban = "NL00COOP000000000" + key;
+                int sequence = task;
+                lanes.execute(iban, () -> {
+                    executed.computeIfAbsent(iban, k -> Collections.synchronizedList(new ArrayList<>())).add(sequence);
+                    done.countDown();
+                });
+            }
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        List<Integer> inOrder = IntStream.range(0, 500).boxed().toList();
+        executed.values().forEach(sequences -> assertEquals(inOrder, sequences));
+    }
+
+    @Test
+    void execute_ShouldDropTasks_WhenLaneIsFull() throws Exception {
+        DispatchLanes single = new DispatchLanes("full", 1, 1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        try {
+            single.execute("a", () -> awaitQuietly(blocked));
+            Thread.sleep(100);
+            single.execute("a", () -> executed.add(1));
+            assertDoesNotThrow(() -> single.execute("a", () -> executed.add(2)));
+            blocked.countDown();
+            Thread.sleep(100);
+            assertEquals(List.of(1), executed);
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.cobank.service.transaction;
+
+import com.cobank.api.dto.TransactionHistoryResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class HistoryPageCacheTest {
+
+    private static final String IBAN = "NL00COOP0000000001";
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    private final HistoryPageCache cache = new HistoryPageCache(new ConcurrentMapCacheManager());
+
+    @Test
+    void aPageReadBeforeAPostingIsNotServedForTheNewVersion() throws Exception {
+        AtomicLong version = new AtomicLong(1);
+        CountDownLatch missed = new CountDownLatch(1);
+        CountDownLatch posted = new CountDownLatch(1);
+        Page<TransactionHistoryResponse> beforePosting = page();
+        Page<TransactionHistoryResponse> afterPosting = page();
+
+        // The slow reader misses at version 1 and puts its page only after the posting committed
+        CompletableFuture<Page<TransactionHistoryResponse>> slowReader = CompletableFuture.supplyAsync(
+                () -> cache.get(IBAN, version.get(), FIRST_PAGE, () -> {
+                    missed.countDown();
+                    await(posted);
+                    return beforePosting;
+                }));
+        missed.await(10, TimeUnit.SECONDS);
+        version.set(2);
+        Page<TransactionHistoryResponse> fresh = cache.get(IBAN, version.get(), FIRST_PAGE, () -> afterPosting);
+        posted.countDown();
+
+        assertSame(beforePosting, slowReader.get(10, TimeUnit.SECONDS));
+        assertSame(afterPosting, fresh);
+        assertSame(afterPosting, cache.get(IBAN, version.get(), FIRST_PAGE, HistoryPageCacheTest::page));
+    }
+
+    @Test
+    void aNewVersionDropsThePagesOfOlderVersions() {
+        Page<TransactionHistoryResponse> first = page();
+        cache.get(IBAN, 1, FIRST_PAGE, () -> first);
+        cache.get(IBAN, 2, FIRST_PAGE, HistoryPageCacheTest::page);
+
+        Page<TransactionHistoryResponse> reloaded = page();
+        assertSame(reloaded, cache.get(IBAN, 1, FIRST_PAGE, () -> reloaded));
+    }
+
+    @Test
+    void evictDropsEveryPageOfTheAccountOnly() {
+        Page<TransactionHistoryResponse> other = page();
+        cache.get(IBAN, 1, FIRST_PAGE, HistoryPageCacheTest::page);
+        cache.get("NL00COOP0000000002", 1, FIRST_PAGE, () -> other);
+
+        cache.evict(IBAN);
+
+        Page<TransactionHistoryResponse> reloaded = page();
+        assertSame(reloaded, cache.get(IBAN, 1, FIRST_PAGE, () -> reloaded));
+        assertSame(other, cache.get("NL00COOP0000000002", 1, FIRST_PAGE, HistoryPageCacheTest::page));
+    }
+
+    private static Page<TransactionHistoryResponse> page() {
+        return new PageImpl<>(List.of(), FIRST_PAGE, 0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -124,7 +124,7 @@ class TransactionServiceTest {
         assertTrue(response.isPresent());
         assertEquals(iban, response.get().iban());
         assertEquals(0, BigDecimal.valueOf(-1).compareTo(response.get().newBalance()));
-        assertEquals("Invalid transaction amount", response.get().description());
+        assertEquals("Transaction amount must be positive.", response.get().description());
 
         assertEquals(0, transactionHistoryRepository.count());
     }
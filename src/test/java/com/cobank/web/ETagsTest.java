@@ -0,0 +1,42 @@
+package com.cobank.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    @Test
+    void of_ShouldJoinPartsIntoStrongTag() {
+        assertEquals("\"7-0-10\"", ETags.of("7", "0", "10"));
+    }
+
+    @Test
+    void digest_ShouldTellValuesApart_AndIgnoreTrailingZeros() {
+        assertEquals(ETags.digest(null, new BigDecimal("10.00")), ETags.digest(null, new BigDecimal("10")));
+        assertNotEquals(ETags.digest("ab", "c"), ETags.digest("a", "bc"));
+        assertNotEquals(ETags.digest("a", null), ETags.digest(null, "a"));
+        assertNotEquals(ETags.digest(new BigDecimal("10")), ETags.digest(new BigDecimal("100")));
+    }
+
+    @Test
+    void matches_ShouldAcceptListedWeakAndWildcardTags() {
+        String etag = ETags.of("7");
+
+        assertTrue(ETags.matches("\"7\"", etag));
+        assertTrue(ETags.matches("\"6\", W/\"7\"", etag));
+        assertTrue(ETags.matches("*", etag));
+    }
+
+    @Test
+    void matches_ShouldRejectMissingOrOutdatedTags() {
+        String etag = ETags.of("7");
+
+        assertFalse(ETags.matches(null, etag));
+        assertFalse(ETags.matches("", etag));
+        assertFalse(ETags.matches("\"6\"", etag));
+        assertFalse(ETags.matches("\"7-0-10\"", etag));
+    }
+}